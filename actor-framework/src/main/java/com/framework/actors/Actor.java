@@ -29,11 +29,45 @@ public interface Actor {
     default void postStop(ActorContext ctx) throws Exception {}
 
     /**
-     * Appelée lorsqu’une exception est levée pendant le traitement d’un message.
-     * Permet de définir la stratégie de supervision à appliquer
-     * (ex: RESTART, STOP, RESUME).
+     * Appelée lorsqu’une exception est levée pendant le traitement d’un message
+     * (message null si l'échec vient de preStart lors d'un redémarrage).
+     * Permet de définir la stratégie de supervision à appliquer (ex: RESTART, STOP, RESUME).
+     * Par défaut ESCALATE : le parent décide (supervisorStrategy) ; sans parent, l'acteur redémarre.
      */
     default SupervisionDirective onFailure(Throwable cause, Message message) {
+        return SupervisionDirective.ESCALATE;
+    }
+
+    /**
+     * Stratégie de supervision appliquée aux enfants (créés via ctx.actorOf) dont l'échec est escaladé.
+     * Appelée sur le thread de l'enfant en échec : la décision ne doit pas dépendre de l'état de l'acteur.
+     * ESCALATE : le parent se considère lui-même en échec et remonte à son propre parent.
+     */
+    default SupervisionDirective supervisorStrategy(ActorRef child, Throwable cause) {
         return SupervisionDirective.RESTART;
     }
+
+    /**
+     * Répartition des messages entre les voies de la mailbox (SYSTEM, CONTROL, BULK).
+     * Lue une fois à l'enregistrement de l'acteur ; par défaut tout passe en BULK.
+     */
+    default LanePolicy lanePolicy() {
+        return LanePolicy.defaults();
+    }
+
+    /**
+     * Groupe d'ordonnancement partagé avec d'autres acteurs (ex: tous les acteurs d'une room).
+     * Le temps CPU est réparti équitablement entre groupes ; null : l'acteur forme son propre groupe.
+     * Lu une fois à l'enregistrement, après preStart().
+     */
+    default String schedulingGroup() {
+        return null;
+    }
+
+    /**
+     * Poids du groupe d'ordonnancement : part relative du temps CPU quand le pool est saturé.
+     */
+    default int schedulingWeight() {
+        return 1;
+    }
 }
@@ -0,0 +1,55 @@
+package com.framework.actors;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Acteur enregistré dans le dispatcher local : instance, contexte, mailbox et groupe d'ordonnancement.
+ * Une cellule est au plus une fois dans la file du FairScheduler (scheduled), ce qui garantit
+ * qu'un seul thread du pool traite ses messages à un instant donné.
+ */
+final class ActorCell {
+
+    final String path;
+    final Actor actor;
+    final ActorContext context;
+    final Mailbox mailbox;
+    final FairScheduler.Group group;
+
+    // Présente dans la file d'exécution ou en cours de traitement
+    final AtomicBoolean scheduled = new AtomicBoolean();
+
+    // Désenregistrée : plus aucun message traité
+    volatile boolean stopped;
+
+    // Arrêt à finaliser sur la cellule (dead letters, postStop), puis terminated complété
+    volatile boolean terminating;
+    final CompletableFuture<Void> terminated = new CompletableFuture<>();
+
+    // Supervision : suspendue pendant un backoff, redémarrage à effectuer au prochain passage
+    volatile boolean suspended;
+    volatile boolean restartPending;
+
+    // Redémarrages dans la fenêtre courante (protégés par le moniteur de la cellule, voir Supervisor)
+    int restarts;
+    long restartWindowStart;
+
+    ActorCell(String path, Actor actor, ActorContext context, Mailbox mailbox, FairScheduler.Group group) {
+        this.path = path;
+        this.actor = actor;
+        this.context = context;
+        this.mailbox = mailbox;
+        this.group = group;
+    }
+
+    /**
+     * Doit repasser dans la file d'exécution : messages à traiter (ou à envoyer en dead letters si arrêtée),
+     * arrêt à finaliser, ou redémarrage en attente. Rien tant qu'elle est suspendue.
+     */
+    boolean hasWork() {
+        if (stopped) {
+            return (terminating && !terminated.isDone()) || !mailbox.isEmpty();
+        }
+        return !suspended && (restartPending || !mailbox.isEmpty());
+    }
+}
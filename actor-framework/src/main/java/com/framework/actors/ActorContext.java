@@ -1,5 +1,7 @@
 package com.framework.actors;
 
+import java.util.concurrent.ScheduledFuture;
+
 /**
  * Contexte fourni à un acteur pour interagir avec le système d’acteurs.
  * Il permet d’envoyer des messages, de créer ou arrêter des acteurs,
@@ -24,7 +26,7 @@ public interface ActorContext {
     ActorRef sender();
 
     /**
-     * Crée un acteur enfant avec le nom donné.
+     * Crée un acteur enfant avec le nom donné (arrêté avec l'acteur courant, avant lui).
      */
     ActorRef actorOf(Class<? extends Actor> actorClass, String name);
 
@@ -38,6 +40,26 @@ public interface ActorContext {
      */
     void stop(ActorRef ref);
 
+    /**
+     * Observe un acteur local : l'acteur courant recevra ActorSystem.TERMINATED (payload = path) à son arrêt.
+     */
+    void watch(ActorRef ref);
+
+    /**
+     * Cesse d'observer un acteur.
+     */
+    void unwatch(ActorRef ref);
+
+    /**
+     * Envoie message à l'acteur courant après delayMs. Annulé automatiquement à l'arrêt de l'acteur.
+     */
+    ScheduledFuture<?> scheduleOnce(long delayMs, Message message);
+
+    /**
+     * Envoie message à l'acteur courant toutes les periodMs. Annulé automatiquement à l'arrêt de l'acteur.
+     */
+    ScheduledFuture<?> scheduleAtFixedRate(long initialDelayMs, long periodMs, Message message);
+
     /**
      * Retourne le système d’acteurs.
      */
@@ -1,5 +1,7 @@
 package com.framework.actors;
 
+import java.util.concurrent.ScheduledFuture;
+
 class ActorContextImpl implements ActorContext {
     private final ActorRef self;
     private final ActorSystem system;
@@ -28,7 +30,7 @@ class ActorContextImpl implements ActorContext {
 
     @Override
     public ActorRef actorOf(Class<? extends Actor> actorClass, String name) {
-        return system.actorOf(actorClass, name);
+        return system.actorOf(actorClass, name, self);
     }
 
     @Override
@@ -41,6 +43,26 @@ class ActorContextImpl implements ActorContext {
         system.stop(ref);
     }
 
+    @Override
+    public void watch(ActorRef ref) {
+        system.watch(self, ref);
+    }
+
+    @Override
+    public void unwatch(ActorRef ref) {
+        system.unwatch(self, ref);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleOnce(long delayMs, Message message) {
+        return system.scheduleOnce(self, delayMs, message);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(long initialDelayMs, long periodMs, Message message) {
+        return system.scheduleAtFixedRate(self, initialDelayMs, periodMs, message);
+    }
+
     @Override
     public ActorSystem system() {
         return system;
@@ -25,4 +25,20 @@ public interface ActorRef {
      * @param sender  référence de l’acteur expéditeur (peut être null)
      */
     void tell(Message message, ActorRef sender);
+
+    /**
+     * Nombre approximatif de messages en attente dans la mailbox.
+     * 0 si l'information n'est pas disponible (acteur distant).
+     */
+    default int mailboxDepth() {
+        return 0;
+    }
+
+    /**
+     * Âge approximatif (ms) du plus ancien message en attente dans la mailbox.
+     * 0 si la mailbox est vide ou si l'information n'est pas disponible (acteur distant).
+     */
+    default long oldestMessageAgeMs() {
+        return 0;
+    }
 }
@@ -5,8 +5,16 @@ import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Le système d’acteurs est responsable de :
@@ -31,26 +39,85 @@ public class ActorSystem implements AutoCloseable {
     // Registre des acteurs locaux (path -> ActorRef)
     private final Map<String, ActorRef> actors = new ConcurrentHashMap<>();
 
+    // Numérotation des destinataires temporaires créés par ask()
+    private final AtomicLong askCounter = new AtomicLong();
+
+    /**
+     * Type du message reçu par un observateur (ctx.watch) quand l'acteur observé s'arrête ; payload = path de l'acteur.
+     */
+    public static final String TERMINATED = "TERMINATED";
+
+    // Hiérarchie : parent -> enfants (créés via ctx.actorOf), et enfant -> parent
+    private final Map<String, Set<String>> children = new ConcurrentHashMap<>();
+    private final Map<String, String> parents = new ConcurrentHashMap<>();
+
+    // Observation : acteur observé -> observateurs, et observateur -> acteurs observés
+    private final Map<String, Set<String>> watchers = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> watching = new ConcurrentHashMap<>();
+
+    // Fin de vie attendue hors acteurs (controllers, factories) : path -> future complété à l'arrêt
+    private final Map<String, CompletableFuture<Void>> terminations = new ConcurrentHashMap<>();
+
+    // Arrêts en cours (désenregistrés, postStop pas encore exécuté) : path -> future complété à la fin
+    private final Map<String, CompletableFuture<Void>> stopping = new ConcurrentHashMap<>();
+
+    // Timers des acteurs : un seul thread partagé, timers annulés à l'arrêt de l'acteur
+    private final ScheduledExecutorService timerService = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "actor-timers");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Map<String, Set<ScheduledFuture<?>>> timers = new ConcurrentHashMap<>();
+
     /**
      * Méthode de fabrique pour créer un ActorSystem.
      */
     public static ActorSystem create(String serviceName, RabbitTemplate rabbitTemplate) {
-        return new ActorSystem(serviceName, rabbitTemplate);
+        return create(serviceName, rabbitTemplate, LocalDispatcher.DEFAULT_THREADS);
+    }
+
+    /**
+     * Variante avec la taille du pool de threads partagé par les acteurs locaux.
+     */
+    public static ActorSystem create(String serviceName, RabbitTemplate rabbitTemplate, int dispatcherThreads) {
+        return new ActorSystem(serviceName, rabbitTemplate, dispatcherThreads);
+    }
+
+    /**
+     * Système sans transport RabbitMQ (tests) : les messages vers un autre service partent en dead letters.
+     */
+    static ActorSystem local(String serviceName, int dispatcherThreads) {
+        return new ActorSystem(serviceName, null, dispatcherThreads);
     }
 
-    private ActorSystem(String serviceName, RabbitTemplate rabbitTemplate) {
+    private ActorSystem(String serviceName, RabbitTemplate rabbitTemplate, int dispatcherThreads) {
         this.serviceName = serviceName;
-        this.localDispatcher = new LocalDispatcher();
+        this.localDispatcher = new LocalDispatcher(dispatcherThreads);
 
         // Initialisation du dispatcher distant à partir de RabbitMQ
-        ConnectionFactory connectionFactory = rabbitTemplate.getConnectionFactory();
-        this.remoteDispatcher = new RemoteDispatcher(
-                serviceName,
-                rabbitTemplate,
-                connectionFactory,
-                localDispatcher,
-                this
-        );
+        if (rabbitTemplate != null) {
+            ConnectionFactory connectionFactory = rabbitTemplate.getConnectionFactory();
+            this.remoteDispatcher = new RemoteDispatcher(
+                    serviceName,
+                    rabbitTemplate,
+                    connectionFactory,
+                    localDispatcher,
+                    this
+            );
+        } else {
+            this.remoteDispatcher = null;
+        }
+
+        localDispatcher.supervisor().attach(new Supervisor.Hierarchy() {
+            @Override public String parentOf(String path) { return parents.get(path); }
+            @Override public void stop(String path) { ActorSystem.this.stop(new LocalActorRef(path, ActorSystem.this)); }
+            @Override public void stopChildren(String path) { ActorSystem.this.stopChildren(path); }
+            @Override public void cancelTimers(String path) { ActorSystem.this.cancelTimers(path); }
+        });
+
+        // Acteur deadLetters : reçoit les messages non délivrés
+        ActorRef deadLettersRef = actorOf(DeadLetterActor.class, DeadLetterActor.NAME);
+        localDispatcher.deadLetters().attach(deadLettersRef.path());
 
         log.info("Actor system '{}' started", serviceName);
     }
@@ -62,6 +129,14 @@ public class ActorSystem implements AutoCloseable {
      * @param name       nom logique de l’acteur
      */
     public ActorRef actorOf(Class<? extends Actor> actorClass, String name) {
+        return actorOf(actorClass, name, null);
+    }
+
+    /**
+     * Crée un acteur enfant de parent (null : acteur de premier niveau).
+     * Un enfant est arrêté avant son parent.
+     */
+    ActorRef actorOf(Class<? extends Actor> actorClass, String name, ActorRef parent) {
         String fullPath = serviceName + "/" + name;
 
         if (actors.containsKey(fullPath)) {
@@ -86,10 +161,16 @@ public class ActorSystem implements AutoCloseable {
             actors.put(fullPath, ref);
             localDispatcher.register(fullPath, actor, context);
 
+            if (parent != null) {
+                parents.put(fullPath, parent.path());
+                children.computeIfAbsent(parent.path(), k -> ConcurrentHashMap.newKeySet()).add(fullPath);
+            }
+
             log.info("Actor created: {}", fullPath);
             return ref;
 
         } catch (Exception e) {
+            cancelTimers(fullPath);
             log.error("Failed to create actor {}", name, e);
             throw new RuntimeException("Failed to create actor: " + name, e);
         }
@@ -131,21 +212,277 @@ public class ActorSystem implements AutoCloseable {
         if (target instanceof LocalActorRef) {
             localDispatcher.dispatch(target.path(), message, sender);
         } else if (target instanceof RemoteActorRef) {
-            remoteDispatcher.send(target.path(), message, sender);
+            if (remoteDispatcher != null) {
+                remoteDispatcher.send(target.path(), message, sender);
+            } else {
+                localDispatcher.deadLetters().publish(target.path(), message, sender, DeadLetters.Reason.UNKNOWN_TARGET);
+            }
         }
     }
 
     /**
-     * Arrête un acteur local.
+     * Ask pattern utilisable en local comme à distance :
+     * le message part avec un sender temporaire "<service>/ask-<n>", et la première réponse
+     * adressée à ce sender (ctx.sender().tell(...), éventuellement revenue par RabbitMQ) complète le future.
+     * Le future échoue en TimeoutException si rien n'arrive dans le délai.
+     * Sans échéance explicite, le message expire avec le délai : personne n'attendrait plus la réponse.
+     */
+    public CompletableFuture<Message> ask(ActorRef target, Message message, long timeoutMs) {
+        if (message.deadline() == 0) {
+            message = message.expiringIn(timeoutMs);
+        }
+
+        String path = serviceName + "/ask-" + askCounter.incrementAndGet();
+
+        CompletableFuture<Message> reply = new CompletableFuture<>();
+        localDispatcher.registerAsk(path, reply);
+        reply.orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .whenComplete((m, e) -> localDispatcher.cancelAsk(path));
+
+        try {
+            tell(target, message, new LocalActorRef(path, this));
+        } catch (RuntimeException e) {
+            reply.completeExceptionally(e);
+        }
+        return reply;
+    }
+
+    /**
+     * Arrête un acteur local :
+     * 1) plus aucun message traité après celui éventuellement en cours, timers annulés
+     * 2) ses enfants d'abord (récursivement)
+     * 3) finalisation sur la cellule de l'acteur, jamais en concurrence avec son onReceive() :
+     *    messages encore en mailbox en dead letters (STOPPED), puis postStop()
+     * 4) TERMINATED envoyé à ses observateurs (ctx.watch), futures whenTerminated complétés
+     * Les étapes 3 et 4 sont asynchrones ; idempotent : un second stop du même acteur est sans effet.
      */
     public void stop(ActorRef ref) {
         if (ref instanceof LocalActorRef) {
-            localDispatcher.unregister(ref.path());
-            actors.remove(ref.path());
-            log.info("Actor stopped: {}", ref.path());
+            terminate(ref);
+        }
+    }
+
+    private CompletableFuture<Void> terminate(ActorRef ref) {
+        String path = ref.path();
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        Set<String> observers;
+        CompletableFuture<Void> termination;
+
+        // Observateurs de cette incarnation : un acteur recréé au même path (redémarrage du parent) aura les siens
+        synchronized (stopping) {
+            if (actors.remove(path) == null) {
+                return stopping.getOrDefault(path, CompletableFuture.completedFuture(null));
+            }
+            stopping.put(path, done);
+            observers = watchers.remove(path);
+            termination = terminations.remove(path);
+        }
+
+        cancelTimers(path);
+        CompletableFuture<Void> childrenStopped = stopChildren(path);
+
+        String parent = parents.remove(path);
+        if (parent != null) {
+            Set<String> siblings = children.get(parent);
+            if (siblings != null) {
+                siblings.remove(path);
+            }
+        }
+
+        localDispatcher.unregister(path, childrenStopped).whenComplete((ignored, error) -> {
+            stopping.remove(path, done);
+            notifyTerminated(ref, observers);
+            if (termination != null) {
+                termination.complete(null);
+            }
+            done.complete(null);
+            log.info("Actor stopped: {}", path);
+        });
+        return done;
+    }
+
+    private CompletableFuture<Void> stopChildren(String path) {
+        Set<String> kids = children.remove(path);
+        if (kids == null || kids.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.allOf(kids.stream()
+                .map(child -> terminate(new LocalActorRef(child, this)))
+                .toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * watcher recevra TERMINATED (payload = path) quand target s'arrêtera ; immédiatement si target n'existe plus.
+     * Seuls les acteurs locaux peuvent être observés.
+     */
+    void watch(ActorRef watcher, ActorRef target) {
+        if (!(target instanceof LocalActorRef)) {
+            log.warn("Cannot watch non-local actor {}", target.path());
+            return;
+        }
+
+        watchers.computeIfAbsent(target.path(), k -> ConcurrentHashMap.newKeySet()).add(watcher.path());
+        watching.computeIfAbsent(watcher.path(), k -> ConcurrentHashMap.newKeySet()).add(target.path());
+
+        // Arrêté (ou en cours d'arrêt) entre-temps : TERMINATED une fois l'arrêt terminé
+        CompletableFuture<Void> stopped;
+        synchronized (stopping) {
+            if (actors.containsKey(target.path())) {
+                return;
+            }
+            Set<String> set = watchers.get(target.path());
+            if (set == null || !set.remove(watcher.path())) {
+                return;
+            }
+            stopped = stopping.getOrDefault(target.path(), CompletableFuture.completedFuture(null));
+        }
+        stopped.thenRun(() -> localDispatcher.dispatch(watcher.path(), Message.of(TERMINATED, target.path()), target));
+    }
+
+    void unwatch(ActorRef watcher, ActorRef target) {
+        Set<String> set = watchers.get(target.path());
+        if (set != null) {
+            set.remove(watcher.path());
+        }
+        Set<String> targets = watching.get(watcher.path());
+        if (targets != null) {
+            targets.remove(target.path());
+        }
+    }
+
+    /**
+     * Future complété quand l'acteur est arrêté (postStop exécuté) ; immédiatement s'il n'existe plus.
+     */
+    public CompletableFuture<Void> whenTerminated(ActorRef ref) {
+        String path = ref.path();
+        synchronized (stopping) {
+            if (actors.containsKey(path)) {
+                return terminations.computeIfAbsent(path, k -> new CompletableFuture<>());
+            }
+            return stopping.getOrDefault(path, CompletableFuture.completedFuture(null));
+        }
+    }
+
+    private void notifyTerminated(ActorRef ref, Set<String> observers) {
+        String path = ref.path();
+
+        if (observers != null) {
+            observers.forEach(w -> localDispatcher.dispatch(w, Message.of(TERMINATED, path), ref));
+        }
+
+        // L'acteur arrêté n'observe plus personne
+        Set<String> targets = watching.remove(path);
+        if (targets != null) {
+            for (String target : targets) {
+                Set<String> set = watchers.get(target);
+                if (set != null) {
+                    set.remove(path);
+                }
+            }
         }
     }
 
+    /**
+     * Envoie message à self après delayMs (timer partagé, annulé à l'arrêt de l'acteur).
+     */
+    ScheduledFuture<?> scheduleOnce(ActorRef self, long delayMs, Message message) {
+        Set<ScheduledFuture<?>> owned = timers.computeIfAbsent(self.path(), k -> ConcurrentHashMap.newKeySet());
+        CompletableFuture<ScheduledFuture<?>> handle = new CompletableFuture<>();
+        ScheduledFuture<?> future = timerService.schedule(() -> {
+            owned.remove(handle.join());
+            tell(self, message, self);
+        }, delayMs, TimeUnit.MILLISECONDS);
+        handle.complete(future);
+        return track(self.path(), owned, future);
+    }
+
+    /**
+     * Envoie message à self toutes les periodMs (timer partagé, annulé à l'arrêt de l'acteur).
+     */
+    ScheduledFuture<?> scheduleAtFixedRate(ActorRef self, long initialDelayMs, long periodMs, Message message) {
+        Set<ScheduledFuture<?>> owned = timers.computeIfAbsent(self.path(), k -> ConcurrentHashMap.newKeySet());
+        ScheduledFuture<?> future = timerService.scheduleAtFixedRate(
+                () -> tell(self, message, self), initialDelayMs, periodMs, TimeUnit.MILLISECONDS);
+        return track(self.path(), owned, future);
+    }
+
+    private ScheduledFuture<?> track(String path, Set<ScheduledFuture<?>> owned, ScheduledFuture<?> future) {
+        if (!future.isDone()) {
+            owned.add(future);
+        }
+        // Acteur arrêté pendant la programmation (ses timers ont déjà été annulés) : le timer ne doit pas lui survivre
+        if (timers.get(path) != owned) {
+            future.cancel(false);
+        }
+        return future;
+    }
+
+    private void cancelTimers(String path) {
+        Set<ScheduledFuture<?>> owned = timers.remove(path);
+        if (owned != null) {
+            owned.forEach(f -> f.cancel(false));
+        }
+    }
+
+    Supervisor supervisor() {
+        return localDispatcher.supervisor();
+    }
+
+    /**
+     * Nombre de timers actifs (diagnostic).
+     */
+    public int activeTimers() {
+        int total = 0;
+        for (Set<ScheduledFuture<?>> owned : timers.values()) {
+            total += owned.size();
+        }
+        return total;
+    }
+
+    /**
+     * Nombre d'acteurs locaux vivants (deadLetters compris).
+     */
+    public int actorCount() {
+        return actors.size();
+    }
+
+    /**
+     * Profondeur des voies de mailbox (SYSTEM/CONTROL/BULK) de chaque acteur local.
+     */
+    public Map<String, Map<MailboxLane, Integer>> mailboxDepths() {
+        return localDispatcher.mailboxDepths();
+    }
+
+    int mailboxDepth(String path) {
+        return localDispatcher.mailboxDepth(path);
+    }
+
+    long oldestMessageAgeMs(String path) {
+        return localDispatcher.oldestMessageAgeMs(path);
+    }
+
+    /**
+     * Nombre total de messages en attente dans les mailboxes locales.
+     */
+    public int totalMailboxDepth() {
+        return localDispatcher.totalMailboxDepth();
+    }
+
+    /**
+     * Temps CPU consommé par groupe d'ordonnancement (ex: par room).
+     */
+    public List<FairScheduler.GroupStats> schedulerStats() {
+        return localDispatcher.schedulerStats();
+    }
+
+    /**
+     * Messages non délivrés : compteurs par motif et par (path cible, type).
+     * Les plus récents sont consultables via l'acteur "<service>/deadLetters" (GET_DEAD_LETTERS).
+     */
+    public DeadLetters deadLetters() {
+        return localDispatcher.deadLetters();
+    }
+
     public String getServiceName() {
         return serviceName;
     }
@@ -158,8 +495,11 @@ public class ActorSystem implements AutoCloseable {
     @Override
     public void close() {
         log.info("Shutting down actor system '{}'", serviceName);
+        timerService.shutdownNow();
         localDispatcher.shutdown();
-        remoteDispatcher.shutdown();
+        if (remoteDispatcher != null) {
+            remoteDispatcher.shutdown();
+        }
         actors.clear();
     }
 }
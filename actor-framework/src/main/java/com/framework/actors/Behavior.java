@@ -0,0 +1,143 @@
+package com.framework.actors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Comportement typé d'une classe d'acteur : une table de handlers indexée par l'id interné des MessageType.
+ * - construite une fois par classe (champ static), partagée par toutes ses instances
+ * - receive() résout le handler par un accès tableau : ni hachage de chaîne, ni cascade d'equals
+ * - le payload est vérifié contre la classe déclarée avant l'appel : un payload du mauvais type
+ *   lève une IllegalArgumentException explicite (supervisée) au lieu d'un ClassCastException dans le handler
+ *
+ * Usage dans un acteur :
+ *   static final MessageType<AddTrackMsg> ADD_TRACK = MessageType.of("ADD_TRACK", AddTrackMsg.class);
+ *   private static final Behavior<PlaylistActor> BEHAVIOR = Behavior.<PlaylistActor>builder()
+ *           .on(ADD_TRACK, PlaylistActor::handleAddTrack)
+ *           .build();
+ *   public CompletableFuture<Void> onReceive(Message message, ActorContext ctx) {
+ *       return BEHAVIOR.receive(this, message, ctx);
+ *   }
+ */
+public final class Behavior<A> {
+
+    private static final Logger log = LoggerFactory.getLogger(Behavior.class);
+
+    /**
+     * Handler d'un type de message, recevant le payload déjà typé.
+     */
+    @FunctionalInterface
+    public interface Handler<A, P> {
+        void handle(A actor, P payload, ActorContext ctx);
+    }
+
+    /**
+     * Handler recevant le message complet (échéance, sender, clé de conflation...).
+     */
+    @FunctionalInterface
+    public interface MessageHandler<A> {
+        void handle(A actor, Message message, ActorContext ctx);
+    }
+
+    // Un seul des deux handlers est renseigné : payload typé (on) ou message complet (onMessage)
+    private record Route<A>(MessageType<?> type, Handler<A, Object> handler, MessageHandler<A> messageHandler) {}
+
+    // Indexée par MessageType.id() ; null = type non géré
+    private final Route<A>[] routes;
+    private final MessageHandler<A> otherwise;
+
+    private Behavior(Route<A>[] routes, MessageHandler<A> otherwise) {
+        this.routes = routes;
+        this.otherwise = otherwise;
+    }
+
+    public static <A> Builder<A> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Traite un message : handler de son type, ou handler par défaut (warning) si le type n'est pas géré.
+     */
+    public CompletableFuture<Void> receive(A actor, Message message, ActorContext ctx) {
+        // Id 0 (nom non déclaré) : routes[0] est toujours vide, d'où otherwise
+        int id = message.typeId();
+        Route<A> route = id < routes.length ? routes[id] : null;
+
+        if (route == null) {
+            otherwise.handle(actor, message, ctx);
+        } else if (!route.type().accepts(message.payload())) {
+            throw new IllegalArgumentException("Invalid payload for " + route.type() + ": "
+                    + message.payload().getClass().getName());
+        } else if (route.handler() != null) {
+            route.handler().handle(actor, message.payload(), ctx);
+        } else {
+            route.messageHandler().handle(actor, message, ctx);
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Le type de message a-t-il un handler dédié ?
+     */
+    public boolean handles(String messageType) {
+        int id = MessageType.lookupId(messageType);
+        return id < routes.length && routes[id] != null;
+    }
+
+    public static final class Builder<A> {
+        private final List<Route<A>> routes = new ArrayList<>();
+        private MessageHandler<A> otherwise = (actor, message, ctx) ->
+                log.warn("Unhandled message type {} for actor {}", message.type(), ctx.self().path());
+
+        private Builder() {
+        }
+
+        @SuppressWarnings("unchecked")
+        public <P> Builder<A> on(MessageType<P> type, Handler<A, ? super P> handler) {
+            // Payload vérifié par receive() avant l'appel : le handler est rangé tel quel, sans adaptateur
+            return route(new Route<>(type, (Handler<A, Object>) handler, null));
+        }
+
+        /**
+         * Handler recevant le message complet (payload vérifié de la même façon).
+         */
+        public Builder<A> onMessage(MessageType<?> type, MessageHandler<A> handler) {
+            return route(new Route<>(type, null, handler));
+        }
+
+        /**
+         * Handler des types non déclarés (par défaut : un warning).
+         */
+        public Builder<A> otherwise(MessageHandler<A> handler) {
+            this.otherwise = handler;
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        public Behavior<A> build() {
+            int size = 0;
+            for (Route<A> route : routes) {
+                size = Math.max(size, route.type().id() + 1);
+            }
+
+            Route<A>[] table = new Route[size];
+            for (Route<A> route : routes) {
+                int id = route.type().id();
+                if (table[id] != null) {
+                    throw new IllegalStateException("Message type " + route.type().name() + " handled twice");
+                }
+                table[id] = route;
+            }
+            return new Behavior<>(table, otherwise);
+        }
+
+        private Builder<A> route(Route<A> route) {
+            routes.add(route);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.framework.actors;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Acteur "<service>/deadLetters" : reçoit chaque message non délivré (DEAD_LETTER)
+ * et garde les RECENT_MAX plus récents pour inspection.
+ *
+ * Messages :
+ * - DEAD_LETTER (payload DeadLetters.DeadLetter)
+ * - GET_DEAD_LETTERS : payload CompletableFuture (ask local) ou réponse DEAD_LETTERS au sender
+ */
+public class DeadLetterActor implements Actor {
+
+    public static final String NAME = "deadLetters";
+
+    static final int RECENT_MAX = 200;
+
+    private final ArrayDeque<DeadLetters.DeadLetter> recent = new ArrayDeque<>();
+
+    public DeadLetterActor(String name) {
+        // Intentionnellement vide
+    }
+
+    /**
+     * Voies de mailbox : une consultation ne fait pas la queue derrière un afflux de pertes.
+     */
+    @Override
+    public LanePolicy lanePolicy() {
+        return LanePolicy.defaults().control("GET_DEAD_LETTERS");
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<Void> onReceive(Message message, ActorContext ctx) {
+        switch (message.type()) {
+            case "DEAD_LETTER" -> {
+                if (message.payload() instanceof DeadLetters.DeadLetter letter) {
+                    if (recent.size() == RECENT_MAX) {
+                        recent.pollFirst();
+                    }
+                    recent.addLast(letter);
+                }
+            }
+            case "GET_DEAD_LETTERS" -> {
+                List<DeadLetters.DeadLetter> snapshot = new ArrayList<>(recent);
+                if (message.payload() instanceof CompletableFuture<?> future) {
+                    ((CompletableFuture<List<DeadLetters.DeadLetter>>) future).complete(snapshot);
+                } else if (ctx.sender() != null) {
+                    ctx.sender().tell(Message.of("DEAD_LETTERS", snapshot), ctx.self());
+                }
+            }
+            default -> {
+                // Ignoré : l'acteur deadLetters ne produit pas lui-même de dead letter
+            }
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+}
@@ -0,0 +1,146 @@
+package com.framework.actors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dead letters : messages qui n'atteignent jamais onReceive() (échéance dépassée, destinataire inconnu,
+ * ou encore en mailbox quand l'acteur s'arrête).
+ * - comptés par motif, et par (motif, path cible, type de message)
+ * - publiés à l'acteur "<service>/deadLetters" (DeadLetterActor), qui garde les plus récents
+ * - loggués par échantillonnage : au plus une ligne par LOG_INTERVAL_MS, avec le nombre de pertes tues depuis
+ * Un ask local (future en payload) est complété en erreur pour que le demandeur n'attende pas son propre timeout.
+ */
+public class DeadLetters {
+
+    private static final Logger log = LoggerFactory.getLogger(DeadLetters.class);
+
+    public enum Reason {
+        EXPIRED,
+        UNKNOWN_TARGET,
+        STOPPED
+    }
+
+    /**
+     * Message non délivré, tel que publié à l'acteur deadLetters.
+     */
+    public record DeadLetter(String targetPath, String type, String senderPath, Reason reason, long timestamp) {}
+
+    /**
+     * Nombre de pertes pour un couple (path cible, type de message).
+     */
+    public record TargetCount(Reason reason, String targetPath, String type, long count) {}
+
+    private record Key(Reason reason, String targetPath, String type) {}
+
+    static final long LOG_INTERVAL_MS = 1000;
+
+    // Au-delà, les nouveaux couples (path, type) sont regroupés sous OVERFLOW_PATH
+    static final int MAX_TARGETS = 10_000;
+    static final String OVERFLOW_PATH = "*";
+
+    // Au-delà, l'acteur deadLetters n'est plus alimenté (les compteurs restent exacts)
+    static final int SINK_MAX_DEPTH = 1000;
+
+    private final LocalDispatcher dispatcher;
+    private final Map<Reason, LongAdder> counts;
+    private final ConcurrentMap<Key, LongAdder> byTarget = new ConcurrentHashMap<>();
+
+    // Échantillonnage des logs
+    private final AtomicLong nextLogAt = new AtomicLong();
+    private final LongAdder suppressed = new LongAdder();
+
+    // Path de l'acteur deadLetters, null tant qu'il n'est pas créé
+    private volatile String sinkPath;
+
+    DeadLetters(LocalDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+        Map<Reason, LongAdder> map = new EnumMap<>(Reason.class);
+        for (Reason reason : Reason.values()) {
+            map.put(reason, new LongAdder());
+        }
+        this.counts = Collections.unmodifiableMap(map);
+    }
+
+    void attach(String sinkPath) {
+        this.sinkPath = sinkPath;
+    }
+
+    void publish(String targetPath, Message message, ActorRef sender, Reason reason) {
+        counts.get(reason).increment();
+        countTarget(new Key(reason, targetPath, message.type()));
+
+        String senderPath = sender != null ? sender.path() : null;
+        logSampled(targetPath, message.type(), senderPath, reason);
+
+        if (message.payload() instanceof CompletableFuture<?> future) {
+            future.completeExceptionally(reason == Reason.EXPIRED
+                    ? new TimeoutException("Message " + message.type() + " expired before processing")
+                    : new IllegalStateException("No running actor at " + targetPath + " for message " + message.type()));
+        }
+
+        // Pas de republication des pertes de l'acteur deadLetters lui-même
+        String sink = sinkPath;
+        if (sink != null && !sink.equals(targetPath) && dispatcher.mailboxDepth(sink) < SINK_MAX_DEPTH) {
+            DeadLetter letter = new DeadLetter(targetPath, message.type(), senderPath, reason, System.currentTimeMillis());
+            dispatcher.dispatch(sink, Message.of("DEAD_LETTER", letter), null);
+        }
+    }
+
+    public long count(Reason reason) {
+        return counts.get(reason).sum();
+    }
+
+    public Map<Reason, Long> counts() {
+        Map<Reason, Long> snapshot = new EnumMap<>(Reason.class);
+        counts.forEach((reason, adder) -> snapshot.put(reason, adder.sum()));
+        return snapshot;
+    }
+
+    /**
+     * Couples (path cible, type) les plus touchés, par nombre de pertes décroissant.
+     */
+    public List<TargetCount> topTargets(int limit) {
+        List<TargetCount> all = new ArrayList<>(byTarget.size());
+        byTarget.forEach((key, adder) -> all.add(new TargetCount(key.reason(), key.targetPath(), key.type(), adder.sum())));
+        all.sort(Comparator.comparingLong(TargetCount::count).reversed());
+        return all.size() > limit ? new ArrayList<>(all.subList(0, limit)) : all;
+    }
+
+    private void countTarget(Key key) {
+        LongAdder adder = byTarget.get(key);
+        if (adder == null) {
+            if (byTarget.size() >= MAX_TARGETS) {
+                key = new Key(key.reason(), OVERFLOW_PATH, key.type());
+            }
+            adder = byTarget.computeIfAbsent(key, k -> new LongAdder());
+        }
+        adder.increment();
+    }
+
+    private void logSampled(String targetPath, String type, String senderPath, Reason reason) {
+        long now = System.currentTimeMillis();
+        long next = nextLogAt.get();
+        if (now < next || !nextLogAt.compareAndSet(next, now + LOG_INTERVAL_MS)) {
+            suppressed.increment();
+            return;
+        }
+
+        long skipped = suppressed.sumThenReset();
+        log.warn("Dead letter ({}) for {}: type={} sender={} ({} more dropped since last report)",
+                reason, targetPath, type, senderPath, skipped);
+    }
+}
@@ -0,0 +1,224 @@
+package com.framework.actors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Ordonnanceur équitable des acteurs sur un pool de threads partagé (stride scheduling) :
+ * - les acteurs sont regroupés (ex: tous les acteurs d'une room) ; chaque groupe a un poids
+ * - le temps CPU passé dans onReceive est compté au groupe, en temps virtuel : cpu / poids
+ * - un thread libre sert toujours le groupe prêt de plus petit temps virtuel
+ * - un groupe qui redevient actif repart du temps virtuel courant (pas de crédit accumulé en sommeil)
+ * Une room calme attend donc au plus une tranche d'un voisin chargé, quel que soit le nombre de rooms chargées.
+ */
+public final class FairScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(FairScheduler.class);
+
+    // Une cellule traite au plus MAX_BATCH messages ou SLICE_NANOS de CPU avant de rendre la main
+    static final int MAX_BATCH = 16;
+    static final long SLICE_NANOS = 2_000_000L;
+
+    /**
+     * Groupe d'ordonnancement : cellules prêtes (FIFO) et temps virtuel consommé.
+     */
+    static final class Group {
+        final String id;
+        private final long seq;
+        private int weight;
+        private int members;
+        private long vruntime;
+        private long cpuNanos;
+        private final ArrayDeque<ActorCell> runnable = new ArrayDeque<>();
+
+        Group(String id, long seq, int weight) {
+            this.id = id;
+            this.seq = seq;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Consommation d'un groupe (diagnostic).
+     */
+    public record GroupStats(String group, int weight, int members, long cpuNanos, long vruntime) {}
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME = THREADS.isCurrentThreadCpuTimeSupported();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition ready = lock.newCondition();
+
+    // Groupes ayant au moins une cellule prête, triés par temps virtuel
+    private final TreeSet<Group> readyGroups = new TreeSet<>(
+            Comparator.<Group>comparingLong(g -> g.vruntime).thenComparingLong(g -> g.seq));
+    private final Map<String, Group> groups = new HashMap<>();
+
+    // Temps virtuel du dernier groupe servi : plancher pour un groupe qui se réveille
+    private long clock;
+    private long nextSeq;
+
+    private final Consumer<ActorCell> runner;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    /**
+     * @param threads taille du pool partagé
+     * @param runner  traitement d'une tranche de messages d'une cellule (appelé hors verrou)
+     */
+    FairScheduler(int threads, Consumer<ActorCell> runner) {
+        this.runner = runner;
+        for (int i = 0; i < threads; i++) {
+            Thread t = new Thread(this::workLoop, "actor-dispatcher-" + i);
+            t.setDaemon(true);
+            workers.add(t);
+            t.start();
+        }
+    }
+
+    /**
+     * Rattache un acteur à son groupe (créé au besoin) ; le poids du groupe est le plus grand déclaré.
+     */
+    Group join(String groupId, int weight) {
+        lock.lock();
+        try {
+            Group group = groups.computeIfAbsent(groupId, id -> new Group(id, nextSeq++, weight));
+            group.weight = Math.max(group.weight, Math.max(1, weight));
+            group.members++;
+            return group;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void leave(Group group) {
+        lock.lock();
+        try {
+            if (--group.members <= 0) {
+                groups.remove(group.id, group);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Rend une cellule exécutable si elle ne l'est pas déjà (appelé après chaque dépôt en mailbox).
+     */
+    void schedule(ActorCell cell) {
+        if (cell.scheduled.compareAndSet(false, true)) {
+            enqueue(cell);
+        }
+    }
+
+    List<GroupStats> stats() {
+        lock.lock();
+        try {
+            List<GroupStats> stats = new ArrayList<>(groups.size());
+            groups.values().forEach(g -> stats.add(new GroupStats(g.id, g.weight, g.members, g.cpuNanos, g.vruntime)));
+            return stats;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void shutdown() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+    }
+
+    private void enqueue(ActorCell cell) {
+        lock.lock();
+        try {
+            Group group = cell.group;
+            if (group.runnable.isEmpty()) {
+                // Réveil : pas de crédit accumulé pendant l'inactivité
+                group.vruntime = Math.max(group.vruntime, clock);
+                readyGroups.add(group);
+            }
+            group.runnable.addLast(cell);
+            ready.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ActorCell take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (readyGroups.isEmpty()) {
+                ready.await();
+            }
+
+            Group group = readyGroups.pollFirst();
+            clock = Math.max(clock, group.vruntime);
+            ActorCell cell = group.runnable.pollFirst();
+            if (!group.runnable.isEmpty()) {
+                readyGroups.add(group);
+            }
+            return cell;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Impute le temps consommé au groupe : le temps virtuel avance d'autant moins que le poids est élevé.
+     */
+    private void charge(Group group, long nanos) {
+        lock.lock();
+        try {
+            boolean queued = readyGroups.remove(group);
+            group.cpuNanos += nanos;
+            group.vruntime += nanos / group.weight;
+            if (queued) {
+                readyGroups.add(group);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void workLoop() {
+        while (running) {
+            ActorCell cell;
+            try {
+                cell = take();
+            } catch (InterruptedException e) {
+                break;
+            }
+
+            long start = cpuTime();
+            try {
+                runner.accept(cell);
+            } catch (Throwable t) {
+                log.error("Unexpected error while running actor {}", cell.path, t);
+            }
+            charge(cell.group, Math.max(1, cpuTime() - start));
+
+            // Libère la cellule ; s'il reste du travail (messages arrivés entre-temps, dead letters
+            // d'une cellule arrêtée, redémarrage), elle repart en fin de file
+            cell.scheduled.set(false);
+            if (cell.hasWork()) {
+                schedule(cell);
+            }
+        }
+    }
+
+    static long cpuTime() {
+        return CPU_TIME ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+}
@@ -0,0 +1,46 @@
+package com.framework.actors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Sender d'une demande coalescée dans la mailbox : la réponse est renvoyée à chaque demandeur.
+ */
+class FanOutActorRef implements ActorRef {
+
+    private static final Logger log = LoggerFactory.getLogger(FanOutActorRef.class);
+
+    private final List<ActorRef> targets;
+
+    FanOutActorRef(List<ActorRef> targets) {
+        this.targets = List.copyOf(targets);
+    }
+
+    @Override
+    public String path() {
+        return targets.get(0).path();
+    }
+
+    @Override
+    public boolean isLocal() {
+        return targets.stream().allMatch(ActorRef::isLocal);
+    }
+
+    @Override
+    public void tell(Message message, ActorRef sender) {
+        for (ActorRef target : targets) {
+            try {
+                target.tell(message, sender);
+            } catch (RuntimeException e) {
+                log.warn("Failed to deliver {} to {}", message.type(), target.path(), e);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FanOutActorRef(" + targets + ")";
+    }
+}
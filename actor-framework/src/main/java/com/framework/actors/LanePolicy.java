@@ -0,0 +1,82 @@
+package com.framework.actors;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Répartition des messages d'un acteur entre les voies de sa mailbox, et poids de chaque voie.
+ * La mailbox sert les voies en round-robin pondéré : jusqu'à weight(lane) messages d'une voie
+ * avant de passer à la suivante. Un flot de BULK ne retarde donc un CONTROL que d'un message au plus.
+ * Immuable : chaque méthode retourne une copie.
+ */
+public final class LanePolicy {
+
+    private static final LanePolicy DEFAULTS = new LanePolicy(Map.of(), MailboxLane.BULK, new int[]{8, 4, 1});
+
+    private final Map<String, MailboxLane> lanes;
+    private final MailboxLane defaultLane;
+    private final int[] weights;
+
+    private LanePolicy(Map<String, MailboxLane> lanes, MailboxLane defaultLane, int[] weights) {
+        this.lanes = lanes;
+        this.defaultLane = defaultLane;
+        this.weights = weights;
+    }
+
+    /**
+     * Politique par défaut : tous les messages en BULK (équivalent à une FIFO unique).
+     */
+    public static LanePolicy defaults() {
+        return DEFAULTS;
+    }
+
+    public LanePolicy system(String... types) {
+        return route(MailboxLane.SYSTEM, types);
+    }
+
+    public LanePolicy control(String... types) {
+        return route(MailboxLane.CONTROL, types);
+    }
+
+    public LanePolicy bulk(String... types) {
+        return route(MailboxLane.BULK, types);
+    }
+
+    /**
+     * Voie des types non listés.
+     */
+    public LanePolicy otherwise(MailboxLane lane) {
+        return new LanePolicy(lanes, lane, weights);
+    }
+
+    /**
+     * Poids du round-robin (nombre de messages consécutifs servis par voie, au moins 1).
+     */
+    public LanePolicy weights(int system, int control, int bulk) {
+        return new LanePolicy(lanes, defaultLane, new int[]{
+                Math.max(1, system), Math.max(1, control), Math.max(1, bulk)
+        });
+    }
+
+    public MailboxLane laneOf(String messageType) {
+        return lanes.getOrDefault(messageType, defaultLane);
+    }
+
+    public int weight(MailboxLane lane) {
+        return weights[lane.ordinal()];
+    }
+
+    private LanePolicy route(MailboxLane lane, String... types) {
+        Map<String, MailboxLane> copy = new HashMap<>(lanes);
+        for (String type : types) {
+            copy.put(type, lane);
+        }
+        return new LanePolicy(Map.copyOf(copy), defaultLane, weights);
+    }
+
+    @Override
+    public String toString() {
+        return "LanePolicy{lanes=" + lanes + ", default=" + defaultLane + ", weights=" + Arrays.toString(weights) + "}";
+    }
+}
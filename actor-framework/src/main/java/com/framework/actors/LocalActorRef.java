@@ -24,6 +24,16 @@ class LocalActorRef implements ActorRef {
         system.tell(this, message, sender);
     }
 
+    @Override
+    public int mailboxDepth() {
+        return system.mailboxDepth(path);
+    }
+
+    @Override
+    public long oldestMessageAgeMs() {
+        return system.oldestMessageAgeMs(path);
+    }
+
     @Override
     public String toString() {
         return "LocalActorRef(" + path + ")";
@@ -3,181 +3,281 @@ package com.framework.actors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Dispatcher local :
  * - route les messages vers les acteurs locaux
- * - chaque acteur possède une mailbox et un thread dédié (single-thread executor)
+ * - chaque acteur possède une mailbox ; les messages sont traités par un pool de threads partagé,
+ *   un seul thread à la fois par acteur, avec un partage équitable du CPU entre groupes d'acteurs (FairScheduler)
  */
 public class LocalDispatcher {
 
     private static final Logger log = LoggerFactory.getLogger(LocalDispatcher.class);
 
-    private final Map<String, Actor> actors = new ConcurrentHashMap<>();
-    private final Map<String, ActorContext> contexts = new ConcurrentHashMap<>();
-    private final Map<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
-    private final Map<String, ExecutorService> executors = new ConcurrentHashMap<>();
+    // Taille par défaut du pool partagé
+    public static final int DEFAULT_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
 
-    // Conservé tel quel, même si non utilisé : peut servir à une évolution future
-    private final ExecutorService eventLoop = Executors.newSingleThreadExecutor(r -> {
-        Thread t = new Thread(r, "actor-event-loop");
-        t.setDaemon(true);
-        return t;
-    });
+    private final Map<String, ActorCell> cells = new ConcurrentHashMap<>();
+    private final FairScheduler scheduler;
+
+    // Réponses attendues par ActorSystem.ask() : path temporaire -> future (complété par le premier message reçu)
+    private final Map<String, CompletableFuture<Message>> pendingAsks = new ConcurrentHashMap<>();
 
     private final AtomicBoolean running = new AtomicBoolean(true);
 
+    // Messages non délivrés (échéance dépassée, destinataire inconnu)
+    private final DeadLetters deadLetters = new DeadLetters(this);
+
+    // Supervision des échecs (hiérarchie fournie par l'ActorSystem)
+    private final Supervisor supervisor = new Supervisor(this);
+
     // Sender courant stocké dans un ThreadLocal, utilisé par ActorContext.sender()
     private static final ThreadLocal<ActorRef> CURRENT_SENDER = new ThreadLocal<>();
 
+    public LocalDispatcher() {
+        this(DEFAULT_THREADS);
+    }
+
+    public LocalDispatcher(int threads) {
+        this.scheduler = new FairScheduler(Math.max(1, threads), this::runSlice);
+    }
+
     /**
      * Enregistre un acteur local :
      * - crée sa mailbox
-     * - démarre son message pump (boucle de traitement)
+     * - le rattache à son groupe d'ordonnancement
      */
     public void register(String path, Actor actor, ActorContext context) {
-        if (actors.putIfAbsent(path, actor) != null) {
+        String groupId = actor.schedulingGroup() != null ? actor.schedulingGroup() : path;
+        FairScheduler.Group group = scheduler.join(groupId, actor.schedulingWeight());
+
+        ActorCell cell = new ActorCell(path, actor, context, new Mailbox(actor.lanePolicy()), group);
+        if (cells.putIfAbsent(path, cell) != null) {
+            scheduler.leave(group);
             throw new IllegalStateException("Actor already registered: " + path);
         }
 
-        contexts.put(path, context);
-        mailboxes.put(path, new Mailbox());
-
-        ExecutorService exec = Executors.newSingleThreadExecutor(r -> {
-            Thread t = new Thread(r, "actor-" + path);
-            t.setDaemon(true);
-            return t;
-        });
-        executors.put(path, exec);
-
-        startMessagePump(path, exec);
-
-        log.debug("Actor registered: {}", path);
+        log.debug("Actor registered: {} (group={})", path, groupId);
     }
 
     /**
      * Désenregistre un acteur :
-     * - supprime les références
-     * - appelle postStop() pour permettre le nettoyage côté acteur
+     * - supprime les références (les envois suivants partent en dead letters)
+     * - plus aucun message traité après celui éventuellement en cours
+     * - finalisation sur la cellule elle-même, jamais en concurrence avec onReceive() :
+     *   messages encore en mailbox en dead letters (STOPPED), puis postStop()
+     * Aucun thread n'est propre à l'acteur : rien d'autre à libérer.
+     *
+     * @return complété une fois postStop() exécuté
      */
-    public void unregister(String path) {
-        Actor actor = actors.remove(path);
-        ActorContext context = contexts.remove(path);
-        mailboxes.remove(path);
+    public CompletableFuture<Void> unregister(String path) {
+        return unregister(path, CompletableFuture.completedFuture(null));
+    }
 
-        if (actor != null && context != null) {
-            try {
-                actor.postStop(context);
-            } catch (Exception e) {
-                log.error("Error in postStop for actor {}", path, e);
-            }
+    /**
+     * Comme unregister(path), la finalisation attendant en plus after (ex: arrêt des enfants).
+     */
+    CompletableFuture<Void> unregister(String path, CompletableFuture<?> after) {
+        ActorCell cell = cells.remove(path);
+        if (cell == null) {
+            return CompletableFuture.completedFuture(null);
         }
+
+        cell.stopped = true;
+        after.whenComplete((ignored, error) -> {
+            cell.terminating = true;
+            scheduler.schedule(cell);
+        });
+        return cell.terminated;
     }
 
     /**
      * Dépose un message dans la mailbox d'un acteur.
-     * Si l'acteur n'existe pas, on loggue un warn et on ignore.
+     * Si l'acteur n'existe pas (jamais créé ou arrêté), le message part en dead letter.
      */
     public void dispatch(String path, Message message, ActorRef sender) {
-        Mailbox mailbox = mailboxes.get(path);
-        if (mailbox == null) {
-            log.warn("Cannot dispatch to unknown actor: {}", path);
-            log.debug("Available actors: {}", mailboxes.keySet());
+        CompletableFuture<Message> ask = pendingAsks.remove(path);
+        if (ask != null) {
+            ask.complete(message);
+            return;
+        }
+
+        if (message.isExpired(System.currentTimeMillis())) {
+            deadLetters.publish(path, message, sender, DeadLetters.Reason.EXPIRED);
+            return;
+        }
+
+        ActorCell cell = cells.get(path);
+        if (cell == null) {
+            deadLetters.publish(path, message, sender, DeadLetters.Reason.UNKNOWN_TARGET);
             return;
         }
 
-        mailbox.enqueue(message, sender);
+        cell.mailbox.enqueue(message, sender);
+        scheduler.schedule(cell);
     }
 
     /**
-     * Démarre la boucle de traitement des messages d'un acteur.
-     * Le traitement est séquentiel (single-thread) pour garantir l'absence de concurrence sur l'état de l'acteur.
+     * Profondeur de chaque voie de la mailbox, par acteur local.
      */
-    private void startMessagePump(String path, ExecutorService exec) {
-        exec.submit(() -> {
-            Mailbox mailbox = mailboxes.get(path);
-            Actor actor = actors.get(path);
-            ActorContext context = contexts.get(path);
+    public Map<String, Map<MailboxLane, Integer>> mailboxDepths() {
+        Map<String, Map<MailboxLane, Integer>> depths = new TreeMap<>();
+        cells.forEach((path, cell) -> depths.put(path, cell.mailbox.depths()));
+        return depths;
+    }
 
-            if (mailbox == null || actor == null || context == null) {
-                return;
-            }
+    /**
+     * Nombre de messages en attente dans la mailbox d'un acteur local (0 s'il est inconnu).
+     */
+    public int mailboxDepth(String path) {
+        ActorCell cell = cells.get(path);
+        return cell != null ? cell.mailbox.depth() : 0;
+    }
 
-            log.debug("Message pump started for {}", path);
-
-            while (running.get() && actors.containsKey(path)) {
-                Mailbox.Envelope envelope = null;
-
-                try {
-                    envelope = mailbox.poll(250, TimeUnit.MILLISECONDS);
-                    if (envelope == null) {
-                        continue;
-                    }
-
-                    // Expose le sender à ActorContext.sender() via ThreadLocal
-                    CURRENT_SENDER.set(envelope.sender());
-                    try {
-                        actor.onReceive(envelope.message(), context).join();
-                    } finally {
-                        CURRENT_SENDER.remove();
-                    }
-
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    break;
-
-                } catch (Throwable t) {
-                    log.error("Actor '{}' failed while handling message type={}",
-                            path,
-                            envelope != null ? envelope.message().type() : "unknown",
-                            t
-                    );
-
-                    if (envelope != null) {
-                        SupervisionDirective directive = actor.onFailure(t, envelope.message());
-                        handleSupervision(path, actor, context, directive);
-                    }
-                }
-            }
+    /**
+     * Âge (ms) du plus ancien message en attente pour un acteur local (0 si vide ou inconnu).
+     */
+    public long oldestMessageAgeMs(String path) {
+        ActorCell cell = cells.get(path);
+        return cell != null ? cell.mailbox.oldestMessageAgeMs() : 0;
+    }
 
-            log.debug("Message pump stopped for {}", path);
-        });
+    /**
+     * Charge cumulée des mailboxes locales : nombre total de messages en attente.
+     */
+    public int totalMailboxDepth() {
+        int total = 0;
+        for (ActorCell cell : cells.values()) {
+            total += cell.mailbox.depth();
+        }
+        return total;
+    }
+
+    /**
+     * Enregistre un destinataire temporaire : le premier message adressé à path complète le future.
+     * Pas de mailbox ni de thread, la réponse est livrée directement.
+     */
+    void registerAsk(String path, CompletableFuture<Message> reply) {
+        pendingAsks.put(path, reply);
+    }
+
+    void cancelAsk(String path) {
+        pendingAsks.remove(path);
+    }
+
+    Supervisor supervisor() {
+        return supervisor;
+    }
+
+    ActorCell cellAt(String path) {
+        return cells.get(path);
     }
 
     /**
-     * Applique la directive de supervision renvoyée par l'acteur.
+     * Remet une cellule dans la file d'exécution (fin de backoff de la supervision).
      */
-    private void handleSupervision(String path, Actor actor, ActorContext context, SupervisionDirective directive) {
-        switch (directive) {
-            case RESUME -> {
-                // Reprendre sans rien faire : le prochain message sera traité normalement
-                log.debug("Actor {} resumed after failure", path);
+    void wake(ActorCell cell) {
+        scheduler.schedule(cell);
+    }
+
+    /**
+     * Temps CPU consommé par groupe d'ordonnancement (diagnostic).
+     */
+    public List<FairScheduler.GroupStats> schedulerStats() {
+        return scheduler.stats();
+    }
+
+    /**
+     * Traite une tranche de messages d'un acteur (au plus MAX_BATCH messages ou SLICE_NANOS de CPU),
+     * puis rend le thread au pool. Appelé par le FairScheduler : un seul thread à la fois par acteur,
+     * ce qui garantit l'absence de concurrence sur l'état de l'acteur.
+     */
+    private void runSlice(ActorCell cell) {
+        // Arrêtée : finalisation, puis messages déposés pendant l'arrêt
+        if (cell.stopped) {
+            if (cell.terminating && !cell.terminated.isDone()) {
+                finishStop(cell);
+            } else {
+                deadLetterRemaining(cell);
+            }
+            return;
+        }
+        if (cell.suspended) {
+            return;
+        }
+        if (cell.restartPending) {
+            cell.restartPending = false;
+            if (!supervisor.restart(cell)) {
+                return;
             }
-            case RESTART -> {
-                // Redémarrage : postStop puis preStart pour réinitialiser l'état si nécessaire
-                log.info("Actor {} restarting after failure", path);
-                try {
-                    actor.postStop(context);
-                    actor.preStart(context);
-                } catch (Exception e) {
-                    log.error("Failed to restart actor {}", path, e);
-                }
+        }
+
+        long start = FairScheduler.cpuTime();
+
+        for (int i = 0; i < FairScheduler.MAX_BATCH && running.get() && !cell.stopped && !cell.suspended; i++) {
+            Mailbox.Envelope envelope = cell.mailbox.poll();
+            if (envelope == null) {
+                return;
             }
-            case STOP -> {
-                // Arrêt : on désenregistre l'acteur
-                log.info("Actor {} stopping after failure", path);
-                unregister(path);
+
+            process(cell, envelope);
+
+            if (FairScheduler.cpuTime() - start >= FairScheduler.SLICE_NANOS) {
+                return;
             }
-            case ESCALATE -> {
-                // Pas de supervision hiérarchique ici : on loggue en erreur
-                log.error("Actor {} escalated failure", path);
+        }
+    }
+
+    private void process(ActorCell cell, Mailbox.Envelope envelope) {
+        // Échu pendant l'attente en mailbox : inutile de le traiter
+        if (envelope.message().isExpired(System.currentTimeMillis())) {
+            deadLetters.publish(cell.path, envelope.message(), envelope.sender(), DeadLetters.Reason.EXPIRED);
+            return;
+        }
+
+        try {
+            // Expose le sender à ActorContext.sender() via ThreadLocal
+            CURRENT_SENDER.set(envelope.sender());
+            try {
+                cell.actor.onReceive(envelope.message(), cell.context).join();
+            } finally {
+                CURRENT_SENDER.remove();
             }
+
+        } catch (Throwable t) {
+            log.error("Actor '{}' failed while handling message type={}", cell.path, envelope.message().type(), t);
+
+            supervisor.handleFailure(cell, t, envelope.message());
+        }
+    }
+
+    private void finishStop(ActorCell cell) {
+        deadLetterRemaining(cell);
+        try {
+            cell.actor.postStop(cell.context);
+        } catch (Exception e) {
+            log.error("Error in postStop for actor {}", cell.path, e);
+        } finally {
+            scheduler.leave(cell.group);
+            cell.terminated.complete(null);
+        }
+    }
+
+    private void deadLetterRemaining(ActorCell cell) {
+        for (Mailbox.Envelope envelope : cell.mailbox.drain()) {
+            deadLetters.publish(cell.path, envelope.message(), envelope.sender(), DeadLetters.Reason.STOPPED);
         }
     }
 
+    public DeadLetters deadLetters() {
+        return deadLetters;
+    }
+
     /**
      * Retourne le sender du message actuellement en cours de traitement.
      */
@@ -190,27 +290,7 @@ public class LocalDispatcher {
      */
     public void shutdown() {
         running.set(false);
-        eventLoop.shutdownNow();
-
-        // Optionnel : arrêter aussi les executors par acteur
-        executors.values().forEach(ExecutorService::shutdownNow);
-        executors.clear();
-    }
-
-    /**
-     * Mailbox : file d'attente des messages d'un acteur.
-     */
-    static class Mailbox {
-        private final BlockingQueue<Envelope> queue = new LinkedBlockingQueue<>();
-
-        record Envelope(Message message, ActorRef sender) {}
-
-        void enqueue(Message message, ActorRef sender) {
-            queue.offer(new Envelope(message, sender));
-        }
-
-        Envelope poll(long timeout, TimeUnit unit) throws InterruptedException {
-            return queue.poll(timeout, unit);
-        }
+        supervisor.shutdown();
+        scheduler.shutdown();
     }
 }
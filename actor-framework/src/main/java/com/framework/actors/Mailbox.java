@@ -0,0 +1,279 @@
+package com.framework.actors;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Mailbox : file d'attente des messages d'un acteur.
+ *
+ * Voies (MailboxLane) : le type du message choisit la voie d'après la LanePolicy de l'acteur,
+ * et les voies sont servies en round-robin pondéré. L'ordre FIFO est garanti au sein d'une voie.
+ *
+ * Conflation opt-in, pour les messages portant une clé (Message.conflationKey()) :
+ * - REPLACE : le message en attente de même clé est abandonné, le plus récent prend sa place en fin de file
+ * - COALESCE : idem, mais le message retenu hérite des expéditeurs (et des futures en payload) des précédents ;
+ *   une seule exécution, la réponse est renvoyée à chacun
+ * Passer en fin de file garde l'ordre vis-à-vis des autres messages (une lecture ne double pas une écriture).
+ */
+class Mailbox {
+
+    /**
+     * Message en attente et expéditeurs auxquels répondre.
+     */
+    static final class Envelope {
+        private final Message message;
+        private final List<ActorRef> senders;
+        private final MailboxLane lane;
+        private final long enqueuedAtNanos = System.nanoTime();
+
+        // Remplacé par un message plus récent de même clé : ignoré au poll (protégé par le verrou de la mailbox)
+        private boolean superseded;
+
+        Envelope(Message message, List<ActorRef> senders, MailboxLane lane) {
+            this.message = message;
+            this.senders = senders;
+            this.lane = lane;
+        }
+
+        Message message() {
+            return message;
+        }
+
+        MailboxLane lane() {
+            return lane;
+        }
+
+        ActorRef sender() {
+            return switch (senders.size()) {
+                case 0 -> null;
+                case 1 -> senders.get(0);
+                default -> new FanOutActorRef(senders);
+            };
+        }
+    }
+
+    private static final MailboxLane[] LANES = MailboxLane.values();
+
+    private final LanePolicy policy;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Une file par voie, et nombre de messages vivants (hors remplacés) par voie
+    private final List<ArrayDeque<Envelope>> queues = new ArrayList<>(LANES.length);
+    private final int[] live = new int[LANES.length];
+
+    // Dernier message en attente par clé de conflation
+    private final Map<String, Envelope> pendingByKey = new HashMap<>();
+
+    // Round-robin pondéré : voie en cours et messages déjà servis dans son tour
+    private int current;
+    private int served;
+
+    Mailbox() {
+        this(LanePolicy.defaults());
+    }
+
+    Mailbox(LanePolicy policy) {
+        this.policy = policy;
+        for (int i = 0; i < LANES.length; i++) {
+            queues.add(new ArrayDeque<>());
+        }
+    }
+
+    void enqueue(Message message, ActorRef sender) {
+        MailboxLane lane = policy.laneOf(message.type());
+        String key = message.conflationKey();
+
+        lock.lock();
+        try {
+            List<ActorRef> senders;
+
+            if (key == null) {
+                senders = sender != null ? List.of(sender) : List.of();
+            } else {
+                senders = new ArrayList<>(1);
+
+                Envelope previous = pendingByKey.get(key);
+                if (previous != null && canConflate(previous.message, message)) {
+                    previous.superseded = true;
+                    live[previous.lane.ordinal()]--;
+                    if (message.conflation() == Message.Conflation.COALESCE) {
+                        senders.addAll(previous.senders);
+                        forwardCompletion(message.payload(), previous.message.payload());
+                    }
+                }
+
+                if (sender != null) {
+                    senders.add(sender);
+                }
+            }
+
+            Envelope envelope = new Envelope(message, senders, lane);
+            if (key != null) {
+                pendingByKey.put(key, envelope);
+            }
+            queues.get(lane.ordinal()).addLast(envelope);
+            live[lane.ordinal()]++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Prochain message à traiter, sans attendre : null si la mailbox est vide.
+     * Le FairScheduler ne planifie l'acteur qu'après un dépôt, il n'y a jamais lieu de bloquer ici.
+     */
+    Envelope poll() {
+        lock.lock();
+        try {
+            return next();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Nombre de messages en attente par voie.
+     */
+    Map<MailboxLane, Integer> depths() {
+        lock.lock();
+        try {
+            Map<MailboxLane, Integer> depths = new EnumMap<>(MailboxLane.class);
+            for (MailboxLane lane : LANES) {
+                depths.put(lane, live[lane.ordinal()]);
+            }
+            return depths;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Nombre total de messages en attente.
+     */
+    int depth() {
+        lock.lock();
+        try {
+            int total = 0;
+            for (int n : live) {
+                total += n;
+            }
+            return total;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean isEmpty() {
+        return depth() == 0;
+    }
+
+    /**
+     * Vide la mailbox (arrêt de l'acteur) : retourne les messages vivants, voie par voie.
+     */
+    List<Envelope> drain() {
+        lock.lock();
+        try {
+            List<Envelope> drained = new ArrayList<>();
+            for (int lane = 0; lane < LANES.length; lane++) {
+                Envelope envelope;
+                while ((envelope = pollLive(lane)) != null) {
+                    drained.add(envelope);
+                }
+            }
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Âge (ms) du plus ancien message en attente, toutes voies confondues ; 0 si la mailbox est vide.
+     */
+    long oldestMessageAgeMs() {
+        lock.lock();
+        try {
+            long oldest = Long.MAX_VALUE;
+            for (ArrayDeque<Envelope> queue : queues) {
+                // Les messages remplacés en tête de file ne comptent pas
+                for (Envelope envelope : queue) {
+                    if (!envelope.superseded) {
+                        oldest = Math.min(oldest, envelope.enqueuedAtNanos);
+                        break;
+                    }
+                }
+            }
+            return oldest == Long.MAX_VALUE ? 0 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - oldest);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Round-robin pondéré : la voie courante garde la main tant qu'elle a des messages et du crédit.
+     * Deux tours complets suffisent à visiter chaque voie avec un crédit neuf. Appelé sous le verrou.
+     */
+    private Envelope next() {
+        for (int step = 0; step < 2 * LANES.length; step++) {
+            if (served < policy.weight(LANES[current])) {
+                Envelope envelope = pollLive(current);
+                if (envelope != null) {
+                    served++;
+                    return envelope;
+                }
+            }
+            current = (current + 1) % LANES.length;
+            served = 0;
+        }
+        return null;
+    }
+
+    private Envelope pollLive(int lane) {
+        ArrayDeque<Envelope> queue = queues.get(lane);
+        Envelope envelope;
+        while ((envelope = queue.pollFirst()) != null) {
+            if (envelope.superseded) {
+                continue;
+            }
+            live[lane]--;
+            String key = envelope.message.conflationKey();
+            if (key != null) {
+                pendingByKey.remove(key, envelope);
+            }
+            return envelope;
+        }
+        return null;
+    }
+
+    /**
+     * Même mode de conflation ; en COALESCE, on ne mélange pas un ask local (future en payload)
+     * et une demande avec réponse par message : l'acteur ne répondrait qu'à l'un des deux.
+     */
+    private static boolean canConflate(Message previous, Message next) {
+        if (previous.conflation() != next.conflation()) {
+            return false;
+        }
+        return next.conflation() == Message.Conflation.REPLACE
+                || (previous.payload() instanceof CompletableFuture<?>) == (next.payload() instanceof CompletableFuture<?>);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void forwardCompletion(Object from, Object to) {
+        if (from instanceof CompletableFuture<?> source && to instanceof CompletableFuture<?> target) {
+            source.whenComplete((value, error) -> {
+                if (error != null) {
+                    target.completeExceptionally(error);
+                } else {
+                    ((CompletableFuture<Object>) target).complete(value);
+                }
+            });
+        }
+    }
+}
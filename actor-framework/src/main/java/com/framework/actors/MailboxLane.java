@@ -0,0 +1,13 @@
+package com.framework.actors;
+
+/**
+ * Voie d'une mailbox, choisie d'après le type du message (voir LanePolicy) :
+ * - SYSTEM : cycle de vie (arrêt, fermeture)
+ * - CONTROL : commandes dont la latence se voit (lecture, pause, départ d'un membre...)
+ * - BULK : trafic de masse (chat, votes, lectures d'état)
+ */
+public enum MailboxLane {
+    SYSTEM,
+    CONTROL,
+    BULK
+}
@@ -9,18 +9,48 @@ import java.util.UUID;
  */
 public final class Message implements Serializable {
 
+    /**
+     * Conflation opt-in dans la mailbox du destinataire, pour un message portant une clé :
+     * - REPLACE : un message plus récent de même clé remplace celui encore en attente (commande idempotente)
+     * - COALESCE : les demandes en attente de même clé sont traitées en une seule exécution,
+     *   dont la réponse est renvoyée à tous les demandeurs (lecture d'état)
+     */
+    public enum Conflation { REPLACE, COALESCE }
+
     private final String type;
     private final Object payload;
     private final String correlationId;
     private final String senderPath;
+    private final String conflationKey;
+    private final Conflation conflation;
+
+    // Échéance absolue (epoch ms) au-delà de laquelle le message n'est plus traité ; 0 = aucune
+    private final long deadline;
+
+    // Id interné du type (MessageType.lookupId), résolu une fois connu ; propre au process, non sérialisé
+    private transient int typeId;
 
     public Message(String type, Object payload, String correlationId, String senderPath) {
+        this(type, payload, correlationId, senderPath, null, null, 0);
+    }
+
+    public Message(String type, Object payload, String correlationId, String senderPath,
+                   String conflationKey, Conflation conflation, long deadline) {
         this.type = Objects.requireNonNull(type, "Message type cannot be null");
         this.payload = payload;
         this.correlationId = (correlationId == null || correlationId.isBlank())
                 ? UUID.randomUUID().toString()
                 : correlationId;
         this.senderPath = senderPath;
+        this.conflationKey = (conflationKey == null || conflation == null) ? null : conflationKey;
+        this.conflation = this.conflationKey == null ? null : conflation;
+        this.deadline = Math.max(0, deadline);
+    }
+
+    private Message(String type, Object payload, String correlationId, String senderPath,
+                    String conflationKey, Conflation conflation, long deadline, int typeId) {
+        this(type, payload, correlationId, senderPath, conflationKey, conflation, deadline);
+        this.typeId = typeId;
     }
 
     // Factory methods
@@ -28,15 +58,82 @@ public final class Message implements Serializable {
         return new Message(type, payload, null, null);
     }
 
+    /**
+     * Message typé : payload vérifié à la compilation, id de type déjà connu.
+     */
+    public static <P> Message of(MessageType<P> type, P payload) {
+        return new Message(type.name(), payload, null, null, null, null, 0, type.id());
+    }
+
+    public static <P> Message of(MessageType<P> type, P payload, ActorRef sender) {
+        return new Message(type.name(), payload, null, sender != null ? sender.path() : null, null, null, 0, type.id());
+    }
+
     public static Message of(String type, Object payload, ActorRef sender) {
         return new Message(type, payload, null, sender != null ? sender.path() : null);
     }
 
+    /**
+     * Copie du message avec une clé de conflation.
+     */
+    public Message withConflation(String key, Conflation mode) {
+        return new Message(type, payload, correlationId, senderPath, key, mode, deadline, typeId);
+    }
+
+    /**
+     * Copie du message avec une échéance absolue (epoch ms, 0 = aucune).
+     * Un message échu avant d'être traité part en dead letters au lieu d'atteindre onReceive().
+     */
+    public Message withDeadline(long deadlineEpochMs) {
+        return new Message(type, payload, correlationId, senderPath, conflationKey, conflation, deadlineEpochMs, typeId);
+    }
+
+    /**
+     * Copie du message avec une échéance relative (dans timeoutMs à partir de maintenant).
+     */
+    public Message expiringIn(long timeoutMs) {
+        return withDeadline(System.currentTimeMillis() + timeoutMs);
+    }
+
+    /**
+     * Raccourci : remplace un message de même type encore en attente.
+     */
+    public Message superseding() {
+        return withConflation(type, Conflation.REPLACE);
+    }
+
+    /**
+     * Raccourci : partage l'exécution d'une demande de même type encore en attente.
+     */
+    public Message coalescing() {
+        return withConflation(type, Conflation.COALESCE);
+    }
+
     // Getters
     public String type() { return type; }
     public Object payload() { return payload; }
     public String correlationId() { return correlationId; }
     public String senderPath() { return senderPath; }
+    public String conflationKey() { return conflationKey; }
+    public Conflation conflation() { return conflation; }
+    public long deadline() { return deadline; }
+
+    /**
+     * Id interné du type ; un message construit par son nom le résout à la première demande.
+     * Un nom qu'aucun MessageType ne déclare donne 0 (aucune route) sans être ajouté à la table.
+     */
+    int typeId() {
+        int id = typeId;
+        if (id == 0) {
+            id = MessageType.lookupId(type);
+            typeId = id;
+        }
+        return id;
+    }
+
+    public boolean isExpired(long nowMs) {
+        return deadline > 0 && nowMs > deadline;
+    }
 
     @Override
     public String toString() {
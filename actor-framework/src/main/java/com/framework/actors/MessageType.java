@@ -0,0 +1,73 @@
+package com.framework.actors;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Type de message typé : nom (celui de Message.type(), inchangé sur le fil) + classe du payload.
+ * - Message.of(MessageType, payload) vérifie le payload à la compilation
+ * - Behavior route les messages par id interné (entier dense) au lieu de comparer des chaînes
+ * Un même nom peut être déclaré par plusieurs acteurs avec des payloads différents : l'id dépend du nom seul.
+ */
+public final class MessageType<P> {
+
+    // Ids internés par nom (déclarés par MessageType.of), partagés par tout le process ; 0 = nom non déclaré
+    private static final ConcurrentMap<String, Integer> IDS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_ID = new AtomicInteger(1);
+
+    private final String name;
+    private final Class<P> payloadClass;
+    private final int id;
+
+    private MessageType(String name, Class<P> payloadClass) {
+        this.name = Objects.requireNonNull(name, "Message type name cannot be null");
+        this.payloadClass = Objects.requireNonNull(payloadClass, "Payload class cannot be null");
+        this.id = idOf(name);
+    }
+
+    public static <P> MessageType<P> of(String name, Class<P> payloadClass) {
+        return new MessageType<>(name, payloadClass);
+    }
+
+    /**
+     * Message sans payload (payload toujours null).
+     */
+    public static MessageType<Void> of(String name) {
+        return new MessageType<>(name, Void.class);
+    }
+
+    /**
+     * Id interné d'un nom de type : attribué au premier usage, stable ensuite.
+     */
+    static int idOf(String name) {
+        Integer id = IDS.get(name);
+        return id != null ? id : IDS.computeIfAbsent(name, n -> NEXT_ID.getAndIncrement());
+    }
+
+    /**
+     * Id d'un nom reçu (réception, Behavior.handles) : sans insertion, 0 si aucun MessageType ne le déclare.
+     * Les noms venant du réseau ne font pas grossir la table globale.
+     */
+    static int lookupId(String name) {
+        return IDS.getOrDefault(name, 0);
+    }
+
+    public String name() { return name; }
+    public Class<P> payloadClass() { return payloadClass; }
+    int id() { return id; }
+
+    /**
+     * Le payload est-il acceptable pour ce type (null accepté) ?
+     */
+    boolean accepts(Object payload) {
+        // Cas courant d'abord : payload record (final), de la classe exacte
+        return payload == null || payload.getClass() == payloadClass || payloadClass.isInstance(payload);
+    }
+
+    @Override
+    public String toString() {
+        return "MessageType{" + name + ", payload=" + payloadClass.getSimpleName() + "}";
+    }
+}
@@ -110,6 +110,13 @@ public class RemoteDispatcher {
             envelope.put("correlationId", message.correlationId());
             envelope.put("senderPath", sender != null ? sender.path() : null);
             envelope.put("targetPath", targetPath);
+            if (message.conflationKey() != null) {
+                envelope.put("conflationKey", message.conflationKey());
+                envelope.put("conflation", message.conflation().name());
+            }
+            if (message.deadline() > 0) {
+                envelope.put("deadline", message.deadline());
+            }
 
             log.info("[{}] Sending message type={} to {} (routingKey={})",
                     serviceName, message.type(), targetPath, routingKey);
@@ -157,12 +164,17 @@ public class RemoteDispatcher {
                     String correlationId = (String) envelope.get("correlationId");
                     String senderPath = (String) envelope.get("senderPath");
                     String targetPath = (String) envelope.get("targetPath");
+                    String conflationKey = (String) envelope.get("conflationKey");
+                    Object conflation = envelope.get("conflation");
+                    Object deadline = envelope.get("deadline");
 
                     log.info("[{}] Received message type={} for {}",
                             serviceName, messageType, targetPath);
 
                     // Reconstruction du message framework
-                    Message msg = new Message(messageType, payload, correlationId, senderPath);
+                    Message msg = new Message(messageType, payload, correlationId, senderPath,
+                            conflationKey, conflation != null ? Message.Conflation.valueOf(conflation.toString()) : null,
+                            deadline instanceof Number n ? n.longValue() : 0);
 
                     // Reconstruction du sender (référence distante)
                     ActorRef sender = (senderPath != null)
@@ -0,0 +1,209 @@
+package com.framework.actors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Supervision des acteurs locaux :
+ * - l'acteur en échec choisit sa directive (Actor.onFailure) ; ESCALATE remonte à la stratégie du parent
+ *   (Actor.supervisorStrategy), qui décide pour l'enfant ou escalade à son tour (le parent est alors en échec)
+ * - sans parent, une escalade redémarre l'acteur
+ * - RESTART : l'acteur est suspendu pendant un backoff exponentiel (minBackoffMs, doublé à chaque
+ *   redémarrage, plafonné à maxBackoffMs), puis ses enfants et timers sont arrêtés, postStop puis preStart
+ * - au-delà de maxRestarts redémarrages dans restartWindowMs, l'acteur est arrêté (STOP, enfants compris)
+ * Un message toxique ne peut donc pas faire tourner les redémarrages en boucle.
+ */
+class Supervisor {
+
+    private static final Logger log = LoggerFactory.getLogger(Supervisor.class);
+
+    static final long MIN_BACKOFF_MS = 100;
+    static final long MAX_BACKOFF_MS = 10_000;
+    static final int MAX_RESTARTS = 10;
+    static final long RESTART_WINDOW_MS = 60_000;
+
+    private volatile long minBackoffMs = MIN_BACKOFF_MS;
+    private volatile long maxBackoffMs = MAX_BACKOFF_MS;
+    private volatile int maxRestarts = MAX_RESTARTS;
+    private volatile long restartWindowMs = RESTART_WINDOW_MS;
+
+    /**
+     * Hiérarchie des acteurs, fournie par l'ActorSystem.
+     */
+    interface Hierarchy {
+        String parentOf(String path);
+
+        void stop(String path);
+
+        void stopChildren(String path);
+
+        void cancelTimers(String path);
+    }
+
+    /**
+     * Dispatcher seul (sans ActorSystem) : pas de parent, ni enfants ni timers.
+     */
+    private static Hierarchy standalone(LocalDispatcher dispatcher) {
+        return new Hierarchy() {
+            @Override public String parentOf(String path) { return null; }
+            @Override public void stop(String path) { dispatcher.unregister(path); }
+            @Override public void stopChildren(String path) { }
+            @Override public void cancelTimers(String path) { }
+        };
+    }
+
+    private final LocalDispatcher dispatcher;
+    private volatile Hierarchy hierarchy;
+
+    // Fin des backoffs : un seul thread, aucun code d'acteur n'y est exécuté
+    private final ScheduledExecutorService backoffTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "actor-supervisor");
+        t.setDaemon(true);
+        return t;
+    });
+
+    Supervisor(LocalDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+        this.hierarchy = standalone(dispatcher);
+    }
+
+    void attach(Hierarchy hierarchy) {
+        this.hierarchy = hierarchy;
+    }
+
+    /**
+     * Ajuste le backoff et le taux maximal de redémarrage.
+     */
+    void configure(long minBackoffMs, long maxBackoffMs, int maxRestarts, long restartWindowMs) {
+        this.minBackoffMs = minBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.maxRestarts = maxRestarts;
+        this.restartWindowMs = restartWindowMs;
+    }
+
+    /**
+     * Échec pendant le traitement d'un message (message null : échec de preStart au redémarrage).
+     */
+    void handleFailure(ActorCell cell, Throwable cause, Message message) {
+        SupervisionDirective directive;
+        try {
+            directive = cell.actor.onFailure(cause, message);
+        } catch (Exception e) {
+            log.error("onFailure threw for actor {}", cell.path, e);
+            directive = SupervisionDirective.ESCALATE;
+        }
+        apply(cell, directive, cause);
+    }
+
+    private void apply(ActorCell cell, SupervisionDirective directive, Throwable cause) {
+        switch (directive) {
+            case RESUME -> {
+                // Reprendre sans rien faire : le prochain message sera traité normalement
+                log.debug("Actor {} resumed after failure", cell.path);
+            }
+            case RESTART -> scheduleRestart(cell);
+            case STOP -> {
+                // Arrêt : enfants d'abord, messages restants en dead letters
+                log.info("Actor {} stopping after failure", cell.path);
+                hierarchy.stop(cell.path);
+            }
+            case ESCALATE -> escalate(cell, cause);
+        }
+    }
+
+    private void escalate(ActorCell cell, Throwable cause) {
+        String parentPath = hierarchy.parentOf(cell.path);
+        ActorCell parent = parentPath != null ? dispatcher.cellAt(parentPath) : null;
+
+        if (parent == null) {
+            log.error("Actor {} escalated failure without parent, restarting", cell.path);
+            scheduleRestart(cell);
+            return;
+        }
+
+        // Stratégie du parent, appelée sur le thread de l'enfant : décision sans état
+        SupervisionDirective decision;
+        try {
+            decision = parent.actor.supervisorStrategy(cell.context.self(), cause);
+        } catch (Exception e) {
+            log.error("supervisorStrategy threw for actor {}", parent.path, e);
+            decision = SupervisionDirective.ESCALATE;
+        }
+
+        log.info("Failure of {} escalated to {}: {}", cell.path, parent.path, decision);
+        if (decision == SupervisionDirective.ESCALATE) {
+            // Le parent est en échec à son tour : son propre parent décide (un redémarrage ou arrêt l'emporte sur l'enfant)
+            escalate(parent, cause);
+        } else {
+            apply(cell, decision, cause);
+        }
+    }
+
+    private void scheduleRestart(ActorCell cell) {
+        long delayMs;
+        int restarts;
+        synchronized (cell) {
+            long now = System.currentTimeMillis();
+            if (now - cell.restartWindowStart > restartWindowMs) {
+                cell.restartWindowStart = now;
+                cell.restarts = 0;
+            }
+            restarts = ++cell.restarts;
+            delayMs = backoffMs(restarts);
+        }
+
+        if (restarts > maxRestarts) {
+            log.error("Actor {} failed {} times within {} ms, stopping", cell.path, restarts, restartWindowMs);
+            hierarchy.stop(cell.path);
+            return;
+        }
+
+        // Suspendu pendant le backoff : les messages s'accumulent en mailbox sans être traités
+        cell.suspended = true;
+        log.info("Actor {} restarting in {} ms (restart {} of {})", cell.path, delayMs, restarts, maxRestarts);
+
+        backoffTimer.schedule(() -> {
+            cell.restartPending = true;
+            cell.suspended = false;
+            dispatcher.wake(cell);
+        }, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    long backoffMs(int restarts) {
+        int shift = Math.min(restarts - 1, 20);
+        return Math.min(maxBackoffMs, minBackoffMs << shift);
+    }
+
+    /**
+     * Redémarrage effectif, sur le thread du pool qui traite la cellule : enfants et timers arrêtés,
+     * postStop puis preStart. Retourne false si preStart échoue (nouvel échec supervisé).
+     */
+    boolean restart(ActorCell cell) {
+        hierarchy.stopChildren(cell.path);
+        hierarchy.cancelTimers(cell.path);
+
+        try {
+            cell.actor.postStop(cell.context);
+        } catch (Exception e) {
+            log.error("Error in postStop while restarting actor {}", cell.path, e);
+        }
+
+        try {
+            cell.actor.preStart(cell.context);
+            log.info("Actor {} restarted", cell.path);
+            return true;
+        } catch (Throwable t) {
+            log.error("Failed to restart actor {}", cell.path, t);
+            handleFailure(cell, t, null);
+            return false;
+        }
+    }
+
+    void shutdown() {
+        backoffTimer.shutdownNow();
+    }
+}
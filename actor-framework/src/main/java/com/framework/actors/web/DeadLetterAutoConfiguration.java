@@ -0,0 +1,26 @@
+package com.framework.actors.web;
+
+import com.framework.actors.ActorSystem;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Expose GET /api/dead-letters dans les services servlet qui déclarent un ActorSystem.
+ * Désactivable par actors.dead-letters.endpoint.enabled=false.
+ */
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnBean(ActorSystem.class)
+@ConditionalOnProperty(name = "actors.dead-letters.endpoint.enabled", matchIfMissing = true)
+public class DeadLetterAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public DeadLetterController deadLetterController(ActorSystem actorSystem) {
+        return new DeadLetterController(actorSystem);
+    }
+}
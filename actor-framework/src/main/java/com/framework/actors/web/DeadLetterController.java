@@ -0,0 +1,61 @@
+package com.framework.actors.web;
+
+import com.framework.actors.ActorSystem;
+import com.framework.actors.DeadLetterActor;
+import com.framework.actors.DeadLetters;
+import com.framework.actors.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Messages non délivrés par les acteurs du service (destinataire inconnu ou arrêté, échéance dépassée).
+ * Enregistré par DeadLetterAutoConfiguration dans chaque service web qui déclare un ActorSystem.
+ */
+@RestController
+@RequestMapping("/api/dead-letters")
+public class DeadLetterController {
+
+    private static final Logger log = LoggerFactory.getLogger(DeadLetterController.class);
+
+    private final ActorSystem actorSystem;
+
+    public DeadLetterController(ActorSystem actorSystem) {
+        this.actorSystem = actorSystem;
+    }
+
+    /**
+     * GET /api/dead-letters?limit=20
+     * -> compteurs par motif, couples (path cible, type) les plus touchés, pertes récentes
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getDeadLetters(@RequestParam(defaultValue = "20") int limit) {
+        DeadLetters deadLetters = actorSystem.deadLetters();
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("counts", deadLetters.counts());
+        body.put("topTargets", deadLetters.topTargets(Math.max(1, limit)));
+        body.put("recent", recent(limit));
+        return ResponseEntity.ok(body);
+    }
+
+    private List<DeadLetters.DeadLetter> recent(int limit) {
+        try {
+            CompletableFuture<List<DeadLetters.DeadLetter>> future = new CompletableFuture<>();
+            actorSystem.actorSelection(DeadLetterActor.NAME).tell(Message.of("GET_DEAD_LETTERS", future), null);
+
+            List<DeadLetters.DeadLetter> recent = future.get(2, TimeUnit.SECONDS);
+            return recent.subList(Math.max(0, recent.size() - Math.max(1, limit)), recent.size());
+        } catch (Exception e) {
+            log.warn("Could not read recent dead letters: {}", e.toString());
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.framework.media;
+
+/**
+ * En-tête de trame MPEG audio (MP3) décodé depuis ses 4 octets.
+ * Partagé par l'analyse des fichiers (djroom) et l'index de seek (djactor) : mêmes tables, même calcul de taille.
+ *
+ * @param mpeg1      MPEG-1 (sinon MPEG-2 / 2.5)
+ * @param layer      1, 2 ou 3
+ * @param sampleRate fréquence d'échantillonnage (Hz)
+ * @param samples    échantillons par trame
+ * @param length     taille de la trame en octets, en-tête compris
+ * @param mono       mode canal mono (taille des side info pour les en-têtes Xing/VBRI)
+ */
+public record MpegFrameHeader(boolean mpeg1, int layer, int sampleRate, int samples, int length, boolean mono) {
+
+    // Tables MPEG (kbps) : [version V1=0 / V2+V2.5=1][layer L1=0, L2=1, L3=2][index]
+    private static final int[][][] BITRATES_KBPS = {
+            {
+                    {0, 32, 64, 96, 128, 160, 192, 224, 256, 288, 320, 352, 384, 416, 448},
+                    {0, 32, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320, 384},
+                    {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320}
+            },
+            {
+                    {0, 32, 48, 56, 64, 80, 96, 112, 128, 144, 160, 176, 192, 224, 256},
+                    {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160},
+                    {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160}
+            }
+    };
+
+    private static final int[] SAMPLE_RATES_V1 = {44100, 48000, 32000};
+
+    /**
+     * Décode un en-tête de trame (entier big-endian lu à la position de la trame), ou null s'il est invalide.
+     */
+    public static MpegFrameHeader parse(int h) {
+        if ((h & 0xFFE00000) != 0xFFE00000) {
+            return null;
+        }
+        int versionBits = (h >>> 19) & 0x3;
+        int layerBits = (h >>> 17) & 0x3;
+        int bitrateIndex = (h >>> 12) & 0xF;
+        int rateIndex = (h >>> 10) & 0x3;
+        int padding = (h >>> 9) & 0x1;
+        int channelMode = (h >>> 6) & 0x3;
+
+        if (versionBits == 1 || layerBits == 0 || bitrateIndex == 0 || bitrateIndex == 15 || rateIndex == 3) {
+            return null; // réservé, ou "free format" non supporté
+        }
+
+        boolean mpeg1 = versionBits == 3;
+        int layer = 4 - layerBits; // 1, 2 ou 3
+        int sampleRate = SAMPLE_RATES_V1[rateIndex] >> (mpeg1 ? 0 : versionBits == 2 ? 1 : 2);
+        int bitrate = BITRATES_KBPS[mpeg1 ? 0 : 1][layer - 1][bitrateIndex] * 1000;
+
+        int samples;
+        int length;
+        if (layer == 1) {
+            samples = 384;
+            length = (12 * bitrate / sampleRate + padding) * 4;
+        } else if (layer == 2 || mpeg1) {
+            samples = 1152;
+            length = 144 * bitrate / sampleRate + padding;
+        } else {
+            samples = 576;
+            length = 72 * bitrate / sampleRate + padding;
+        }
+
+        return new MpegFrameHeader(mpeg1, layer, sampleRate, samples, length, channelMode == 3);
+    }
+}
@@ -0,0 +1,241 @@
+package com.framework.actors;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActorLifecycleTest {
+
+    // Journal partagé des événements de cycle de vie (postStop, TERMINATED)
+    static final Queue<String> events = new ConcurrentLinkedQueue<>();
+
+    private ActorSystem system;
+
+    @BeforeEach
+    void setup() {
+        events.clear();
+        system = ActorSystem.local("svc", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        system.close();
+    }
+
+    /**
+     * Room de test : crée une playlist enfant et un timer périodique dans preStart.
+     */
+    public static class RoomActor implements Actor {
+        private final String name;
+
+        public RoomActor(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void preStart(ActorContext ctx) {
+            ctx.actorOf(PlaylistActor.class, "playlist-" + name);
+            ctx.scheduleAtFixedRate(1000, 1000, Message.of("TICK", null));
+        }
+
+        @Override
+        public CompletableFuture<Void> onReceive(Message message, ActorContext ctx) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void postStop(ActorContext ctx) {
+            events.add("postStop " + name);
+        }
+    }
+
+    public static class PlaylistActor implements Actor {
+        private final String name;
+
+        public PlaylistActor(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public CompletableFuture<Void> onReceive(Message message, ActorContext ctx) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void postStop(ActorContext ctx) {
+            events.add("postStop " + name);
+        }
+    }
+
+    /**
+     * Observe l'acteur dont le path arrive en WATCH, et journalise les TERMINATED reçus.
+     */
+    public static class WatcherActor implements Actor {
+        public WatcherActor(String name) {
+        }
+
+        @Override
+        public CompletableFuture<Void> onReceive(Message message, ActorContext ctx) {
+            switch (message.type()) {
+                case "WATCH" -> ctx.watch(ctx.actorSelection((String) message.payload()));
+                case ActorSystem.TERMINATED -> events.add("terminated " + message.payload());
+                default -> { }
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * Bloque sur BLOCK jusqu'à ce que le test le libère.
+     */
+    public static class SlowActor implements Actor {
+        static volatile CountDownLatch busy;
+        static volatile CountDownLatch release;
+
+        public SlowActor(String name) {
+        }
+
+        @Override
+        public CompletableFuture<Void> onReceive(Message message, ActorContext ctx) {
+            if ("BLOCK".equals(message.type())) {
+                busy.countDown();
+                try {
+                    release.await(2, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                events.add("unblocked");
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void postStop(ActorContext ctx) {
+            events.add("postStop slow");
+        }
+    }
+
+    @Test
+    void stop_shouldStopChildrenFirst_cancelTimers_andNotifyWatchers() throws Exception {
+        int baseline = system.actorCount();
+
+        ActorRef room = system.actorOf(RoomActor.class, "room-1");
+        ActorRef watcher = system.actorOf(WatcherActor.class, "watcher");
+        watcher.tell(Message.of("WATCH", "svc/room-1"), null);
+        watcher.tell(Message.of("WATCH", "svc/playlist-room-1"), null);
+        CompletableFuture<Void> terminated = system.whenTerminated(room);
+
+        assertEquals(baseline + 3, system.actorCount());
+        assertEquals(1, system.activeTimers());
+
+        // Laisse le watcher enregistrer ses observations
+        while (system.mailboxDepths().get("svc/watcher").values().stream().mapToInt(Integer::intValue).sum() > 0) {
+            Thread.sleep(5);
+        }
+        Thread.sleep(20);
+
+        system.stop(room);
+        system.stop(room);
+
+        terminated.get(1, TimeUnit.SECONDS);
+        assertEquals(List.of("postStop playlist-room-1", "postStop room-1"),
+                events.stream().filter(e -> e.startsWith("postStop")).toList());
+        assertEquals(0, system.activeTimers());
+        assertEquals(baseline + 1, system.actorCount());
+
+        long deadline = System.currentTimeMillis() + 1000;
+        while (events.size() < 4 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(events.containsAll(List.of("terminated svc/playlist-room-1", "terminated svc/room-1")), events.toString());
+
+        // Acteur déjà arrêté : future déjà complété
+        assertTrue(system.whenTerminated(room).isDone());
+    }
+
+    @Test
+    void stop_shouldFinishCurrentMessage_thenDeadLetterQueuedMessages() throws Exception {
+        SlowActor.busy = new CountDownLatch(1);
+        SlowActor.release = new CountDownLatch(1);
+        ActorRef slow = system.actorOf(SlowActor.class, "slow");
+
+        slow.tell(Message.of("BLOCK", null), null);
+        assertTrue(SlowActor.busy.await(1, TimeUnit.SECONDS));
+
+        CompletableFuture<Object> pending = new CompletableFuture<>();
+        slow.tell(Message.of("GET_STATE", pending), null);
+        slow.tell(Message.of("VOTE_TRACK", null), null);
+
+        // Arrêt demandé depuis un autre thread pendant onReceive : rien n'est finalisé avant la fin du message
+        CompletableFuture<Void> terminated = system.whenTerminated(slow);
+        system.stop(slow);
+        Thread.sleep(50);
+        assertFalse(terminated.isDone());
+        assertTrue(events.isEmpty(), events.toString());
+
+        SlowActor.release.countDown();
+        terminated.get(1, TimeUnit.SECONDS);
+
+        assertEquals(List.of("unblocked", "postStop slow"), List.copyOf(events));
+        assertTrue(pending.isCompletedExceptionally());
+        assertEquals(2, system.deadLetters().count(DeadLetters.Reason.STOPPED));
+
+        // Envoi après l'arrêt : destinataire inconnu
+        slow.tell(Message.of("VOTE_TRACK", null), null);
+        assertEquals(1, system.deadLetters().count(DeadLetters.Reason.UNKNOWN_TARGET));
+    }
+
+    /**
+     * Soak : 100k rooms (room + playlist enfant + timer) ouvertes puis fermées.
+     * Aucun thread par acteur : le nombre de threads et le tas restent plats.
+     */
+    @Test
+    void openingAndClosing100kRooms_shouldKeepThreadsAndHeapFlat() throws Exception {
+        int baselineActors = system.actorCount();
+
+        // Chauffe (classes chargées, pools démarrés) avant la mesure
+        cycleRooms("warmup", 1_000);
+        int threadsBefore = Thread.activeCount();
+        long heapBefore = usedHeapAfterGc();
+
+        cycleRooms("room", 100_000);
+
+        assertEquals(baselineActors, system.actorCount());
+        assertEquals(0, system.activeTimers());
+        assertTrue(system.schedulerStats().size() <= baselineActors, "scheduling groups should be released");
+        assertTrue(Thread.activeCount() <= threadsBefore + 2,
+                "threads before=" + threadsBefore + " after=" + Thread.activeCount());
+
+        long growthMb = (usedHeapAfterGc() - heapBefore) / (1024 * 1024);
+        assertTrue(growthMb < 32, "heap grew by " + growthMb + " MB");
+    }
+
+    private void cycleRooms(String prefix, int count) throws Exception {
+        List<CompletableFuture<Void>> terminations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ActorRef room = system.actorOf(RoomActor.class, prefix + "-" + i);
+            room.tell(Message.of("JOIN_ROOM", null), null);
+            terminations.add(system.whenTerminated(room));
+            system.stop(room);
+        }
+        CompletableFuture.allOf(terminations.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+        events.clear();
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,108 @@
+package com.framework.actors;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût du dispatch d'un message vers son handler : switch sur Message.type() + cast (acteurs actuels)
+ * contre table Behavior (id interné + vérification du payload). Les deux variantes retournent,
+ * comme onReceive(), un future complété.
+ * Huit types, sur le modèle du protocole de PlaylistActor ; les handlers ne font que consommer le payload.
+ *
+ * Lancement (hors build, les benchmarks ne sont pas exécutés par surefire) :
+ *   mvn -pl actor-framework test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *       -Dexec.args="-cp %classpath org.openjdk.jmh.Main BehaviorDispatchBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BehaviorDispatchBenchmark {
+
+    public record AddMsg(String url) {}
+    public record VoteMsg(long trackId, int delta) {}
+    public record EndedMsg(long trackId) {}
+    public record RemoveMsg(long trackId) {}
+
+    static final MessageType<AddMsg> ADD = MessageType.of("BENCH_ADD_TRACK", AddMsg.class);
+    static final MessageType<VoteMsg> VOTE = MessageType.of("BENCH_VOTE_TRACK", VoteMsg.class);
+    static final MessageType<Void> FOLD = MessageType.of("BENCH_FOLD_VOTES");
+    static final MessageType<Void> NEXT = MessageType.of("BENCH_GET_NEXT_TRACK");
+    static final MessageType<EndedMsg> ENDED = MessageType.of("BENCH_TRACK_ENDED", EndedMsg.class);
+    static final MessageType<Object> GET = MessageType.of("BENCH_GET_PLAYLIST", Object.class);
+    static final MessageType<RemoveMsg> REMOVE = MessageType.of("BENCH_REMOVE_TRACK", RemoveMsg.class);
+    static final MessageType<Void> PING = MessageType.of("BENCH_PING");
+
+    private static final Behavior<Blackhole> BEHAVIOR = Behavior.<Blackhole>builder()
+            .on(ADD, (bh, msg, ctx) -> bh.consume(msg.url()))
+            .on(VOTE, (bh, msg, ctx) -> bh.consume(msg.delta()))
+            .on(FOLD, (bh, none, ctx) -> bh.consume(1))
+            .on(NEXT, (bh, none, ctx) -> bh.consume(2))
+            .on(ENDED, (bh, msg, ctx) -> bh.consume(msg.trackId()))
+            .on(GET, (bh, payload, ctx) -> bh.consume(payload))
+            .on(REMOVE, (bh, msg, ctx) -> bh.consume(msg.trackId()))
+            .on(PING, (bh, none, ctx) -> bh.consume(3))
+            .build();
+
+    private Message[] typed;
+    private Message[] named;
+    private int next;
+
+    @Setup
+    public void setup() {
+        typed = new Message[]{
+                Message.of(ADD, new AddMsg("url")),
+                Message.of(VOTE, new VoteMsg(1, 1)),
+                Message.of(FOLD, null),
+                Message.of(NEXT, null),
+                Message.of(ENDED, new EndedMsg(1)),
+                Message.of(GET, new CompletableFuture<>()),
+                Message.of(REMOVE, new RemoveMsg(1)),
+                Message.of(PING, null)
+        };
+
+        // Mêmes messages construits par leur nom (comme à la réception réseau)
+        named = new Message[typed.length];
+        for (int i = 0; i < typed.length; i++) {
+            named[i] = Message.of(typed[i].type(), typed[i].payload());
+        }
+    }
+
+    private int nextIndex() {
+        int i = next;
+        next = (i + 1) & 7;
+        return i;
+    }
+
+    @Benchmark
+    public CompletableFuture<Void> stringSwitch(Blackhole bh) {
+        Message message = named[nextIndex()];
+        switch (message.type()) {
+            case "BENCH_ADD_TRACK" -> bh.consume(((AddMsg) message.payload()).url());
+            case "BENCH_VOTE_TRACK" -> bh.consume(((VoteMsg) message.payload()).delta());
+            case "BENCH_FOLD_VOTES" -> bh.consume(1);
+            case "BENCH_GET_NEXT_TRACK" -> bh.consume(2);
+            case "BENCH_TRACK_ENDED" -> bh.consume(((EndedMsg) message.payload()).trackId());
+            case "BENCH_GET_PLAYLIST" -> bh.consume(message.payload());
+            case "BENCH_REMOVE_TRACK" -> bh.consume(((RemoveMsg) message.payload()).trackId());
+            case "BENCH_PING" -> bh.consume(3);
+            default -> bh.consume(message);
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Benchmark
+    public CompletableFuture<Void> behaviorTable_typedMessage(Blackhole bh) {
+        return BEHAVIOR.receive(bh, typed[nextIndex()], null);
+    }
+
+    @Benchmark
+    public CompletableFuture<Void> behaviorTable_namedMessage(Blackhole bh) {
+        return BEHAVIOR.receive(bh, named[nextIndex()], null);
+    }
+}
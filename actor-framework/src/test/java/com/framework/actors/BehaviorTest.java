@@ -0,0 +1,82 @@
+package com.framework.actors;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BehaviorTest {
+
+    record VoteMsg(long trackId, int delta) {}
+
+    static final MessageType<VoteMsg> VOTE = MessageType.of("BEHAVIOR_TEST_VOTE", VoteMsg.class);
+    static final MessageType<Void> CLEAR = MessageType.of("BEHAVIOR_TEST_CLEAR");
+
+    /**
+     * Acteur de test : journalise ce que ses handlers reçoivent.
+     */
+    static class Recorder {
+        final List<String> received = new ArrayList<>();
+    }
+
+    private static final Behavior<Recorder> BEHAVIOR = Behavior.<Recorder>builder()
+            .on(VOTE, (actor, vote, ctx) -> actor.received.add("vote " + vote.trackId() + " " + vote.delta()))
+            .onMessage(CLEAR, (actor, message, ctx) -> actor.received.add("clear deadline=" + message.deadline()))
+            .otherwise((actor, message, ctx) -> actor.received.add("unhandled " + message.type()))
+            .build();
+
+    private final ActorContext ctx = DeadlineTest.context();
+
+    @Test
+    void receive_shouldRouteTypedAndNamedMessagesToTheSameHandler() {
+        Recorder actor = new Recorder();
+
+        BEHAVIOR.receive(actor, Message.of(VOTE, new VoteMsg(1, +1)), ctx);
+        // Message construit par son nom (ex: reçu du réseau) : même id, même handler
+        BEHAVIOR.receive(actor, Message.of("BEHAVIOR_TEST_VOTE", new VoteMsg(2, -1)), ctx);
+        // Les copies (échéance, conflation) gardent l'id résolu
+        BEHAVIOR.receive(actor, Message.of(CLEAR, null).withDeadline(42), ctx);
+        BEHAVIOR.receive(actor, Message.of("BEHAVIOR_TEST_OTHER", null), ctx);
+
+        assertEquals(List.of("vote 1 1", "vote 2 -1", "clear deadline=42", "unhandled BEHAVIOR_TEST_OTHER"), actor.received);
+        assertTrue(BEHAVIOR.handles("BEHAVIOR_TEST_VOTE"));
+        assertFalse(BEHAVIOR.handles("BEHAVIOR_TEST_OTHER"));
+    }
+
+    @Test
+    void receive_shouldNotInternUndeclaredNames() {
+        Recorder actor = new Recorder();
+
+        BEHAVIOR.receive(actor, Message.of("BEHAVIOR_TEST_NEVER_DECLARED", null), ctx);
+
+        assertEquals(List.of("unhandled BEHAVIOR_TEST_NEVER_DECLARED"), actor.received);
+        assertFalse(BEHAVIOR.handles("BEHAVIOR_TEST_NEVER_DECLARED"));
+        // Ni la réception ni handles() n'ont ajouté le nom à la table des ids
+        assertEquals(0, MessageType.lookupId("BEHAVIOR_TEST_NEVER_DECLARED"));
+    }
+
+    @Test
+    void receive_shouldRejectWrongPayloadBeforeCallingHandler() {
+        Recorder actor = new Recorder();
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> BEHAVIOR.receive(actor, Message.of("BEHAVIOR_TEST_VOTE", "not a vote"), ctx));
+        assertTrue(error.getMessage().contains("BEHAVIOR_TEST_VOTE"), error.getMessage());
+        assertThrows(IllegalArgumentException.class,
+                () -> BEHAVIOR.receive(actor, Message.of("BEHAVIOR_TEST_CLEAR", 1), ctx));
+        assertTrue(actor.received.isEmpty());
+    }
+
+    @Test
+    void build_shouldRejectTypeHandledTwice() {
+        // Même nom, payloads différents : même id
+        MessageType<String> sameName = MessageType.of("BEHAVIOR_TEST_VOTE", String.class);
+
+        Behavior.Builder<Recorder> builder = Behavior.<Recorder>builder()
+                .on(VOTE, (actor, vote, ctx) -> { })
+                .on(sameName, (actor, text, ctx) -> { });
+        assertThrows(IllegalStateException.class, builder::build);
+    }
+}
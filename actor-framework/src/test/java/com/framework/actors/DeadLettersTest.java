@@ -0,0 +1,69 @@
+package com.framework.actors;
+
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadLettersTest {
+
+    private LocalDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void unknownTarget_shouldBeCountedPerPathAndType_andPublishedToSink() throws Exception {
+        dispatcher = new LocalDispatcher(1);
+        dispatcher.register("svc/deadLetters", new DeadLetterActor("deadLetters"), DeadlineTest.context());
+        dispatcher.deadLetters().attach("svc/deadLetters");
+
+        for (int i = 0; i < 5; i++) {
+            dispatcher.dispatch("djactor/dj-room-1", Message.of("PLAY", null), null);
+        }
+        dispatcher.dispatch("djactor/dj-room-1", Message.of("STOP_PLAYER", null), null);
+
+        // Un ask local vers un acteur inconnu échoue immédiatement
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        dispatcher.dispatch("djroom/room-gone", Message.of("GET_STATE", future), null);
+        ExecutionException error = assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+
+        DeadLetters deadLetters = dispatcher.deadLetters();
+        assertEquals(7, deadLetters.count(DeadLetters.Reason.UNKNOWN_TARGET));
+
+        List<DeadLetters.TargetCount> top = deadLetters.topTargets(2);
+        assertEquals(2, top.size());
+        assertEquals(new DeadLetters.TargetCount(DeadLetters.Reason.UNKNOWN_TARGET, "djactor/dj-room-1", "PLAY", 5), top.get(0));
+        assertEquals(1, top.get(1).count());
+
+        // L'acteur deadLetters a reçu chaque perte, dans l'ordre (GET_DEAD_LETTERS passe en voie CONTROL)
+        while (dispatcher.mailboxDepth("svc/deadLetters") > 0) {
+            Thread.sleep(5);
+        }
+        CompletableFuture<List<DeadLetters.DeadLetter>> recent = new CompletableFuture<>();
+        dispatcher.dispatch("svc/deadLetters", Message.of("GET_DEAD_LETTERS", recent), null);
+        List<DeadLetters.DeadLetter> letters = recent.get(1, TimeUnit.SECONDS);
+
+        assertEquals(7, letters.size());
+        assertEquals("PLAY", letters.get(0).type());
+        assertEquals("djroom/room-gone", letters.get(6).targetPath());
+    }
+
+    @Test
+    void missingSink_shouldNotLoop() {
+        dispatcher = new LocalDispatcher(1);
+        dispatcher.deadLetters().attach("svc/deadLetters");
+
+        dispatcher.dispatch("svc/unknown", Message.of("PING", null), null);
+
+        // La perte vers la cible, puis celle de sa publication au sink absent, et rien de plus
+        assertEquals(2, dispatcher.deadLetters().count(DeadLetters.Reason.UNKNOWN_TARGET));
+    }
+}
@@ -0,0 +1,87 @@
+package com.framework.actors;
+
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadlineTest {
+
+    private LocalDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    /**
+     * Contexte minimal : seul le dispatcher local est utilisé.
+     */
+    static ActorContext context() {
+        return new ActorContext() {
+            @Override public void tell(ActorRef to, Message message) {}
+            @Override public ActorRef self() { return null; }
+            @Override public ActorRef sender() { return null; }
+            @Override public ActorRef actorOf(Class<? extends Actor> actorClass, String name) { return null; }
+            @Override public ActorRef actorSelection(String p) { return null; }
+            @Override public void stop(ActorRef ref) {}
+            @Override public void watch(ActorRef ref) {}
+            @Override public void unwatch(ActorRef ref) {}
+            @Override public ScheduledFuture<?> scheduleOnce(long delayMs, Message message) { return null; }
+            @Override public ScheduledFuture<?> scheduleAtFixedRate(long initialDelayMs, long periodMs, Message message) { return null; }
+            @Override public ActorSystem system() { return null; }
+        };
+    }
+
+    @Test
+    void expiredMessages_shouldGoToDeadLetters_insteadOfOnReceive() throws Exception {
+        dispatcher = new LocalDispatcher();
+
+        List<String> received = new CopyOnWriteArrayList<>();
+        CountDownLatch busy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+
+        dispatcher.register("svc/slow", (message, ctx) -> {
+            received.add(message.type());
+            if ("BLOCK".equals(message.type())) {
+                busy.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if ("LAST".equals(message.type())) {
+                done.countDown();
+            }
+            return CompletableFuture.completedFuture(null);
+        }, context());
+
+        // Déjà échu à l'envoi : écarté dès le dispatch, le future de l'ask local échoue
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        dispatcher.dispatch("svc/slow", Message.of("GET", future).withDeadline(System.currentTimeMillis() - 1), null);
+        ExecutionException error = assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, error.getCause());
+
+        // Échu pendant l'attente en mailbox, derrière un message lent
+        dispatcher.dispatch("svc/slow", Message.of("BLOCK", null), null);
+        assertTrue(busy.await(1, TimeUnit.SECONDS));
+        dispatcher.dispatch("svc/slow", Message.of("PLAY", null).expiringIn(50), null);
+        dispatcher.dispatch("svc/slow", Message.of("LAST", null).expiringIn(60_000), null);
+        Thread.sleep(120);
+        release.countDown();
+
+        assertTrue(done.await(1, TimeUnit.SECONDS));
+        assertEquals(List.of("BLOCK", "LAST"), received);
+        assertEquals(2, dispatcher.deadLetters().count(DeadLetters.Reason.EXPIRED));
+    }
+}
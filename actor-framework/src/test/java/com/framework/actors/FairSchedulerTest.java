@@ -0,0 +1,101 @@
+package com.framework.actors;
+
+import org.junit.jupiter.api.*;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FairSchedulerTest {
+
+    private LocalDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    /**
+     * Acteur qui consomme ~1 ms de CPU par message, rattaché à un groupe.
+     */
+    static Actor busyActor(String group, int weight, CountDownLatch processed) {
+        return new Actor() {
+            @Override
+            public CompletableFuture<Void> onReceive(Message message, ActorContext ctx) {
+                long end = System.nanoTime() + 1_000_000L;
+                while (System.nanoTime() < end) {
+                    Thread.onSpinWait();
+                }
+                processed.countDown();
+                return CompletableFuture.completedFuture(null);
+            }
+
+            @Override
+            public String schedulingGroup() {
+                return group;
+            }
+
+            @Override
+            public int schedulingWeight() {
+                return weight;
+            }
+        };
+    }
+
+    @Test
+    void quietRoom_shouldNotWaitBehindBusyRoom() throws Exception {
+        dispatcher = new LocalDispatcher(1);
+
+        CountDownLatch hot = new CountDownLatch(400);
+        dispatcher.register("svc/room-hot", busyActor("room-hot", 1, hot), DeadlineTest.context());
+        dispatcher.register("svc/playlist-room-hot", busyActor("room-hot", 1, hot), DeadlineTest.context());
+
+        CountDownLatch quiet = new CountDownLatch(1);
+        dispatcher.register("svc/room-quiet", (message, ctx) -> {
+            quiet.countDown();
+            return CompletableFuture.completedFuture(null);
+        }, DeadlineTest.context());
+
+        for (int i = 0; i < 200; i++) {
+            dispatcher.dispatch("svc/room-hot", Message.of("VOTE_TRACK", null), null);
+            dispatcher.dispatch("svc/playlist-room-hot", Message.of("VOTE_TRACK", null), null);
+        }
+        Thread.sleep(20);
+
+        // ~400 ms de travail en attente dans la room chargée : la room calme passe après une tranche au plus
+        long start = System.nanoTime();
+        dispatcher.dispatch("svc/room-quiet", Message.of("JOIN_ROOM", null), null);
+        assertTrue(quiet.await(1, TimeUnit.SECONDS));
+        long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(waitedMs < 50, "quiet room waited " + waitedMs + " ms");
+        assertTrue(hot.getCount() > 0, "busy room should still have pending work");
+    }
+
+    @Test
+    void cpuTime_shouldBeSharedAccordingToWeights() throws Exception {
+        dispatcher = new LocalDispatcher(1);
+
+        CountDownLatch light = new CountDownLatch(300);
+        CountDownLatch heavy = new CountDownLatch(300);
+        dispatcher.register("svc/room-light", busyActor("room-light", 1, light), DeadlineTest.context());
+        dispatcher.register("svc/room-heavy", busyActor("room-heavy", 3, heavy), DeadlineTest.context());
+
+        for (int i = 0; i < 300; i++) {
+            dispatcher.dispatch("svc/room-light", Message.of("WORK", null), null);
+            dispatcher.dispatch("svc/room-heavy", Message.of("WORK", null), null);
+        }
+
+        // Tant que les deux rooms sont chargées, la plus lourde obtient environ 3 fois plus de CPU
+        assertTrue(heavy.await(5, TimeUnit.SECONDS));
+        Map<String, Long> cpu = dispatcher.schedulerStats().stream()
+                .collect(Collectors.toMap(FairScheduler.GroupStats::group, FairScheduler.GroupStats::cpuNanos));
+
+        assertTrue(light.getCount() > 0, "light room should not be done before the heavy one");
+        assertTrue(cpu.get("room-heavy") > 2 * cpu.get("room-light"), "cpu per group: " + cpu);
+    }
+}
@@ -0,0 +1,145 @@
+package com.framework.actors;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MailboxTest {
+
+    /**
+     * Référence de test : enregistre les messages reçus.
+     */
+    static final class Probe implements ActorRef {
+        final String path;
+        final List<Message> received = new ArrayList<>();
+
+        Probe(String path) {
+            this.path = path;
+        }
+
+        @Override
+        public String path() {
+            return path;
+        }
+
+        @Override
+        public boolean isLocal() {
+            return true;
+        }
+
+        @Override
+        public void tell(Message message, ActorRef sender) {
+            received.add(message);
+        }
+    }
+
+    private static List<String> drain(Mailbox mailbox) {
+        List<String> types = new ArrayList<>();
+        Mailbox.Envelope envelope;
+        while ((envelope = mailbox.poll()) != null) {
+            types.add(envelope.message().type() + (envelope.message().payload() != null && !(envelope.message().payload() instanceof CompletableFuture<?>)
+                    ? ":" + envelope.message().payload() : ""));
+        }
+        return types;
+    }
+
+    @Test
+    void replace_shouldKeepLatest_atTailPosition() throws Exception {
+        Mailbox mailbox = new Mailbox();
+
+        mailbox.enqueue(Message.of("PLAY", 1).superseding(), null);
+        mailbox.enqueue(Message.of("PAUSE", null), null);
+        mailbox.enqueue(Message.of("PLAY", 2).superseding(), null);
+        mailbox.enqueue(Message.of("PLAY", 3).superseding(), null);
+
+        // PLAY, PAUSE, PLAY : le dernier PLAY reste après PAUSE
+        assertEquals(List.of("PAUSE", "PLAY:3"), drain(mailbox));
+    }
+
+    @Test
+    void coalesce_shouldRunOnce_andAnswerEveryAsker() throws Exception {
+        Mailbox mailbox = new Mailbox();
+        Probe a = new Probe("svc/a");
+        Probe b = new Probe("svc/b");
+        CompletableFuture<Object> f1 = new CompletableFuture<>();
+        CompletableFuture<Object> f2 = new CompletableFuture<>();
+
+        mailbox.enqueue(Message.of("GET_STATE", null).coalescing(), a);
+        mailbox.enqueue(Message.of("GET_STATE", null).coalescing(), b);
+        mailbox.enqueue(Message.of("GET_STATE", f1).coalescing(), null);
+        mailbox.enqueue(Message.of("GET_STATE", f2).coalescing(), null);
+
+        Mailbox.Envelope first = mailbox.poll();
+        Mailbox.Envelope second = mailbox.poll();
+        assertNull(mailbox.poll());
+
+        // Réponse par message : les deux demandeurs reçoivent la même réponse
+        first.sender().tell(Message.of("STATE", "s"), null);
+        assertEquals(1, a.received.size());
+        assertEquals(1, b.received.size());
+
+        // Ask local : le future retenu est le dernier (f2) ; le compléter complète aussi le précédent
+        assertSame(f2, second.message().payload());
+        f2.complete("s");
+        assertEquals("s", f1.getNow(null));
+    }
+
+    @Test
+    void unkeyedMessages_shouldKeepFifoOrder() throws Exception {
+        Mailbox mailbox = new Mailbox();
+
+        mailbox.enqueue(Message.of("A", null), null);
+        mailbox.enqueue(Message.of("GET_STATE", null).coalescing(), null);
+        mailbox.enqueue(Message.of("B", null), null);
+        mailbox.enqueue(Message.of("GET_STATE", null).coalescing(), null);
+
+        assertEquals(List.of("A", "B", "GET_STATE"), drain(mailbox));
+    }
+
+    @Test
+    void lanes_shouldLetControlOvertakeBulkFlood_withWeightedRoundRobin() throws Exception {
+        Mailbox mailbox = new Mailbox(LanePolicy.defaults()
+                .system("STOP")
+                .control("PLAY")
+                .weights(8, 4, 1));
+
+        for (int i = 0; i < 100; i++) {
+            mailbox.enqueue(Message.of("SEND_CHAT", i), null);
+        }
+        mailbox.enqueue(Message.of("PLAY", null), null);
+        mailbox.enqueue(Message.of("STOP", null), null);
+
+        assertEquals(Map.of(MailboxLane.SYSTEM, 1, MailboxLane.CONTROL, 1, MailboxLane.BULK, 100), mailbox.depths());
+
+        List<String> order = drain(mailbox);
+        assertEquals(102, order.size());
+        assertTrue(order.indexOf("STOP") <= 1, order.toString());
+        assertTrue(order.indexOf("PLAY") <= 2, order.toString());
+        // FIFO conservé dans la voie BULK
+        assertEquals("SEND_CHAT:0", order.stream().filter(t -> t.startsWith("SEND_CHAT")).findFirst().orElseThrow());
+        assertEquals("SEND_CHAT:99", order.get(order.size() - 1));
+    }
+
+    @Test
+    void depthAndOldestAge_shouldIgnoreSupersededMessages() throws Exception {
+        Mailbox mailbox = new Mailbox();
+        assertEquals(0, mailbox.depth());
+        assertEquals(0, mailbox.oldestMessageAgeMs());
+
+        mailbox.enqueue(Message.of("PLAY", null).superseding(), null);
+        Thread.sleep(30);
+        mailbox.enqueue(Message.of("PLAY", null).superseding(), null);
+
+        // Le premier PLAY est remplacé : le plus ancien message vivant vient d'arriver
+        assertEquals(1, mailbox.depth());
+        assertTrue(mailbox.oldestMessageAgeMs() < 30);
+
+        Thread.sleep(30);
+        assertTrue(mailbox.oldestMessageAgeMs() >= 30);
+    }
+}
@@ -0,0 +1,220 @@
+package com.framework.actors;
+
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SupervisionTest {
+
+    // Journal partagé : décisions des parents, démarrages, arrêts, messages traités
+    static final Queue<String> events = new ConcurrentLinkedQueue<>();
+    static final Queue<Long> starts = new ConcurrentLinkedQueue<>();
+
+    private ActorSystem system;
+
+    @BeforeEach
+    void setup() {
+        events.clear();
+        starts.clear();
+        system = ActorSystem.local("svc", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        system.close();
+    }
+
+    /**
+     * Parent : crée "worker" et décide pour lui (RESUME sur IllegalArgumentException, STOP sinon).
+     */
+    public static class ParentActor implements Actor {
+        public ParentActor(String name) {
+        }
+
+        @Override
+        public void preStart(ActorContext ctx) {
+            ctx.watch(ctx.actorOf(WorkerActor.class, "worker"));
+        }
+
+        @Override
+        public SupervisionDirective supervisorStrategy(ActorRef child, Throwable cause) {
+            events.add("strategy " + child.path());
+            return cause instanceof IllegalArgumentException ? SupervisionDirective.RESUME : SupervisionDirective.STOP;
+        }
+
+        @Override
+        public CompletableFuture<Void> onReceive(Message message, ActorContext ctx) {
+            if (ActorSystem.TERMINATED.equals(message.type())) {
+                events.add("terminated " + message.payload());
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * Enfant : échoue sur BAD_INPUT et POISON (onFailure par défaut : ESCALATE).
+     */
+    public static class WorkerActor implements Actor {
+        public WorkerActor(String name) {
+        }
+
+        @Override
+        public CompletableFuture<Void> onReceive(Message message, ActorContext ctx) {
+            switch (message.type()) {
+                case "BAD_INPUT" -> throw new IllegalArgumentException("bad input");
+                case "POISON" -> throw new IllegalStateException("poison");
+                default -> events.add("processed " + message.type());
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void postStop(ActorContext ctx) {
+            events.add("postStop worker");
+        }
+    }
+
+    /**
+     * Acteur de premier niveau dont preStart échoue après le premier démarrage.
+     */
+    public static class CrashLoopActor implements Actor {
+        private final AtomicInteger started = new AtomicInteger();
+
+        public CrashLoopActor(String name) {
+        }
+
+        @Override
+        public void preStart(ActorContext ctx) {
+            starts.add(System.nanoTime());
+            if (started.incrementAndGet() > 1) {
+                throw new IllegalStateException("still broken");
+            }
+        }
+
+        @Override
+        public CompletableFuture<Void> onReceive(Message message, ActorContext ctx) {
+            throw new IllegalStateException("poison");
+        }
+    }
+
+    /**
+     * Grand-parent : crée "middle", qui escalade tout (stratégie par défaut : RESTART).
+     */
+    public static class RootActor implements Actor {
+        public RootActor(String name) {
+        }
+
+        @Override
+        public void preStart(ActorContext ctx) {
+            ctx.actorOf(EscalatingParentActor.class, "middle");
+        }
+
+        @Override
+        public CompletableFuture<Void> onReceive(Message message, ActorContext ctx) {
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    public static class EscalatingParentActor implements Actor {
+        public EscalatingParentActor(String name) {
+        }
+
+        @Override
+        public void preStart(ActorContext ctx) {
+            events.add("start middle");
+            ctx.actorOf(WorkerActor.class, "leaf");
+        }
+
+        @Override
+        public SupervisionDirective supervisorStrategy(ActorRef child, Throwable cause) {
+            return SupervisionDirective.ESCALATE;
+        }
+
+        @Override
+        public CompletableFuture<Void> onReceive(Message message, ActorContext ctx) {
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    @Test
+    void childFailure_shouldBeDecidedByParentStrategy() throws Exception {
+        system.actorOf(ParentActor.class, "parent");
+        ActorRef worker = system.actorSelection("svc/worker");
+
+        // RESUME : le message suivant est traité normalement
+        worker.tell(Message.of("BAD_INPUT", null), null);
+        worker.tell(Message.of("PING", null), null);
+        awaitEvent("processed PING");
+        assertEquals(1, events.stream().filter(e -> e.equals("strategy svc/worker")).count());
+
+        // STOP : l'enfant est arrêté et le parent, qui l'observe, en est notifié
+        CompletableFuture<Void> terminated = system.whenTerminated(worker);
+        worker.tell(Message.of("POISON", null), null);
+        terminated.get(1, TimeUnit.SECONDS);
+        awaitEvent("terminated svc/worker");
+        assertTrue(events.contains("postStop worker"));
+        assertThrows(RuntimeException.class, () -> system.actorSelection("svc/worker"));
+        assertNotNull(system.actorSelection("svc/parent"));
+    }
+
+    @Test
+    void crashLoop_shouldBackOffExponentially_thenStop() throws Exception {
+        system.supervisor().configure(50, 1000, 3, 60_000);
+        assertEquals(50, system.supervisor().backoffMs(1));
+        assertEquals(200, system.supervisor().backoffMs(3));
+        assertEquals(1000, system.supervisor().backoffMs(30));
+
+        ActorRef crashing = system.actorOf(CrashLoopActor.class, "crashing");
+        CompletableFuture<Void> terminated = system.whenTerminated(crashing);
+        crashing.tell(Message.of("POISON", null), null);
+
+        // 3 redémarrages (50, 100, 200 ms) puis arrêt au 4e échec
+        terminated.get(2, TimeUnit.SECONDS);
+        List<Long> times = List.copyOf(starts);
+        assertEquals(4, times.size());
+
+        long[] expectedGapsMs = {50, 100, 200};
+        for (int i = 0; i < expectedGapsMs.length; i++) {
+            long gapMs = TimeUnit.NANOSECONDS.toMillis(times.get(i + 1) - times.get(i));
+            assertTrue(gapMs >= expectedGapsMs[i] - 5, "restart " + (i + 1) + " after " + gapMs + " ms");
+        }
+    }
+
+    @Test
+    void escalatingParent_shouldBeRestartedByGrandParent_withItsSubtree() throws Exception {
+        system.supervisor().configure(10, 100, 10, 60_000);
+        system.actorOf(RootActor.class, "root");
+        ActorRef leaf = system.actorSelection("svc/leaf");
+        CompletableFuture<Void> leafTerminated = system.whenTerminated(leaf);
+
+        // leaf -> middle (ESCALATE, middle en échec) -> root décide pour middle : RESTART
+        leaf.tell(Message.of("POISON", null), null);
+
+        leafTerminated.get(1, TimeUnit.SECONDS);
+        awaitEvent("start middle", 2);
+        assertNotNull(system.actorSelection("svc/root"));
+
+        ActorRef newLeaf = system.actorSelection("svc/leaf");
+        newLeaf.tell(Message.of("PING", null), null);
+        awaitEvent("processed PING");
+    }
+
+    private static void awaitEvent(String event) throws InterruptedException {
+        awaitEvent(event, 1);
+    }
+
+    private static void awaitEvent(String event, int times) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 1000;
+        while (events.stream().filter(e -> e.equals(event)).count() < times && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(events.stream().filter(e -> e.equals(event)).count() >= times, events.toString());
+    }
+}
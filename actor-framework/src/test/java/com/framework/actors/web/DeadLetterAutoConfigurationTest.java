@@ -0,0 +1,45 @@
+package com.framework.actors.web;
+
+import com.framework.actors.ActorSystem;
+import org.junit.jupiter.api.*;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeadLetterAutoConfigurationTest {
+
+    @Configuration
+    static class ActorConfig {
+        @Bean(destroyMethod = "close")
+        ActorSystem actorSystem() {
+            return ActorSystem.create("svc", null, 1);
+        }
+    }
+
+    private final WebApplicationContextRunner web = new WebApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(DeadLetterAutoConfiguration.class));
+
+    @Test
+    void webServiceWithActorSystem_shouldExposeController() {
+        web.withUserConfiguration(ActorConfig.class)
+                .run(context -> assertThat(context).hasSingleBean(DeadLetterController.class));
+    }
+
+    @Test
+    void controller_shouldBeSkipped_withoutActorSystem_outsideWeb_orWhenDisabled() {
+        web.run(context -> assertThat(context).doesNotHaveBean(DeadLetterController.class));
+
+        web.withUserConfiguration(ActorConfig.class)
+                .withPropertyValues("actors.dead-letters.endpoint.enabled=false")
+                .run(context -> assertThat(context).doesNotHaveBean(DeadLetterController.class));
+
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(DeadLetterAutoConfiguration.class))
+                .withUserConfiguration(ActorConfig.class)
+                .run(context -> assertThat(context).doesNotHaveBean(DeadLetterController.class));
+    }
+}
@@ -0,0 +1,31 @@
+package com.framework.media;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MpegFrameHeaderTest {
+
+    @Test
+    void parse_shouldDecodeCommonHeaders() {
+        // MPEG-1 layer III, 128 kbps, 44.1 kHz, stéréo : 144 * 128000 / 44100 = 417 octets
+        MpegFrameHeader stereo = MpegFrameHeader.parse(0xFFFB9000);
+        assertEquals(new MpegFrameHeader(true, 3, 44100, 1152, 417, false), stereo);
+
+        // Même trame avec octet de bourrage, en mono
+        assertEquals(418, MpegFrameHeader.parse(0xFFFB92C0).length());
+        assertTrue(MpegFrameHeader.parse(0xFFFB92C0).mono());
+
+        // MPEG-2 layer III, 64 kbps, 22.05 kHz : 576 échantillons, 72 * 64000 / 22050 = 208 octets
+        assertEquals(new MpegFrameHeader(false, 3, 22050, 576, 208, false), MpegFrameHeader.parse(0xFFF38000));
+    }
+
+    @Test
+    void parse_shouldRejectInvalidHeaders() {
+        assertNull(MpegFrameHeader.parse(0x49443303));   // "ID3" : pas de synchro
+        assertNull(MpegFrameHeader.parse(0xFFFBF000));   // bitrate réservé
+        assertNull(MpegFrameHeader.parse(0xFFFB0000));   // free format
+        assertNull(MpegFrameHeader.parse(0xFFFB9C00));   // fréquence réservée
+        assertNull(MpegFrameHeader.parse(0xFFEB9000));   // version réservée
+    }
+}
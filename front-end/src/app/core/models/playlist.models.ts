@@ -11,4 +11,5 @@ export interface PlaylistTrackDto {
 
 export interface PlaylistStateDto {
   tracks: PlaylistTrackDto[];
+  version?: string;
 }
@@ -1,4 +1,5 @@
 // src/app/core/models/room.models.ts
+import { PlaylistStateDto } from './playlist.models';
 
 export interface CreateRoomRequest {
   userId: string;
@@ -22,6 +23,33 @@ export interface AddTrackRequest {
   durationMs: number;
 }
 
+// GET /api/rooms/{roomId}/snapshot : room + playlist + player + chat en un appel
+// (une source en retard est marquée STALE / TIMEOUT / UNAVAILABLE dans sources)
+export interface RoomSnapshot {
+  roomId: string;
+  version: string | null;
+  room: {
+    roomId: string;
+    members: string[];
+    hostUserId: string;
+    status: string;
+    playlistSize: number;
+  } | null;
+  playlist: PlaylistStateDto | null;
+  player: (PlayerState & { positionAt: number; version: string }) | null;
+  chat: { memberCount: number; nextSeq: number; version: string } | null;
+  sources: Record<string, 'OK' | 'STALE' | 'TIMEOUT' | 'UNAVAILABLE'>;
+}
+
+// Résultat de GET /api/catalog/search (autocomplétion de l'ajout de track)
+export interface CatalogEntry {
+  fileName: string;
+  url: string;
+  title: string;
+  artist: string | null;
+  durationMs: number;
+}
+
 export interface VoteTrackRequest {
   userId: string;
   delta: number; // +1 / -1
@@ -39,4 +67,8 @@ export interface PlayerState {
   positionMs: number;
   durationMs: number;
   queueSize: number;
+  // Prochain track à précharger (émis ~30 s avant la fin du track courant)
+  preloadTrackId?: number | null;
+  preloadUrl?: string | null;
+  preloadTitle?: string | null;
 }
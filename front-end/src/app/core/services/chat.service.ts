@@ -1,8 +1,9 @@
-import { HttpClient } from '@angular/common/http';
+import { HttpClient, HttpParams } from '@angular/common/http';
 import { Injectable } from '@angular/core';
 import { Observable } from 'rxjs';
 
 export interface ChatLine {
+  seq: number; // séquence par room (curseur de pagination)
   userId: string;
   roomId: string;
   message: string;
@@ -13,8 +14,22 @@ export interface ChatLine {
 export class ChatService {
   constructor(private http: HttpClient) {}
 
-  getHistory(roomId: string): Observable<ChatLine[]> {
-    return this.http.get<ChatLine[]>(`/api/chat/${roomId}/history`);
+  // Sans curseur : les `limit` derniers messages
+  getHistory(roomId: string, limit = 50): Observable<ChatLine[]> {
+    const params = new HttpParams().set('limit', limit);
+    return this.http.get<ChatLine[]>(`/api/chat/${roomId}/history`, { params });
+  }
+
+  // Page précédant `seq` (scroll vers le haut)
+  getBefore(roomId: string, seq: number, limit = 50): Observable<ChatLine[]> {
+    const params = new HttpParams().set('before', seq).set('limit', limit);
+    return this.http.get<ChatLine[]>(`/api/chat/${roomId}/history`, { params });
+  }
+
+  // Messages arrivés après `seq` (rafraîchissement incrémental)
+  getAfter(roomId: string, seq: number, limit = 500): Observable<ChatLine[]> {
+    const params = new HttpParams().set('after', seq).set('limit', limit);
+    return this.http.get<ChatLine[]>(`/api/chat/${roomId}/history`, { params });
   }
 
   send(roomId: string, userId: string, message: string): Observable<string> {
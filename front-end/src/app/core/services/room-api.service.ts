@@ -7,7 +7,9 @@ import {
   JoinRoomRequest,
   AddTrackRequest,
   VoteTrackRequest,
-  ChatMessageRequest
+  ChatMessageRequest,
+  CatalogEntry,
+  RoomSnapshot
 } from '../models/room.models';
 import { Observable } from 'rxjs';
 import { PlaylistStateDto } from '../models/playlist.models';
@@ -18,6 +20,7 @@ export class RoomApiService {
   private readonly baseUrl = '/api/rooms';
   // Si tu ne veux pas de proxy : private readonly baseUrl = 'http://localhost:8082/api/rooms';
   private readonly playerBaseUrl = '/api/player';
+  private readonly catalogBaseUrl = '/api/catalog';
   constructor(private http: HttpClient) {}
 
   // ---------- CREATE ROOM : renvoie un vrai JSON ----------
@@ -59,6 +62,16 @@ export class RoomApiService {
     );
   }
 
+  // Votes de l'utilisateur sur les tracks en file : trackId -> +1 / -1
+  getMyVotes(roomId: string, userId: string): Observable<Record<number, number>> {
+    return this.http.get<Record<number, number>>(`${this.baseUrl}/${roomId}/votes`, { params: { userId } });
+  }
+
+  // ---------- CATALOGUE (autocomplétion) ----------
+  searchCatalog(q: string, limit = 10): Observable<CatalogEntry[]> {
+    return this.http.get<CatalogEntry[]>(`${this.catalogBaseUrl}/search`, { params: { q, limit } });
+  }
+
   // ---------- PLAYER ----------
   play(roomId: string): Observable<string> {
     return this.http.post<string>(
@@ -97,6 +110,11 @@ export class RoomApiService {
   getPlaylist(roomId: string): Observable<PlaylistStateDto> {
     return this.http.get<PlaylistStateDto>(`${this.baseUrl}/${roomId}/playlist`);
   }
+  // Snapshot agrégé ; ETag géré par le cache HTTP du navigateur (304 quand rien n'a changé)
+  getRoomSnapshot(roomId: string): Observable<RoomSnapshot> {
+    return this.http.get<RoomSnapshot>(`${this.baseUrl}/${roomId}/snapshot`);
+  }
+
   getPlayerState(roomId: string) {
     return this.http.get<PlayerState>(`${this.playerBaseUrl}/${roomId}/state`);
   }
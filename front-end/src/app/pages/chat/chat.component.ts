@@ -1,5 +1,5 @@
 import { ChangeDetectorRef, Component, Input, OnDestroy, OnInit } from '@angular/core';
-import { interval, Subject, switchMap, takeUntil } from 'rxjs';
+import { interval, Observable, Subject, switchMap, takeUntil } from 'rxjs';
 import { ChatLine, ChatService } from '../../core/services/chat.service';
 import { MaterialModule } from '../../shared/material.module';
 import { FormsModule } from '@angular/forms';
@@ -19,6 +19,10 @@ export class ChatComponent implements OnInit, OnDestroy {
   message = '';
   error: string | null = null;
 
+  // false dès qu'une page "before" revient incomplète : début de l'historique atteint
+  hasOlder = true;
+  private readonly pageSize = 50;
+
   private destroy$ = new Subject<void>();
 
   constructor(
@@ -32,13 +36,11 @@ export class ChatComponent implements OnInit, OnDestroy {
     interval(1000)
       .pipe(
         takeUntil(this.destroy$),
-        switchMap(() => this.chat.getHistory(this.roomId))
+        switchMap(() => this.fetchNew())
       )
       .subscribe({
         next: (data) => {
-          console.log('[CHAT] history', data);
-
-          this.lines = data ?? [];
+          this.append(data ?? []);
           this.error = null;
 
           // utile si app "zoneless" ou updates hors zone
@@ -60,8 +62,8 @@ export class ChatComponent implements OnInit, OnDestroy {
       next: () => {
         this.message = '';
         // Optionnel: refresh immédiat (sinon tu attends max 1s)
-        this.chat.getHistory(this.roomId).subscribe((data) => {
-          this.lines = data ?? [];
+        this.fetchNew().subscribe((data) => {
+          this.append(data ?? []);
           this.cdr.detectChanges();
         });
       },
@@ -72,8 +74,46 @@ export class ChatComponent implements OnInit, OnDestroy {
     });
   }
 
-  trackByIdx(i: number): number {
-    return i;
+  // Charge la page précédant le plus ancien message affiché
+  loadOlder(): void {
+    if (!this.lines.length) return;
+
+    this.chat.getBefore(this.roomId, this.lines[0].seq, this.pageSize).subscribe({
+      next: (data) => {
+        const older = data ?? [];
+        this.hasOlder = older.length === this.pageSize;
+        this.lines = [...older, ...this.lines];
+        this.cdr.detectChanges();
+      },
+      error: () => {
+        this.error = "Impossible de récupérer l'historique du chat.";
+        this.cdr.detectChanges();
+      },
+    });
+  }
+
+  trackBySeq(_: number, line: ChatLine): number {
+    return line.seq;
+  }
+
+  // Premier chargement : dernière page ; ensuite uniquement les messages après le dernier seq connu
+  private fetchNew(): Observable<ChatLine[]> {
+    if (!this.lines.length) {
+      return this.chat.getHistory(this.roomId, this.pageSize);
+    }
+    return this.chat.getAfter(this.roomId, this.lines[this.lines.length - 1].seq);
+  }
+
+  private append(data: ChatLine[]): void {
+    if (!this.lines.length) {
+      this.hasOlder = data.length === this.pageSize;
+    }
+
+    const lastSeq = this.lines.length ? this.lines[this.lines.length - 1].seq : -1;
+    const fresh = data.filter((l) => l.seq > lastSeq);
+    if (fresh.length) {
+      this.lines = [...this.lines, ...fresh];
+    }
   }
 
   ngOnDestroy(): void {
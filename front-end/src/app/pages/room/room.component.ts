@@ -9,10 +9,10 @@ import {
 import { ActivatedRoute } from '@angular/router';
 import { CommonModule } from '@angular/common';
 import { FormsModule } from '@angular/forms';
-import { Subscription, timer, switchMap } from 'rxjs';
+import { Subject, Subscription, timer, switchMap, debounceTime, distinctUntilChanged, of } from 'rxjs';
 
 import { RoomApiService } from '../../core/services/room-api.service';
-import { AddTrackRequest, PlayerState } from '../../core/models/room.models';
+import { AddTrackRequest, CatalogEntry, PlayerState } from '../../core/models/room.models';
 import { MaterialModule } from '../../shared/material.module';
 import { PlaylistTrackDto } from '../../core/models/playlist.models';
 import { ChatComponent } from '../chat/chat.component';
@@ -31,6 +31,10 @@ export class RoomComponent implements OnInit, OnDestroy {
   trackUrl = '';
   durationMs: number | null = 180_000;
 
+  // Autocomplétion du titre depuis le catalogue de la bibliothèque
+  suggestions: CatalogEntry[] = [];
+  private readonly titleInput$ = new Subject<string>();
+
   isAdding = false;
   isLoadingPlaylist = false;
   isLoadingPlayerState = false;
@@ -41,6 +45,7 @@ export class RoomComponent implements OnInit, OnDestroy {
 
   @ViewChild('audioPlayer') audioPlayerRef?: ElementRef<HTMLAudioElement>;
   private lastAppliedAudioUrl: string | null = null;
+  private lastPreloadedUrl: string | null = null;
 
   displayPositionMs = 0;
   displayDurationMs = 0;
@@ -121,12 +126,29 @@ export class RoomComponent implements OnInit, OnDestroy {
         error: () => {},
       });
 
+    // Un seul appel pour la room : la playlist vient du snapshot agrégé
+    // (si la source playlist n'a pas répondu, on garde l'affichage courant)
     this.playlistPollingSub = timer(0, 2000)
-      .pipe(switchMap(() => this.roomApi.getPlaylist(this.roomId)))
+      .pipe(switchMap(() => this.roomApi.getRoomSnapshot(this.roomId)))
       .subscribe({
-        next: (state) => (this.playlist = state?.tracks ?? []),
+        next: (snapshot) => {
+          if (snapshot?.playlist) this.playlist = snapshot.playlist.tracks ?? [];
+        },
         error: () => {},
       });
+
+    this.subs.push(
+      this.titleInput$
+        .pipe(
+          debounceTime(150),
+          distinctUntilChanged(),
+          switchMap((q) => (q.trim() ? this.roomApi.searchCatalog(q) : of([])))
+        )
+        .subscribe({
+          next: (entries) => (this.suggestions = entries),
+          error: () => (this.suggestions = []),
+        })
+    );
   }
 
   ngOnDestroy(): void {
@@ -172,6 +194,23 @@ export class RoomComponent implements OnInit, OnDestroy {
     this.subs.push(sub);
   }
 
+  onTitleInput(value: string | CatalogEntry): void {
+    // Une option choisie dans la liste arrive ici sous forme d'objet : pas de nouvelle recherche
+    if (typeof value === 'string') {
+      this.titleInput$.next(value);
+    }
+  }
+
+  displayTitle = (value: string | CatalogEntry | null): string =>
+    typeof value === 'string' ? value : value?.title ?? '';
+
+  selectSuggestion(entry: CatalogEntry): void {
+    this.trackTitle = entry.title;
+    this.trackUrl = entry.url;
+    this.durationMs = entry.durationMs > 0 ? entry.durationMs : 180_000;
+    this.suggestions = [];
+  }
+
   addTrack(): void {
     if (!this.trackTitle || !this.trackUrl) {
       this.error = 'Titre et URL sont obligatoires';
@@ -269,6 +308,18 @@ export class RoomComponent implements OnInit, OnDestroy {
     }
 
     this.applyStateToAudio();
+    this.preloadNext(state);
+  }
+
+  // Hint PRELOAD du DJActor, lu dans l'état récupéré par le polling (pas de push serveur) :
+  // on télécharge le prochain track en avance (cache HTTP), pour que le changement de morceau
+  // ne parte pas d'un buffer vide
+  private preloadNext(state: PlayerState): void {
+    const url = state.preloadUrl;
+    if (!url || url === this.lastPreloadedUrl || url === state.currentUrl) return;
+
+    this.lastPreloadedUrl = url;
+    fetch(url, { cache: 'force-cache' }).then((res) => res.blob()).catch(() => {});
   }
 
   private computeTargetPositionMs(state: PlayerState): number {
@@ -2,8 +2,10 @@ package com.chatactor;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class ChatactorApplication {
     public static void main(String[] args) {
         SpringApplication.run(ChatactorApplication.class, args);
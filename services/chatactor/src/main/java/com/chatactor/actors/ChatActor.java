@@ -4,11 +4,15 @@ import com.chatactor.model.ChatLine;
 import com.chatactor.store.ChatStore;
 import com.framework.actors.Actor;
 import com.framework.actors.ActorContext;
+import com.framework.actors.Behavior;
+import com.framework.actors.LanePolicy;
 import com.framework.actors.Message;
+import com.framework.actors.MessageType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
@@ -20,11 +24,36 @@ public class ChatActor implements Actor {
 
     private static final Logger log = LoggerFactory.getLogger(ChatActor.class);
 
+    // Protocole : messages envoyés par le RoomActor de djroom (payload Map JSON via RabbitMQ, records en local)
+    static final MessageType<Object> USER_JOINED = MessageType.of("USER_JOINED", Object.class);
+    static final MessageType<Object> USER_LEFT = MessageType.of("USER_LEFT", Object.class);
+    static final MessageType<Object> SEND_MESSAGE = MessageType.of("SEND_MESSAGE", Object.class);
+    static final MessageType<Object> GET_CHAT_STATE = MessageType.of("GET_CHAT_STATE", Object.class);
+    static final MessageType<Object> CLOSE_CHAT = MessageType.of("CLOSE_CHAT", Object.class);
+
+    // Table de dispatch, partagée par tous les ChatActor
+    private static final Behavior<ChatActor> BEHAVIOR = Behavior.<ChatActor>builder()
+            .on(USER_JOINED, ChatActor::handleUserJoined)
+            .on(USER_LEFT, ChatActor::handleUserLeft)
+            .on(SEND_MESSAGE, ChatActor::handleSendMessage)
+            .on(GET_CHAT_STATE, (actor, payload, ctx) -> actor.handleGetChatState(ctx))
+            .on(CLOSE_CHAT, (actor, payload, ctx) -> actor.handleCloseChat(ctx))
+            .otherwise((actor, message, ctx) ->
+                    log.warn("Unknown message type for ChatActor {}: {}", actor.roomId, message.type()))
+            .build();
+
     private String roomId;
     private final Set<String> members = new HashSet<>();
 
-    // Historique en mémoire pour la room
-    private ChatHistory history;
+    // Séquence du prochain message (curseur de pagination de l'historique)
+    private long nextSeq;
+
+    // Version de l'état exposé par GET_CHAT_STATE : démarrage de l'acteur + nombre de changements
+    private final long epoch = System.currentTimeMillis();
+    private long changes;
+
+    // Nombre de derniers messages joints à CHAT_STATE
+    private static final int RECENT_LIMIT = 20;
 
     public ChatActor() {
         // compatible si instanciation sans argument
@@ -37,13 +66,11 @@ public class ChatActor implements Actor {
 
     /**
      * Initialisation :
-     * - instancie l'historique
      * - dérive roomId depuis le path de l'acteur
+     * - reprend la séquence de l'historique de la room
      */
     @Override
     public void preStart(ActorContext ctx) {
-        this.history = new ChatHistory();
-
         String path = ctx.self().path();
         String localName = path.substring(path.lastIndexOf('/') + 1); // ex: chat-room-xxxx
 
@@ -53,13 +80,29 @@ public class ChatActor implements Actor {
             this.roomId = localName;
         }
 
+        // Reprend la numérotation là où le store s'est arrêté (ex: après un restart de l'acteur)
+        // (log gardé par la purge tant que l'acteur est en vie, même vide)
+        ChatStore.get().roomActive(roomId);
+        this.nextSeq = ChatStore.get().nextSeq(roomId);
+
         log.info("ChatActor started for room {} at {}", roomId, ctx.self().path());
     }
 
+    /**
+     * Voies de mailbox : fermeture et arrivées/départs ne sont pas retardés par un flot de messages.
+     */
+    @Override
+    public LanePolicy lanePolicy() {
+        return LanePolicy.defaults()
+                .system(CLOSE_CHAT.name())
+                .control(USER_JOINED.name(), USER_LEFT.name());
+    }
+
     /**
      * Route les messages de chat :
      * - USER_JOINED / USER_LEFT : gestion des membres
-     * - SEND_MESSAGE : validation + stockage (history + ChatStore)
+     * - SEND_MESSAGE : validation + stockage dans l'historique de la room (ChatStore)
+     * - GET_CHAT_STATE : résumé versionné (membres, derniers messages) renvoyé au sender
      * - CLOSE_CHAT : arrêt de l'acteur
      */
     @Override
@@ -70,71 +113,78 @@ public class ChatActor implements Actor {
                 ctx.sender() != null ? ctx.sender().path() : "unknown"
         );
 
-        switch (message.type()) {
+        return BEHAVIOR.receive(this, message, ctx);
+    }
 
-            case "USER_JOINED" -> {
-                String userId = extractString(message.payload(), "userId");
-                if (userId != null) {
-                    members.add(userId);
-                    log.info("User joined chat room {}: {} (members={})", roomId, userId, members.size());
-                } else {
-                    log.warn("USER_JOINED missing userId for room {}", roomId);
-                }
-            }
+    private void handleUserJoined(Object payload, ActorContext ctx) {
+        String userId = extractString(payload, "userId");
+        if (userId != null) {
+            members.add(userId);
+            changes++;
+            log.info("User joined chat room {}: {} (members={})", roomId, userId, members.size());
+        } else {
+            log.warn("USER_JOINED missing userId for room {}", roomId);
+        }
+    }
 
-            case "USER_LEFT" -> {
-                String userId = extractString(message.payload(), "userId");
-                if (userId != null) {
-                    members.remove(userId);
-                    log.info("User left chat room {}: {} (members={})", roomId, userId, members.size());
-                } else {
-                    log.warn("USER_LEFT missing userId for room {}", roomId);
-                }
-            }
+    private void handleUserLeft(Object payload, ActorContext ctx) {
+        String userId = extractString(payload, "userId");
+        if (userId != null) {
+            members.remove(userId);
+            changes++;
+            log.info("User left chat room {}: {} (members={})", roomId, userId, members.size());
+        } else {
+            log.warn("USER_LEFT missing userId for room {}", roomId);
+        }
+    }
 
-            case "SEND_MESSAGE" -> {
-                String userId = extractString(message.payload(), "userId");
-                String msgRoomId = extractString(message.payload(), "roomId");
-                String content = extractString(message.payload(), "message");
-
-                // Validation minimale : évite de polluer l'historique avec des messages vides
-                if (content == null || content.isBlank()) {
-                    if (ctx.sender() != null) {
-                        ctx.sender().tell(Message.of("CHAT_ERROR", "Empty message"), ctx.self());
-                    }
-                    break;
-                }
-
-                // Stockage en mémoire
-                history.add(userId, msgRoomId, content);
-
-                // Log sans emoji ; on évite aussi de trop tracer en production si ça spam
-                log.info("Chat message stored (room={}, user={})", msgRoomId, userId);
-
-                // Ack au sender
-                if (ctx.sender() != null) {
-                    ctx.sender().tell(
-                            Message.of("CHAT_SENT", new ChatSentMsg(userId, msgRoomId)),
-                            ctx.self()
-                    );
-                }
-
-                // Stockage persistant / global (selon ton implémentation)
-                ChatStore.get().add(
-                        msgRoomId,
-                        new ChatLine(userId, msgRoomId, content, System.currentTimeMillis())
-                );
-            }
+    private void handleSendMessage(Object payload, ActorContext ctx) {
+        String userId = extractString(payload, "userId");
+        String msgRoomId = extractString(payload, "roomId");
+        String content = extractString(payload, "message");
 
-            case "CLOSE_CHAT" -> {
-                log.info("Closing chat for room {}", roomId);
-                ctx.stop(ctx.self());
+        // Validation minimale : évite de polluer l'historique avec des messages vides
+        if (content == null || content.isBlank()) {
+            if (ctx.sender() != null) {
+                ctx.sender().tell(Message.of("CHAT_ERROR", "Empty message"), ctx.self());
             }
+            return;
+        }
+
+        // Stockage unique : log compact de la room, relu par ChatHistoryController
+        ChatStore.get().add(
+                roomId,
+                new ChatLine(nextSeq++, userId, roomId, content, System.currentTimeMillis())
+        );
+        changes++;
 
-            default -> log.warn("Unknown message type for ChatActor {}: {}", roomId, message.type());
+        // Log sans emoji ; on évite aussi de trop tracer en production si ça spam
+        log.info("Chat message stored (room={}, user={})", roomId, userId);
+
+        // Ack au sender
+        if (ctx.sender() != null) {
+            ctx.sender().tell(
+                    Message.of("CHAT_SENT", new ChatSentMsg(userId, msgRoomId)),
+                    ctx.self()
+            );
         }
+    }
+
+    private void handleGetChatState(ActorContext ctx) {
+        if (ctx.sender() != null) {
+            ctx.sender().tell(Message.of("CHAT_STATE", new ChatStateMsg(
+                    roomId,
+                    members.size(),
+                    nextSeq,
+                    ChatStore.get().latest(roomId, RECENT_LIMIT),
+                    epoch + "." + changes
+            )), ctx.self());
+        }
+    }
 
-        return CompletableFuture.completedFuture(null);
+    private void handleCloseChat(ActorContext ctx) {
+        log.info("Closing chat for room {}", roomId);
+        ctx.stop(ctx.self());
     }
 
     /**
@@ -142,6 +192,8 @@ public class ChatActor implements Actor {
      */
     @Override
     public void postStop(ActorContext ctx) {
+        // Redémarrage supervisé : preStart suit immédiatement et réactive la room
+        ChatStore.get().roomInactive(roomId);
         log.info("ChatActor stopped for room {}", roomId);
     }
 
@@ -153,6 +205,7 @@ public class ChatActor implements Actor {
     // ===== Replies =====
 
     public record ChatSentMsg(String userId, String roomId) {}
+    public record ChatStateMsg(String roomId, int memberCount, long nextSeq, List<ChatLine> recent, String version) {}
 
     /**
      * Extraction tolérante (payload Map via JSON, ou records typés en local).
@@ -0,0 +1,62 @@
+package com.chatactor.config;
+
+import com.chatactor.store.ChatStore;
+import com.chatactor.store.journal.ChatJournal;
+import com.chatactor.store.journal.JournalSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.nio.file.Path;
+
+@Configuration
+public class ChatStoreConfig {
+
+    @Value("${chat.retention.max-messages-per-room:10000}")
+    private int maxMessagesPerRoom;
+
+    @Value("${chat.retention.max-age-ms:0}")
+    private long maxAgeMs;
+
+    // "memory" (défaut) ou "journal" (segments mappés sur disque)
+    @Value("${chat.store.backend:memory}")
+    private String backend;
+
+    @Value("${chat.journal.dir:data/chat}")
+    private String journalDir;
+
+    @Value("${chat.journal.segment-bytes:8388608}")
+    private int segmentBytes;
+
+    @Value("${chat.journal.index-interval:32}")
+    private int indexInterval;
+
+    @Value("${chat.journal.fsync-interval-ms:200}")
+    private long fsyncIntervalMs;
+
+    @Bean(destroyMethod = "close")
+    public ChatStore chatStore() {
+        ChatStore store = ChatStore.get();
+        store.configureRetention(maxMessagesPerRoom, maxAgeMs);
+
+        if ("journal".equalsIgnoreCase(backend)) {
+            store.useJournal(new ChatJournal(new JournalSettings(
+                    Path.of(journalDir),
+                    segmentBytes,
+                    indexInterval,
+                    fsyncIntervalMs
+            )));
+        }
+
+        return store;
+    }
+
+    /**
+     * Purge périodique : rétention par âge + suppression des rooms vides.
+     */
+    @Scheduled(fixedDelayString = "${chat.retention.purge-interval-ms:60000}")
+    public void purgeExpiredChat() {
+        ChatStore.get().purgeExpired();
+    }
+}
@@ -2,6 +2,7 @@ package com.chatactor.controllers;
 
 import com.chatactor.model.ChatLine;
 import com.chatactor.store.ChatStore;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -10,8 +11,35 @@ import java.util.List;
 @RequestMapping("/api/chat")
 public class ChatHistoryController {
 
+    private static final int DEFAULT_LIMIT = 50;
+    private static final int MAX_LIMIT = 500;
+
+    /**
+     * Historique paginé par séquence :
+     * GET /api/chat/{roomId}/history                -> les {limit} derniers messages
+     * GET /api/chat/{roomId}/history?before=<seq>   -> page précédente (scroll vers le haut)
+     * GET /api/chat/{roomId}/history?after=<seq>    -> nouveaux messages depuis seq
+     */
     @GetMapping("/{roomId}/history")
-    public List<ChatLine> history(@PathVariable String roomId) {
-        return ChatStore.get().history(roomId);
+    public ResponseEntity<?> history(@PathVariable String roomId,
+                                     @RequestParam(required = false) Long before,
+                                     @RequestParam(required = false) Long after,
+                                     @RequestParam(defaultValue = "" + DEFAULT_LIMIT) int limit) {
+        if (before != null && after != null) {
+            return ResponseEntity.badRequest().body("Use either 'before' or 'after', not both");
+        }
+
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        List<ChatLine> page;
+        if (before != null) {
+            page = ChatStore.get().before(roomId, before, pageSize);
+        } else if (after != null) {
+            page = ChatStore.get().after(roomId, after, pageSize);
+        } else {
+            page = ChatStore.get().latest(roomId, pageSize);
+        }
+
+        return ResponseEntity.ok(page);
     }
 }
@@ -0,0 +1,36 @@
+package com.chatactor.controllers;
+
+import com.chatactor.search.ChatSearchIndex;
+import com.chatactor.search.SearchPage;
+import com.chatactor.store.ChatStore;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/chat")
+public class ChatSearchController {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    /**
+     * Recherche plein texte dans le chat d'une room.
+     * GET /api/chat/{roomId}/search?q=...&offset=0&limit=20
+     * offset au-delà de ChatSearchIndex.MAX_OFFSET : 400 (affiner la requête plutôt que paginer si loin)
+     */
+    @GetMapping("/{roomId}/search")
+    public ResponseEntity<?> search(@PathVariable String roomId,
+                                    @RequestParam String q,
+                                    @RequestParam(defaultValue = "0") int offset,
+                                    @RequestParam(defaultValue = "" + DEFAULT_LIMIT) int limit) {
+        if (q.isBlank()) {
+            return ResponseEntity.badRequest().body("Query 'q' must not be blank");
+        }
+        if (offset > ChatSearchIndex.MAX_OFFSET) {
+            return ResponseEntity.badRequest().body("Offset must not exceed " + ChatSearchIndex.MAX_OFFSET);
+        }
+
+        int pageSize = Math.max(1, Math.min(limit, ChatSearchIndex.MAX_LIMIT));
+        SearchPage page = ChatStore.get().search(roomId, q, Math.max(0, offset), pageSize);
+        return ResponseEntity.ok(page);
+    }
+}
@@ -1,3 +1,6 @@
 package com.chatactor.model;
 
-public record ChatLine(String userId, String roomId, String message, long ts) {}
+/**
+ * Ligne de chat. seq est attribuée par le ChatActor de la room (croissante, sans réutilisation).
+ */
+public record ChatLine(long seq, String userId, String roomId, String message, long ts) {}
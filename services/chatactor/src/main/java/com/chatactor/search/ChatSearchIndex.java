@@ -0,0 +1,308 @@
+package com.chatactor.search;
+
+import com.chatactor.model.ChatLine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index inversé incrémental de l'historique d'une room.
+ * - un terme -> liste de postings (seq, tf) triée par seq croissante
+ * - postings compressés : delta de seq + tf encodés en varint dans un byte[] extensible
+ * - classement BM25 simplifié (sans normalisation de longueur), puis du plus récent au plus ancien
+ * Un seul écrivain (le ChatActor via ChatStore), lecteurs concurrents protégés par un verrou lecture/écriture.
+ */
+public final class ChatSearchIndex {
+
+    private static final double K1 = 1.2;
+
+    // Pagination bornée : le tas garde offset + limit lignes, une page lointaine coûterait autant qu'un tri complet
+    public static final int MAX_OFFSET = 1000;
+    public static final int MAX_LIMIT = 100;
+
+    /**
+     * Postings d'un terme, encodés (delta seq, tf) en varint.
+     * La rétention avance {@code start} (et la base du delta) au lieu de réencoder la liste ;
+     * les octets morts sont compactés quand ils dépassent la moitié du tableau.
+     */
+    private static final class Postings {
+        byte[] data = new byte[8];
+        int start;
+        int length;
+        int docFreq;
+        long baseSeq = -1; // seq précédant le premier posting retenu (base de son delta)
+        long lastSeq = -1;
+
+        void add(long seq, int tf) {
+            ensureCapacity(20);
+            length = writeVarLong(data, length, seq - lastSeq);
+            length = writeVarLong(data, length, tf);
+            lastSeq = seq;
+            docFreq++;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (length + extra > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, length + extra));
+            }
+        }
+
+        /**
+         * Saute les postings de seq < minSeq : coût proportionnel aux postings retirés, sans réencodage.
+         */
+        void pruneBefore(long minSeq) {
+            Cursor cursor = cursor();
+            int pos = start;
+            long seq = baseSeq;
+            while (cursor.next() && cursor.seq < minSeq) {
+                pos = cursor.pos;
+                seq = cursor.seq;
+                docFreq--;
+            }
+            start = pos;
+            baseSeq = seq;
+
+            // Nouveau tableau (jamais de réécriture en place : une recherche peut encore lire l'ancien)
+            if (start > length / 2) {
+                data = Arrays.copyOfRange(data, start, length);
+                length -= start;
+                start = 0;
+            }
+        }
+
+        /**
+         * Curseur sur les postings présents à l'appel (sous verrou) ; utilisable ensuite hors verrou,
+         * les ajouts n'écrivant qu'au-delà de length et la compaction allouant un nouveau tableau.
+         */
+        Cursor cursor() {
+            return new Cursor(data, start, length, baseSeq);
+        }
+    }
+
+    /**
+     * Lecture séquentielle des postings encodés, sans les décoder dans des tableaux.
+     */
+    private static final class Cursor {
+        private final byte[] data;
+        private final int end;
+        int pos;
+        long seq;
+        int tf;
+
+        Cursor(byte[] data, int start, int end, long baseSeq) {
+            this.data = data;
+            this.pos = start;
+            this.end = end;
+            this.seq = baseSeq;
+        }
+
+        /**
+         * Avance au posting suivant ; false (et seq = Long.MAX_VALUE) en fin de liste.
+         */
+        boolean next() {
+            if (pos >= end) {
+                seq = Long.MAX_VALUE;
+                return false;
+            }
+            long delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[pos++];
+                delta |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            seq += delta;
+
+            int value = 0;
+            shift = 0;
+            do {
+                b = data[pos++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            tf = value;
+            return true;
+        }
+    }
+
+    /**
+     * Seq trouvée avec son score, avant résolution de la ligne.
+     */
+    public record Scored(long seq, double score) {}
+
+    /**
+     * Résultat brut : total des correspondances + la tranche demandée, déjà classée.
+     */
+    public record Result(long total, List<Scored> ranked) {}
+
+    /**
+     * Entrée du tas de sélection, réutilisée quand une meilleure candidate remplace la moins bonne.
+     */
+    private static final class Candidate {
+        long seq;
+        double score;
+
+        Candidate(long seq, double score) {
+            this.seq = seq;
+            this.score = score;
+        }
+
+        boolean ranksAbove(long otherSeq, double otherScore) {
+            return score > otherScore || (score == otherScore && seq > otherSeq);
+        }
+    }
+
+    private static final Comparator<Candidate> BY_RANK =
+            Comparator.comparingDouble((Candidate c) -> c.score).thenComparingLong(c -> c.seq);
+
+    private final Map<String, Postings> terms = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private long docCount;
+
+    /**
+     * Indexe une ligne (appelé à chaque message stocké, seqs croissantes).
+     */
+    public void add(ChatLine line) {
+        List<String> tokens = Tokenizer.tokenize(line.message());
+
+        Map<String, Integer> tf = new HashMap<>();
+        for (String token : tokens) {
+            tf.merge(token, 1, Integer::sum);
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<String, Integer> e : tf.entrySet()) {
+                Postings postings = terms.computeIfAbsent(e.getKey(), k -> new Postings());
+                if (line.seq() > postings.lastSeq) {
+                    postings.add(line.seq(), e.getValue());
+                }
+            }
+            docCount++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retire les postings antérieurs à minSeq (lignes sorties de la rétention).
+     *
+     * @param remainingDocs nombre de lignes encore retenues (sert au calcul de l'idf)
+     */
+    public void pruneBefore(long minSeq, long remainingDocs) {
+        lock.writeLock().lock();
+        try {
+            terms.values().removeIf(postings -> {
+                postings.pruneBefore(minSeq);
+                return postings.docFreq == 0;
+            });
+            docCount = remainingDocs;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Recherche classée : fusion des postings des termes de la requête (OR),
+     * somme des scores par ligne, puis sélection des offset + limit meilleures via un tas borné.
+     * offset doit être dans [0, MAX_OFFSET] et limit au plus MAX_LIMIT.
+     */
+    public Result search(String query, int offset, int limit) {
+        if (offset < 0 || offset > MAX_OFFSET) {
+            throw new IllegalArgumentException("Search offset must be between 0 and " + MAX_OFFSET + ": " + offset);
+        }
+        if (limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Search limit must be at most " + MAX_LIMIT + ": " + limit);
+        }
+        Set<String> queryTerms = new LinkedHashSet<>(Tokenizer.tokenize(query));
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return new Result(0, List.of());
+        }
+
+        Cursor[] cursors = new Cursor[queryTerms.size()];
+        double[] idfs = new double[queryTerms.size()];
+        int lists = 0;
+
+        lock.readLock().lock();
+        try {
+            for (String term : queryTerms) {
+                Postings postings = terms.get(term);
+                if (postings == null) {
+                    continue;
+                }
+                cursors[lists] = postings.cursor();
+                double df = postings.docFreq;
+                idfs[lists] = Math.log(1 + (docCount - df + 0.5) / (df + 0.5));
+                lists++;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Fusion directe sur les flux varint : une allocation par terme, pas par posting
+        for (int t = 0; t < lists; t++) {
+            cursors[t].next();
+        }
+
+        int keep = offset + limit;
+        PriorityQueue<Candidate> top = new PriorityQueue<>(keep + 1, BY_RANK);
+        long total = 0;
+
+        while (true) {
+            // Plus petite seq parmi les têtes de listes (Long.MAX_VALUE = liste épuisée)
+            long seq = Long.MAX_VALUE;
+            for (int t = 0; t < lists; t++) {
+                seq = Math.min(seq, cursors[t].seq);
+            }
+            if (seq == Long.MAX_VALUE) {
+                break;
+            }
+
+            double score = 0;
+            for (int t = 0; t < lists; t++) {
+                Cursor cursor = cursors[t];
+                if (cursor.seq == seq) {
+                    int tf = cursor.tf;
+                    score += idfs[t] * (tf * (K1 + 1)) / (tf + K1);
+                    cursor.next();
+                }
+            }
+
+            total++;
+            if (top.size() < keep) {
+                top.add(new Candidate(seq, score));
+            } else if (!top.peek().ranksAbove(seq, score)) {
+                Candidate evicted = top.poll();
+                evicted.seq = seq;
+                evicted.score = score;
+                top.add(evicted);
+            }
+        }
+
+        List<Candidate> sorted = new ArrayList<>(top);
+        sorted.sort(BY_RANK.reversed());
+        List<Scored> page = new ArrayList<>(Math.max(0, sorted.size() - offset));
+        for (int i = offset; i < sorted.size(); i++) {
+            page.add(new Scored(sorted.get(i).seq, sorted.get(i).score));
+        }
+        return new Result(total, page);
+    }
+
+    private static int writeVarLong(byte[] out, int pos, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[pos++] = (byte) value;
+        return pos;
+    }
+}
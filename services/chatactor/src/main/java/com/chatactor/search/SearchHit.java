@@ -0,0 +1,8 @@
+package com.chatactor.search;
+
+import com.chatactor.model.ChatLine;
+
+/**
+ * Résultat de recherche : la ligne trouvée et son score de pertinence.
+ */
+public record SearchHit(long seq, double score, ChatLine line) {}
@@ -0,0 +1,10 @@
+package com.chatactor.search;
+
+import java.util.List;
+
+/**
+ * Page de résultats, triés par score décroissant puis du plus récent au plus ancien.
+ *
+ * @param total nombre de lignes correspondant à la requête (toutes pages confondues)
+ */
+public record SearchPage(String query, long total, int offset, List<SearchHit> hits) {}
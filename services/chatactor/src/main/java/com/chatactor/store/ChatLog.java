@@ -0,0 +1,45 @@
+package com.chatactor.store;
+
+import com.chatactor.model.ChatLine;
+
+import java.util.List;
+
+/**
+ * Historique de chat d'une room.
+ * Un seul écrivain (le ChatActor de la room), lecteurs concurrents (API d'historique).
+ * Les séquences sont croissantes et servent de curseur de pagination.
+ */
+public interface ChatLog {
+
+    /**
+     * Ajoute une ligne ; sa séquence doit être >= nextSeq().
+     */
+    void append(ChatLine line);
+
+    /**
+     * Applique la rétention (maxMessages = 0 : pas de limite en nombre ; lignes plus anciennes que minTs supprimées).
+     */
+    void trim(int maxMessages, long minTs);
+
+    /**
+     * Séquence qui sera attribuée au prochain message de la room.
+     */
+    long nextSeq();
+
+    List<ChatLine> snapshot();
+
+    List<ChatLine> latest(int limit);
+
+    List<ChatLine> before(long seq, int limit);
+
+    List<ChatLine> after(long seq, int limit);
+
+    long size();
+
+    boolean isEmpty();
+
+    /**
+     * Libère les ressources du log (fichiers, mappings) quand la room est retirée du store.
+     */
+    default void release() {}
+}
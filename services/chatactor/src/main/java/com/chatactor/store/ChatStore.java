@@ -1,12 +1,23 @@
 package com.chatactor.store;
 
 import com.chatactor.model.ChatLine;
+import com.chatactor.search.ChatSearchIndex;
+import com.chatactor.search.SearchHit;
+import com.chatactor.search.SearchPage;
+import com.chatactor.store.journal.ChatJournal;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 
+/**
+ * Stockage global de l'historique de chat, un ChatLog segmenté par room.
+ * Backend en mémoire par défaut, ou journal persistant sur fichiers mappés (voir useJournal).
+ * Chaque room a aussi un index inversé, alimenté à chaque message stocké.
+ * Singleton car les ChatActor sont instanciés par le framework (pas d'injection Spring).
+ */
 public final class ChatStore {
 
     private static final ChatStore INSTANCE = new ChatStore();
@@ -15,16 +26,229 @@ public final class ChatStore {
         return INSTANCE;
     }
 
-    private final ConcurrentMap<String, CopyOnWriteArrayList<ChatLine>> map = new ConcurrentHashMap<>();
+    // Marge avant d'appliquer la limite en nombre au fil de l'eau (évite un trim à chaque message)
+    private static final int TRIM_SLACK = 256;
+
+    private final ConcurrentMap<String, ChatLog> logs = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ChatSearchIndex> indexes = new ConcurrentHashMap<>();
+
+    // Rooms dont le ChatActor est en vie : leur log vidé par la rétention est gardé (il porte nextSeq)
+    private final Set<String> activeRooms = ConcurrentHashMap.newKeySet();
+
+    // Backend persistant optionnel (null = historique en mémoire uniquement)
+    private volatile ChatJournal journal;
+
+    // Rétention (0 = illimité), ajustée au démarrage par ChatStoreConfig
+    private volatile int maxMessagesPerRoom = 10_000;
+    private volatile long maxAgeMs = 0;
 
     private ChatStore() {}
 
+    /**
+     * Configure la rétention appliquée à chaque room.
+     *
+     * @param maxMessagesPerRoom nombre max de messages conservés par room (0 = illimité)
+     * @param maxAgeMs           âge max d'un message en ms (0 = illimité)
+     */
+    public void configureRetention(int maxMessagesPerRoom, long maxAgeMs) {
+        this.maxMessagesPerRoom = Math.max(0, maxMessagesPerRoom);
+        this.maxAgeMs = Math.max(0, maxAgeMs);
+    }
+
+    /**
+     * Active le backend persistant. À appeler au démarrage, avant la création des ChatActor.
+     */
+    public void useJournal(ChatJournal journal) {
+        this.journal = journal;
+    }
+
     public void add(String roomId, ChatLine line) {
-        map.computeIfAbsent(roomId, k -> new CopyOnWriteArrayList<>()).add(line);
-        System.out.println("[ChatStore] add room=" + roomId + " msg=" + line.message());
+        // Index récupéré avant l'append : s'il est reconstruit depuis un journal, la ligne n'y est pas encore
+        ChatSearchIndex index = indexFor(roomId);
+
+        // append sous le verrou de l'entrée : une purge concurrente ne peut pas retirer le log entre-temps
+        ChatLog log = logs.compute(roomId, (k, existing) -> {
+            ChatLog target = existing != null ? existing : newLog(roomId);
+            target.append(line);
+            return target;
+        });
+
+        index.add(line);
+
+        // La limite en nombre est appliquée au fil de l'eau (coût O(1) hors changement de segment)
+        if (maxMessagesPerRoom > 0 && log.size() > maxMessagesPerRoom + TRIM_SLACK) {
+            applyRetention(roomId, log, minTs(System.currentTimeMillis()));
+        }
     }
 
     public List<ChatLine> history(String roomId) {
-        return map.getOrDefault(roomId, new CopyOnWriteArrayList<>());
+        ChatLog log = find(roomId);
+        return log == null ? List.of() : log.snapshot();
+    }
+
+    /**
+     * Les {@code limit} derniers messages de la room.
+     */
+    public List<ChatLine> latest(String roomId, int limit) {
+        ChatLog log = find(roomId);
+        return log == null ? List.of() : log.latest(limit);
+    }
+
+    /**
+     * Page de messages strictement antérieurs à {@code seq} (scroll vers le haut).
+     */
+    public List<ChatLine> before(String roomId, long seq, int limit) {
+        ChatLog log = find(roomId);
+        return log == null ? List.of() : log.before(seq, limit);
+    }
+
+    /**
+     * Page de messages strictement postérieurs à {@code seq} (rafraîchissement incrémental).
+     */
+    public List<ChatLine> after(String roomId, long seq, int limit) {
+        ChatLog log = find(roomId);
+        return log == null ? List.of() : log.after(seq, limit);
+    }
+
+    /**
+     * Recherche plein texte dans l'historique retenu de la room.
+     */
+    public SearchPage search(String roomId, String query, int offset, int limit) {
+        ChatLog log = find(roomId);
+        if (log == null) {
+            return new SearchPage(query, 0, offset, List.of());
+        }
+
+        ChatSearchIndex.Result result = indexFor(roomId).search(query, offset, limit);
+
+        List<SearchHit> hits = new ArrayList<>(result.ranked().size());
+        for (ChatSearchIndex.Scored scored : result.ranked()) {
+            // Accès direct par séquence ; une ligne sortie de la rétention entre-temps est ignorée
+            List<ChatLine> match = log.after(scored.seq() - 1, 1);
+            if (!match.isEmpty() && match.get(0).seq() == scored.seq()) {
+                hits.add(new SearchHit(scored.seq(), scored.score(), match.get(0)));
+            }
+        }
+        return new SearchPage(query, result.total(), offset, hits);
+    }
+
+    /**
+     * Prochaine séquence attendue pour la room (0 si aucun historique).
+     * Utilisée par le ChatActor pour reprendre la numérotation après un redémarrage.
+     */
+    public long nextSeq(String roomId) {
+        ChatLog log = find(roomId);
+        return log == null ? 0 : log.nextSeq();
+    }
+
+    /**
+     * Le ChatActor de la room démarre (ou redémarre) : son log n'est pas retiré par la purge, même vide,
+     * pour que la numérotation reprenne après un redémarrage sans réutiliser de séquence.
+     */
+    public void roomActive(String roomId) {
+        activeRooms.add(roomId);
+    }
+
+    /**
+     * Le ChatActor de la room s'arrête : son log vide redevient purgeable.
+     */
+    public void roomInactive(String roomId) {
+        activeRooms.remove(roomId);
+    }
+
+    /**
+     * Applique la rétention à toutes les rooms et retire les rooms devenues vides (hors rooms actives).
+     * Appelée périodiquement (voir ChatStoreConfig).
+     */
+    public void purgeExpired() {
+        long minTs = minTs(System.currentTimeMillis());
+
+        for (String roomId : logs.keySet()) {
+            logs.computeIfPresent(roomId, (k, log) -> {
+                applyRetention(roomId, log, minTs);
+                if (!log.isEmpty() || activeRooms.contains(roomId)) {
+                    return log;
+                }
+                indexes.remove(roomId);
+                discard(log);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Ferme le backend persistant (flush final) ; les logs en mémoire sont conservés.
+     */
+    public void close() {
+        ChatJournal current = journal;
+        if (current != null) {
+            logs.values().removeIf(log -> !(log instanceof InMemoryChatLog));
+            current.close();
+        }
+    }
+
+    /**
+     * Applique la rétention au log puis retire de l'index les lignes supprimées.
+     */
+    private void applyRetention(String roomId, ChatLog log, long minTs) {
+        long before = log.size();
+        log.trim(maxMessagesPerRoom, minTs);
+        if (log.size() == before) {
+            return;
+        }
+
+        ChatSearchIndex index = indexes.get(roomId);
+        if (index != null) {
+            List<ChatLine> first = log.after(-1, 1);
+            long minSeq = first.isEmpty() ? Long.MAX_VALUE : first.get(0).seq();
+            index.pruneBefore(minSeq, log.size());
+        }
+    }
+
+    /**
+     * Index de la room, reconstruit en une passe depuis le log existant (ex: journal rouvert).
+     */
+    private ChatSearchIndex indexFor(String roomId) {
+        return indexes.computeIfAbsent(roomId, k -> {
+            ChatSearchIndex index = new ChatSearchIndex();
+            ChatLog log = find(roomId);
+            if (log != null) {
+                log.snapshot().forEach(index::add);
+            }
+            return index;
+        });
+    }
+
+    private ChatLog newLog(String roomId) {
+        ChatJournal current = journal;
+        return current != null ? current.open(roomId) : new InMemoryChatLog(roomId);
+    }
+
+    /**
+     * Log de la room ; avec le journal, un historique présent sur disque est rouvert à la demande.
+     */
+    private ChatLog find(String roomId) {
+        ChatLog log = logs.get(roomId);
+        if (log != null) {
+            return log;
+        }
+
+        ChatJournal current = journal;
+        if (current == null || !current.exists(roomId)) {
+            return null;
+        }
+        return logs.computeIfAbsent(roomId, current::open);
+    }
+
+    private void discard(ChatLog log) {
+        ChatJournal current = journal;
+        if (current != null) {
+            current.forget(log);
+        }
+        log.release();
+    }
+
+    private long minTs(long now) {
+        return maxAgeMs > 0 ? now - maxAgeMs : Long.MIN_VALUE;
     }
 }
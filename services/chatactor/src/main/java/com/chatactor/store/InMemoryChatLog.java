@@ -0,0 +1,283 @@
+package com.chatactor.store;
+
+import com.chatactor.model.ChatLine;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Journal de chat en mémoire d'une room, découpé en segments de taille fixe.
+ * - un seul écrivain (le ChatActor de la room) : append en O(1), sans recopie de l'historique
+ * - lecteurs sans verrou : ils lisent le répertoire de segments publié via un champ volatile
+ * - rétention par nombre de messages et par âge, appliquée segment par segment
+ * - pagination par numéro de séquence : recherche dichotomique sur les segments, puis accès direct
+ *
+ * Stockage compact, en colonnes de types primitifs par segment :
+ * - userId encodé par un dictionnaire propre à la room (int)
+ * - roomId implicite (un log par room)
+ * - timestamp en long, texte en octets UTF-8
+ * Les ChatLine ne sont matérialisées qu'à la lecture.
+ */
+public final class InMemoryChatLog implements ChatLog {
+
+    // Nombre de lignes par segment (un segment plein n'est plus jamais modifié)
+    static final int SEGMENT_SIZE = 256;
+
+    // Code réservé aux lignes sans userId
+    private static final int NO_USER = -1;
+
+    /**
+     * Segment : colonnes de taille fixe + compteur publié.
+     * Les séquences y sont contiguës : la ligne d'offset i a la séquence baseSeq + i.
+     * L'écriture des colonnes précède l'incrément volatile de count,
+     * donc un lecteur qui voit count = n voit aussi les n premières lignes.
+     */
+    private static final class Segment {
+        final long baseSeq;
+        final int[] users = new int[SEGMENT_SIZE];
+        final long[] timestamps = new long[SEGMENT_SIZE];
+        final byte[][] texts = new byte[SEGMENT_SIZE][];
+        volatile int count;
+
+        Segment(long baseSeq) {
+            this.baseSeq = baseSeq;
+        }
+
+        boolean isFull() {
+            return count == SEGMENT_SIZE;
+        }
+
+        long lastTs() {
+            int n = count;
+            return n == 0 ? Long.MIN_VALUE : timestamps[n - 1];
+        }
+    }
+
+    private static final Segment[] EMPTY = new Segment[0];
+
+    private final String roomId;
+
+    // Dictionnaire des userId : code -> nom publié via volatile (lecteurs), nom -> code côté écrivain
+    private volatile String[] userNames = new String[8];
+    private final Map<String, Integer> userCodes = new HashMap<>();
+
+    // Répertoire des segments, du plus ancien au plus récent (remplacé, jamais modifié en place)
+    private volatile Segment[] segments = EMPTY;
+
+    // Nombre de lignes retenues (mis à jour par l'écrivain, lu sans verrou)
+    private volatile long size;
+
+    // Séquence attendue pour la prochaine ligne (écrivain uniquement)
+    private long nextSeq;
+
+    public InMemoryChatLog(String roomId) {
+        this.roomId = roomId;
+    }
+
+    /**
+     * Ajoute une ligne en fin de journal.
+     * Les séquences doivent être croissantes ; un trou ouvre simplement un nouveau segment.
+     * Le répertoire n'est recopié qu'une fois par segment, soit O(1) amorti par message.
+     */
+    @Override
+    public synchronized void append(ChatLine line) {
+        long seq = line.seq();
+        if (seq < nextSeq) {
+            throw new IllegalArgumentException("Chat seq " + seq + " is lower than expected " + nextSeq);
+        }
+
+        Segment[] current = segments;
+        Segment tail = current.length == 0 ? null : current[current.length - 1];
+
+        if (tail == null || tail.isFull() || seq != nextSeq) {
+            tail = new Segment(seq);
+            Segment[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = tail;
+            segments = grown;
+        }
+
+        int slot = tail.count;
+        tail.users[slot] = userCode(line.userId());
+        tail.timestamps[slot] = line.ts();
+        tail.texts[slot] = line.message().getBytes(StandardCharsets.UTF_8);
+        tail.count = slot + 1;
+        nextSeq = seq + 1;
+        size = size + 1;
+    }
+
+    /**
+     * Code du userId dans le dictionnaire de la room (ajouté au premier message de l'utilisateur).
+     * Le nom est publié avant que la ligne qui le référence ne le soit.
+     */
+    private int userCode(String userId) {
+        if (userId == null) {
+            return NO_USER;
+        }
+        Integer code = userCodes.get(userId);
+        if (code != null) {
+            return code;
+        }
+
+        int next = userCodes.size();
+        String[] names = userNames;
+        if (next == names.length) {
+            names = Arrays.copyOf(names, names.length * 2);
+        }
+        names[next] = userId;
+        userNames = names;
+        userCodes.put(userId, next);
+        return next;
+    }
+
+    /**
+     * Matérialise une ligne. Le dictionnaire est relu après count : il contient forcément le code.
+     */
+    private ChatLine lineAt(Segment s, int off) {
+        int user = s.users[off];
+        return new ChatLine(
+                s.baseSeq + off,
+                user == NO_USER ? null : userNames[user],
+                roomId,
+                new String(s.texts[off], StandardCharsets.UTF_8),
+                s.timestamps[off]
+        );
+    }
+
+    /**
+     * Applique la rétention : supprime les segments les plus anciens tant que
+     * - le nombre de messages dépasse maxMessages (hors segment courant)
+     * - ou que leur dernière ligne est plus ancienne que minTs
+     * La granularité est le segment : on conserve au plus SEGMENT_SIZE - 1 lignes en trop.
+     */
+    @Override
+    public synchronized void trim(int maxMessages, long minTs) {
+        Segment[] current = segments;
+        int drop = 0;
+        long remaining = size;
+
+        while (drop < current.length) {
+            Segment head = current[drop];
+            boolean tooMany = maxMessages > 0 && remaining - head.count >= maxMessages;
+            boolean tooOld = head.lastTs() < minTs;
+            if (!tooMany && !tooOld) {
+                break;
+            }
+            remaining -= head.count;
+            drop++;
+        }
+
+        if (drop > 0) {
+            segments = Arrays.copyOfRange(current, drop, current.length);
+            size = remaining;
+        }
+    }
+
+    /**
+     * Séquence qui sera attribuée au prochain message de la room.
+     */
+    @Override
+    public synchronized long nextSeq() {
+        return nextSeq;
+    }
+
+    /**
+     * Copie de l'historique retenu, dans l'ordre d'arrivée.
+     */
+    @Override
+    public List<ChatLine> snapshot() {
+        Segment[] current = segments;
+        List<ChatLine> out = new ArrayList<>((int) Math.min(Integer.MAX_VALUE, size));
+        for (Segment s : current) {
+            int n = s.count;
+            for (int i = 0; i < n; i++) {
+                out.add(lineAt(s, i));
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Les {@code limit} dernières lignes.
+     */
+    @Override
+    public List<ChatLine> latest(int limit) {
+        return before(Long.MAX_VALUE, limit);
+    }
+
+    /**
+     * Les {@code limit} lignes précédant immédiatement {@code seq} (exclue), dans l'ordre d'arrivée.
+     */
+    @Override
+    public List<ChatLine> before(long seq, int limit) {
+        Segment[] current = segments;
+        ChatLine[] buf = new ChatLine[limit];
+        int n = 0;
+
+        for (int i = segmentFor(current, seq - 1); i >= 0 && n < limit; i--) {
+            Segment s = current[i];
+            int end = (int) Math.min(s.count, seq - s.baseSeq);
+            for (int off = end - 1; off >= 0 && n < limit; off--) {
+                buf[limit - 1 - n++] = lineAt(s, off);
+            }
+        }
+
+        return Arrays.asList(Arrays.copyOfRange(buf, limit - n, limit));
+    }
+
+    /**
+     * Les {@code limit} lignes suivant immédiatement {@code seq} (exclue), dans l'ordre d'arrivée.
+     */
+    @Override
+    public List<ChatLine> after(long seq, int limit) {
+        if (seq == Long.MAX_VALUE) {
+            return List.of();
+        }
+        Segment[] current = segments;
+        List<ChatLine> out = new ArrayList<>(Math.min(limit, SEGMENT_SIZE));
+
+        for (int i = Math.max(0, segmentFor(current, seq + 1)); i < current.length && out.size() < limit; i++) {
+            Segment s = current[i];
+            int n = s.count;
+            int start = (int) Math.max(0, Math.min(n, seq + 1 - s.baseSeq));
+            for (int off = start; off < n && out.size() < limit; off++) {
+                out.add(lineAt(s, off));
+            }
+        }
+
+        return out;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Index du dernier segment dont la première séquence est <= seq, ou -1.
+     */
+    private static int segmentFor(Segment[] current, long seq) {
+        int lo = 0;
+        int hi = current.length - 1;
+        int found = -1;
+
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (current[mid].baseSeq <= seq) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return found;
+    }
+}
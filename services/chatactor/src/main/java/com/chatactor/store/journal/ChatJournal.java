@@ -0,0 +1,108 @@
+package com.chatactor.store.journal;
+
+import com.chatactor.store.ChatLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Backend persistant du ChatStore : ouvre un JournalChatLog par room
+ * et force périodiquement les pages modifiées sur disque (group commit).
+ */
+public final class ChatJournal implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatJournal.class);
+
+    private final JournalSettings settings;
+    private final Set<JournalChatLog> openLogs = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService flusher;
+
+    public ChatJournal(JournalSettings settings) {
+        this.settings = settings;
+
+        try {
+            Files.createDirectories(settings.dir());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create chat journal directory " + settings.dir(), e);
+        }
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "chat-journal-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::flushAll,
+                settings.fsyncIntervalMs(), settings.fsyncIntervalMs(), TimeUnit.MILLISECONDS);
+
+        log.info("Chat journal opened at {}", settings.dir().toAbsolutePath());
+    }
+
+    /**
+     * Ouvre (ou crée) le log persistant d'une room.
+     */
+    public ChatLog open(String roomId) {
+        try {
+            JournalChatLog chatLog = new JournalChatLog(roomId, roomDir(roomId), settings);
+            openLogs.add(chatLog);
+            return chatLog;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open chat journal for room " + roomId, e);
+        }
+    }
+
+    /**
+     * Indique si un historique persistant existe pour la room (ex: après un redémarrage du service).
+     */
+    public boolean exists(String roomId) {
+        return isValidRoomId(roomId) && Files.isDirectory(settings.dir().resolve(roomId));
+    }
+
+    /**
+     * Oublie un log retiré du store (ses segments sont fermés par ChatLog.release()).
+     */
+    public void forget(ChatLog chatLog) {
+        openLogs.remove(chatLog);
+    }
+
+    private Path roomDir(String roomId) {
+        // roomId vient de l'URL : on refuse tout ce qui pourrait sortir du répertoire racine
+        if (!isValidRoomId(roomId)) {
+            throw new IllegalArgumentException("Invalid roomId for chat journal: " + roomId);
+        }
+        return settings.dir().resolve(roomId);
+    }
+
+    private static boolean isValidRoomId(String roomId) {
+        return roomId.matches("[A-Za-z0-9_-][A-Za-z0-9._-]*");
+    }
+
+    private void flushAll() {
+        for (JournalChatLog chatLog : openLogs) {
+            try {
+                chatLog.flush();
+            } catch (Exception e) {
+                log.error("Chat journal flush failed", e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        flusher.shutdownNow();
+        flushAll();
+        for (JournalChatLog chatLog : openLogs) {
+            chatLog.release();
+        }
+        openLogs.clear();
+        log.info("Chat journal closed");
+    }
+}
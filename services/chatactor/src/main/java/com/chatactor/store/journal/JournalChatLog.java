@@ -0,0 +1,285 @@
+package com.chatactor.store.journal;
+
+import com.chatactor.model.ChatLine;
+import com.chatactor.store.ChatLog;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * ChatLog persistant d'une room : suite de segments mappés dans un répertoire dédié.
+ * - append : écriture directe dans les pages mappées, roulement de segment quand il est plein
+ * - lecture : décodage des seuls enregistrements demandés, localisés via l'index creux
+ * - rétention : suppression de segments entiers (fichiers)
+ * La durabilité est assurée par le flusher du ChatJournal (group commit).
+ */
+public final class JournalChatLog implements ChatLog {
+
+    private static final JournalSegment[] EMPTY = new JournalSegment[0];
+
+    private final String roomId;
+    private final Path dir;
+    private final JournalSettings settings;
+
+    // Répertoire des segments, du plus ancien au plus récent (remplacé, jamais modifié en place)
+    private volatile JournalSegment[] segments = EMPTY;
+    private volatile long size;
+
+    // Séquence attendue pour la prochaine ligne (écrivain uniquement)
+    private long nextSeq;
+
+    JournalChatLog(String roomId, Path dir, JournalSettings settings) throws IOException {
+        this.roomId = roomId;
+        this.dir = dir;
+        this.settings = settings;
+
+        Files.createDirectories(dir);
+        recover();
+    }
+
+    private void recover() throws IOException {
+        List<JournalSegment> opened = new ArrayList<>();
+
+        try (Stream<Path> files = Files.list(dir)) {
+            List<Path> sorted = files
+                    .filter(p -> p.getFileName().toString().endsWith(JournalSegment.SUFFIX))
+                    .sorted(Comparator.comparingLong(JournalSegment::parseBaseSeq))
+                    .toList();
+
+            for (Path file : sorted) {
+                JournalSegment segment = JournalSegment.open(file, settings.indexInterval());
+                if (segment.count() == 0) {
+                    // Segment créé mais jamais écrit (arrêt juste après un roulement)
+                    segment.delete();
+                    continue;
+                }
+                opened.add(segment);
+            }
+        }
+
+        long total = 0;
+        for (JournalSegment s : opened) {
+            total += s.count();
+        }
+
+        this.segments = opened.toArray(EMPTY);
+        this.size = total;
+        this.nextSeq = opened.isEmpty() ? 0 : opened.get(opened.size() - 1).nextSeq();
+    }
+
+    @Override
+    public synchronized void append(ChatLine line) {
+        long seq = line.seq();
+        if (seq < nextSeq) {
+            throw new IllegalArgumentException("Chat seq " + seq + " is lower than expected " + nextSeq);
+        }
+
+        byte[] user = line.userId() == null ? new byte[0] : line.userId().getBytes(StandardCharsets.UTF_8);
+        byte[] message = line.message().getBytes(StandardCharsets.UTF_8);
+        if (user.length > 0xFFFF) {
+            throw new IllegalArgumentException("userId too long for chat journal");
+        }
+
+        JournalSegment[] current = segments;
+        JournalSegment tail = current.length == 0 ? null : current[current.length - 1];
+
+        // Séquences contiguës par segment : un trou ouvre aussi un nouveau segment
+        boolean appended = tail != null
+                && seq == nextSeq
+                && tail.tryAppend(seq, line.ts(), user, message);
+
+        if (!appended) {
+            tail = roll(current, seq, JournalSegment.recordBytes(user, message));
+            tail.tryAppend(seq, line.ts(), user, message);
+        }
+
+        nextSeq = seq + 1;
+        size = size + 1;
+    }
+
+    private JournalSegment roll(JournalSegment[] current, long baseSeq, int recordBytes) {
+        try {
+            int capacity = Math.max(settings.segmentBytes(), recordBytes);
+            JournalSegment segment = JournalSegment.create(dir, baseSeq, capacity, settings.indexInterval());
+
+            JournalSegment[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = segment;
+            segments = grown;
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to roll chat journal segment for room " + roomId, e);
+        }
+    }
+
+    @Override
+    public synchronized void trim(int maxMessages, long minTs) {
+        JournalSegment[] current = segments;
+        int drop = 0;
+        long remaining = size;
+
+        while (drop < current.length) {
+            JournalSegment head = current[drop];
+            boolean tooMany = maxMessages > 0 && remaining - head.count() >= maxMessages;
+            boolean tooOld = head.lastTs() < minTs;
+            if (!tooMany && !tooOld) {
+                break;
+            }
+            remaining -= head.count();
+            drop++;
+        }
+
+        if (drop == 0) {
+            return;
+        }
+
+        segments = Arrays.copyOfRange(current, drop, current.length);
+        size = remaining;
+
+        for (int i = 0; i < drop; i++) {
+            try {
+                current[i].delete();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to delete chat journal segment for room " + roomId, e);
+            }
+        }
+    }
+
+    @Override
+    public synchronized long nextSeq() {
+        return nextSeq;
+    }
+
+    @Override
+    public List<ChatLine> snapshot() {
+        JournalSegment[] current = segments;
+        List<ChatLine> out = new ArrayList<>((int) Math.min(Integer.MAX_VALUE, size));
+        for (JournalSegment s : current) {
+            s.read(0, s.count(), roomId, out);
+        }
+        return out;
+    }
+
+    @Override
+    public List<ChatLine> latest(int limit) {
+        return before(Long.MAX_VALUE, limit);
+    }
+
+    @Override
+    public List<ChatLine> before(long seq, int limit) {
+        JournalSegment[] current = segments;
+
+        // On remonte les segments pour trouver le premier à lire, puis on décode dans l'ordre
+        int first = segmentFor(current, seq - 1);
+        if (first < 0) {
+            return List.of();
+        }
+
+        int[] from = new int[first + 1];
+        int[] to = new int[first + 1];
+        int needed = limit;
+        int start = first;
+
+        for (int i = first; i >= 0 && needed > 0; i--) {
+            JournalSegment s = current[i];
+            int end = (int) Math.min(s.count(), seq - s.baseSeq());
+            int begin = Math.max(0, end - needed);
+            from[i] = begin;
+            to[i] = end;
+            needed -= end - begin;
+            start = i;
+        }
+
+        List<ChatLine> out = new ArrayList<>(limit - needed);
+        for (int i = start; i <= first; i++) {
+            current[i].read(from[i], to[i], roomId, out);
+        }
+        return out;
+    }
+
+    @Override
+    public List<ChatLine> after(long seq, int limit) {
+        if (seq == Long.MAX_VALUE) {
+            return List.of();
+        }
+        JournalSegment[] current = segments;
+        List<ChatLine> out = new ArrayList<>(Math.min(limit, 256));
+
+        for (int i = Math.max(0, segmentFor(current, seq + 1)); i < current.length && out.size() < limit; i++) {
+            JournalSegment s = current[i];
+            int n = s.count();
+            int begin = (int) Math.max(0, Math.min(n, seq + 1 - s.baseSeq()));
+            int end = Math.min(n, begin + (limit - out.size()));
+            s.read(begin, end, roomId, out);
+        }
+
+        return out;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Force les segments modifiés sur disque (group commit, appelé par le flusher).
+     */
+    void flush() {
+        for (JournalSegment s : segments) {
+            s.flush();
+        }
+    }
+
+    /**
+     * Ferme les segments ; un log vide supprime aussi son répertoire.
+     */
+    @Override
+    public synchronized void release() {
+        try {
+            for (JournalSegment s : segments) {
+                s.close();
+            }
+            if (size == 0) {
+                try (Stream<Path> files = Files.list(dir)) {
+                    if (files.findAny().isEmpty()) {
+                        Files.deleteIfExists(dir);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to release chat journal for room " + roomId, e);
+        }
+    }
+
+    /**
+     * Index du dernier segment dont la première séquence est <= seq, ou -1.
+     */
+    private static int segmentFor(JournalSegment[] current, long seq) {
+        int lo = 0;
+        int hi = current.length - 1;
+        int found = -1;
+
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (current[mid].baseSeq() <= seq) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,257 @@
+package com.chatactor.store.journal;
+
+import com.chatactor.model.ChatLine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Fichier segment du journal, mappé en mémoire (append-only).
+ *
+ * Format d'un enregistrement (big-endian) :
+ * <pre>
+ *   int   length   taille du corps (0 = fin des données)
+ *   int   crc32    CRC du corps
+ *   long  seq
+ *   long  ts
+ *   short userLen  puis userLen octets UTF-8 (userId)
+ *   ...   message  (length - 18 - userLen) octets UTF-8
+ * </pre>
+ * roomId n'est pas stocké : il est implicite (un répertoire par room).
+ *
+ * Les séquences d'un segment sont contiguës (l'enregistrement k a la séquence baseSeq + k),
+ * ce qui permet un index creux : la position d'un enregistrement sur indexInterval.
+ */
+final class JournalSegment {
+
+    static final String SUFFIX = ".log";
+
+    private static final int HEADER_BYTES = 8;
+    private static final int FIXED_BODY_BYTES = 8 + 8 + 2;
+
+    private final Path file;
+    private final long baseSeq;
+    private final int indexInterval;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+
+    // Fin des données validées : publiée après l'écriture de l'enregistrement
+    private volatile int writePos;
+    private volatile int count;
+    private volatile long lastTs = Long.MIN_VALUE;
+
+    // Index creux : paires (ordinal / indexInterval) -> position, publié via indexCount
+    private int[] index = new int[16];
+    private volatile int indexCount;
+
+    // Modifié depuis le dernier force() (group commit)
+    private volatile boolean dirty;
+
+    private JournalSegment(Path file, long baseSeq, int indexInterval, FileChannel channel, int capacity) throws IOException {
+        this.file = file;
+        this.baseSeq = baseSeq;
+        this.indexInterval = indexInterval;
+        this.channel = channel;
+        this.capacity = capacity;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    /**
+     * Crée un nouveau segment préalloué.
+     */
+    static JournalSegment create(Path dir, long baseSeq, int capacity, int indexInterval) throws IOException {
+        Path file = dir.resolve(fileName(baseSeq));
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new JournalSegment(file, baseSeq, indexInterval, channel, capacity);
+    }
+
+    /**
+     * Rouvre un segment existant et reconstruit count / lastTs / index creux en parcourant les en-têtes.
+     * Un enregistrement tronqué ou corrompu (CRC, séquence) marque la fin des données valides.
+     */
+    static JournalSegment open(Path file, int indexInterval) throws IOException {
+        long baseSeq = parseBaseSeq(file);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        int capacity = (int) Math.min(Integer.MAX_VALUE, channel.size());
+
+        JournalSegment segment = new JournalSegment(file, baseSeq, indexInterval, channel, capacity);
+        segment.recover();
+        return segment;
+    }
+
+    static String fileName(long baseSeq) {
+        return String.format("%020d%s", baseSeq, SUFFIX);
+    }
+
+    static long parseBaseSeq(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    /**
+     * Taille encodée d'un enregistrement.
+     */
+    static int recordBytes(byte[] user, byte[] message) {
+        return HEADER_BYTES + FIXED_BODY_BYTES + user.length + message.length;
+    }
+
+    private void recover() {
+        int pos = 0;
+        CRC32 crc = new CRC32();
+
+        while (pos + HEADER_BYTES <= capacity) {
+            int length = buffer.getInt(pos);
+            if (length < FIXED_BODY_BYTES || pos + HEADER_BYTES + length > capacity) {
+                break;
+            }
+
+            crc.reset();
+            crc.update(buffer.slice(pos + HEADER_BYTES, length));
+            if ((int) crc.getValue() != buffer.getInt(pos + 4)) {
+                break;
+            }
+
+            if (buffer.getLong(pos + HEADER_BYTES) != baseSeq + count) {
+                break;
+            }
+
+            indexIfNeeded(count, pos);
+            lastTs = buffer.getLong(pos + HEADER_BYTES + 8);
+            count++;
+            pos += HEADER_BYTES + length;
+        }
+
+        writePos = pos;
+    }
+
+    /**
+     * Ajoute un enregistrement si la place le permet (écrivain unique).
+     *
+     * @return false si le segment est plein (il faut rouler sur un nouveau segment)
+     */
+    boolean tryAppend(long seq, long ts, byte[] user, byte[] message) {
+        int size = recordBytes(user, message);
+        int pos = writePos;
+        if (pos + size > capacity) {
+            return false;
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(size);
+        record.putInt(size - HEADER_BYTES);
+        record.putInt(0);
+        record.putLong(seq);
+        record.putLong(ts);
+        record.putShort((short) user.length);
+        record.put(user);
+        record.put(message);
+
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), HEADER_BYTES, size - HEADER_BYTES);
+        record.putInt(4, (int) crc.getValue());
+
+        buffer.put(pos, record.array());
+
+        indexIfNeeded(count, pos);
+        lastTs = ts;
+        count = count + 1;
+        dirty = true;
+        writePos = pos + size;
+        return true;
+    }
+
+    private void indexIfNeeded(int ordinal, int pos) {
+        if (ordinal % indexInterval != 0) {
+            return;
+        }
+        int slot = ordinal / indexInterval;
+        if (slot == index.length) {
+            index = Arrays.copyOf(index, slot * 2);
+        }
+        index[slot] = pos;
+        indexCount = slot + 1;
+    }
+
+    /**
+     * Position de l'enregistrement d'ordinal k (0 <= k < count) :
+     * saut via l'index creux puis au plus indexInterval - 1 en-têtes lus.
+     */
+    private int positionOf(int ordinal) {
+        int slot = Math.min(ordinal / indexInterval, indexCount - 1);
+        int pos = index[slot];
+        for (int k = slot * indexInterval; k < ordinal; k++) {
+            pos += HEADER_BYTES + buffer.getInt(pos);
+        }
+        return pos;
+    }
+
+    /**
+     * Lit les enregistrements d'ordinaux [from, to) directement depuis les pages mappées.
+     */
+    void read(int from, int to, String roomId, List<ChatLine> out) {
+        if (from >= to) {
+            return;
+        }
+        int pos = positionOf(from);
+        for (int k = from; k < to; k++) {
+            int length = buffer.getInt(pos);
+            out.add(decode(pos, length, roomId));
+            pos += HEADER_BYTES + length;
+        }
+    }
+
+    private ChatLine decode(int pos, int length, String roomId) {
+        int body = pos + HEADER_BYTES;
+        long seq = buffer.getLong(body);
+        long ts = buffer.getLong(body + 8);
+        int userLen = buffer.getShort(body + 16) & 0xFFFF;
+
+        byte[] user = new byte[userLen];
+        buffer.get(body + FIXED_BODY_BYTES, user);
+
+        byte[] message = new byte[length - FIXED_BODY_BYTES - userLen];
+        buffer.get(body + FIXED_BODY_BYTES + userLen, message);
+
+        return new ChatLine(seq, new String(user, StandardCharsets.UTF_8), roomId,
+                new String(message, StandardCharsets.UTF_8), ts);
+    }
+
+    /**
+     * Force les pages modifiées sur disque (appelé par le flusher du journal).
+     */
+    void flush() {
+        if (dirty) {
+            dirty = false;
+            buffer.force();
+        }
+    }
+
+    void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    /**
+     * Ferme et supprime le fichier. Le mapping reste valide pour les lecteurs en cours
+     * (il est libéré par le GC), la place disque est récupérée à ce moment-là.
+     */
+    void delete() throws IOException {
+        channel.close();
+        Files.deleteIfExists(file);
+    }
+
+    long baseSeq() { return baseSeq; }
+    int count() { return count; }
+    long lastTs() { return lastTs; }
+    long nextSeq() { return baseSeq + count; }
+}
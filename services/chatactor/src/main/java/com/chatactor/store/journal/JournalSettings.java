@@ -0,0 +1,20 @@
+package com.chatactor.store.journal;
+
+import java.nio.file.Path;
+
+/**
+ * Paramètres du journal de chat.
+ *
+ * @param dir             répertoire racine (un sous-répertoire par room)
+ * @param segmentBytes    taille d'un segment (préalloué puis mappé)
+ * @param indexInterval   un enregistrement sur indexInterval est indexé (index creux)
+ * @param fsyncIntervalMs période du group commit (force des pages modifiées)
+ */
+public record JournalSettings(Path dir, int segmentBytes, int indexInterval, long fsyncIntervalMs) {
+
+    public JournalSettings {
+        if (segmentBytes <= 0 || indexInterval <= 0 || fsyncIntervalMs <= 0) {
+            throw new IllegalArgumentException("Invalid chat journal settings");
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.chatactor.search;
+
+import com.chatactor.model.ChatLine;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChatSearchIndexTest {
+
+    private ChatSearchIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new ChatSearchIndex();
+    }
+
+    private void add(long seq, String message) {
+        index.add(new ChatLine(seq, "u1", "room-1", message, 1000));
+    }
+
+    @Test
+    void search_shouldMatchAccentAndCaseInsensitive_andRankByScore() {
+        add(0, "Bonne soirée à tous");
+        add(1, "cette chanson est géniale");
+        add(2, "une autre chanson");
+        add(3, "CHANSON chanson, vraiment GENIALE");
+
+        ChatSearchIndex.Result result = index.search("chanson geniale", 0, 10);
+
+        assertEquals(3, result.total());
+        List<Long> seqs = result.ranked().stream().map(ChatSearchIndex.Scored::seq).toList();
+        assertEquals(List.of(3L, 1L, 2L), seqs);
+    }
+
+    @Test
+    void search_shouldPaginateWithOffset() {
+        for (long seq = 0; seq < 30; seq++) {
+            add(seq, "hello " + seq);
+        }
+
+        ChatSearchIndex.Result page = index.search("hello", 10, 5);
+
+        assertEquals(30, page.total());
+        assertEquals(5, page.ranked().size());
+        // Scores égaux : du plus récent au plus ancien
+        assertEquals(19L, page.ranked().get(0).seq());
+        assertEquals(15L, page.ranked().get(4).seq());
+    }
+
+    @Test
+    void search_shouldRejectUnboundedPagination() {
+        add(0, "hello");
+
+        assertEquals(1, index.search("hello", 0, ChatSearchIndex.MAX_LIMIT).total());
+        assertThrows(IllegalArgumentException.class, () -> index.search("hello", ChatSearchIndex.MAX_OFFSET + 1, 10));
+        assertThrows(IllegalArgumentException.class, () -> index.search("hello", Integer.MAX_VALUE, Integer.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> index.search("hello", -1, 10));
+    }
+
+    @Test
+    void pruneBefore_shouldForgetOldLines() {
+        add(0, "ancien message");
+        add(1, "ancien encore");
+        add(2, "nouveau message");
+
+        index.pruneBefore(2, 1);
+
+        assertEquals(0, index.search("ancien", 0, 10).total());
+        assertEquals(List.of(2L), index.search("message", 0, 10).ranked().stream()
+                .map(ChatSearchIndex.Scored::seq).toList());
+    }
+
+    @Test
+    void pruneBefore_shouldKeepSearching_andIndexing_afterCompaction() {
+        for (long seq = 0; seq < 1000; seq++) {
+            add(seq, seq % 2 == 0 ? "hello pair" : "hello");
+        }
+
+        // Plus de la moitié des postings retirés : compaction des listes
+        index.pruneBefore(600, 400);
+        add(1000, "hello pair");
+
+        ChatSearchIndex.Result all = index.search("hello", 0, 3);
+        assertEquals(401, all.total());
+        assertEquals(List.of(1000L, 999L, 998L), all.ranked().stream().map(ChatSearchIndex.Scored::seq).toList());
+
+        // Dernière page : la plus ancienne ligne retenue
+        ChatSearchIndex.Result oldest = index.search("pair", 200, 10);
+        assertEquals(201, oldest.total());
+        assertEquals(List.of(600L), oldest.ranked().stream().map(ChatSearchIndex.Scored::seq).toList());
+
+        // Seconde rétention sans compaction (start avancé seulement)
+        index.pruneBefore(700, 301);
+        assertEquals(301, index.search("hello", 0, 1).total());
+        assertEquals(151, index.search("pair", 0, 1).total());
+    }
+}
@@ -0,0 +1,46 @@
+package com.chatactor.store;
+
+import com.chatactor.model.ChatLine;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChatStoreTest {
+
+    private static final String ROOM = "room-chat-store-test";
+
+    private final ChatStore store = ChatStore.get();
+
+    @AfterEach
+    void tearDown() {
+        // Rétention par défaut (singleton partagé)
+        store.configureRetention(10_000, 0);
+        store.roomInactive(ROOM);
+        store.purgeExpired();
+    }
+
+    @Test
+    void purgeExpired_shouldKeepNextSeq_whileRoomIsActive_thenDropRoom() {
+        store.roomActive(ROOM);
+        for (long seq = 0; seq < 3; seq++) {
+            store.add(ROOM, new ChatLine(seq, "u1", ROOM, "msg-" + seq, 1000));
+        }
+
+        // Tous les messages ont expiré : le log est vidé mais gardé (ChatActor en vie)
+        store.configureRetention(0, 1);
+        store.purgeExpired();
+        assertTrue(store.history(ROOM).isEmpty());
+
+        // Un ChatActor redémarré reprend à 3, pas à 0
+        assertEquals(3, store.nextSeq(ROOM));
+        store.add(ROOM, new ChatLine(3, "u1", ROOM, "msg-3", 1000));
+        assertEquals(4, store.nextSeq(ROOM));
+        assertEquals(3L, store.latest(ROOM, 1).get(0).seq());
+
+        // ChatActor arrêté : le log vidé est retiré, rien n'est retenu pour la room
+        store.roomInactive(ROOM);
+        store.purgeExpired();
+        assertTrue(store.history(ROOM).isEmpty());
+        assertEquals(0, store.nextSeq(ROOM));
+    }
+}
@@ -0,0 +1,101 @@
+package com.chatactor.store;
+
+import com.chatactor.model.ChatLine;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryChatLogTest {
+
+    private InMemoryChatLog log;
+
+    @BeforeEach
+    void setup() {
+        log = new InMemoryChatLog("room-1");
+    }
+
+    private void appendRange(long fromSeq, long toSeqExclusive, long ts) {
+        for (long seq = fromSeq; seq < toSeqExclusive; seq++) {
+            log.append(new ChatLine(seq, "u" + (seq % 3), "room-1", "msg-" + seq, ts));
+        }
+    }
+
+    @Test
+    void latest_shouldReturnLastLines_inArrivalOrder_acrossSegments() {
+        appendRange(0, 600, 1000);
+
+        List<ChatLine> page = log.latest(50);
+
+        assertEquals(50, page.size());
+        assertEquals(550L, page.get(0).seq());
+        assertEquals(599L, page.get(49).seq());
+        assertEquals(600L, log.nextSeq());
+    }
+
+    @Test
+    void beforeAndAfter_shouldPaginateByCursor() {
+        appendRange(0, 600, 1000);
+
+        List<ChatLine> older = log.before(300, 10);
+        assertEquals(290L, older.get(0).seq());
+        assertEquals(299L, older.get(9).seq());
+
+        List<ChatLine> newer = log.after(255, 3);
+        assertEquals(List.of(256L, 257L, 258L), newer.stream().map(ChatLine::seq).toList());
+
+        // Début de l'historique : page incomplète
+        assertEquals(5, log.before(5, 50).size());
+        assertTrue(log.after(599, 50).isEmpty());
+    }
+
+    @Test
+    void trim_shouldDropWholeHeadSegments_byCountAndAge() {
+        appendRange(0, 300, 1000);
+        appendRange(300, 600, 5000);
+
+        // Rétention par nombre : le premier segment (256 lignes) sort
+        log.trim(300, Long.MIN_VALUE);
+        assertEquals(344, log.size());
+        assertEquals(256L, log.snapshot().get(0).seq());
+
+        // Rétention par âge : le segment [256, 512) contient encore des lignes récentes, il reste
+        log.trim(0, 2000);
+        assertEquals(256L, log.snapshot().get(0).seq());
+
+        log.trim(0, 6000);
+        assertTrue(log.isEmpty());
+        assertTrue(log.latest(10).isEmpty());
+    }
+
+    @Test
+    void append_shouldRejectDecreasingSeq_andAcceptGaps() {
+        appendRange(0, 10, 1000);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> log.append(new ChatLine(5, "u", "room-1", "late", 1000)));
+
+        appendRange(100, 105, 1000);
+        assertEquals(List.of(9L, 100L, 101L), log.after(8, 3).stream().map(ChatLine::seq).toList());
+        assertEquals(List.of(8L, 9L), log.before(100, 2).stream().map(ChatLine::seq).toList());
+    }
+
+    @Test
+    void lines_shouldRoundTrip_throughCompactColumns() {
+        log.append(new ChatLine(0, "alice", "room-1", "salut à tous 🎵", 1000));
+        log.append(new ChatLine(1, "bob", "room-1", "hello", 1001));
+        log.append(new ChatLine(2, null, "room-1", "system", 1002));
+        for (long seq = 3; seq < 20; seq++) {
+            log.append(new ChatLine(seq, "user-" + seq, "room-1", "m" + seq, 1000 + seq));
+        }
+        log.append(new ChatLine(20, "alice", "room-1", "re", 2000));
+
+        List<ChatLine> all = log.snapshot();
+
+        assertEquals(new ChatLine(0, "alice", "room-1", "salut à tous 🎵", 1000), all.get(0));
+        assertNull(all.get(2).userId());
+        assertEquals("user-19", all.get(19).userId());
+        assertEquals(new ChatLine(20, "alice", "room-1", "re", 2000), all.get(20));
+    }
+}
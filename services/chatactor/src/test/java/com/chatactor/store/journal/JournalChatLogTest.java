@@ -0,0 +1,95 @@
+package com.chatactor.store.journal;
+
+import com.chatactor.model.ChatLine;
+import com.chatactor.store.ChatLog;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalChatLogTest {
+
+    @TempDir
+    Path dir;
+
+    private ChatJournal journal;
+
+    @BeforeEach
+    void setup() {
+        // Petits segments pour forcer le roulement
+        journal = new ChatJournal(new JournalSettings(dir, 4096, 8, 50));
+    }
+
+    @AfterEach
+    void tearDown() {
+        journal.close();
+    }
+
+    private static void appendRange(ChatLog log, long fromSeq, long toSeqExclusive, long ts) {
+        for (long seq = fromSeq; seq < toSeqExclusive; seq++) {
+            log.append(new ChatLine(seq, "user-" + (seq % 3), "room-1", "message é " + seq, ts));
+        }
+    }
+
+    @Test
+    void append_shouldRollSegments_andPaginateFromMappedPages() {
+        ChatLog log = journal.open("room-1");
+        appendRange(log, 0, 500, 1000);
+
+        assertEquals(500, log.size());
+        assertTrue(countSegments() > 1);
+
+        List<ChatLine> latest = log.latest(20);
+        assertEquals(480L, latest.get(0).seq());
+        assertEquals(499L, latest.get(19).seq());
+        assertEquals("room-1", latest.get(0).roomId());
+        assertEquals("message é 499", latest.get(19).message());
+
+        assertEquals(List.of(100L, 101L, 102L), log.after(99, 3).stream().map(ChatLine::seq).toList());
+        assertEquals(List.of(97L, 98L, 99L), log.before(100, 3).stream().map(ChatLine::seq).toList());
+    }
+
+    @Test
+    void reopen_shouldRecoverHistory_andContinueSequence() {
+        ChatLog log = journal.open("room-1");
+        appendRange(log, 0, 300, 1000);
+        journal.close();
+
+        journal = new ChatJournal(new JournalSettings(dir, 4096, 8, 50));
+        assertTrue(journal.exists("room-1"));
+
+        ChatLog reopened = journal.open("room-1");
+        assertEquals(300, reopened.size());
+        assertEquals(300L, reopened.nextSeq());
+        assertEquals("user-2", reopened.latest(1).get(0).userId());
+
+        reopened.append(new ChatLine(300, "bob", "room-1", "after restart", 2000));
+        assertEquals("after restart", reopened.latest(1).get(0).message());
+    }
+
+    @Test
+    void trim_shouldDeleteWholeSegmentFiles() {
+        ChatLog log = journal.open("room-1");
+        appendRange(log, 0, 200, 1000);
+        appendRange(log, 200, 400, 5000);
+
+        int before = countSegments();
+        log.trim(0, 2000);
+
+        assertTrue(countSegments() < before);
+        assertTrue(log.snapshot().stream().allMatch(l -> l.seq() >= 100));
+        assertEquals(399L, log.latest(1).get(0).seq());
+    }
+
+    private int countSegments() {
+        try (var files = Files.list(dir.resolve("room-1"))) {
+            return (int) files.count();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
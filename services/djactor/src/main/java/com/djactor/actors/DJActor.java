@@ -5,29 +5,101 @@ import com.djactor.models.PlayerStatus;
 import com.djactor.models.Track;
 import com.framework.actors.Actor;
 import com.framework.actors.ActorContext;
+import com.framework.actors.Behavior;
+import com.framework.actors.LanePolicy;
 import com.framework.actors.Message;
+import com.framework.actors.MessageType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 /**
  * DJActor : gère l'état du player pour une room.
  * Path typique : "djactor/dj-<roomId>"
+ * En fin de track, prévient la room djroom (TRACK_ENDED) : le PlaylistActor répond par LOAD_TRACK
+ * avec le track le mieux voté. Aucune file d'attente n'est dupliquée ici.
+ * Connaît aussi les prochains tracks (UPCOMING_TRACKS, publiés par la playlist djroom) et expose,
+ * environ PRELOAD_LEAD_MS avant la fin du track courant, le suivant à précharger (preloadUrl dans l'état).
+ * Le hint n'est pas poussé : aucun canal serveur -> client n'existe, les clients le lisent au polling
+ * de l'état (GET_STATE, toutes les secondes), donc au plus une période de polling après son émission.
  */
 public class DJActor implements Actor {
 
     private static final Logger log = LoggerFactory.getLogger(DJActor.class);
 
+    // Protocole : les commandes arrivent surtout de djroom via RabbitMQ (payload Map JSON, ou roomId),
+    // d'où des payloads Object interprétés par les handlers ; TICK et PRELOAD sont envoyés à soi-même
+    static final MessageType<Void> TICK = MessageType.of("TICK");
+    static final MessageType<Number> PRELOAD = MessageType.of("PRELOAD", Number.class);
+    static final MessageType<Object> INIT_PLAYER = MessageType.of("INIT_PLAYER", Object.class);
+    static final MessageType<Object> STOP_PLAYER = MessageType.of("STOP_PLAYER", Object.class);
+    static final MessageType<Object> LOAD_TRACK = MessageType.of("LOAD_TRACK", Object.class);
+    static final MessageType<Object> PLAY = MessageType.of("PLAY", Object.class);
+    static final MessageType<Object> PAUSE = MessageType.of("PAUSE", Object.class);
+    static final MessageType<Object> NEXT = MessageType.of("NEXT", Object.class);
+    static final MessageType<Object> PREV = MessageType.of("PREV", Object.class);
+    static final MessageType<Object> UPCOMING_TRACKS = MessageType.of("UPCOMING_TRACKS", Object.class);
+    // Payload : CompletableFuture (ask local) ou rien (réponse PLAYER_STATE au sender)
+    static final MessageType<Object> GET_STATE = MessageType.of("GET_STATE", Object.class);
+
+    // Table de dispatch, partagée par tous les DJActor
+    private static final Behavior<DJActor> BEHAVIOR = Behavior.<DJActor>builder()
+            .on(TICK, (actor, none, ctx) -> actor.handleTick(ctx))
+            .on(INIT_PLAYER, (actor, payload, ctx) -> actor.handleInitPlayer())
+            .on(STOP_PLAYER, (actor, payload, ctx) -> actor.handleStopPlayer(ctx))
+            .on(LOAD_TRACK, (actor, payload, ctx) -> actor.handleLoadTrack(payload))
+            .on(PLAY, (actor, payload, ctx) -> actor.handlePlay())
+            .on(PAUSE, (actor, payload, ctx) -> actor.handlePause())
+
+            // La gestion du NEXT est pilotée côté djroom (playlist), ici on ignore
+            .on(NEXT, (actor, payload, ctx) -> log.debug("NEXT ignored for room {} (managed by djroom)", actor.roomId))
+
+            .on(PREV, (actor, payload, ctx) -> actor.handlePrev())
+
+            .on(UPCOMING_TRACKS, (actor, payload, ctx) -> actor.handleUpcomingTracks(payload))
+            .on(PRELOAD, (actor, trackId, ctx) -> actor.handlePreload(trackId))
+
+            // Ask local via CompletableFuture en payload, ou réponse PLAYER_STATE au sender
+            .on(GET_STATE, DJActor::handleGetState)
+
+            .otherwise((actor, message, ctx) ->
+                    log.warn("[DJActor {}] Unknown message type: {}", actor.roomId, message.type()))
+            .build();
+
+    // Avance du hint de préchargement sur la fin du track courant
+    static final long PRELOAD_LEAD_MS = 30_000;
+
     private String roomId;
     private PlayerStateManager state;
-    private ScheduledExecutorService scheduler;
+
+    // Période du timer de position (TICK envoyé à soi-même par le timer partagé de l'ActorSystem)
+    static final long TICK_MS = 250;
+
+    // Prochains tracks connus (tête de la playlist djroom) et taille totale de la file
+    private List<LoadTrackMsg> upcoming = List.of();
+    private int queueSize;
+
+    // Track à précharger par les clients (null tant que le hint n'est pas émis)
+    private LoadTrackMsg preload;
+
+    // Dernier track ayant reçu son PRELOAD (le hint suit alors chaque UPCOMING_TRACKS)
+    private long hintedTrackId = -1;
+
+    // Version de l'état : démarrage de l'acteur + nombre de commandes traitées
+    // (la position, qui avance seule, n'en fait pas partie : elle est datée par positionAt)
+    private final long epoch = System.currentTimeMillis();
+    private long changes;
+
+    // Mesure du passage de relais : fin de track (timer) -> LOAD_TRACK suivant reçu
+    private volatile long endedAtNanos;
+    private volatile long lastHandoffNanos = -1;
 
     public DJActor() {
     }
@@ -44,7 +116,7 @@ public class DJActor implements Actor {
      * Initialisation :
      * - dérive roomId depuis le path
      * - initialise le state manager
-     * - démarre un scheduler qui met à jour la position régulièrement
+     * - programme le TICK qui fait avancer la position (timer annulé automatiquement à l'arrêt)
      */
     @Override
     public void preStart(ActorContext ctx) {
@@ -61,45 +133,40 @@ public class DJActor implements Actor {
 
         this.state = new PlayerStateManager();
 
-        // Timer interne pour avancer la position
-        scheduler = Executors.newSingleThreadScheduledExecutor();
-        scheduler.scheduleAtFixedRate(() -> {
-            try {
-                state.incrementPosition();
-            } catch (Exception e) {
-                log.error("Error incrementing position for room {}", roomId, e);
-            }
-        }, 0, 250, TimeUnit.MILLISECONDS);
+        // Timer de position : pas de thread par acteur, le TICK passe par la mailbox (voie CONTROL).
+        // Premier TICK après une période : la cellule n'est enregistrée qu'au retour de preStart
+        // (un TICK immédiat partirait en dead letter UNKNOWN_TARGET)
+        ctx.scheduleAtFixedRate(TICK_MS, TICK_MS, Message.of(TICK, null));
 
         log.info("DJActor started for room {}", roomId);
     }
 
+    /**
+     * Voies de mailbox : arrêt en SYSTEM, commandes de lecture en CONTROL, le reste (état, préchargement) en BULK.
+     */
+    @Override
+    public LanePolicy lanePolicy() {
+        return LanePolicy.defaults()
+                .system(STOP_PLAYER.name())
+                .control(INIT_PLAYER.name(), LOAD_TRACK.name(), PLAY.name(), PAUSE.name(), PREV.name(), NEXT.name(),
+                        TICK.name());
+    }
+
     /**
      * Route les messages reçus vers les handlers.
      */
     @Override
     public CompletableFuture<Void> onReceive(Message message, ActorContext ctx) {
-        log.info("[DJActor {}] Received type={}", roomId, message.type());
-
-        switch (message.type()) {
-            case "INIT_PLAYER" -> handleInitPlayer();
-            case "STOP_PLAYER" -> handleStopPlayer();
-            case "LOAD_TRACK" -> handleLoadTrack(message.payload());
-            case "PLAY" -> handlePlay();
-            case "PAUSE" -> handlePause();
+        // Timer de position : fréquent, ni loggué ni compté dans la version
+        if (!TICK.name().equals(message.type())) {
+            log.info("[DJActor {}] Received type={}", roomId, message.type());
 
-            // La gestion du NEXT est pilotée côté djroom (playlist), ici on ignore
-            case "NEXT" -> log.debug("NEXT ignored for room {} (managed by djroom)", roomId);
-
-            case "PREV" -> handlePrev();
-
-            // Ask local via CompletableFuture en payload
-            case "GET_STATE" -> handleGetState(message.payload());
-
-            default -> log.warn("[DJActor {}] Unknown message type: {}", roomId, message.type());
+            if (!GET_STATE.name().equals(message.type())) {
+                changes++;
+            }
         }
 
-        return CompletableFuture.completedFuture(null);
+        return BEHAVIOR.receive(this, message, ctx);
     }
 
     private void handleInitPlayer() {
@@ -107,9 +174,29 @@ public class DJActor implements Actor {
         state.setIdle();
     }
 
-    private void handleStopPlayer() {
+    /**
+     * Room fermée : l'acteur s'arrête (timer annulé, messages restants en dead letters).
+     */
+    private void handleStopPlayer(ActorContext ctx) {
         log.info("STOP_PLAYER for room {}", roomId);
         state.setIdle();
+        ctx.stop(ctx.self());
+    }
+
+    /**
+     * Avance la position ; en fin de track prévient la room, sinon vérifie le préchargement.
+     */
+    private void handleTick(ActorContext ctx) {
+        try {
+            Track ended = state.incrementPosition();
+            if (ended != null) {
+                notifyTrackEnded(ended, ctx);
+            } else {
+                checkPreload(ctx);
+            }
+        } catch (Exception e) {
+            log.error("Error incrementing position for room {}", roomId, e);
+        }
     }
 
     /**
@@ -160,21 +247,123 @@ public class DJActor implements Actor {
 
         log.info("LOAD_TRACK for room {}: title='{}', id={}", roomId, track.getTitle(), track.getId());
 
-        // Mise à jour de la playlist interne (si ce modèle est conservé)
-        state.addSongToPlaylist(
-                track.getId(),
-                track.getTitle(),
-                track.getUrl(),
-                track.getScore(),
-                track.getDurationMs(),
-                track.getAddedAt()
-        );
+        // Enchaînement automatique : délai entre la fin détectée par le timer et le nouveau track
+        long endedAt = endedAtNanos;
+        if (endedAt != 0) {
+            endedAtNanos = 0;
+            lastHandoffNanos = System.nanoTime() - endedAt;
+            log.info("Track handoff for room {}: {} us from track end to LOAD_TRACK",
+                    roomId, TimeUnit.NANOSECONDS.toMicros(lastHandoffNanos));
+        }
+
+        // Le hint du track précédent n'a plus lieu d'être
+        preload = null;
 
         // Démarre le track comme track courant
         state.startNewSong(track);
         state.setStatus(PlayerStatus.PLAYING);
     }
 
+    /**
+     * Nouvelle tête de playlist. Si le hint est déjà émis pour le track courant,
+     * il suit le nouveau premier track (un vote a pu changer l'ordre, ou un track a été ajouté
+     * à une file vide dans les PRELOAD_LEAD_MS de fin).
+     */
+    private void handleUpcomingTracks(Object payload) {
+        List<LoadTrackMsg> tracks = new ArrayList<>();
+
+        if (payload instanceof Map<?, ?> map && map.get("tracks") instanceof List<?> list) {
+            for (Object item : list) {
+                LoadTrackMsg msg = toLoadTrackMsg(item);
+                if (msg != null) {
+                    tracks.add(msg);
+                }
+            }
+            queueSize = map.get("queueSize") instanceof Number n ? n.intValue() : tracks.size();
+        } else if (payload instanceof UpcomingTracksMsg msg) {
+            tracks.addAll(msg.tracks());
+            queueSize = msg.queueSize();
+        } else {
+            log.warn("Unsupported UPCOMING_TRACKS payload for room {}: {}", roomId, payload);
+            return;
+        }
+
+        upcoming = List.copyOf(tracks);
+        Track current = state.getCurrentTrack();
+        if (current != null && current.getId() == hintedTrackId) {
+            preload = upcoming.isEmpty() ? null : upcoming.get(0);
+        }
+    }
+
+    /**
+     * Hint émis par le timer quand il reste moins de PRELOAD_LEAD_MS sur le track indiqué.
+     */
+    private void handlePreload(Object payload) {
+        Track current = state.getCurrentTrack();
+        if (!(payload instanceof Number trackId) || current == null || current.getId() != trackId.longValue()) {
+            return;
+        }
+
+        // File vide : le hint sera posé par le prochain UPCOMING_TRACKS
+        hintedTrackId = current.getId();
+        if (upcoming.isEmpty()) {
+            log.debug("PRELOAD for room {}: no upcoming track", roomId);
+            return;
+        }
+
+        preload = upcoming.get(0);
+        log.info("PRELOAD hint for room {}: next='{}' ({})", roomId, preload.title(), preload.url());
+    }
+
+    /**
+     * Appelé au TICK qui atteint la fin du track courant : TRACK_ENDED à la room (djroom/<roomId>).
+     */
+    private void notifyTrackEnded(Track ended, ActorContext ctx) {
+        endedAtNanos = System.nanoTime();
+        log.info("Track ended in room {}: id={}, title='{}'", roomId, ended.getId(), ended.getTitle());
+
+        try {
+            ctx.actorSelection("djroom/" + roomId).tell(
+                    Message.of("TRACK_ENDED", new TrackEndedMsg(ended.getId(), System.currentTimeMillis())),
+                    ctx.self()
+            );
+        } catch (Exception e) {
+            log.error("Failed to notify track end for room " + roomId, e);
+        }
+    }
+
+    /**
+     * Appelé au TICK : émet PRELOAD (une fois par track) quand la fin approche.
+     */
+    private void checkPreload(ActorContext ctx) {
+        Track current = state.getCurrentTrack();
+        if (current == null || current.equals(Track.EMPTY_TRACK) || current.getId() == hintedTrackId) {
+            return;
+        }
+
+        long remainingMs = current.getDurationMs() - state.getPositionMs();
+        if (current.getDurationMs() > 0 && remainingMs <= PRELOAD_LEAD_MS) {
+            hintedTrackId = current.getId();
+            ctx.self().tell(Message.of(PRELOAD, current.getId()), ctx.self());
+        }
+    }
+
+    private static LoadTrackMsg toLoadTrackMsg(Object item) {
+        if (!(item instanceof Map<?, ?> map)) {
+            return null;
+        }
+        try {
+            return new LoadTrackMsg(
+                    ((Number) map.get("id")).longValue(),
+                    (String) map.get("url"),
+                    (String) map.get("title"),
+                    ((Number) map.get("durationMs")).longValue()
+            );
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
     private void handlePlay() {
         log.info("PLAY for room {}", roomId);
         state.setStatus(PlayerStatus.PLAYING);
@@ -191,18 +380,25 @@ public class DJActor implements Actor {
     }
 
     /**
-     * Complète un future passé en payload.
-     * Payload attendu : CompletableFuture<Map<String,Object>>
+     * Deux cas supportés :
+     * 1) payload CompletableFuture<Map<String,Object>> : complété directement (ask local)
+     * 2) sinon, réponse PLAYER_STATE au sender (ask distant, ex: snapshot de room côté djroom)
      */
-    private void handleGetState(Object payload) {
-        if (!(payload instanceof CompletableFuture<?> future)) {
-            log.warn("[DJActor {}] GET_STATE expects CompletableFuture payload", roomId);
-            return;
+    private void handleGetState(Object payload, ActorContext ctx) {
+        Map<String, Object> snap = snapshot();
+
+        if (payload instanceof CompletableFuture<?> future) {
+            @SuppressWarnings("unchecked")
+            CompletableFuture<Map<String, Object>> typed = (CompletableFuture<Map<String, Object>>) future;
+            typed.complete(snap);
+        } else if (ctx.sender() != null) {
+            ctx.sender().tell(Message.of("PLAYER_STATE", snap), ctx.self());
+        } else {
+            log.warn("[DJActor {}] GET_STATE without future nor sender", roomId);
         }
+    }
 
-        @SuppressWarnings("unchecked")
-        CompletableFuture<Map<String, Object>> typed = (CompletableFuture<Map<String, Object>>) future;
-
+    private Map<String, Object> snapshot() {
         Track current = state.getCurrentTrack();
         if (current == null) {
             current = Track.EMPTY_TRACK;
@@ -212,7 +408,11 @@ public class DJActor implements Actor {
         snap.put("roomId", roomId);
         snap.put("status", state.getStatus().name());
         snap.put("positionMs", state.getPositionMs());
-        snap.put("queueSize", state.getPlaylist().getState().size());
+        snap.put("positionAt", System.currentTimeMillis());
+        snap.put("queueSize", queueSize);
+        long handoff = lastHandoffNanos;
+        snap.put("lastHandoffMs", handoff < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(handoff));
+        snap.put("lastHandoffUs", handoff < 0 ? -1 : TimeUnit.NANOSECONDS.toMicros(handoff));
 
         if (!current.equals(Track.EMPTY_TRACK)) {
             snap.put("trackId", current.getId());
@@ -226,22 +426,31 @@ public class DJActor implements Actor {
             snap.put("durationMs", 0L);
         }
 
-        typed.complete(snap);
+        LoadTrackMsg next = preload;
+        snap.put("preloadTrackId", next != null ? next.id() : null);
+        snap.put("preloadUrl", next != null ? next.url() : null);
+        snap.put("preloadTitle", next != null ? next.title() : null);
+
+        // Le timer peut changer de track ou de statut seul : ils entrent dans la version
+        snap.put("version", epoch + "." + changes + "." + current.getId() + "." + state.getStatus().ordinal());
+        return snap;
     }
 
     /**
-     * Nettoyage à l'arrêt : stop du scheduler.
+     * Arrêt : le timer de position est annulé par l'ActorSystem.
      */
     @Override
     public void postStop(ActorContext ctx) {
         log.info("DJActor stopped for room {}", roomId);
-
-        if (scheduler != null) {
-            scheduler.shutdownNow();
-        }
     }
 
     // DTO local facultatif (utile en tests / appels typés)
     public record LoadTrackMsg(long id, String url, String title, long durationMs) {
     }
+
+    public record UpcomingTracksMsg(List<LoadTrackMsg> tracks, int queueSize) {
+    }
+
+    public record TrackEndedMsg(long trackId, long endedAt) {
+    }
 }
@@ -31,7 +31,11 @@ public class DJActorFactory {
     public ActorRef getOrCreateDJActor(String roomId) {
         return djActors.computeIfAbsent(roomId, id -> {
             log.info("Creating DJActor for room: {}", roomId);
-            return actorSystem.actorOf(DJActor.class, "dj-" + roomId);
+            ActorRef ref = actorSystem.actorOf(DJActor.class, "dj-" + roomId);
+
+            // Le DJActor s'arrête seul (STOP_PLAYER) : on oublie alors sa référence
+            actorSystem.whenTerminated(ref).thenRun(() -> djActors.remove(roomId, ref));
+            return ref;
         });
     }
 
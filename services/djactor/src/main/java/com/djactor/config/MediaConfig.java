@@ -0,0 +1,77 @@
+package com.djactor.config;
+
+import com.djactor.media.MediaLibrary;
+import com.djactor.radio.RadioService;
+import com.djactor.radio.RadioSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class MediaConfig {
+
+    // Dossier des fichiers audio servis sur /api/media
+    @Value("${media.library.dir:song}")
+    private String libraryDir;
+
+    // Nombre max de fichiers gardés ouverts (cache LRU de FileChannel)
+    @Value("${media.library.max-open-files:64}")
+    private int maxOpenFiles;
+
+    // Index de trames MP3 persistés (vide = en mémoire uniquement)
+    @Value("${media.index.dir:data/media-index}")
+    private String indexDir;
+
+    // Pas de l'index de trames (précision du seek)
+    @Value("${media.index.interval-ms:250}")
+    private int indexIntervalMs;
+
+    @Bean(destroyMethod = "close")
+    public MediaLibrary mediaLibrary() {
+        return new MediaLibrary(
+                Path.of(libraryDir),
+                maxOpenFiles,
+                indexDir.isBlank() ? null : Path.of(indexDir),
+                indexIntervalMs
+        );
+    }
+
+    @Value("${media.radio.chunk-bytes:16384}")
+    private int radioChunkBytes;
+
+    @Value("${media.radio.ring-chunks:64}")
+    private int radioRingChunks;
+
+    // Retard max d'un auditeur (en chunks) avant déconnexion
+    @Value("${media.radio.max-backlog-chunks:32}")
+    private int radioMaxBacklogChunks;
+
+    @Value("${media.radio.lead-ms:1000}")
+    private long radioLeadMs;
+
+    @Value("${media.radio.tick-ms:250}")
+    private long radioTickMs;
+
+    // Écriture bloquée plus longtemps vers un auditeur (client figé) : déconnexion
+    @Value("${media.radio.write-timeout-ms:5000}")
+    private long radioWriteTimeoutMs;
+
+    // Auditeurs simultanés max (un thread de streaming chacun, voir RadioStreamConfig)
+    @Value("${media.radio.max-listeners:256}")
+    private int radioMaxListeners;
+
+    @Bean(destroyMethod = "close")
+    public RadioService radioService(MediaLibrary mediaLibrary, DJActorFactory djActorFactory) {
+        return new RadioService(mediaLibrary, djActorFactory, new RadioSettings(
+                radioChunkBytes,
+                radioRingChunks,
+                Math.min(radioMaxBacklogChunks, radioRingChunks - 1),
+                radioLeadMs,
+                radioTickMs,
+                radioWriteTimeoutMs,
+                radioMaxListeners
+        ));
+    }
+}
@@ -0,0 +1,41 @@
+package com.djactor.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Exécuteur dédié aux réponses asynchrones (flux radio) : chaque auditeur occupe un thread
+ * pendant toute son écoute, l'exécuteur par défaut de Spring (8 threads, file non bornée)
+ * mettrait les auditeurs suivants en attente indéfiniment.
+ * - autant de threads que d'auditeurs autorisés (media.radio.max-listeners), créés à la demande
+ * - pas de file d'attente : au-delà, la requête est refusée au lieu d'attendre
+ */
+@Configuration
+public class RadioStreamConfig implements WebMvcConfigurer {
+
+    // Doit correspondre au plafond du RadioService (voir MediaConfig)
+    @Value("${media.radio.max-listeners:256}")
+    private int maxListeners;
+
+    @Bean
+    public ThreadPoolTaskExecutor radioStreamExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("radio-listener-");
+        executor.setCorePoolSize(Math.min(8, maxListeners));
+        executor.setMaxPoolSize(Math.max(1, maxListeners));
+        executor.setQueueCapacity(0);
+        executor.setKeepAliveSeconds(60);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setDaemon(true);
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(radioStreamExecutor());
+    }
+}
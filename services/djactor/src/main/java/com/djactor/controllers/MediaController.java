@@ -0,0 +1,301 @@
+package com.djactor.controllers;
+
+import com.djactor.config.DJActorFactory;
+import com.djactor.media.ByteRange;
+import com.djactor.media.FrameIndex;
+import com.djactor.media.MediaFile;
+import com.djactor.media.MediaLibrary;
+import com.framework.actors.ActorRef;
+import com.framework.actors.Message;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sert les fichiers de la bibliothèque audio (remplace "python -m http.server").
+ * - Range (reprise, seek dans le lecteur) et requêtes conditionnelles (ETag / Last-Modified / If-Range)
+ * - zéro copie : sendfile via Tomcat si disponible, sinon FileChannel.transferTo vers la socket
+ * - le cache de FileChannel de MediaLibrary ne sert qu'au repli transferTo : avec sendfile, Tomcat rouvre
+ *   le fichier par son nom pour chaque réponse (la MediaFile ne fournit alors que taille, ETag et index de trames)
+ * - reprise en cours de morceau (startMs ou position du DJActor de la room) via l'index de trames
+ */
+@RestController
+@RequestMapping("/api/media")
+public class MediaController {
+
+    private static final Logger log = LoggerFactory.getLogger(MediaController.class);
+
+    // Attributs de requête reconnus par le connecteur NIO de Tomcat
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Délai max pour lire la position courante du DJActor
+    private static final long STATE_TIMEOUT_MS = 500;
+
+    private final MediaLibrary library;
+    private final DJActorFactory djActorFactory;
+
+    public MediaController(MediaLibrary library, DJActorFactory djActorFactory) {
+        this.library = library;
+        this.djActorFactory = djActorFactory;
+    }
+
+    /**
+     * GET /api/media/{fileName}
+     * GET /api/media/{fileName}?startMs=95000   -> flux à partir de 1:35 (trame la plus proche)
+     * GET /api/media/{fileName}?roomId=room-xxx -> flux à partir de la position courante de la room
+     * ex: /api/media/02%20Jamal.mp3
+     */
+    @GetMapping("/{fileName}")
+    public void stream(@PathVariable String fileName,
+                       @RequestParam(required = false) Long startMs,
+                       @RequestParam(required = false) String roomId,
+                       HttpServletRequest request,
+                       HttpServletResponse response) throws IOException {
+        MediaFile file = library.acquire(fileName);
+        if (file == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        try {
+            if (startMs == null && roomId != null) {
+                startMs = livePositionMs(roomId, fileName);
+            }
+
+            // Un Range explicite reste prioritaire (le client gère lui-même son seek)
+            if (startMs != null && startMs > 0 && request.getHeader(HttpHeaders.RANGE) == null) {
+                serveFrom(file, fileName, startMs, request, response);
+            } else {
+                serve(file, fileName, request, response);
+            }
+        } finally {
+            file.release();
+        }
+    }
+
+    /**
+     * GET /api/media/{fileName}/offset?positionMs=95000 (ou ?roomId=...)
+     * -> octet de la trame à jouer, pour une requête Range "bytes=<byteOffset>-" côté client
+     */
+    @GetMapping("/{fileName}/offset")
+    public ResponseEntity<?> offset(@PathVariable String fileName,
+                                    @RequestParam(required = false) Long positionMs,
+                                    @RequestParam(required = false) String roomId) throws IOException {
+        MediaFile file = library.acquire(fileName);
+        if (file == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        try {
+            Long position = positionMs != null ? positionMs
+                    : roomId != null ? livePositionMs(roomId, fileName)
+                    : null;
+            if (position == null) {
+                return ResponseEntity.badRequest().body("Track is not playing in this room or no position given");
+            }
+
+            FrameIndex index = library.frameIndex(file);
+            return ResponseEntity.ok(new MediaOffsetResponse(
+                    fileName,
+                    index.startMsAt(position),
+                    index.offsetAt(position),
+                    file.size(),
+                    index.durationMs()
+            ));
+        } finally {
+            file.release();
+        }
+    }
+
+    private void serve(MediaFile file, String fileName,
+                       HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long size = file.size();
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, file.etag());
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, file.lastModified());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=3600");
+
+        if (notModified(file, request)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        ByteRange range = rangeMatches(file, request)
+                ? ByteRange.parse(request.getHeader(HttpHeaders.RANGE), size)
+                : null;
+
+        if (range == ByteRange.UNSATISFIABLE) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+            response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return;
+        }
+
+        long start = range == null ? 0 : range.start();
+        long length = range == null ? size : range.length();
+
+        if (range != null) {
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + range.start() + "-" + range.end() + "/" + size);
+        }
+
+        sendBody(file, fileName, start, length, request, response);
+    }
+
+    /**
+     * Flux à partir d'une position de lecture : offset lu dans l'index de trames (O(1)).
+     * La réponse dépend de l'instant de la requête : pas de validateurs ni de cache.
+     */
+    private void serveFrom(MediaFile file, String fileName, long startMs,
+                           HttpServletRequest request, HttpServletResponse response) throws IOException {
+        FrameIndex index = library.frameIndex(file);
+        long start = index.offsetAt(startMs);
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+        response.setHeader("X-Media-Start-Ms", Long.toString(index.startMsAt(startMs)));
+
+        sendBody(file, fileName, start, file.size() - start, request, response);
+    }
+
+    private void sendBody(MediaFile file, String fileName, long start, long length,
+                          HttpServletRequest request, HttpServletResponse response) throws IOException {
+        MediaType type = MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        response.setContentType(type.toString());
+        response.setContentLengthLong(length);
+
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat envoie le fichier avec sendfile après le retour du contrôleur (ni copie ni thread bloqué).
+            // Il ouvre son propre descripteur à partir du chemin : le canal en cache n'est pas utilisé ici
+            // (coût d'une ouverture par requête comparable à acquire/release, voir MediaListenersBenchmark)
+            request.setAttribute(SENDFILE_FILENAME, file.path().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            return;
+        }
+
+        transfer(file.channel(), start, length, response);
+    }
+
+    /**
+     * Repli sans sendfile : transferTo depuis le canal partagé (lecture positionnelle, thread-safe).
+     */
+    private void transfer(FileChannel channel, long start, long length, HttpServletResponse response) throws IOException {
+        try {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        } catch (IOException e) {
+            // Auditeur parti en cours de lecture : cas normal pour un lecteur audio
+            log.debug("Media transfer interrupted: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * If-None-Match prioritaire sur If-Modified-Since (RFC 9110).
+     */
+    private boolean notModified(MediaFile file, HttpServletRequest request) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return etagMatches(ifNoneMatch, file.etag());
+        }
+
+        long ifModifiedSince = dateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince >= 0 && file.lastModified() / 1000 <= ifModifiedSince / 1000;
+    }
+
+    /**
+     * If-Range : le Range n'est honoré que si la ressource n'a pas changé, sinon réponse complète.
+     */
+    private boolean rangeMatches(MediaFile file, HttpServletRequest request) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(file.etag());
+        }
+        long date = dateHeader(request, HttpHeaders.IF_RANGE);
+        return date >= 0 && file.lastModified() / 1000 <= date / 1000;
+    }
+
+    /**
+     * Position courante de la room si elle joue ce fichier (ask local au DJActor), sinon null.
+     */
+    private Long livePositionMs(String roomId, String fileName) {
+        ActorRef djActor = djActorFactory.getDJActor(roomId);
+        if (djActor == null) {
+            return null;
+        }
+
+        try {
+            CompletableFuture<Map<String, Object>> future = new CompletableFuture<>();
+            djActor.tell(Message.of("GET_STATE", future).coalescing(), null);
+            Map<String, Object> state = future.get(STATE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+            Object url = state.get("currentUrl");
+            if (url == null || !fileName.equals(MediaLibrary.fileNameOf(url.toString()))) {
+                return null;
+            }
+            return ((Number) state.getOrDefault("positionMs", 0L)).longValue();
+
+        } catch (Exception e) {
+            log.warn("Could not read player position for room {}: {}", roomId, e.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean etagMatches(String header, String etag) {
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long dateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    public record MediaOffsetResponse(
+            String fileName,
+            long startMs,
+            long byteOffset,
+            long size,
+            long durationMs
+    ) {}
+}
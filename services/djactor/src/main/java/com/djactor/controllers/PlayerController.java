@@ -35,7 +35,7 @@ public class PlayerController {
             ActorRef djActor = djActorFactory.getOrCreateDJActor(roomId);
 
             CompletableFuture<Map<String, Object>> future = new CompletableFuture<>();
-            djActor.tell(Message.of("GET_STATE", future), null);
+            djActor.tell(Message.of("GET_STATE", future).coalescing(), null);
 
             Map<String, Object> payload = future.get(2, TimeUnit.SECONDS);
 
@@ -0,0 +1,53 @@
+package com.djactor.controllers;
+
+import com.djactor.radio.RadioService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Radio d'une room : flux MP3 unique, calé sur le track et la position du DJActor,
+ * lu une fois sur disque et partagé entre tous les auditeurs.
+ */
+@RestController
+@RequestMapping("/api/radio")
+public class RadioController {
+
+    private final RadioService radioService;
+
+    public RadioController(RadioService radioService) {
+        this.radioService = radioService;
+    }
+
+    /**
+     * GET /api/radio/{roomId} -> flux audio/mpeg sans fin (réponse chunked)
+     */
+    @GetMapping("/{roomId}")
+    public ResponseEntity<StreamingResponseBody> listen(@PathVariable String roomId) {
+        if (!radioService.hasPlayer(roomId)) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!radioService.hasCapacity()) {
+            // Plafond d'auditeurs atteint : refus immédiat plutôt qu'une requête en attente d'un thread
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+
+        StreamingResponseBody body = out -> radioService.listen(roomId, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.valueOf("audio/mpeg"))
+                .cacheControl(CacheControl.noStore())
+                .body(body);
+    }
+
+    /**
+     * GET /api/radio/{roomId}/stats
+     */
+    @GetMapping("/{roomId}/stats")
+    public ResponseEntity<?> stats(@PathVariable String roomId) {
+        RadioService.RadioStats stats = radioService.stats(roomId);
+        return stats == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(stats);
+    }
+}
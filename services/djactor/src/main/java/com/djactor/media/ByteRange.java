@@ -0,0 +1,68 @@
+package com.djactor.media;
+
+/**
+ * Intervalle d'octets [start, end] (bornes incluses) issu d'un en-tête Range.
+ */
+public record ByteRange(long start, long end) {
+
+    public long length() {
+        return end - start + 1;
+    }
+
+    /**
+     * Parse un en-tête "Range: bytes=..." pour un fichier de taille size.
+     * Seul le premier intervalle est retenu (les lecteurs audio n'en demandent qu'un).
+     *
+     * @return l'intervalle, null si l'en-tête est absent ou invalide (réponse complète),
+     * ou {@link #UNSATISFIABLE} si l'intervalle est hors du fichier (416)
+     */
+    public static ByteRange parse(String header, long size) {
+        if (header == null || !header.startsWith("bytes=")) {
+            return null;
+        }
+
+        String spec = header.substring("bytes=".length());
+        int comma = spec.indexOf(',');
+        if (comma >= 0) {
+            spec = spec.substring(0, comma);
+        }
+        spec = spec.trim();
+
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+
+            if (first.isEmpty()) {
+                // Suffixe : les N derniers octets
+                if (last.isEmpty()) {
+                    return null;
+                }
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || size == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new ByteRange(Math.max(0, size - suffix), size - 1);
+            }
+
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            if (start >= size || start > end) {
+                return UNSATISFIABLE;
+            }
+            return new ByteRange(start, end);
+
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Marqueur d'intervalle non satisfiable.
+     */
+    public static final ByteRange UNSATISFIABLE = new ByteRange(-1, -2);
+}
@@ -0,0 +1,184 @@
+package com.djactor.media;
+
+import com.framework.media.MpegFrameHeader;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * Index temps -> octet d'un fichier MP3 : offsets[k] est la position de la première trame
+ * qui commence à k * intervalMs ou après. Un seek se fait donc en une lecture de tableau,
+ * sans parcourir le fichier.
+ *
+ * Persisté à côté de la bibliothèque (fichier .idx) et invalidé si le MP3 change (taille / date).
+ */
+public final class FrameIndex {
+
+    private static final int MAGIC = 0x46494458; // "FIDX"
+    private static final int VERSION = 1;
+
+    private final long fileSize;
+    private final long lastModified;
+    private final int intervalMs;
+    private final long durationMs;
+    private final int[] offsets;
+
+    FrameIndex(long fileSize, long lastModified, int intervalMs, long durationMs, int[] offsets) {
+        this.fileSize = fileSize;
+        this.lastModified = lastModified;
+        this.intervalMs = intervalMs;
+        this.durationMs = durationMs;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Position (octets) de la trame à jouer pour reprendre à positionMs, en O(1).
+     */
+    public long offsetAt(long positionMs) {
+        if (offsets.length == 0) {
+            return 0;
+        }
+        long slot = Math.max(0, positionMs) / intervalMs;
+        return offsets[(int) Math.min(slot, offsets.length - 1)];
+    }
+
+    /**
+     * Instant réel (ms) correspondant à offsetAt(positionMs) : arrondi à l'intervalle de l'index.
+     */
+    public long startMsAt(long positionMs) {
+        if (offsets.length == 0) {
+            return 0;
+        }
+        long slot = Math.min(Math.max(0, positionMs) / intervalMs, offsets.length - 1);
+        return slot * intervalMs;
+    }
+
+    public long durationMs() { return durationMs; }
+    public int intervalMs() { return intervalMs; }
+    int size() { return offsets.length; }
+
+    boolean matches(long size, long mtime, int interval) {
+        return fileSize == size && lastModified == mtime && intervalMs == interval;
+    }
+
+    // ========== Construction ==========
+
+    /**
+     * Construit l'index en parcourant les en-têtes de trame (lecture mappée, une seule passe).
+     */
+    public static FrameIndex build(FileChannel channel, long size, long lastModified, int intervalMs) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("MP3 file too large to index");
+        }
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        int end = (int) size;
+
+        int pos = skipId3v2(buffer);
+        int[] offsets = new int[64];
+        int count = 0;
+        long samples = 0;
+        int sampleRate = 0;
+
+        while (pos + 4 <= end) {
+            MpegFrameHeader header = MpegFrameHeader.parse(buffer.getInt(pos));
+            if (header == null || header.length() <= 0) {
+                pos++; // octets parasites : resynchronisation
+                continue;
+            }
+            if (pos + header.length() > end) {
+                break;
+            }
+
+            if (sampleRate == 0) {
+                sampleRate = header.sampleRate();
+            }
+
+            // Toutes les bornes d'intervalle atteintes par cette trame pointent sur elle
+            long frameMs = samples * 1000 / sampleRate;
+            while ((long) count * intervalMs <= frameMs) {
+                if (count == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, count * 2);
+                }
+                offsets[count++] = pos;
+            }
+
+            samples += header.samples();
+            pos += header.length();
+        }
+
+        long durationMs = sampleRate == 0 ? 0 : samples * 1000 / sampleRate;
+        return new FrameIndex(size, lastModified, intervalMs, durationMs, Arrays.copyOf(offsets, count));
+    }
+
+    private static int skipId3v2(ByteBuffer buffer) {
+        if (buffer.limit() < 10 || buffer.get(0) != 'I' || buffer.get(1) != 'D' || buffer.get(2) != '3') {
+            return 0;
+        }
+        int size = ((buffer.get(6) & 0x7F) << 21) | ((buffer.get(7) & 0x7F) << 14)
+                | ((buffer.get(8) & 0x7F) << 7) | (buffer.get(9) & 0x7F);
+        boolean footer = (buffer.get(5) & 0x10) != 0;
+        return (int) Math.min(buffer.limit(), 10L + size + (footer ? 10 : 0));
+    }
+
+    // ========== Persistance ==========
+
+    /**
+     * Relit un index persisté, ou null s'il est absent, illisible ou périmé.
+     */
+    static FrameIndex load(Path file, long size, long lastModified, int intervalMs) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return null;
+            }
+            long fileSize = in.readLong();
+            long mtime = in.readLong();
+            int interval = in.readInt();
+            long durationMs = in.readLong();
+            int count = in.readInt();
+            if (fileSize != size || mtime != lastModified || interval != intervalMs || count < 0) {
+                return null;
+            }
+
+            int[] offsets = new int[count];
+            for (int i = 0; i < count; i++) {
+                offsets[i] = in.readInt();
+            }
+            return new FrameIndex(fileSize, mtime, interval, durationMs, offsets);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Écriture atomique de l'index (fichier temporaire puis renommage).
+     */
+    void save(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path tmp = Files.createTempFile(file.getParent(), "frame-index", ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(fileSize);
+            out.writeLong(lastModified);
+            out.writeInt(intervalMs);
+            out.writeLong(durationMs);
+            out.writeInt(offsets.length);
+            for (int offset : offsets) {
+                out.writeInt(offset);
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,71 @@
+package com.djactor.media;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fichier audio ouvert, partagé entre toutes les requêtes qui le servent.
+ * Le canal est compté par référence : un fichier évincé du cache n'est fermé
+ * qu'une fois la dernière transmission en cours terminée.
+ */
+public final class MediaFile {
+
+    private final Path path;
+    private final FileChannel channel;
+    private final long size;
+    private final long lastModified;
+    private final String etag;
+
+    // 1 référence pour le cache + 1 par requête en cours
+    private final AtomicInteger refs = new AtomicInteger(1);
+
+    // Index temps -> octet, chargé ou construit à la première demande de seek
+    private volatile FrameIndex frameIndex;
+
+    MediaFile(Path path, FileChannel channel, long size, long lastModified) {
+        this.path = path;
+        this.channel = channel;
+        this.size = size;
+        this.lastModified = lastModified;
+        this.etag = "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+    }
+
+    /**
+     * Prend une référence ; false si le fichier est déjà fermé (évincé entre-temps).
+     */
+    boolean retain() {
+        while (true) {
+            int current = refs.get();
+            if (current == 0) {
+                return false;
+            }
+            if (refs.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Rend une référence ; ferme le canal à la dernière.
+     */
+    public void release() {
+        if (refs.decrementAndGet() == 0) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // fermeture best effort
+            }
+        }
+    }
+
+    FrameIndex frameIndex() { return frameIndex; }
+    void frameIndex(FrameIndex index) { this.frameIndex = index; }
+
+    public Path path() { return path; }
+    public FileChannel channel() { return channel; }
+    public long size() { return size; }
+    public long lastModified() { return lastModified; }
+    public String etag() { return etag; }
+}
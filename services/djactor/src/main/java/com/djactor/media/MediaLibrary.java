@@ -0,0 +1,169 @@
+package com.djactor.media;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bibliothèque audio locale (dossier "song") servie par le MediaController.
+ * - résolution sûre des noms de fichiers (pas de sortie du dossier)
+ * - cache LRU de FileChannel ouverts : un morceau écouté par N auditeurs n'est ouvert qu'une fois
+ *   (chemin transferTo du MediaController ; les réponses sendfile de Tomcat ouvrent leur propre descripteur)
+ * - un fichier modifié sur disque (taille / date) est rouvert automatiquement
+ * - index de trames MP3 par fichier (seek en O(1)), persisté dans indexDir
+ */
+public final class MediaLibrary implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(MediaLibrary.class);
+
+    private final Path root;
+    private final int maxOpenFiles;
+
+    // Index de trames : dossier de persistance (null = en mémoire uniquement) et pas en ms
+    private final Path indexDir;
+    private final int indexIntervalMs;
+
+    // Accès sous verrou : LinkedHashMap en ordre d'accès pour l'éviction LRU
+    private final LinkedHashMap<Path, MediaFile> open;
+
+    public MediaLibrary(Path root, int maxOpenFiles, Path indexDir, int indexIntervalMs) {
+        this.root = root.toAbsolutePath().normalize();
+        this.maxOpenFiles = Math.max(1, maxOpenFiles);
+        this.indexDir = indexDir == null ? null : indexDir.toAbsolutePath().normalize();
+        this.indexIntervalMs = Math.max(10, indexIntervalMs);
+        this.open = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, MediaFile> eldest) {
+                if (size() <= MediaLibrary.this.maxOpenFiles) {
+                    return false;
+                }
+                eldest.getValue().release();
+                return true;
+            }
+        };
+        log.info("Media library at {}", this.root);
+    }
+
+    /**
+     * Ouvre (ou reprend du cache) un fichier de la bibliothèque.
+     * L'appelant doit rendre la référence via {@link MediaFile#release()}.
+     *
+     * @return null si le fichier n'existe pas ou sort de la bibliothèque
+     */
+    public MediaFile acquire(String name) throws IOException {
+        Path path = resolve(name);
+        if (path == null || !Files.isRegularFile(path)) {
+            return null;
+        }
+
+        BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+        long size = attrs.size();
+        long lastModified = attrs.lastModifiedTime().toMillis();
+
+        synchronized (open) {
+            MediaFile cached = open.get(path);
+            if (cached != null && cached.size() == size && cached.lastModified() == lastModified && cached.retain()) {
+                return cached;
+            }
+            if (cached != null) {
+                open.remove(path);
+                cached.release();
+            }
+
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+            MediaFile file = new MediaFile(path, channel, size, lastModified);
+            file.retain();
+            open.put(path, file);
+            return file;
+        }
+    }
+
+    /**
+     * Index de trames du fichier : mémoire, sinon fichier .idx persisté, sinon construit (une passe).
+     */
+    public FrameIndex frameIndex(MediaFile file) throws IOException {
+        FrameIndex index = file.frameIndex();
+        if (index != null) {
+            return index;
+        }
+
+        synchronized (file) {
+            index = file.frameIndex();
+            if (index != null) {
+                return index;
+            }
+
+            Path sidecar = indexDir == null ? null
+                    : indexDir.resolve(root.relativize(file.path()).toString() + ".idx");
+
+            if (sidecar != null) {
+                index = FrameIndex.load(sidecar, file.size(), file.lastModified(), indexIntervalMs);
+            }
+            if (index == null) {
+                index = FrameIndex.build(file.channel(), file.size(), file.lastModified(), indexIntervalMs);
+                log.info("Frame index built for {} ({} entries, {} ms)", file.path().getFileName(), index.size(), index.durationMs());
+                if (sidecar != null) {
+                    try {
+                        index.save(sidecar);
+                    } catch (IOException e) {
+                        log.warn("Failed to persist frame index {}: {}", sidecar, e.getMessage());
+                    }
+                }
+            }
+
+            file.frameIndex(index);
+            return index;
+        }
+    }
+
+    /**
+     * Chemin absolu du fichier, ou null si le nom tente de sortir de la bibliothèque.
+     */
+    Path resolve(String name) {
+        if (name == null || name.isBlank() || name.indexOf('\0') >= 0) {
+            return null;
+        }
+        Path path = root.resolve(name).normalize();
+        return path.startsWith(root) && !path.equals(root) ? path : null;
+    }
+
+    /**
+     * Nom de fichier de la bibliothèque désigné par une URL de track (dernier segment décodé).
+     */
+    public static String fileNameOf(String url) {
+        String path = url;
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+        String name = path.substring(path.lastIndexOf('/') + 1);
+        try {
+            // '+' est littéral dans un chemin d'URL
+            return URLDecoder.decode(name.replace("+", "%2B"), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return name;
+        }
+    }
+
+    public Path root() {
+        return root;
+    }
+
+    @Override
+    public void close() {
+        synchronized (open) {
+            open.values().forEach(MediaFile::release);
+            open.clear();
+        }
+    }
+}
@@ -1,14 +1,12 @@
 package com.djactor.models;
 
-import java.time.Instant;
-import java.util.Optional;
-
 /**
  * Gère l'état d'un player :
  * - statut (STOPPED / PLAYING / PAUSED)
  * - track courant + position
- * - interactions next/prev/pause
- * - playlist associée (logique interne)
+ * - interactions prev/pause
+ * La file d'attente n'est pas ici : elle vit dans le PlaylistActor de djroom,
+ * qui envoie LOAD_TRACK à chaque changement de morceau.
  */
 public class PlayerStateManager {
 
@@ -16,37 +14,13 @@ public class PlayerStateManager {
     private Track currentTrack;
     private long positionMs;
 
-    // Logique de playlist interne (utilisée pour déterminer le next track)
-    private final PlaylistActorLogic playlist;
-
     /**
-     * Initialise avec une playlist vide et un état idle.
+     * Initialise dans un état idle.
      */
     public PlayerStateManager() {
-        this.playlist = new PlaylistActorLogic();
-        setIdle();
-    }
-
-    public PlayerStateManager(PlaylistActorLogic playlist) {
-        this.playlist = playlist;
         setIdle();
     }
 
-    /**
-     * Passe au morceau suivant :
-     * - si un next existe, il devient le track courant
-     * - sinon, le player repasse en idle
-     */
-    public synchronized void nextSong() {
-        Optional<Track> nextTrack = playlist.onNextTrack(new PlaylistActorLogic.NextTrack(true));
-
-        if (nextTrack.isPresent()) {
-            startNewSong(nextTrack.get());
-        } else {
-            setIdle();
-        }
-    }
-
     /**
      * Revenir au début du morceau courant (comportement "prev").
      * Si aucun morceau courant, ne fait rien.
@@ -91,49 +65,36 @@ public class PlayerStateManager {
     /**
      * Incrémente la position de lecture.
      * Appelé typiquement par un scheduler (ex: toutes les 250ms).
-     * Si la durée est dépassée, déclenche automatiquement nextSong().
+     * Quand la durée est atteinte, le player s'arrête en fin de track (le suivant viendra par LOAD_TRACK).
+     *
+     * @return le track qui vient de se terminer, ou null
      */
-    public void incrementPosition() {
+    public synchronized Track incrementPosition() {
         if (this.status == PlayerStatus.PLAYING && !this.currentTrack.equals(Track.EMPTY_TRACK)) {
             this.positionMs += 250;
 
             Track track = getCurrentTrack();
             if (track != null && positionMs >= track.getDurationMs()) {
-                nextSong();
+                this.positionMs = track.getDurationMs();
+                this.status = PlayerStatus.STOPPED;
+                return track;
             }
         }
+        return null;
     }
 
     /**
      * Remet le player à l'état idle :
-     * - playlist vidée
      * - statut STOPPED
      * - pas de track courant
      * - position à 0
      */
     public void setIdle() {
-        playlist.clearTracks();
         this.status = PlayerStatus.STOPPED;
         this.currentTrack = Track.EMPTY_TRACK;
         this.positionMs = 0;
     }
 
-    /**
-     * Ajoute un morceau à la playlist interne.
-     * Si la playlist était vide et qu'aucun track n'est en cours, déclenche nextSong()
-     * pour démarrer automatiquement la lecture.
-     */
-    public void addSongToPlaylist(long id, String title, String url, int score, long durationMs, Instant addedAt) {
-        boolean wasEmpty = playlist.getState().isEmpty();
-
-        Track track = new Track(id, title, url, score, durationMs, addedAt);
-        playlist.onAddTrack(new PlaylistActorLogic.AddTrack(track));
-
-        if (wasEmpty && this.currentTrack.equals(Track.EMPTY_TRACK)) {
-            nextSong();
-        }
-    }
-
     // Getters / Setters
 
     public PlayerStatus getStatus() {
@@ -163,10 +124,6 @@ public class PlayerStateManager {
         return positionMs;
     }
 
-    public PlaylistActorLogic getPlaylist() {
-        return playlist;
-    }
-
     /**
      * Définit la position.
      * Si valeur négative, force à 0.
@@ -0,0 +1,62 @@
+package com.djactor.radio;
+
+/**
+ * Anneau de chunks audio partagé par tous les auditeurs d'une station.
+ * Un seul producteur (la station) ; chaque auditeur avance son propre curseur (numéro de chunk).
+ * Les chunks sont partagés tels quels : aucune copie par auditeur.
+ */
+final class ChunkRing {
+
+    private final byte[][] chunks;
+
+    // Numéro du prochain chunk produit (le chunk n est dans chunks[n % capacity])
+    private long head;
+    private boolean closed;
+
+    ChunkRing(int capacity) {
+        this.chunks = new byte[Math.max(2, capacity)][];
+    }
+
+    synchronized void append(byte[] chunk) {
+        chunks[(int) (head % chunks.length)] = chunk;
+        head++;
+        notifyAll();
+    }
+
+    /**
+     * Numéro du prochain chunk : un nouvel auditeur démarre ici (bord "live").
+     */
+    synchronized long head() {
+        return head;
+    }
+
+    /**
+     * Attend le chunk seq.
+     *
+     * @return le chunk, ou null si le délai est écoulé, si l'anneau est fermé
+     * ou si le chunk a déjà été écrasé (auditeur trop lent)
+     */
+    synchronized byte[] await(long seq, long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (seq >= head && !closed) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return null;
+            }
+            wait(remaining);
+        }
+        if (closed || seq < head - chunks.length) {
+            return null;
+        }
+        return chunks[(int) (seq % chunks.length)];
+    }
+
+    synchronized void close() {
+        closed = true;
+        notifyAll();
+    }
+
+    synchronized boolean isClosed() {
+        return closed;
+    }
+}
@@ -0,0 +1,139 @@
+package com.djactor.radio;
+
+import com.djactor.config.DJActorFactory;
+import com.djactor.media.MediaLibrary;
+import com.framework.actors.ActorRef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stations radio par room : une station démarre avec son premier auditeur et s'arrête avec le dernier.
+ * Les lectures disque se font par station (une par room), quel que soit le nombre d'auditeurs.
+ * Le nombre total d'auditeurs est borné par maxListeners (un thread de streaming par auditeur).
+ */
+public final class RadioService implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(RadioService.class);
+
+    private final MediaLibrary library;
+    private final DJActorFactory djActorFactory;
+    private final RadioSettings settings;
+
+    // Scheduler partagé par toutes les stations (ticks courts, sans I/O bloquante côté réseau)
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2, r -> {
+        Thread t = new Thread(r, "radio-station");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Accès sous verrou : création / arrêt de station liés au nombre d'auditeurs
+    private final Map<String, RadioStation> stations = new HashMap<>();
+    private final Map<String, ScheduledFuture<?>> ticks = new HashMap<>();
+
+    // Places d'auditeurs restantes
+    private final Semaphore slots;
+
+    public RadioService(MediaLibrary library, DJActorFactory djActorFactory, RadioSettings settings) {
+        this.library = library;
+        this.djActorFactory = djActorFactory;
+        this.settings = settings;
+        this.slots = new Semaphore(settings.maxListeners());
+    }
+
+    /**
+     * true si la room a un player actif (sinon il n'y a rien à diffuser).
+     */
+    public boolean hasPlayer(String roomId) {
+        return djActorFactory.getDJActor(roomId) != null;
+    }
+
+    /**
+     * true s'il reste une place d'auditeur (sinon la requête est refusée avant de prendre un thread).
+     */
+    public boolean hasCapacity() {
+        return slots.availablePermits() > 0;
+    }
+
+    /**
+     * Diffuse la radio de la room vers out jusqu'à déconnexion de l'auditeur (appel bloquant).
+     * Retourne immédiatement si maxListeners est atteint.
+     */
+    public void listen(String roomId, OutputStream out) throws IOException {
+        if (!slots.tryAcquire()) {
+            log.warn("Radio {}: listener refused, {} listeners already connected", roomId, settings.maxListeners());
+            return;
+        }
+        try {
+            RadioStation station = join(roomId);
+            if (station == null) {
+                return;
+            }
+            try {
+                station.serve(out);
+            } finally {
+                leave(roomId, station);
+            }
+        } finally {
+            slots.release();
+        }
+    }
+
+    /**
+     * Statistiques d'une station (null si aucun auditeur).
+     */
+    public synchronized RadioStats stats(String roomId) {
+        RadioStation station = stations.get(roomId);
+        return station == null ? null : new RadioStats(roomId, station.listeners(), station.dropped());
+    }
+
+    private synchronized RadioStation join(String roomId) {
+        RadioStation station = stations.get(roomId);
+        if (station == null) {
+            ActorRef djActor = djActorFactory.getDJActor(roomId);
+            if (djActor == null) {
+                return null;
+            }
+            station = new RadioStation(roomId, djActor, library, settings);
+            stations.put(roomId, station);
+            ticks.put(roomId, scheduler.scheduleAtFixedRate(
+                    station::tick, 0, settings.tickMs(), TimeUnit.MILLISECONDS));
+            log.info("Radio station started for room {}", roomId);
+        }
+        station.join();
+        return station;
+    }
+
+    private synchronized void leave(String roomId, RadioStation station) {
+        if (station.leave() > 0 || stations.get(roomId) != station) {
+            return;
+        }
+        stations.remove(roomId);
+        ScheduledFuture<?> tick = ticks.remove(roomId);
+        if (tick != null) {
+            tick.cancel(false);
+        }
+        station.close();
+        log.info("Radio station stopped for room {}", roomId);
+    }
+
+    @Override
+    public synchronized void close() {
+        ticks.values().forEach(t -> t.cancel(false));
+        stations.values().forEach(RadioStation::close);
+        ticks.clear();
+        stations.clear();
+        scheduler.shutdownNow();
+    }
+
+    public record RadioStats(String roomId, int listeners, long droppedListeners) {}
+}
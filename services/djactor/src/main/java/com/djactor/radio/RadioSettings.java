@@ -0,0 +1,15 @@
+package com.djactor.radio;
+
+/**
+ * Réglages du streaming "radio".
+ *
+ * @param chunkBytes       taille max d'un chunk lu sur disque
+ * @param ringChunks       capacité de l'anneau partagé d'une station
+ * @param maxBacklogChunks retard max d'un auditeur avant d'être déconnecté (< ringChunks)
+ * @param leadMs           avance de lecture sur la position du DJActor (tampon côté client)
+ * @param tickMs           période de la station (lecture de l'état + production des chunks)
+ * @param writeTimeoutMs   durée max d'une écriture vers un auditeur avant de le déconnecter
+ * @param maxListeners     nombre max d'auditeurs simultanés, toutes rooms confondues
+ */
+public record RadioSettings(int chunkBytes, int ringChunks, int maxBacklogChunks, long leadMs, long tickMs,
+                            long writeTimeoutMs, int maxListeners) {}
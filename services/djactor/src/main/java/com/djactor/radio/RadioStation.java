@@ -0,0 +1,297 @@
+package com.djactor.radio;
+
+import com.djactor.media.FrameIndex;
+import com.djactor.media.MediaFile;
+import com.djactor.media.MediaLibrary;
+import com.framework.actors.ActorRef;
+import com.framework.actors.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Station radio d'une room : suit le track courant et la position du DJActor,
+ * lit le fichier une seule fois au rythme de la lecture et publie les chunks dans un anneau partagé.
+ * - tick() : exécuté par le scheduler du RadioService (jamais en parallèle pour une même station)
+ * - serve() : boucle d'un auditeur (un thread de l'exécuteur de streaming par auditeur)
+ * - une écriture bloquée plus de writeTimeoutMs (client TCP figé) est interrompue par tick() :
+ *   l'auditeur est déconnecté et compté comme abandonné, son thread est libéré
+ */
+public final class RadioStation {
+
+    private static final Logger log = LoggerFactory.getLogger(RadioStation.class);
+
+    // Écart toléré avant de se recaler sur la position du DJActor (seek, prev, reprise après pause)
+    private static final long RESYNC_MS = 3000;
+
+    // Attente max d'un chunk avant de revérifier l'état de la station
+    private static final long AWAIT_MS = 1000;
+
+    /**
+     * Dernier état connu du player.
+     */
+    private record PlayerSnapshot(String url, boolean playing, long positionMs, long receivedAt) {}
+
+    /**
+     * Auditeur connecté : thread et flux de sa requête, début de l'écriture en cours (0 = aucune).
+     */
+    private static final class Listener {
+        final Thread thread = Thread.currentThread();
+        final OutputStream out;
+        volatile long writeStartedAt;
+        volatile boolean stalled;
+
+        Listener(OutputStream out) {
+            this.out = out;
+        }
+    }
+
+    private final String roomId;
+    private final ActorRef djActor;
+    private final MediaLibrary library;
+    private final RadioSettings settings;
+    private final ChunkRing ring;
+
+    private final AtomicInteger listeners = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Set<Listener> serving = ConcurrentHashMap.newKeySet();
+
+    private volatile PlayerSnapshot snapshot;
+
+    // État du producteur (accès sous le verrou de la station)
+    private String currentUrl;
+    private MediaFile file;
+    private FrameIndex index;
+    private long cursor;
+
+    RadioStation(String roomId, ActorRef djActor, MediaLibrary library, RadioSettings settings) {
+        this.roomId = roomId;
+        this.djActor = djActor;
+        this.library = library;
+        this.settings = settings;
+        this.ring = new ChunkRing(settings.ringChunks());
+    }
+
+    // ========== Producteur ==========
+
+    synchronized void tick() {
+        abortStalledWrites(System.currentTimeMillis());
+        if (ring.isClosed()) {
+            return;
+        }
+        requestState();
+        try {
+            pump();
+        } catch (IOException e) {
+            log.warn("Radio {} failed to read {}: {}", roomId, currentUrl, e.getMessage());
+            switchTo(null);
+        }
+    }
+
+    /**
+     * Ask asynchrone au DJActor : l'état reçu sert au tick suivant.
+     */
+    private void requestState() {
+        CompletableFuture<Map<String, Object>> future = new CompletableFuture<>();
+        djActor.tell(Message.of("GET_STATE", future).coalescing(), null);
+
+        future.orTimeout(settings.tickMs() * 4, TimeUnit.MILLISECONDS).thenAccept(state -> {
+            Object url = state.get("currentUrl");
+            snapshot = new PlayerSnapshot(
+                    url == null ? null : url.toString(),
+                    "PLAYING".equals(state.get("status")),
+                    ((Number) state.getOrDefault("positionMs", 0L)).longValue(),
+                    System.currentTimeMillis()
+            );
+        });
+    }
+
+    /**
+     * Produit les chunks jusqu'à position + leadMs, en lisant le fichier une seule fois pour tous.
+     */
+    private void pump() throws IOException {
+        PlayerSnapshot s = snapshot;
+        if (s == null) {
+            return;
+        }
+        if (!Objects.equals(s.url(), currentUrl)) {
+            switchTo(s.url());
+        }
+        if (file == null || !s.playing()) {
+            return;
+        }
+
+        long positionMs = s.positionMs() + (System.currentTimeMillis() - s.receivedAt());
+        long live = index.offsetAt(positionMs);
+        long target = positionMs + settings.leadMs() >= index.durationMs()
+                ? file.size()
+                : index.offsetAt(positionMs + settings.leadMs());
+
+        if (cursor < index.offsetAt(positionMs - RESYNC_MS)
+                || cursor > index.offsetAt(positionMs + settings.leadMs() + RESYNC_MS)) {
+            cursor = live;
+        }
+
+        while (cursor < target) {
+            int length = (int) Math.min(settings.chunkBytes(), target - cursor);
+            ByteBuffer chunk = ByteBuffer.allocate(length);
+            while (chunk.hasRemaining()) {
+                int read = file.channel().read(chunk, cursor + chunk.position());
+                if (read < 0) {
+                    break;
+                }
+            }
+            if (chunk.position() == 0) {
+                break;
+            }
+            ring.append(chunk.position() == length ? chunk.array() : Arrays.copyOf(chunk.array(), chunk.position()));
+            cursor += chunk.position();
+        }
+    }
+
+    /**
+     * Changement de track : le nouveau fichier est pris dans le cache de la bibliothèque.
+     * Un track hors bibliothèque laisse la station silencieuse.
+     */
+    private void switchTo(String url) {
+        if (file != null) {
+            file.release();
+        }
+        file = null;
+        index = null;
+        currentUrl = url;
+
+        if (url == null) {
+            return;
+        }
+        try {
+            MediaFile next = library.acquire(MediaLibrary.fileNameOf(url));
+            if (next == null) {
+                log.info("Radio {}: track {} is not in the media library", roomId, url);
+                return;
+            }
+            index = library.frameIndex(next);
+            file = next;
+            cursor = 0;
+            log.info("Radio {} now streaming {}", roomId, next.path().getFileName());
+        } catch (IOException e) {
+            log.warn("Radio {} cannot open {}: {}", roomId, url, e.getMessage());
+        }
+    }
+
+    synchronized void close() {
+        ring.close();
+        switchTo(null);
+    }
+
+    /**
+     * Déconnecte les auditeurs dont l'écriture en cours dépasse writeTimeoutMs :
+     * le thread est interrompu et le flux fermé, ce qui fait échouer l'écriture bloquée.
+     */
+    void abortStalledWrites(long now) {
+        for (Listener listener : serving) {
+            long startedAt = listener.writeStartedAt;
+            if (startedAt == 0 || listener.stalled || now - startedAt < settings.writeTimeoutMs()) {
+                continue;
+            }
+            listener.stalled = true;
+            dropped.incrementAndGet();
+            log.info("Radio {}: dropping stalled listener (write blocked for {} ms)", roomId, now - startedAt);
+            listener.thread.interrupt();
+            try {
+                listener.out.close();
+            } catch (IOException e) {
+                log.debug("Radio {}: error closing stalled listener: {}", roomId, e.getMessage());
+            }
+        }
+    }
+
+    // ========== Auditeurs ==========
+
+    /**
+     * Diffuse la station vers un auditeur jusqu'à déconnexion, arrêt de la station
+     * ou retard supérieur à maxBacklogChunks (auditeur trop lent : déconnecté).
+     * Une écriture bloquée au-delà de writeTimeoutMs est interrompue (voir abortStalledWrites).
+     */
+    void serve(OutputStream out) throws IOException {
+        Listener listener = new Listener(out);
+        long next = ring.head();
+        serving.add(listener);
+        try {
+            while (true) {
+                if (ring.head() - next > settings.maxBacklogChunks()) {
+                    dropped.incrementAndGet();
+                    log.info("Radio {}: dropping slow listener ({} chunks behind)", roomId, ring.head() - next);
+                    return;
+                }
+
+                byte[] chunk = ring.await(next, AWAIT_MS);
+                if (chunk == null) {
+                    if (ring.isClosed()) {
+                        return;
+                    }
+                    continue;
+                }
+
+                listener.writeStartedAt = System.currentTimeMillis();
+                out.write(chunk);
+                out.flush();
+                listener.writeStartedAt = 0;
+                next++;
+            }
+        } catch (IOException e) {
+            if (!listener.stalled) {
+                throw e;
+            }
+        } catch (InterruptedException e) {
+            if (!listener.stalled) {
+                Thread.currentThread().interrupt();
+            }
+        } finally {
+            serving.remove(listener);
+            if (listener.stalled) {
+                // Interruption due au watchdog : le thread retourne propre à l'exécuteur
+                Thread.interrupted();
+            }
+        }
+    }
+
+    int join() {
+        return listeners.incrementAndGet();
+    }
+
+    int leave() {
+        return listeners.decrementAndGet();
+    }
+
+    int listeners() {
+        return listeners.get();
+    }
+
+    long dropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Auditeurs actuellement dans serve().
+     */
+    int serving() {
+        return serving.size();
+    }
+
+    ChunkRing ring() {
+        return ring;
+    }
+}
@@ -4,6 +4,7 @@ import com.framework.actors.Message;
 import com.testsupport.ActorTestKit.*;
 import org.junit.jupiter.api.*;
 
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
@@ -75,4 +76,85 @@ class DJActorTest {
         assertNull(snap.get("currentUrl"));
         assertEquals(0L, ((Number) snap.get("durationMs")).longValue());
     }
+
+    @Test
+    void preload_shouldExposeFirstUpcomingTrack_andFollowReordering() {
+        actor.onReceive(Message.of("LOAD_TRACK", new DJActor.LoadTrackMsg(1L, "url1", "t1", 600_000L)), ctx).join();
+
+        // Format reçu via RabbitMQ : Map JSON
+        actor.onReceive(Message.of("UPCOMING_TRACKS", Map.of("tracks", List.of(
+                Map.of("id", 2, "url", "url2", "title", "t2", "durationMs", 1000),
+                Map.of("id", 3, "url", "url3", "title", "t3", "durationMs", 1000)
+        ))), ctx).join();
+        assertNull(state().get("preloadUrl"));
+
+        actor.onReceive(Message.of("PRELOAD", 1L), ctx).join();
+        assertEquals("url2", state().get("preloadUrl"));
+
+        // Un vote change la tête de file : le hint suit
+        actor.onReceive(Message.of("UPCOMING_TRACKS", new DJActor.UpcomingTracksMsg(List.of(
+                new DJActor.LoadTrackMsg(3L, "url3", "t3", 1000L)
+        ), 1)), ctx).join();
+        assertEquals("url3", state().get("preloadUrl"));
+        assertEquals(1, ((Number) state().get("queueSize")).intValue());
+
+        // Nouveau track chargé : plus de hint jusqu'au prochain PRELOAD
+        actor.onReceive(Message.of("LOAD_TRACK", new DJActor.LoadTrackMsg(3L, "url3", "t3", 1000L)), ctx).join();
+        assertNull(state().get("preloadUrl"));
+    }
+
+    @Test
+    void preload_shouldBeSet_whenTrackIsAddedAfterTheHint() {
+        actor.onReceive(Message.of("LOAD_TRACK", new DJActor.LoadTrackMsg(1L, "url1", "t1", 600_000L)), ctx).join();
+
+        // Fin proche, file vide : pas de hint
+        actor.onReceive(Message.of("PRELOAD", 1L), ctx).join();
+        assertNull(state().get("preloadUrl"));
+
+        // Track ajouté dans les dernières secondes : le hint est posé sans attendre un nouveau PRELOAD
+        actor.onReceive(Message.of("UPCOMING_TRACKS", new DJActor.UpcomingTracksMsg(List.of(
+                new DJActor.LoadTrackMsg(2L, "url2", "t2", 1000L)
+        ), 1)), ctx).join();
+        assertEquals("url2", state().get("preloadUrl"));
+    }
+
+    private Map<String, Object> state() {
+        CompletableFuture<Map<String, Object>> fut = new CompletableFuture<>();
+        actor.onReceive(Message.of("GET_STATE", fut), ctx).join();
+        return fut.join();
+    }
+
+    @Test
+    void trackEnd_shouldNotifyRoom_andStop() throws Exception {
+        ProbeActorRef room = new ProbeActorRef("djroom/room-123");
+        ctx.registerSelection("djroom/room-123", room);
+
+        actor.onReceive(Message.of("LOAD_TRACK", new DJActor.LoadTrackMsg(7L, "url7", "t7", 250L)), ctx).join();
+
+        // Le timer de position est un TICK périodique envoyé à soi-même
+        assertEquals("TICK", ctx.timers().get(0).type());
+
+        // Un TICK (250 ms) atteint la fin du track ; les suivants ne renotifient pas
+        for (int i = 0; i < 3; i++) {
+            actor.onReceive(Message.of("TICK", null), ctx).join();
+        }
+
+        assertNotNull(room.last());
+        assertEquals("TRACK_ENDED", room.last().message().type());
+        assertEquals(7L, ((DJActor.TrackEndedMsg) room.last().message().payload()).trackId());
+        assertEquals(1, room.received().size());
+        assertEquals("STOPPED", state().get("status"));
+
+        // Le LOAD_TRACK suivant mesure le délai d'enchaînement
+        actor.onReceive(Message.of("LOAD_TRACK", new DJActor.LoadTrackMsg(8L, "url8", "t8", 600_000L)), ctx).join();
+        assertTrue(((Number) state().get("lastHandoffMs")).longValue() >= 0);
+    }
+
+    @Test
+    void stopPlayer_shouldStopActor() {
+        actor.onReceive(Message.of("STOP_PLAYER", "room-123"), ctx).join();
+
+        assertEquals("STOPPED", state().get("status"));
+        assertEquals(List.of(ctx.self()), ctx.stopped());
+    }
 }
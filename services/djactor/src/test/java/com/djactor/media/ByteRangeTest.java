@@ -0,0 +1,30 @@
+package com.djactor.media;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ByteRangeTest {
+
+    @Test
+    void parse_shouldHandleOpenClosedAndSuffixRanges() {
+        assertEquals(new ByteRange(0, 99), ByteRange.parse("bytes=0-99", 1000));
+        assertEquals(new ByteRange(500, 999), ByteRange.parse("bytes=500-", 1000));
+        assertEquals(new ByteRange(900, 999), ByteRange.parse("bytes=-100", 1000));
+        assertEquals(new ByteRange(0, 999), ByteRange.parse("bytes=-5000", 1000));
+        // Fin au-delà du fichier : tronquée
+        assertEquals(new ByteRange(10, 999), ByteRange.parse("bytes=10-20000", 1000));
+        // Plusieurs intervalles : seul le premier est servi
+        assertEquals(new ByteRange(0, 9), ByteRange.parse("bytes=0-9, 20-29", 1000));
+    }
+
+    @Test
+    void parse_shouldIgnoreInvalid_andRejectUnsatisfiable() {
+        assertNull(ByteRange.parse(null, 1000));
+        assertNull(ByteRange.parse("items=0-1", 1000));
+        assertNull(ByteRange.parse("bytes=abc-", 1000));
+
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=1000-", 1000));
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=50-10", 1000));
+    }
+}
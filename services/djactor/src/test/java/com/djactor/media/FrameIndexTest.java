@@ -0,0 +1,72 @@
+package com.djactor.media;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrameIndexTest {
+
+    // MPEG1 Layer III, 128 kbps, 44.1 kHz : 417 octets, 1152 échantillons (~26.12 ms) par trame
+    private static final int FRAME_HEADER = 0xFFFB9000;
+    private static final int FRAME_LENGTH = 417;
+    private static final int ID3_LENGTH = 20;
+
+    @TempDir
+    Path dir;
+
+    private Path writeMp3(int frames) throws Exception {
+        ByteBuffer out = ByteBuffer.allocate(ID3_LENGTH + frames * FRAME_LENGTH);
+        // Tag ID3v2 vide de 10 octets de contenu
+        out.put(new byte[]{'I', 'D', '3', 3, 0, 0, 0, 0, 0, 10});
+        for (int i = 0; i < frames; i++) {
+            out.putInt(ID3_LENGTH + i * FRAME_LENGTH, FRAME_HEADER);
+        }
+        return Files.write(dir.resolve("track.mp3"), out.array());
+    }
+
+    private FrameIndex build(Path file, int intervalMs) throws Exception {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return FrameIndex.build(channel, channel.size(), 42L, intervalMs);
+        }
+    }
+
+    @Test
+    void offsetAt_shouldPointToFrameBoundary_atOrAfterPosition() throws Exception {
+        FrameIndex index = build(writeMp3(1000), 500);
+
+        assertEquals(1000L * 1152 * 1000 / 44100, index.durationMs());
+        assertEquals(ID3_LENGTH, index.offsetAt(0));
+
+        // 10 s -> première trame qui commence à 10000 ms ou après : trame 383 (10004 ms)
+        long offset = index.offsetAt(10_000);
+        assertEquals(ID3_LENGTH + 383L * FRAME_LENGTH, offset);
+        assertEquals(10_000, index.startMsAt(10_250));
+
+        // Au-delà de la fin : dernière entrée
+        assertEquals(index.offsetAt(index.durationMs()), index.offsetAt(Long.MAX_VALUE / 2));
+    }
+
+    @Test
+    void saveAndLoad_shouldRoundTrip_andRejectStaleIndex() throws Exception {
+        FrameIndex index = build(writeMp3(200), 250);
+        Path sidecar = dir.resolve("idx/track.mp3.idx");
+        index.save(sidecar);
+
+        long size = Files.size(dir.resolve("track.mp3"));
+        FrameIndex loaded = FrameIndex.load(sidecar, size, 42L, 250);
+
+        assertNotNull(loaded);
+        assertEquals(index.size(), loaded.size());
+        assertEquals(index.offsetAt(3_000), loaded.offsetAt(3_000));
+
+        assertNull(FrameIndex.load(sidecar, size, 43L, 250));
+        assertNull(FrameIndex.load(sidecar, size, 42L, 500));
+    }
+}
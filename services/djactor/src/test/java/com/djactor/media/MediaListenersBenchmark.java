@@ -0,0 +1,84 @@
+package com.djactor.media;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requêtes concurrentes d'auditeurs sur un même morceau (64 threads par défaut) :
+ * - libraryCache : acquire / lecture d'un bloc / release via le cache de FileChannel de MediaLibrary
+ *   (chemin de repli transferTo du MediaController)
+ * - openPerRequest : ouverture / lecture / fermeture à chaque requête, ce que fait Tomcat pour sendfile
+ *   (il rouvre le fichier à partir de son nom : le cache ne s'applique pas à ce chemin)
+ *
+ * Lancement (hors build, les benchmarks ne sont pas exécutés par surefire) :
+ *   mvn -pl services/djactor test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *       -Dexec.args="-cp %classpath org.openjdk.jmh.Main MediaListenersBenchmark"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(64)
+public class MediaListenersBenchmark {
+
+    private static final int FILE_BYTES = 8 * 1024 * 1024;
+    private static final int BLOCK_BYTES = 16 * 1024;
+
+    @State(Scope.Benchmark)
+    public static class Library {
+        Path dir;
+        Path track;
+        MediaLibrary library;
+
+        @Setup
+        public void setup() throws IOException {
+            dir = Files.createTempDirectory("media-bench");
+            track = Files.write(dir.resolve("track.mp3"), new byte[FILE_BYTES]);
+            library = new MediaLibrary(dir, 64, null, 250);
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            library.close();
+            Files.deleteIfExists(track);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Buffer {
+        final ByteBuffer block = ByteBuffer.allocateDirect(BLOCK_BYTES);
+    }
+
+    private static long randomOffset() {
+        return ThreadLocalRandom.current().nextInt(FILE_BYTES / BLOCK_BYTES) * (long) BLOCK_BYTES;
+    }
+
+    @Benchmark
+    public int libraryCache(Library lib, Buffer buf) throws IOException {
+        MediaFile file = lib.library.acquire("track.mp3");
+        try {
+            buf.block.clear();
+            return file.channel().read(buf.block, randomOffset());
+        } finally {
+            file.release();
+        }
+    }
+
+    @Benchmark
+    public int openPerRequest(Library lib, Buffer buf) throws IOException {
+        try (FileChannel channel = FileChannel.open(lib.track, StandardOpenOption.READ)) {
+            buf.block.clear();
+            return channel.read(buf.block, randomOffset());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.djactor.radio;
+
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkRingTest {
+
+    @Test
+    void await_shouldShareSameChunk_andWakeUpOnAppend() throws Exception {
+        ChunkRing ring = new ChunkRing(4);
+        long start = ring.head();
+
+        CompletableFuture<byte[]> a = CompletableFuture.supplyAsync(() -> awaitQuietly(ring, start));
+        CompletableFuture<byte[]> b = CompletableFuture.supplyAsync(() -> awaitQuietly(ring, start));
+
+        byte[] chunk = {1, 2, 3};
+        Thread.sleep(50);
+        ring.append(chunk);
+
+        // Même tableau pour tous les auditeurs : aucune copie
+        assertSame(chunk, a.get(1, TimeUnit.SECONDS));
+        assertSame(chunk, b.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void await_shouldReturnNull_forOverwrittenChunk_andAfterClose() throws Exception {
+        ChunkRing ring = new ChunkRing(2);
+        for (int i = 0; i < 5; i++) {
+            ring.append(new byte[]{(byte) i});
+        }
+
+        assertNull(ring.await(0, 10));
+        assertEquals(4, ring.await(4, 10)[0]);
+        assertNull(ring.await(5, 10));
+
+        ring.close();
+        assertNull(ring.await(5, 1000));
+        assertTrue(ring.isClosed());
+    }
+
+    private static byte[] awaitQuietly(ChunkRing ring, long seq) {
+        try {
+            return ring.await(seq, 2000);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
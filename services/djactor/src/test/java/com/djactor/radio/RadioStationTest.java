@@ -0,0 +1,141 @@
+package com.djactor.radio;
+
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RadioStationTest {
+
+    // Anneau de 8 chunks, auditeur déconnecté à 4 chunks de retard ou après 50 ms d'écriture bloquée
+    private static final RadioSettings SETTINGS = new RadioSettings(16, 8, 4, 0, 1000, 50, 10);
+
+    private final RadioStation station = new RadioStation("room1", null, null, SETTINGS);
+
+    @AfterEach
+    void tearDown() {
+        station.ring().close();
+    }
+
+    /**
+     * Flux qui bloque chaque écriture jusqu'à release (client TCP figé).
+     */
+    static final class StalledStream extends OutputStream {
+        final CountDownLatch release = new CountDownLatch(1);
+        final ByteArrayOutputStream received = new ByteArrayOutputStream();
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException("write interrupted");
+            }
+            received.write(b, off, len);
+        }
+    }
+
+    @Test
+    void serve_shouldFanOutSameChunks_toEveryListener() throws Exception {
+        List<ByteArrayOutputStream> outs = new ArrayList<>();
+        List<CompletableFuture<Void>> listeners = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            outs.add(out);
+            listeners.add(serveAsync(out));
+        }
+        awaitServing(3);
+
+        station.ring().append(new byte[]{1, 2});
+        station.ring().append(new byte[]{3});
+        station.ring().append(new byte[]{4, 5, 6});
+        awaitCondition(() -> outs.stream().allMatch(o -> o.size() == 6));
+        station.ring().close();
+
+        CompletableFuture.allOf(listeners.toArray(CompletableFuture[]::new)).get(2, TimeUnit.SECONDS);
+        for (ByteArrayOutputStream out : outs) {
+            assertArrayEquals(new byte[]{1, 2, 3, 4, 5, 6}, out.toByteArray());
+        }
+        assertEquals(0, station.dropped());
+    }
+
+    @Test
+    void serve_shouldDropListener_fallingBehindTheRing() throws Exception {
+        StalledStream slow = new StalledStream();
+        CompletableFuture<Void> listener = serveAsync(slow);
+        awaitServing(1);
+
+        // Le premier chunk bloque l'écriture, les suivants s'accumulent au-delà de maxBacklogChunks
+        for (int i = 0; i < 7; i++) {
+            station.ring().append(new byte[]{(byte) i});
+        }
+        slow.release.countDown();
+
+        listener.get(2, TimeUnit.SECONDS);
+        assertEquals(1, station.dropped());
+        assertEquals(1, slow.received.size());
+    }
+
+    @Test
+    void abortStalledWrites_shouldFreeBlockedListener_withoutAffectingOthers() throws Exception {
+        StalledStream stalled = new StalledStream();
+        ByteArrayOutputStream healthy = new ByteArrayOutputStream();
+        CompletableFuture<Void> stalledListener = serveAsync(stalled);
+        CompletableFuture<Void> healthyListener = serveAsync(healthy);
+        awaitServing(2);
+
+        station.ring().append(new byte[]{1});
+        awaitCondition(() -> healthy.size() == 1);
+
+        // Avant le délai : rien n'est interrompu
+        station.abortStalledWrites(System.currentTimeMillis());
+        assertFalse(stalledListener.isDone());
+
+        // Après writeTimeoutMs : l'écriture bloquée échoue, serve() rend son thread
+        station.abortStalledWrites(System.currentTimeMillis() + SETTINGS.writeTimeoutMs());
+        stalledListener.get(2, TimeUnit.SECONDS);
+        assertEquals(1, station.dropped());
+        assertEquals(1, station.serving());
+
+        station.ring().append(new byte[]{2});
+        awaitCondition(() -> healthy.size() == 2);
+        assertFalse(healthyListener.isDone());
+    }
+
+    private CompletableFuture<Void> serveAsync(OutputStream out) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                station.serve(out);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }, r -> new Thread(r, "listener").start());
+    }
+
+    private void awaitServing(int count) throws InterruptedException {
+        awaitCondition(() -> station.serving() == count);
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
@@ -4,6 +4,7 @@ import com.framework.actors.*;
 
 import java.util.*;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
 
 public final class ActorTestKit {
 
@@ -55,6 +56,10 @@ public final class ActorTestKit {
         // Pour actorSelection()
         private final Map<String, ActorRef> selections = new HashMap<>();
 
+        // Timers demandés (non exécutés : le test envoie lui-même les messages) et acteurs arrêtés
+        private final List<Message> timers = new ArrayList<>();
+        private final List<ActorRef> stopped = new ArrayList<>();
+
         public FakeActorContext(ActorRef self) {
             this.self = self;
         }
@@ -88,7 +93,26 @@ public final class ActorTestKit {
         }
 
         @Override
-        public void stop(ActorRef ref) { /* no-op */ }
+        public void stop(ActorRef ref) { stopped.add(ref); }
+
+        public List<ActorRef> stopped() { return stopped; }
+
+        @Override public void watch(ActorRef ref) { /* no-op */ }
+        @Override public void unwatch(ActorRef ref) { /* no-op */ }
+
+        @Override
+        public ScheduledFuture<?> scheduleOnce(long delayMs, Message message) {
+            timers.add(message);
+            return null;
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleAtFixedRate(long initialDelayMs, long periodMs, Message message) {
+            timers.add(message);
+            return null;
+        }
+
+        public List<Message> timers() { return timers; }
 
         @Override
         public ActorSystem system() { return null; }
@@ -1,37 +1,82 @@
 package com.djroom.actors;
 
 import com.djroom.models.PlaylistTrack;
+import com.djroom.votes.VoteAccumulator;
+import com.djroom.votes.VoteLedger;
 import com.framework.actors.Actor;
 import com.framework.actors.ActorContext;
+import com.framework.actors.Behavior;
+import com.framework.actors.LanePolicy;
 import com.framework.actors.Message;
+import com.framework.actors.MessageType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 /**
  * Gère la playlist d'une room :
- * - ajout de tracks
- * - votes (+/-) et tri
+ * - ajout de tracks (un doublon déjà en file devient un vote +1, via l'empreinte audio)
+ * - votes (+/-) et tri ; les votes accumulés hors acteur sont appliqués en lot (FOLD_VOTES)
  * - récupération de la playlist
  * - suppression d'un track
  * - fourniture du "next track" et notification du DJActor
+ * - publication des prochains tracks (top-K) au DJActor, pour le préchargement côté clients
  */
 public class PlaylistActor implements Actor {
     private PlaylistTrack currentTrack = null;
 
     private static final Logger log = LoggerFactory.getLogger(PlaylistActor.class);
 
+    // Nombre de prochains tracks publiés au DJActor (UPCOMING_TRACKS)
+    static final int UPCOMING_COUNT = 3;
+
+    // Protocole (messages locaux) : le payload est vérifié à l'envoi via Message.of(MessageType, payload)
+    public static final MessageType<AddTrackMsg> ADD_TRACK = MessageType.of("ADD_TRACK", AddTrackMsg.class);
+    public static final MessageType<VoteTrackMsg> VOTE_TRACK = MessageType.of("VOTE_TRACK", VoteTrackMsg.class);
+    public static final MessageType<Void> FOLD_VOTES = MessageType.of("FOLD_VOTES");
+    public static final MessageType<Void> GET_NEXT_TRACK = MessageType.of("GET_NEXT_TRACK");
+    public static final MessageType<TrackEndedMsg> TRACK_ENDED = MessageType.of("TRACK_ENDED", TrackEndedMsg.class);
+    // Payload : CompletableFuture (ask local) ou null (réponse PLAYLIST_STATE au sender)
+    public static final MessageType<Object> GET_PLAYLIST = MessageType.of("GET_PLAYLIST", Object.class);
+    public static final MessageType<RemoveTrackMsg> REMOVE_TRACK = MessageType.of("REMOVE_TRACK", RemoveTrackMsg.class);
+
+    // Table de dispatch, partagée par toutes les playlists
+    private static final Behavior<PlaylistActor> BEHAVIOR = Behavior.<PlaylistActor>builder()
+            .on(ADD_TRACK, PlaylistActor::handleAddTrack)
+            .on(VOTE_TRACK, PlaylistActor::handleVote)
+            .on(FOLD_VOTES, (actor, none, ctx) -> actor.handleFoldVotes(ctx))
+            .on(GET_NEXT_TRACK, (actor, none, ctx) -> actor.handleGetNextTrack(ctx))
+            .on(TRACK_ENDED, PlaylistActor::handleTrackEnded)
+            .on(GET_PLAYLIST, PlaylistActor::handleGetPlaylist)
+            .on(REMOVE_TRACK, PlaylistActor::handleRemoveTrack)
+            .otherwise((actor, message, ctx) ->
+                    log.warn("Unknown message type for PlaylistActor {}: {}", actor.roomId, message.type()))
+            .build();
+
     // Identifiant de la room associée à cet acteur (ex: room-b9a07e41)
     private String roomId;
 
     // Liste des tracks en mémoire (ordre maintenu via sortPlaylist())
     private final List<PlaylistTrack> tracks = new ArrayList<>();
 
+    // Tracks en file par empreinte audio (dédoublonnage des ajouts)
+    private final Map<String, PlaylistTrack> queuedByFingerprint = new HashMap<>();
+
+    // Version de la playlist : démarrage de l'acteur + nombre de modifications (file ou track courant)
+    private final long epoch = System.currentTimeMillis();
+    private long changes;
+
+    // Dernier top-K publié (ids et taille de file) : on ne republie que s'il change
+    private List<Long> publishedUpcoming = List.of();
+    private int publishedQueueSize;
+
     // Id auto-incrémenté pour identifier les tracks
     private long nextTrackId = 1;
 
@@ -70,25 +115,37 @@ public class PlaylistActor implements Actor {
         log.info("PlaylistActor started for room {}", roomId);
     }
 
+    /**
+     * Voies de mailbox : l'enchaînement des tracks passe avant les ajouts et les votes.
+     */
+    @Override
+    public LanePolicy lanePolicy() {
+        return LanePolicy.defaults()
+                .control(GET_NEXT_TRACK.name(), TRACK_ENDED.name(), REMOVE_TRACK.name());
+    }
+
+    /**
+     * Ordonnancement : la playlist partage le temps CPU de sa room (même groupe que le RoomActor).
+     */
+    @Override
+    public String schedulingGroup() {
+        return roomId;
+    }
+
     /**
      * Point d'entrée des messages.
-     * Chaque type est routé vers un handler dédié.
+     * Chaque type est routé vers un handler dédié (table BEHAVIOR).
      */
     @Override
     public CompletableFuture<Void> onReceive(Message message, ActorContext ctx) {
         // Log de réception : utile pour tracer les interactions entre acteurs
         log.info("[PlaylistActor {}] Received type={}", roomId, message.type());
 
-        switch (message.type()) {
-            case "ADD_TRACK" -> handleAddTrack((AddTrackMsg) message.payload(), ctx);
-            case "VOTE_TRACK" -> handleVote((VoteTrackMsg) message.payload(), ctx);
-            case "GET_NEXT_TRACK" -> handleGetNextTrack(ctx);
-            case "GET_PLAYLIST" -> handleGetPlaylist(message.payload(), ctx);
-            case "REMOVE_TRACK" -> handleRemoveTrack((RemoveTrackMsg) message.payload(), ctx);
-            default -> log.warn("Unknown message type for PlaylistActor {}: {}", roomId, message.type());
+        if (!GET_PLAYLIST.name().equals(message.type())) {
+            changes++;
         }
 
-        return CompletableFuture.completedFuture(null);
+        return BEHAVIOR.receive(this, message, ctx);
     }
 
     /**
@@ -96,6 +153,12 @@ public class PlaylistActor implements Actor {
      * déclenche le chargement côté DJActor (premier track).
      */
     private void handleAddTrack(AddTrackMsg msg, ActorContext ctx) {
+        PlaylistTrack queued = msg.fingerprint == null ? null : queuedByFingerprint.get(msg.fingerprint);
+        if (queued != null) {
+            mergeDuplicate(queued, msg, ctx);
+            return;
+        }
+
         PlaylistTrack track = new PlaylistTrack(
                 nextTrackId++,
                 msg.url,
@@ -103,7 +166,8 @@ public class PlaylistActor implements Actor {
                 msg.durationMs,
                 0,
                 Instant.now(),
-                msg.addedBy
+                msg.addedBy,
+                msg.fingerprint
         );
 
         boolean startNow = (currentTrack == null);
@@ -112,7 +176,11 @@ public class PlaylistActor implements Actor {
             currentTrack = track;
         } else {
             tracks.add(track);
+            if (track.getFingerprint() != null) {
+                queuedByFingerprint.put(track.getFingerprint(), track);
+            }
             sortPlaylist();
+            publishUpcoming(ctx);
         }
 
         log.info("Track added to room {}: title='{}', id={}", roomId, track.getTitle(), track.getId());
@@ -131,7 +199,32 @@ public class PlaylistActor implements Actor {
 
 
     /**
-     * Applique un vote (+1 / -1) sur un track, retrie, et renvoie le nouveau score.
+     * Même contenu audio déjà en file (autre URL ou autre titre) : l'ajout compte comme un vote +1
+     * de son auteur sur l'entrée existante au lieu de créer un nouveau PlaylistTrack.
+     * Le vote passe par le VoteLedger : un membre qui ré-ajoute le même contenu ne vote qu'une fois.
+     */
+    private void mergeDuplicate(PlaylistTrack existing, AddTrackMsg msg, ActorContext ctx) {
+        int delta = ledgerVote(msg.addedBy, existing.getId(), +1);
+        if (delta != 0) {
+            existing.addScore(delta);
+            sortPlaylist();
+            publishUpcoming(ctx);
+        }
+
+        log.info("Duplicate track merged in room {}: trackId={}, '{}' score={} (added by {})",
+                roomId, existing.getId(), existing.getTitle(), existing.getScore(), msg.addedBy);
+
+        if (ctx.sender() != null) {
+            ctx.sender().tell(
+                    Message.of("TRACK_MERGED", new TrackMergedMsg(existing, msg.addedBy)),
+                    ctx.self()
+            );
+        }
+    }
+
+    /**
+     * Applique un vote (+1 / -1) d'un membre sur un track, retrie, et renvoie le nouveau score.
+     * Même règle que le chemin rapide du contrôleur : un vote par membre et par track (VoteLedger).
      */
     private void handleVote(VoteTrackMsg msg, ActorContext ctx) {
         Optional<PlaylistTrack> trackOpt = tracks.stream()
@@ -150,10 +243,22 @@ public class PlaylistActor implements Actor {
         }
 
         PlaylistTrack track = trackOpt.get();
+        int delta = msg.delta == 0 ? 0 : ledgerVote(msg.userId, track.getId(), Integer.signum(msg.delta));
+        if (delta == 0) {
+            if (ctx.sender() != null) {
+                ctx.sender().tell(
+                        Message.of("VOTE_FAILED", "Vote rejected (duplicate or not a member)"),
+                        ctx.self()
+                );
+            }
+            return;
+        }
+
         int oldScore = track.getScore();
 
-        track.addScore(msg.delta);
+        track.addScore(delta);
         sortPlaylist();
+        publishUpcoming(ctx);
 
         log.info("Vote applied in room {}: trackId={}, '{}' score {} -> {}",
                 roomId, track.getId(), track.getTitle(), oldScore, track.getScore());
@@ -166,6 +271,51 @@ public class PlaylistActor implements Actor {
         }
     }
 
+    /**
+     * Vote d'un membre au registre : delta à appliquer au score, 0 pour un doublon ou un non-membre.
+     */
+    private int ledgerVote(String userId, long trackId, int delta) {
+        if (userId == null) {
+            return 0;
+        }
+        try {
+            return VoteLedger.get().vote(roomId, userId, trackId, delta);
+        } catch (IllegalStateException e) {
+            log.info("Vote ignored in room {}: {}", roomId, e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Applique d'un coup les votes accumulés dans le VoteAccumulator depuis le dernier fold,
+     * puis retrie une seule fois. Les votes sur un track qui n'est plus en file sont ignorés.
+     */
+    private void handleFoldVotes(ActorContext ctx) {
+        Map<Long, Integer> deltas = VoteAccumulator.get().drain(roomId);
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Integer> ignored = new HashMap<>(deltas);
+        for (PlaylistTrack track : tracks) {
+            Integer delta = ignored.remove(track.getId());
+            if (delta != null) {
+                track.addScore(delta);
+            }
+        }
+        int applied = deltas.size() - ignored.size();
+
+        // Votes sur un track inconnu ou déjà parti : inutile de les garder au registre
+        ignored.keySet().forEach(trackId -> VoteLedger.get().forgetTrack(roomId, trackId));
+
+        if (applied > 0) {
+            sortPlaylist();
+            publishUpcoming(ctx);
+        }
+
+        log.debug("Votes folded in room {}: {} track(s) updated, {} ignored", roomId, applied, ignored.size());
+    }
+
     /**
      * Retourne le prochain track (celui en tête), le retire de la liste,
      * demande au DJActor de le charger, puis notifie le sender.
@@ -183,10 +333,13 @@ public class PlaylistActor implements Actor {
         }
 
         PlaylistTrack next = tracks.remove(0);
+        unindex(next);
         currentTrack = next;
 
         log.info("Next track for room {}: trackId={}, title='{}'", roomId, next.getId(), next.getTitle());
 
+        // La file à venir d'abord : le DJActor la connaît déjà quand il charge le track
+        publishUpcoming(ctx);
         notifyDJActorLoadTrack(next, ctx);
 
         if (ctx.sender() != null) {
@@ -198,6 +351,18 @@ public class PlaylistActor implements Actor {
     }
 
 
+    /**
+     * Fin de lecture signalée par le DJActor (via RoomActor) : enchaîne sur le track le mieux voté.
+     * Ignoré si le track terminé n'est plus le track courant (NEXT manuel entre-temps, message en double).
+     */
+    private void handleTrackEnded(TrackEndedMsg msg, ActorContext ctx) {
+        if (currentTrack == null || currentTrack.getId() != msg.trackId) {
+            log.debug("Ignoring TRACK_ENDED for room {}: trackId={} is not the current track", roomId, msg.trackId);
+            return;
+        }
+        handleGetNextTrack(ctx);
+    }
+
     /**
      * Renvoie l'état de la playlist sous forme de snapshot.
      * Deux cas supportés :
@@ -206,7 +371,7 @@ public class PlaylistActor implements Actor {
      */
     private void handleGetPlaylist(Object payload, ActorContext ctx) {
         List<PlaylistTrack> snapshot = new ArrayList<>(tracks);
-        PlaylistStateMsg stateMsg = new PlaylistStateMsg(snapshot);
+        PlaylistStateMsg stateMsg = new PlaylistStateMsg(snapshot, epoch + "." + changes);
 
         // Cas 1 : le payload est un future à compléter (pattern "ask" local)
         if (payload instanceof CompletableFuture<?> future) {
@@ -228,10 +393,17 @@ public class PlaylistActor implements Actor {
      * Supprime un track par id, puis notifie succès/échec.
      */
     private void handleRemoveTrack(RemoveTrackMsg msg, ActorContext ctx) {
-        boolean removed = tracks.removeIf(t -> t.getId() == msg.trackId);
+        boolean removed = tracks.removeIf(t -> {
+            if (t.getId() != msg.trackId) {
+                return false;
+            }
+            unindex(t);
+            return true;
+        });
 
         if (removed) {
             log.info("Track removed from room {}: trackId={}", roomId, msg.trackId);
+            publishUpcoming(ctx);
 
             if (ctx.sender() != null) {
                 ctx.sender().tell(Message.of("TRACK_REMOVED", msg.trackId), ctx.self());
@@ -244,6 +416,15 @@ public class PlaylistActor implements Actor {
         }
     }
 
+    private void unindex(PlaylistTrack track) {
+        // Le track quitte la file : ses votes encore en attente n'ont plus d'objet
+        VoteAccumulator.get().discard(roomId, track.getId());
+        VoteLedger.get().forgetTrack(roomId, track.getId());
+        if (track.getFingerprint() != null) {
+            queuedByFingerprint.remove(track.getFingerprint(), track);
+        }
+    }
+
     /**
      * Trie la playlist :
      * - score décroissant
@@ -253,6 +434,34 @@ public class PlaylistActor implements Actor {
         tracks.sort(PlaylistTrack.BY_SCORE_DESC_THEN_FIFO);
     }
 
+    /**
+     * Envoie au DJActor les UPCOMING_COUNT prochains tracks si la tête de file a changé
+     * (ajout, vote, suppression, passage au suivant). Le DJActor s'en sert pour le hint PRELOAD.
+     */
+    private void publishUpcoming(ActorContext ctx) {
+        int n = Math.min(UPCOMING_COUNT, tracks.size());
+        List<Long> ids = new ArrayList<>(n);
+        List<LoadTrackMsg> upcoming = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            PlaylistTrack t = tracks.get(i);
+            ids.add(t.getId());
+            upcoming.add(new LoadTrackMsg(t.getId(), t.getUrl(), t.getTitle(), t.getDurationMs()));
+        }
+
+        if (ids.equals(publishedUpcoming) && tracks.size() == publishedQueueSize) {
+            return;
+        }
+        publishedUpcoming = ids;
+        publishedQueueSize = tracks.size();
+
+        try {
+            ctx.actorSelection("djactor/dj-" + roomId)
+                    .tell(Message.of("UPCOMING_TRACKS", new UpcomingTracksMsg(upcoming, tracks.size())), ctx.self());
+        } catch (Exception e) {
+            log.error("Failed to publish upcoming tracks for room " + roomId, e);
+        }
+    }
+
     /**
      * Demande au DJActor de charger un track.
      * En cas de problème de résolution / envoi, on loggue en error.
@@ -284,18 +493,30 @@ public class PlaylistActor implements Actor {
      */
     @Override
     public void postStop(ActorContext ctx) {
+        // Pas de nettoyage des votes ici : postStop est aussi appelé lors d'un redémarrage supervisé
+        // (file et scores conservés) ; l'état de vote de la room est oublié à son arrêt définitif (RoomController)
         log.info("PlaylistActor stopped for room {}", roomId);
     }
 
 
-    public record AddTrackMsg(String url, String title, long durationMs, String addedBy) {}
-    public record VoteTrackMsg(long trackId, int delta) {}
+    /**
+     * @param fingerprint empreinte audio (null si inconnue : pas de dédoublonnage)
+     */
+    public record AddTrackMsg(String url, String title, long durationMs, String addedBy, String fingerprint) {
+        public AddTrackMsg(String url, String title, long durationMs, String addedBy) {
+            this(url, title, durationMs, addedBy, null);
+        }
+    }
+    public record VoteTrackMsg(String userId, long trackId, int delta) {}
     public record RemoveTrackMsg(long trackId) {}
 
     public record TrackAddedMsg(PlaylistTrack track) {}
+    public record TrackMergedMsg(PlaylistTrack track, String addedBy) {}
     public record VoteSuccessMsg(long trackId, int newScore) {}
     public record NextTrackMsg(PlaylistTrack track) {}
-    public record PlaylistStateMsg(List<PlaylistTrack> tracks) {}
+    public record PlaylistStateMsg(List<PlaylistTrack> tracks, String version) {}
 
     public record LoadTrackMsg(long id, String url, String title, long durationMs) {}
+    public record UpcomingTracksMsg(List<LoadTrackMsg> tracks, int queueSize) {}
+    public record TrackEndedMsg(long trackId) {}
 }
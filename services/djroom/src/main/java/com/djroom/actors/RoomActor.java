@@ -1,10 +1,18 @@
 package com.djroom.actors;
 
+import com.djroom.media.TrackMetadata;
+import com.djroom.media.TrackMetadataService;
 import com.djroom.models.RoomState;
+import com.djroom.votes.VoteAccumulator;
+import com.djroom.votes.VoteLedger;
 import com.framework.actors.Actor;
 import com.framework.actors.ActorContext;
 import com.framework.actors.ActorRef;
+import com.framework.actors.ActorSystem;
+import com.framework.actors.Behavior;
+import com.framework.actors.LanePolicy;
 import com.framework.actors.Message;
+import com.framework.actors.MessageType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,6 +28,67 @@ public class RoomActor implements Actor {
 
     private static final Logger log = LoggerFactory.getLogger(RoomActor.class);
 
+    // Protocole : commandes (RoomController, VoteConfig) puis réponses de la playlist et du DJActor
+    public static final MessageType<JoinRoomMsg> JOIN_ROOM = MessageType.of("JOIN_ROOM", JoinRoomMsg.class);
+    public static final MessageType<LeaveRoomMsg> LEAVE_ROOM = MessageType.of("LEAVE_ROOM", LeaveRoomMsg.class);
+    public static final MessageType<AddTrackMsg> ADD_TRACK = MessageType.of("ADD_TRACK", AddTrackMsg.class);
+    public static final MessageType<VoteTrackMsg> VOTE_TRACK = MessageType.of("VOTE_TRACK", VoteTrackMsg.class);
+    public static final MessageType<Void> FOLD_VOTES = MessageType.of("FOLD_VOTES");
+    public static final MessageType<Void> PLAY = MessageType.of("PLAY");
+    public static final MessageType<Void> PAUSE = MessageType.of("PAUSE");
+    public static final MessageType<Void> NEXT = MessageType.of("NEXT");
+    public static final MessageType<SendChatMsg> SEND_CHAT = MessageType.of("SEND_CHAT", SendChatMsg.class);
+    public static final MessageType<Void> GET_STATE = MessageType.of("GET_STATE");
+    public static final MessageType<Void> GET_PLAYLIST = MessageType.of("GET_PLAYLIST");
+    static final MessageType<TrackAnalyzedMsg> TRACK_ANALYZED = MessageType.of("TRACK_ANALYZED", TrackAnalyzedMsg.class);
+    static final MessageType<PlaylistActor.TrackAddedMsg> TRACK_ADDED =
+            MessageType.of("TRACK_ADDED", PlaylistActor.TrackAddedMsg.class);
+    static final MessageType<PlaylistActor.TrackMergedMsg> TRACK_MERGED =
+            MessageType.of("TRACK_MERGED", PlaylistActor.TrackMergedMsg.class);
+    static final MessageType<PlaylistActor.NextTrackMsg> NEXT_TRACK =
+            MessageType.of("NEXT_TRACK", PlaylistActor.NextTrackMsg.class);
+    static final MessageType<Void> NO_TRACK = MessageType.of("NO_TRACK");
+    // Envoyé par le DJActor distant : Map JSON via RabbitMQ, record en local
+    static final MessageType<Object> TRACK_ENDED = MessageType.of("TRACK_ENDED", Object.class);
+    static final MessageType<String> TERMINATED = MessageType.of(ActorSystem.TERMINATED, String.class);
+
+    // Table de dispatch, partagée par toutes les rooms
+    private static final Behavior<RoomActor> BEHAVIOR = Behavior.<RoomActor>builder()
+            .on(JOIN_ROOM, RoomActor::handleJoinRoom)
+            .on(LEAVE_ROOM, RoomActor::handleLeaveRoom)
+            .on(ADD_TRACK, RoomActor::handleAddTrack)
+            .on(VOTE_TRACK, RoomActor::handleVoteTrack)
+            .on(FOLD_VOTES, (actor, none, ctx) ->
+                    actor.playlistActor.tell(Message.of(PlaylistActor.FOLD_VOTES, null), ctx.self()))
+
+            .onMessage(PLAY, RoomActor::handlePlay)
+            .onMessage(PAUSE, RoomActor::handlePause)
+            .onMessage(NEXT, RoomActor::handleNext)
+
+            .on(SEND_CHAT, RoomActor::handleSendChat)
+
+            .on(GET_STATE, (actor, none, ctx) -> actor.handleGetState(ctx))
+            .on(GET_PLAYLIST, (actor, none, ctx) -> actor.handleGetPlaylist(ctx))
+
+            // Analyse du fichier terminée (TrackMetadataService, hors de l'acteur)
+            .on(TRACK_ANALYZED, RoomActor::handleTrackAnalyzed)
+
+            // Réponses en provenance d'acteurs enfants
+            .on(TRACK_ADDED, RoomActor::handleTrackAdded)
+            .on(TRACK_MERGED, RoomActor::handleTrackMerged)
+            .on(NEXT_TRACK, RoomActor::handleNextTrack)
+            .on(NO_TRACK, (actor, none, ctx) -> log.info("Playlist empty in room {}, playback stops", actor.roomId))
+
+            // Fin de lecture signalée par le DJActor distant
+            .on(TRACK_ENDED, RoomActor::handleTrackEnded)
+
+            // Arrêt d'un acteur observé (la playlist)
+            .on(TERMINATED, RoomActor::handleTerminated)
+
+            .otherwise((actor, message, ctx) ->
+                    log.warn("Unknown message type for RoomActor {}: {}", actor.roomId, message.type()))
+            .build();
+
     // Identifiant stable de la room (utilisé côté REST) : ex "room-b9a07e41"
     private final String roomId;
 
@@ -32,6 +101,10 @@ public class RoomActor implements Actor {
     // Statut de la room (ACTIVE/CLOSED)
     private RoomState.RoomStatus status = RoomState.RoomStatus.ACTIVE;
 
+    // Version de l'état (membres / hôte / statut) : démarrage de l'acteur + nombre de changements
+    private final long epoch = System.currentTimeMillis();
+    private long changes;
+
     // Acteurs associés
     private ActorRef playlistActor;  // local (dans le même ActorSystem)
     private ActorRef djActor;        // distant (service djactor)
@@ -46,7 +119,7 @@ public class RoomActor implements Actor {
 
     /**
      * Initialisation au démarrage :
-     * - création de l'acteur local playlist
+     * - création de l'acteur local playlist (enfant : supervisé par la room, arrêté avant elle) et observation
      * - référencement des acteurs distants (DJ/Chat) via actorSelection
      */
     @Override
@@ -54,7 +127,8 @@ public class RoomActor implements Actor {
         log.info("RoomActor started for room {} at {}", roomId, ctx.self().path());
 
         // Création de l'acteur local de gestion de playlist pour cette room
-        playlistActor = ctx.actorOf(PlaylistActor.class, "playlist-" + roomId);
+        // (au redémarrage supervisé aussi : l'ancienne playlist a été arrêtée avec les enfants)
+        startPlaylist(ctx);
 
         // Référence les acteurs distants (si disponibles) pour piloter la lecture et le chat
         try {
@@ -69,40 +143,72 @@ public class RoomActor implements Actor {
     }
 
     /**
-     * Point d'entrée des messages de la room.
-     * Route chaque commande vers un handler dédié.
+     * Voies de mailbox : les commandes de lecture et les départs ne font pas la queue derrière le chat et les votes.
+     */
+    @Override
+    public LanePolicy lanePolicy() {
+        return LanePolicy.defaults()
+                .control(PLAY.name(), PAUSE.name(), NEXT.name(), JOIN_ROOM.name(), LEAVE_ROOM.name(),
+                        TRACK_ENDED.name(), NEXT_TRACK.name(), NO_TRACK.name(), TERMINATED.name())
+                .bulk(SEND_CHAT.name(), VOTE_TRACK.name(), FOLD_VOTES.name(), ADD_TRACK.name(), TRACK_ANALYZED.name());
+    }
+
+    /**
+     * Ordonnancement : une room (RoomActor + PlaylistActor) forme un groupe ; une room très active
+     * ne peut pas priver les autres de temps CPU sur le pool partagé.
+     */
+    @Override
+    public String schedulingGroup() {
+        return roomId;
+    }
+
+    /**
+     * Point d'entrée des messages de la room : chaque type est routé vers son handler par la table BEHAVIOR.
      */
     @Override
     public CompletableFuture<Void> onReceive(Message message, ActorContext ctx) {
         log.info("[RoomActor {}] Received type={}", roomId, message.type());
+        return BEHAVIOR.receive(this, message, ctx);
+    }
 
-        switch (message.type()) {
-            case "JOIN_ROOM" -> handleJoinRoom((JoinRoomMsg) message.payload(), ctx);
-            case "LEAVE_ROOM" -> handleLeaveRoom((LeaveRoomMsg) message.payload(), ctx);
-            case "ADD_TRACK" -> handleAddTrack((AddTrackMsg) message.payload(), ctx);
-            case "VOTE_TRACK" -> handleVoteTrack((VoteTrackMsg) message.payload(), ctx);
+    // ========== Handlers ==========
 
-            case "PLAY" -> handlePlay(ctx);
-            case "PAUSE" -> handlePause(ctx);
-            case "NEXT" -> handleNext(ctx);
+    /**
+     * La playlist s'est arrêtée alors que la room est ouverte (trop d'échecs : sa supervision l'a stoppée) :
+     * elle est recréée vide pour que la room reste utilisable.
+     */
+    private void handleTerminated(String path, ActorContext ctx) {
+        if (status == RoomState.RoomStatus.CLOSED || playlistActor == null || !playlistActor.path().equals(path)) {
+            return;
+        }
 
-            case "SEND_CHAT" -> handleSendChat((SendChatMsg) message.payload(), ctx);
+        try {
+            // Déjà recréée (redémarrage de la room) : rien à faire
+            ctx.actorSelection(path);
+            return;
+        } catch (IllegalArgumentException e) {
+            // Plus d'acteur à ce path
+        }
 
-            case "GET_STATE" -> handleGetState(ctx);
-            case "GET_PLAYLIST" -> handleGetPlaylist(ctx);
+        log.error("Playlist of room {} stopped after repeated failures, recreating it empty", roomId);
 
-            // Réponses en provenance d'acteurs enfants
-            case "TRACK_ADDED" -> handleTrackAdded((PlaylistActor.TrackAddedMsg) message.payload(), ctx);
-            case "NEXT_TRACK" -> handleNextTrack((PlaylistActor.NextTrackMsg) message.payload(), ctx);
+        startPlaylist(ctx);
+        changes++;
+    }
 
-            default -> log.warn("Unknown message type for RoomActor {}: {}", roomId, message.type());
-        }
+    /**
+     * Crée une playlist vide et l'observe. Ses ids de tracks repartent de 1 : les votes de la précédente
+     * (registre et deltas en attente) ne valent plus, seuls les membres présents sont réinscrits.
+     */
+    private void startPlaylist(ActorContext ctx) {
+        VoteAccumulator.get().forgetRoom(roomId);
+        VoteLedger.get().forgetRoom(roomId);
+        members.forEach(userId -> VoteLedger.get().join(roomId, userId));
 
-        return CompletableFuture.completedFuture(null);
+        playlistActor = ctx.actorOf(PlaylistActor.class, "playlist-" + roomId);
+        ctx.watch(playlistActor);
     }
 
-    // ========== Handlers ==========
-
     /**
      * Ajoute un utilisateur à la room.
      * - le premier utilisateur devient l'hôte
@@ -125,6 +231,10 @@ public class RoomActor implements Actor {
             return;
         }
 
+        changes++;
+        // Le vote rapide (contrôleur -> VoteLedger) ne passe pas par l'acteur : le registre suit les membres
+        VoteLedger.get().join(roomId, msg.userId);
+
         // Le premier membre devient host
         if (hostUserId == null) {
             hostUserId = msg.userId;
@@ -177,6 +287,8 @@ public class RoomActor implements Actor {
             return;
         }
 
+        changes++;
+        VoteLedger.get().leave(roomId, msg.userId);
         log.info("User {} left room {} (members remaining={})", msg.userId, roomId, members.size());
 
         // Si plus aucun membre, on ferme la room et on nettoie
@@ -184,20 +296,15 @@ public class RoomActor implements Actor {
             log.info("Room {} is empty, closing", roomId);
             status = RoomState.RoomStatus.CLOSED;
 
-            // Stop l'acteur enfant local
-            if (playlistActor != null) {
-                ctx.stop(playlistActor);
-            }
-
             // Demande aux services distants d'arrêter leurs ressources
             if (djActor != null) {
-                djActor.tell(Message.of("STOP_PLAYER", roomId), ctx.self());
+                djActor.tell(Message.of("STOP_PLAYER", roomId).superseding(), ctx.self());
             }
             if (chatActor != null) {
                 chatActor.tell(Message.of("CLOSE_CHAT", roomId), ctx.self());
             }
 
-            // Stop l'acteur room
+            // Stop l'acteur room (son enfant PlaylistActor est arrêté avant lui)
             ctx.stop(ctx.self());
             return;
         }
@@ -220,6 +327,8 @@ public class RoomActor implements Actor {
     /**
      * Ajoute un track via PlaylistActor.
      * Vérifie d'abord que l'utilisateur est bien membre de la room.
+     * Titre et durée font foi côté serveur quand le fichier est dans la bibliothèque locale :
+     * l'analyse (lecture disque, potentiellement longue) tourne hors de l'acteur et revient en TRACK_ANALYZED.
      */
     private void handleAddTrack(AddTrackMsg msg, ActorContext ctx) {
         if (!members.contains(msg.userId)) {
@@ -234,41 +343,69 @@ public class RoomActor implements Actor {
             return;
         }
 
-        log.info("Add track requested in room {}: title='{}'", roomId, msg.trackTitle);
+        ActorRef self = ctx.self();
+        TrackMetadataService.get().lookupAsync(msg.trackUrl).whenComplete((metadata, error) ->
+                self.tell(Message.of(TRACK_ANALYZED, new TrackAnalyzedMsg(msg, metadata)), null));
+    }
+
+    /**
+     * Résultat de l'analyse : les valeurs de la bibliothèque remplacent celles du client quand elles existent,
+     * puis le track part vers PlaylistActor.
+     */
+    private void handleTrackAnalyzed(TrackAnalyzedMsg analyzed, ActorContext ctx) {
+        AddTrackMsg msg = analyzed.request();
+        TrackMetadata metadata = analyzed.metadata();
+
+        String title = msg.trackTitle;
+        long durationMs = msg.durationMs;
+        String fingerprint = null;
+
+        if (metadata != null) {
+            if (metadata.title() != null) {
+                title = metadata.title();
+            }
+            if (metadata.durationMs() > 0) {
+                durationMs = metadata.durationMs();
+            }
+            fingerprint = metadata.audioFingerprint();
+        }
+
+        log.info("Add track requested in room {}: title='{}' durationMs={}", roomId, title, durationMs);
 
         // Forward vers l'acteur playlist local
         playlistActor.tell(
-                Message.of("ADD_TRACK", new PlaylistActor.AddTrackMsg(
+                Message.of(PlaylistActor.ADD_TRACK, new PlaylistActor.AddTrackMsg(
                         msg.trackUrl,
-                        msg.trackTitle,
-                        msg.durationMs,
-                        msg.userId
+                        title,
+                        durationMs,
+                        msg.userId,
+                        fingerprint
                 )),
                 ctx.self()
         );
 
-        // La confirmation arrive via TRACK_ADDED (handleTrackAdded)
+        // La confirmation arrive via TRACK_ADDED (handleTrackAdded), ou TRACK_MERGED si doublon
     }
 
     /**
-     * Forward d'un vote vers PlaylistActor.
+     * Forward d'un vote vers PlaylistActor, qui le valide au VoteLedger (membre présent, un vote par track).
      * On forward le sender pour que la réponse (VOTE_SUCCESS/FAILED) revienne directement au demandeur.
      */
     private void handleVoteTrack(VoteTrackMsg msg, ActorContext ctx) {
         playlistActor.tell(
-                Message.of("VOTE_TRACK", new PlaylistActor.VoteTrackMsg(msg.trackId, msg.delta)),
+                Message.of(PlaylistActor.VOTE_TRACK, new PlaylistActor.VoteTrackMsg(msg.userId, msg.trackId, msg.delta)),
                 ctx.sender()
         );
     }
 
     /**
-     * Transmet la commande PLAY au DJActor.
+     * Transmet la commande PLAY au DJActor (avec la même échéance que la demande reçue).
      */
-    private void handlePlay(ActorContext ctx) {
+    private void handlePlay(Message message, ActorContext ctx) {
         log.info("Play command for room {}", roomId);
 
         if (djActor != null) {
-            djActor.tell(Message.of("PLAY", roomId), ctx.self());
+            djActor.tell(Message.of("PLAY", roomId).superseding().withDeadline(message.deadline()), ctx.self());
         }
 
         if (ctx.sender() != null) {
@@ -277,13 +414,14 @@ public class RoomActor implements Actor {
     }
 
     /**
-     * Transmet la commande PAUSE au DJActor.
+     * Transmet la commande PAUSE au DJActor (avec la même échéance que la demande reçue).
      */
-    private void handlePause(ActorContext ctx) {
+    private void handlePause(Message message, ActorContext ctx) {
         log.info("Pause command for room {}", roomId);
 
         if (djActor != null) {
-            djActor.tell(Message.of("PAUSE", roomId), ctx.self());
+            // PAUSE bascule lecture/pause côté DJActor : deux PAUSE ne valent pas un, donc pas de conflation
+            djActor.tell(Message.of("PAUSE", roomId).withDeadline(message.deadline()), ctx.self());
         }
 
         if (ctx.sender() != null) {
@@ -295,11 +433,11 @@ public class RoomActor implements Actor {
      * Demande à PlaylistActor le prochain track.
      * PlaylistActor gère l'ordre et notifie le DJActor du LOAD_TRACK.
      */
-    private void handleNext(ActorContext ctx) {
+    private void handleNext(Message message, ActorContext ctx) {
         log.info("Next command for room {}", roomId);
 
         playlistActor.tell(
-                Message.of("GET_NEXT_TRACK", null),
+                Message.of(PlaylistActor.GET_NEXT_TRACK, null).withDeadline(message.deadline()),
                 ctx.self()
         );
     }
@@ -333,7 +471,8 @@ public class RoomActor implements Actor {
 
     /**
      * Retourne l'état courant de la room.
-     * Note : playlistSize est laissé à 0 ici car la taille n'est pas récupérée en synchrone.
+     * Note : playlistSize est laissé à 0 ici car la taille n'est pas récupérée en synchrone ;
+     * le snapshot agrégé (GET /api/rooms/{roomId}/snapshot) la prend dans la réponse du PlaylistActor.
      */
     private void handleGetState(ActorContext ctx) {
         RoomState state = new RoomState(
@@ -341,7 +480,8 @@ public class RoomActor implements Actor {
                 new ArrayList<>(members),
                 hostUserId,
                 status,
-                0
+                0,
+                epoch + "." + changes
         );
 
         if (ctx.sender() != null) {
@@ -358,7 +498,7 @@ public class RoomActor implements Actor {
      */
     private void handleGetPlaylist(ActorContext ctx) {
         playlistActor.tell(
-                Message.of("GET_PLAYLIST", null),
+                Message.of(PlaylistActor.GET_PLAYLIST, null),
                 ctx.sender()
         );
     }
@@ -371,6 +511,37 @@ public class RoomActor implements Actor {
         log.info("Track added confirmed in room {}: title='{}'", roomId, msg.track().getTitle());
     }
 
+    /**
+     * Notification interne : le track ajouté était déjà en file, converti en vote.
+     */
+    private void handleTrackMerged(PlaylistActor.TrackMergedMsg msg, ActorContext ctx) {
+        log.info("Duplicate track from {} merged in room {}: '{}' score={}",
+                msg.addedBy(), roomId, msg.track().getTitle(), msg.track().getScore());
+    }
+
+    /**
+     * Le DJActor a terminé un track : la playlist choisit le suivant (le mieux voté) et envoie LOAD_TRACK.
+     * Payload distant (Map JSON) : {"trackId": ..., "endedAt": ...}
+     */
+    private void handleTrackEnded(Object payload, ActorContext ctx) {
+        long trackId;
+        if (payload instanceof Map<?, ?> map && map.get("trackId") instanceof Number n) {
+            trackId = n.longValue();
+        } else if (payload instanceof PlaylistActor.TrackEndedMsg msg) {
+            trackId = msg.trackId();
+        } else {
+            log.warn("Invalid TRACK_ENDED payload for room {}: {}", roomId, payload);
+            return;
+        }
+
+        log.info("Track {} ended in room {}, requesting next track", trackId, roomId);
+
+        playlistActor.tell(
+                Message.of(PlaylistActor.TRACK_ENDED, new PlaylistActor.TrackEndedMsg(trackId)),
+                ctx.self()
+        );
+    }
+
     /**
      * Notification interne : prochain track sélectionné.
      * PlaylistActor a déjà déclenché le chargement côté DJActor.
@@ -392,7 +563,8 @@ public class RoomActor implements Actor {
     public record LeaveRoomMsg(String userId) {}
 
     public record AddTrackMsg(String userId, String trackUrl, String trackTitle, long durationMs) {}
-    public record VoteTrackMsg(long trackId, int delta) {}
+    public record TrackAnalyzedMsg(AddTrackMsg request, TrackMetadata metadata) {}
+    public record VoteTrackMsg(String userId, long trackId, int delta) {}
 
     public record SendChatMsg(String userId, String message) {}
 
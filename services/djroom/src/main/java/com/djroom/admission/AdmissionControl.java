@@ -0,0 +1,76 @@
+package com.djroom.admission;
+
+import com.framework.actors.ActorRef;
+import com.framework.actors.ActorSystem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Contrôle d'admission devant les RoomActor : plutôt que d'empiler des messages dans une mailbox
+ * déjà en retard, la requête est refusée tout de suite (429 pour une room saturée, 503 si tout le service l'est).
+ * Les rooms saines ne paient pas la latence des rooms chargées.
+ */
+public class AdmissionControl {
+
+    private static final Logger log = LoggerFactory.getLogger(AdmissionControl.class);
+
+    // La charge globale est recalculée au plus une fois par intervalle (parcours de toutes les mailboxes)
+    private static final long GLOBAL_REFRESH_NANOS = 100_000_000L;
+
+    public enum Decision {
+        ACCEPT,
+        ROOM_OVERLOADED,
+        SERVICE_OVERLOADED
+    }
+
+    private final IntSupplier totalDepth;
+    private final AdmissionSettings settings;
+
+    private volatile int globalDepth;
+    private volatile long globalSampledAt = System.nanoTime() - GLOBAL_REFRESH_NANOS;
+
+    public AdmissionControl(ActorSystem system, AdmissionSettings settings) {
+        this(system::totalMailboxDepth, settings);
+    }
+
+    AdmissionControl(IntSupplier totalDepth, AdmissionSettings settings) {
+        this.totalDepth = totalDepth;
+        this.settings = settings;
+    }
+
+    /**
+     * Décision pour une requête adressée au RoomActor donné (null : contrôle global seul, ex. création de room).
+     */
+    public Decision admit(ActorRef roomActor) {
+        if (settings.globalMaxDepth() > 0 && globalDepth() > settings.globalMaxDepth()) {
+            return Decision.SERVICE_OVERLOADED;
+        }
+
+        if (roomActor != null) {
+            if (settings.roomMaxDepth() > 0 && roomActor.mailboxDepth() > settings.roomMaxDepth()) {
+                log.debug("Room {} overloaded: {} pending messages", roomActor.path(), roomActor.mailboxDepth());
+                return Decision.ROOM_OVERLOADED;
+            }
+            if (settings.roomMaxAgeMs() > 0 && roomActor.oldestMessageAgeMs() > settings.roomMaxAgeMs()) {
+                log.debug("Room {} overloaded: oldest message waiting {} ms", roomActor.path(), roomActor.oldestMessageAgeMs());
+                return Decision.ROOM_OVERLOADED;
+            }
+        }
+        return Decision.ACCEPT;
+    }
+
+    public int retryAfterSeconds() {
+        return settings.retryAfterSeconds();
+    }
+
+    private int globalDepth() {
+        long now = System.nanoTime();
+        if (now - globalSampledAt >= GLOBAL_REFRESH_NANOS) {
+            globalDepth = totalDepth.getAsInt();
+            globalSampledAt = now;
+        }
+        return globalDepth;
+    }
+}
@@ -0,0 +1,14 @@
+package com.djroom.admission;
+
+/**
+ * Seuils d'admission des requêtes :
+ * - par room : messages en attente et âge du plus ancien dans la mailbox du RoomActor
+ * - global : messages en attente dans toutes les mailboxes locales du service
+ * Un seuil à 0 est désactivé.
+ */
+public record AdmissionSettings(
+        int roomMaxDepth,
+        long roomMaxAgeMs,
+        int globalMaxDepth,
+        int retryAfterSeconds
+) {}
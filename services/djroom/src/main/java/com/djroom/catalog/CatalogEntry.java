@@ -0,0 +1,9 @@
+package com.djroom.catalog;
+
+/**
+ * Morceau de la bibliothèque, prêt à être ajouté à une playlist.
+ *
+ * @param fileName nom du fichier dans la bibliothèque (clé unique)
+ * @param url      URL de lecture (servie par djactor)
+ */
+public record CatalogEntry(String fileName, String url, String title, String artist, long durationMs) {}
@@ -0,0 +1,334 @@
+package com.djroom.catalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index du catalogue pour l'autocomplétion :
+ * - trie des termes (titre + artiste) : chaque nœud garde les TOP_K premiers morceaux de son préfixe,
+ *   une requête d'un seul mot est donc servie sans parcourir de postings
+ * - index inversé terme -> ids triés, intersecté pour les requêtes de plusieurs mots
+ * Les ids suivent l'ordre d'insertion ; une suppression pose une pierre tombale,
+ * l'index est reconstruit (build) quand elles deviennent trop nombreuses.
+ */
+public final class CatalogIndex {
+
+    static final int TOP_K = 20;
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final int[] NO_IDS = new int[0];
+
+    /**
+     * Nœud du trie : enfants triés par caractère (recherche dichotomique).
+     */
+    private static final class Node {
+        char[] keys = NO_KEYS;
+        Node[] children = NO_CHILDREN;
+        int[] top = NO_IDS;
+        int topCount;
+        // Terme complet si un terme se termine ici
+        String term;
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node childOrCreate(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i >= 0) {
+                return children[i];
+            }
+            int at = -i - 1;
+            Node node = new Node();
+
+            char[] k = new char[keys.length + 1];
+            System.arraycopy(keys, 0, k, 0, at);
+            k[at] = c;
+            System.arraycopy(keys, at, k, at + 1, keys.length - at);
+
+            Node[] ch = new Node[children.length + 1];
+            System.arraycopy(children, 0, ch, 0, at);
+            ch[at] = node;
+            System.arraycopy(children, at, ch, at + 1, children.length - at);
+
+            keys = k;
+            children = ch;
+            return node;
+        }
+
+        void offer(int id) {
+            if (topCount == TOP_K || (topCount > 0 && top[topCount - 1] == id)) {
+                return;
+            }
+            if (topCount == top.length) {
+                top = Arrays.copyOf(top, Math.min(TOP_K, Math.max(2, top.length * 2)));
+            }
+            top[topCount++] = id;
+        }
+    }
+
+    /**
+     * Postings d'un terme : ids croissants dans un int[] extensible.
+     */
+    private static final class Postings {
+        int[] ids = new int[2];
+        int size;
+
+        void add(int id) {
+            if (size > 0 && ids[size - 1] == id) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+
+    private record Indexed(CatalogEntry entry, String[] terms) {}
+
+    private final Node root = new Node();
+    private final Map<String, Postings> postings;
+    private final List<Indexed> entries;
+    private final Map<String, Integer> idsByFile;
+    private final BitSet removed = new BitSet();
+    private int removedCount;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private CatalogIndex(int expectedEntries) {
+        this.postings = new HashMap<>(Math.max(16, expectedEntries * 2));
+        this.entries = new ArrayList<>(expectedEntries);
+        this.idsByFile = new HashMap<>(Math.max(16, expectedEntries * 2));
+    }
+
+    /**
+     * Chargement en masse : une seule passe sur les entrées, sans verrou (index pas encore publié).
+     */
+    public static CatalogIndex build(List<CatalogEntry> entries) {
+        CatalogIndex index = new CatalogIndex(entries.size());
+        for (CatalogEntry entry : entries) {
+            index.insert(entry);
+        }
+        return index;
+    }
+
+    /**
+     * Ajoute ou remplace (même fichier) une entrée.
+     */
+    public void put(CatalogEntry entry) {
+        lock.writeLock().lock();
+        try {
+            delete(entry.fileName());
+            insert(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String fileName) {
+        lock.writeLock().lock();
+        try {
+            delete(fileName);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * true si les pierres tombales justifient une reconstruction (plus d'un quart des ids).
+     */
+    public boolean needsCompaction() {
+        lock.readLock().lock();
+        try {
+            return removedCount > 1024 && removedCount * 4 > entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Entrées vivantes, dans l'ordre des ids (base d'une reconstruction).
+     */
+    public List<CatalogEntry> entries() {
+        lock.readLock().lock();
+        try {
+            List<CatalogEntry> live = new ArrayList<>(entries.size() - removedCount);
+            for (int id = 0; id < entries.size(); id++) {
+                if (!removed.get(id)) {
+                    live.add(entries.get(id).entry());
+                }
+            }
+            return live;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size() - removedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recherche : tous les mots sauf le dernier doivent correspondre exactement, le dernier est un préfixe
+     * (saisie en cours). Résultats dans l'ordre du catalogue, au plus limit (<= TOP_K).
+     */
+    public List<CatalogEntry> search(String query, int limit) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(Tokenizer.tokenize(query)));
+        int max = Math.min(Math.max(1, limit), TOP_K);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        String prefix = tokens.remove(tokens.size() - 1);
+
+        lock.readLock().lock();
+        try {
+            Node node = find(prefix);
+            if (node == null) {
+                return List.of();
+            }
+            return tokens.isEmpty() ? byPrefix(node, max) : byTerms(tokens, prefix, max);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ========== Lecture (sous verrou lecture) ==========
+
+    private List<CatalogEntry> byPrefix(Node node, int max) {
+        List<CatalogEntry> out = new ArrayList<>(max);
+        int skipped = 0;
+        for (int i = 0; i < node.topCount && out.size() < max; i++) {
+            int id = node.top[i];
+            if (removed.get(id)) {
+                skipped++;
+            } else {
+                out.add(entries.get(id).entry());
+            }
+        }
+
+        // Des suppressions ont vidé le top : repli sur le parcours du sous-arbre (rare, jusqu'à reconstruction)
+        if (out.size() < max && skipped > 0 && node.topCount == TOP_K) {
+            BitSet ids = new BitSet();
+            collect(node, ids);
+            ids.andNot(removed);
+            out.clear();
+            for (int id = ids.nextSetBit(0); id >= 0 && out.size() < max; id = ids.nextSetBit(id + 1)) {
+                out.add(entries.get(id).entry());
+            }
+        }
+        return out;
+    }
+
+    private void collect(Node node, BitSet ids) {
+        if (node.term != null) {
+            Postings p = postings.get(node.term);
+            for (int i = 0; i < p.size; i++) {
+                ids.set(p.ids[i]);
+            }
+        }
+        for (Node child : node.children) {
+            collect(child, ids);
+        }
+    }
+
+    /**
+     * Intersection des postings des mots complets (du plus rare au plus fréquent), filtrée par le préfixe.
+     */
+    private List<CatalogEntry> byTerms(List<String> terms, String prefix, int max) {
+        Postings[] lists = new Postings[terms.size()];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = postings.get(terms.get(i));
+            if (lists[i] == null) {
+                return List.of();
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+        List<CatalogEntry> out = new ArrayList<>(max);
+        int[] cursors = new int[lists.length];
+
+        candidates:
+        for (int c = 0; c < lists[0].size && out.size() < max; c++) {
+            int id = lists[0].ids[c];
+            for (int t = 1; t < lists.length; t++) {
+                Postings p = lists[t];
+                int from = cursors[t];
+                int at = Arrays.binarySearch(p.ids, from, p.size, id);
+                if (at < 0) {
+                    cursors[t] = -at - 1;
+                    continue candidates;
+                }
+                cursors[t] = at;
+            }
+            if (!removed.get(id) && hasPrefix(entries.get(id).terms(), prefix)) {
+                out.add(entries.get(id).entry());
+            }
+        }
+        return out;
+    }
+
+    private static boolean hasPrefix(String[] terms, String prefix) {
+        for (String term : terms) {
+            if (term.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Node find(String prefix) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        return node;
+    }
+
+    // ========== Écriture (sous verrou écriture, ou avant publication) ==========
+
+    private void insert(CatalogEntry entry) {
+        int id = entries.size();
+        List<String> tokens = Tokenizer.tokenize(entry.title() + " " + (entry.artist() == null ? "" : entry.artist()));
+        String[] terms = new LinkedHashSet<>(tokens).toArray(String[]::new);
+
+        entries.add(new Indexed(entry, terms));
+        idsByFile.put(entry.fileName(), id);
+
+        for (String term : terms) {
+            Postings p = postings.computeIfAbsent(term, k -> new Postings());
+            p.add(id);
+
+            Node node = root;
+            for (int i = 0; i < term.length(); i++) {
+                node = node.childOrCreate(term.charAt(i));
+                node.offer(id);
+            }
+            if (node.term == null) {
+                node.term = term;
+            }
+        }
+    }
+
+    private void delete(String fileName) {
+        Integer id = idsByFile.remove(fileName);
+        if (id != null && !removed.get(id)) {
+            removed.set(id);
+            removedCount++;
+        }
+    }
+}
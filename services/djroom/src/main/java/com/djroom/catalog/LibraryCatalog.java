@@ -0,0 +1,202 @@
+package com.djroom.catalog;
+
+import com.djroom.media.TrackMetadata;
+import com.djroom.media.TrackMetadataService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Catalogue de la bibliothèque audio :
+ * - au démarrage, un scan du dossier alimente l'index en une passe (bulk load)
+ * - ensuite un WatchService applique les ajouts / modifications / suppressions au fil de l'eau
+ * Titre, artiste et durée viennent du TrackMetadataService (cache persistant : un fichier déjà vu n'est pas relu).
+ * Scan et lot d'événements forment chacun un lot de métadonnées : le cache est persisté une fois par lot.
+ */
+public final class LibraryCatalog implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(LibraryCatalog.class);
+
+    private final Path libraryDir;
+    private final String publicBaseUrl;
+    private final TrackMetadataService metadata;
+    private final boolean watch;
+
+    private volatile CatalogIndex index = CatalogIndex.build(List.of());
+
+    private WatchService watchService;
+    private Thread watcher;
+
+    public LibraryCatalog(Path libraryDir, String publicBaseUrl, TrackMetadataService metadata, boolean watch) {
+        this.libraryDir = libraryDir.toAbsolutePath().normalize();
+        this.publicBaseUrl = publicBaseUrl.endsWith("/") ? publicBaseUrl : publicBaseUrl + "/";
+        this.metadata = metadata;
+        this.watch = watch;
+    }
+
+    /**
+     * Scan initial puis démarrage de la surveillance du dossier.
+     */
+    public void start() {
+        if (!Files.isDirectory(libraryDir)) {
+            log.warn("Media library {} not found, catalog stays empty", libraryDir);
+            return;
+        }
+
+        if (watch) {
+            // Surveillance démarrée avant le scan : aucun changement perdu entre les deux
+            try {
+                watchService = FileSystems.getDefault().newWatchService();
+                libraryDir.register(watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY,
+                        StandardWatchEventKinds.ENTRY_DELETE);
+            } catch (IOException e) {
+                log.warn("Cannot watch media library {}: {}", libraryDir, e.getMessage());
+                watchService = null;
+            }
+        }
+
+        rescan();
+
+        if (watchService != null) {
+            watcher = new Thread(this::watchLoop, "library-catalog-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+        }
+    }
+
+    public List<CatalogEntry> search(String query, int limit) {
+        return index.search(query, limit);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Scan complet du dossier et reconstruction de l'index en une passe, puis publication.
+     */
+    void rescan() {
+        long start = System.currentTimeMillis();
+        List<CatalogEntry> entries = new ArrayList<>();
+
+        metadata.beginBatch();
+        try (Stream<Path> files = Files.list(libraryDir)) {
+            for (Path file : files.filter(LibraryCatalog::isAudio).sorted().toList()) {
+                CatalogEntry entry = entryFor(file);
+                if (entry != null) {
+                    entries.add(entry);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to scan media library {}: {}", libraryDir, e.getMessage());
+            return;
+        } finally {
+            metadata.endBatch();
+        }
+
+        index = CatalogIndex.build(entries);
+        log.info("Library catalog loaded: {} tracks in {} ms", entries.size(), System.currentTimeMillis() - start);
+    }
+
+    private void watchLoop() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            boolean overflow;
+            metadata.beginBatch();
+            try {
+                overflow = applyEvents(key);
+            } finally {
+                metadata.endBatch();
+            }
+            key.reset();
+
+            // Événements perdus, ou trop de pierres tombales : reconstruction complète
+            if (overflow) {
+                rescan();
+            } else if (index.needsCompaction()) {
+                index = CatalogIndex.build(index.entries());
+            }
+        }
+    }
+
+    /**
+     * Applique les événements d'une clé à l'index ; true si des événements ont été perdus (OVERFLOW).
+     */
+    private boolean applyEvents(WatchKey key) {
+        boolean overflow = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                overflow = true;
+                continue;
+            }
+            Path file = libraryDir.resolve((Path) event.context());
+            if (!isAudio(file)) {
+                continue;
+            }
+
+            if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                index.remove(file.getFileName().toString());
+            } else {
+                CatalogEntry entry = entryFor(file);
+                if (entry != null) {
+                    index.put(entry);
+                }
+            }
+        }
+        return overflow;
+    }
+
+    private CatalogEntry entryFor(Path file) {
+        String fileName = file.getFileName().toString();
+        String url = publicBaseUrl + URLEncoder.encode(fileName, StandardCharsets.UTF_8).replace("+", "%20");
+
+        TrackMetadata meta = metadata.lookup(url);
+        if (meta == null) {
+            return null;
+        }
+
+        String title = meta.title() != null ? meta.title() : fileName.substring(0, fileName.lastIndexOf('.'));
+        return new CatalogEntry(fileName, url, title, meta.artist(), meta.durationMs());
+    }
+
+    private static boolean isAudio(Path file) {
+        return file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".mp3");
+    }
+
+    @Override
+    public void close() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException ignored) {
+                // arrêt best effort
+            }
+        }
+        if (watcher != null) {
+            watcher.interrupt();
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.djroom.config;
 
 import com.framework.actors.ActorSystem;
+import com.framework.actors.LocalDispatcher;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -9,7 +11,9 @@ import org.springframework.context.annotation.Configuration;
 public class ActorsConfig {
 
     @Bean(destroyMethod = "close")
-    public ActorSystem actorSystem(RabbitTemplate rabbitTemplate) {
-        return ActorSystem.create("djroom", rabbitTemplate);
+    public ActorSystem actorSystem(RabbitTemplate rabbitTemplate,
+                                   @Value("${actors.dispatcher.threads:0}") int dispatcherThreads) {
+        int threads = dispatcherThreads > 0 ? dispatcherThreads : LocalDispatcher.DEFAULT_THREADS;
+        return ActorSystem.create("djroom", rabbitTemplate, threads);
     }
 }
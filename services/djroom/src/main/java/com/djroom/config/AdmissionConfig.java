@@ -0,0 +1,36 @@
+package com.djroom.config;
+
+import com.djroom.admission.AdmissionControl;
+import com.djroom.admission.AdmissionSettings;
+import com.framework.actors.ActorSystem;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AdmissionConfig {
+
+    // Par room : messages en attente / âge du plus ancien dans la mailbox du RoomActor
+    @Value("${room.admission.room-max-depth:500}")
+    private int roomMaxDepth;
+
+    @Value("${room.admission.room-max-age-ms:2000}")
+    private long roomMaxAgeMs;
+
+    // Global : messages en attente dans toutes les mailboxes du service
+    @Value("${room.admission.global-max-depth:20000}")
+    private int globalMaxDepth;
+
+    @Value("${room.admission.retry-after-s:1}")
+    private int retryAfterSeconds;
+
+    @Bean
+    public AdmissionControl admissionControl(ActorSystem actorSystem) {
+        return new AdmissionControl(actorSystem, new AdmissionSettings(
+                roomMaxDepth,
+                roomMaxAgeMs,
+                globalMaxDepth,
+                retryAfterSeconds
+        ));
+    }
+}
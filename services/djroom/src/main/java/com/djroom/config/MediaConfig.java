@@ -0,0 +1,41 @@
+package com.djroom.config;
+
+import com.djroom.catalog.LibraryCatalog;
+import com.djroom.media.TrackMetadataService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class MediaConfig {
+
+    // Dossier des fichiers audio (même bibliothèque que celle servie par djactor)
+    @Value("${media.library.dir:song}")
+    private String libraryDir;
+
+    // Cache persistant des métadonnées (vide = en mémoire uniquement)
+    @Value("${media.metadata.cache-file:data/track-metadata.json}")
+    private String cacheFile;
+
+    @Bean
+    public TrackMetadataService trackMetadataService() {
+        TrackMetadataService service = TrackMetadataService.get();
+        service.configure(Path.of(libraryDir), cacheFile.isBlank() ? null : Path.of(cacheFile));
+        return service;
+    }
+
+    // Base des URL de lecture proposées par le catalogue (fichiers servis par djactor)
+    @Value("${media.public-base-url:http://localhost:8081/api/media/}")
+    private String publicBaseUrl;
+
+    // Mise à jour du catalogue au fil des changements du dossier
+    @Value("${catalog.watch:true}")
+    private boolean watchLibrary;
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public LibraryCatalog libraryCatalog(TrackMetadataService trackMetadataService) {
+        return new LibraryCatalog(Path.of(libraryDir), publicBaseUrl, trackMetadataService, watchLibrary);
+    }
+}
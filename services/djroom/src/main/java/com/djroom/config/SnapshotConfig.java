@@ -0,0 +1,36 @@
+package com.djroom.config;
+
+import com.djroom.snapshot.RoomSnapshotAggregator;
+import com.djroom.snapshot.SnapshotSettings;
+import com.framework.actors.ActorSystem;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SnapshotConfig {
+
+    // Acteurs locaux (djroom) : réponse quasi immédiate
+    @Value("${room.snapshot.timeout.room-ms:250}")
+    private long roomTimeoutMs;
+
+    @Value("${room.snapshot.timeout.playlist-ms:250}")
+    private long playlistTimeoutMs;
+
+    // Acteurs distants : aller-retour RabbitMQ
+    @Value("${room.snapshot.timeout.player-ms:800}")
+    private long playerTimeoutMs;
+
+    @Value("${room.snapshot.timeout.chat-ms:800}")
+    private long chatTimeoutMs;
+
+    @Bean
+    public RoomSnapshotAggregator roomSnapshotAggregator(ActorSystem actorSystem) {
+        return new RoomSnapshotAggregator(actorSystem, new SnapshotSettings(
+                roomTimeoutMs,
+                playlistTimeoutMs,
+                playerTimeoutMs,
+                chatTimeoutMs
+        ));
+    }
+}
@@ -0,0 +1,55 @@
+package com.djroom.config;
+
+import com.djroom.actors.RoomActor;
+import com.djroom.votes.VoteAccumulator;
+import com.djroom.votes.VoteLedger;
+import com.framework.actors.ActorSystem;
+import com.framework.actors.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+
+@Configuration
+public class VoteConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(VoteConfig.class);
+
+    // Nombre de votes en attente qui déclenche un fold immédiat (sans attendre le tick)
+    @Value("${room.votes.fold-batch:64}")
+    private int foldBatch;
+
+    private final ActorSystem actorSystem;
+
+    public VoteConfig(ActorSystem actorSystem) {
+        this.actorSystem = actorSystem;
+    }
+
+    @Bean
+    public VoteAccumulator voteAccumulator() {
+        VoteAccumulator accumulator = VoteAccumulator.get();
+        accumulator.configure(foldBatch);
+        return accumulator;
+    }
+
+    @Bean
+    public VoteLedger voteLedger() {
+        return VoteLedger.get();
+    }
+
+    /**
+     * Tick de fold : un seul FOLD_VOTES par room ayant des votes en attente.
+     */
+    @Scheduled(fixedDelayString = "${room.votes.fold-interval-ms:200}")
+    public void foldPendingVotes() {
+        for (String roomId : VoteAccumulator.get().claimPendingRooms()) {
+            try {
+                actorSystem.actorSelection("djroom/" + roomId).tell(Message.of(RoomActor.FOLD_VOTES, null), null);
+            } catch (IllegalArgumentException e) {
+                log.warn("Pending votes for unknown room {}", roomId);
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.djroom.controllers;
+
+import com.djroom.catalog.CatalogEntry;
+import com.djroom.catalog.LibraryCatalog;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/catalog")
+public class CatalogController {
+
+    private static final int MAX_LIMIT = 50;
+
+    private final LibraryCatalog catalog;
+
+    public CatalogController(LibraryCatalog catalog) {
+        this.catalog = catalog;
+    }
+
+    /**
+     * Autocomplétion de l'ajout de track : GET /api/catalog/search?q=jam&limit=10
+     * Le dernier mot est traité comme un préfixe (saisie en cours).
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<CatalogEntry>> search(@RequestParam String q,
+                                                     @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(catalog.search(q, Math.max(1, Math.min(limit, MAX_LIMIT))));
+    }
+}
@@ -1,15 +1,27 @@
 package com.djroom.controllers;
 
 import com.djroom.actors.PlaylistActor;
+import com.djroom.admission.AdmissionControl;
 import com.djroom.actors.RoomActor;
+import com.djroom.snapshot.RoomSnapshot;
+import com.djroom.snapshot.RoomSnapshotAggregator;
+import com.djroom.votes.VoteAccumulator;
+import com.djroom.votes.VoteLedger;
 import com.framework.actors.ActorRef;
 import com.framework.actors.ActorSystem;
+import com.framework.actors.MailboxLane;
 import com.framework.actors.Message;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -23,12 +35,25 @@ public class RoomController {
     private static final Logger log = LoggerFactory.getLogger(RoomController.class);
 
     private final ActorSystem actorSystem;
+    private final RoomSnapshotAggregator snapshots;
+    private final VoteAccumulator votes;
+    private final VoteLedger ledger;
+    private final AdmissionControl admission;
+
+    // Échéance des commandes de lecture (PLAY/PAUSE/NEXT) : au-delà, elles partent en dead letters
+    @Value("${room.command.deadline-ms:5000}")
+    private long commandDeadlineMs = 5000;
 
     // Référence les RoomActor créés par roomId (stockage en mémoire côté API)
     private final ConcurrentMap<String, ActorRef> rooms = new ConcurrentHashMap<>();
 
-    public RoomController(ActorSystem actorSystem) {
+    public RoomController(ActorSystem actorSystem, RoomSnapshotAggregator snapshots,
+                          VoteAccumulator votes, VoteLedger ledger, AdmissionControl admission) {
         this.actorSystem = actorSystem;
+        this.snapshots = snapshots;
+        this.votes = votes;
+        this.ledger = ledger;
+        this.admission = admission;
     }
 
     /**
@@ -37,6 +62,11 @@ public class RoomController {
      */
     @PostMapping
     public ResponseEntity<CreateRoomResponse> createRoom(@RequestBody CreateRoomRequest req) {
+        ResponseEntity<CreateRoomResponse> rejected = rejectIfOverloaded(null);
+        if (rejected != null) {
+            return rejected;
+        }
+
         String roomId = "room-" + UUID.randomUUID().toString().substring(0, 8);
 
         log.info("Creating room {} (owner={})", roomId, req.userId);
@@ -48,11 +78,21 @@ public class RoomController {
 
             // Création du RoomActor et enregistrement local
             ActorRef roomActor = actorSystem.actorOf(RoomActor.class, roomId);
+            snapshots.openRoom(roomId);
             rooms.put(roomId, roomActor);
 
+            // La room s'arrête seule quand elle se vide : on oublie alors sa référence, son état de vote
+            // et son snapshot en cache (arrêt définitif uniquement, contrairement à postStop qui suit aussi les redémarrages)
+            actorSystem.whenTerminated(roomActor).thenRun(() -> {
+                rooms.remove(roomId, roomActor);
+                votes.forgetRoom(roomId);
+                ledger.forgetRoom(roomId);
+                snapshots.forgetRoom(roomId);
+            });
+
             // Le créateur rejoint automatiquement la room
             roomActor.tell(
-                    Message.of("JOIN_ROOM", new RoomActor.JoinRoomMsg(req.userId)),
+                    Message.of(RoomActor.JOIN_ROOM, new RoomActor.JoinRoomMsg(req.userId)),
                     null
             );
 
@@ -79,10 +119,15 @@ public class RoomController {
             return ResponseEntity.notFound().build();
         }
 
+        ResponseEntity<String> rejected = rejectIfOverloaded(roomActor);
+        if (rejected != null) {
+            return rejected;
+        }
+
         log.info("Join room {} (user={})", roomId, req.userId);
 
         roomActor.tell(
-                Message.of("JOIN_ROOM", new RoomActor.JoinRoomMsg(req.userId)),
+                Message.of(RoomActor.JOIN_ROOM, new RoomActor.JoinRoomMsg(req.userId)),
                 null
         );
 
@@ -103,7 +148,7 @@ public class RoomController {
         log.info("Leave room {} (user={})", roomId, req.userId);
 
         roomActor.tell(
-                Message.of("LEAVE_ROOM", new RoomActor.LeaveRoomMsg(req.userId)),
+                Message.of(RoomActor.LEAVE_ROOM, new RoomActor.LeaveRoomMsg(req.userId)),
                 null
         );
 
@@ -121,10 +166,15 @@ public class RoomController {
             return ResponseEntity.notFound().build();
         }
 
+        ResponseEntity<String> rejected = rejectIfOverloaded(roomActor);
+        if (rejected != null) {
+            return rejected;
+        }
+
         log.info("Add track requested in room {} (user={}, title='{}')", roomId, req.userId, req.trackTitle);
 
         roomActor.tell(
-                Message.of("ADD_TRACK", new RoomActor.AddTrackMsg(
+                Message.of(RoomActor.ADD_TRACK, new RoomActor.AddTrackMsg(
                         req.userId,
                         req.trackUrl,
                         req.trackTitle,
@@ -151,16 +201,66 @@ public class RoomController {
             return ResponseEntity.notFound().build();
         }
 
-        log.info("Vote requested in room {} (user={}, trackId={}, delta={})", roomId, req.userId, trackId, req.delta);
+        log.debug("Vote requested in room {} (user={}, trackId={}, delta={})", roomId, req.userId, trackId, req.delta);
 
-        roomActor.tell(
-                Message.of("VOTE_TRACK", new RoomActor.VoteTrackMsg(trackId, req.delta)),
-                null
-        );
+        if (req.userId == null || req.userId.isBlank() || req.delta == 0) {
+            return ResponseEntity.badRequest().body("userId and delta (+1/-1) are required");
+        }
+
+        // Un vote par membre et par track : un doublon est refusé, un changement d'avis compte double.
+        // Le registre ne connaît que les membres présents (JOIN_ROOM/LEAVE_ROOM traités par le RoomActor).
+        int delta;
+        try {
+            delta = ledger.vote(roomId, req.userId, trackId, req.delta);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("User not in room");
+        }
+        if (delta == 0) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Already voted");
+        }
+
+        // Chemin rapide : le vote est accumulé hors acteur, le PlaylistActor l'applique au prochain FOLD_VOTES
+        if (votes.add(roomId, trackId, delta)) {
+            roomActor.tell(Message.of(RoomActor.FOLD_VOTES, null), null);
+        }
 
         return ResponseEntity.accepted().body("Vote request sent");
     }
 
+    /**
+     * Votes d'un membre sur les tracks en file (trackId -> +1 ou -1).
+     * GET /api/rooms/{roomId}/votes?userId=...
+     */
+    @GetMapping("/{roomId}/votes")
+    public ResponseEntity<Map<Long, Integer>> getUserVotes(
+            @PathVariable String roomId,
+            @RequestParam String userId
+    ) {
+        if (!rooms.containsKey(roomId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(ledger.votesOf(roomId, userId));
+    }
+
+    /**
+     * Profondeur des voies de mailbox (SYSTEM/CONTROL/BULK) des acteurs de la room.
+     * GET /api/rooms/{roomId}/mailbox
+     */
+    @GetMapping("/{roomId}/mailbox")
+    public ResponseEntity<Map<String, Map<MailboxLane, Integer>>> getMailboxDepths(@PathVariable String roomId) {
+        if (!rooms.containsKey(roomId)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Map<String, Map<MailboxLane, Integer>> depths = new LinkedHashMap<>();
+        actorSystem.mailboxDepths().forEach((path, lanes) -> {
+            if (path.equals("djroom/" + roomId) || path.equals("djroom/playlist-" + roomId)) {
+                depths.put(path, lanes);
+            }
+        });
+        return ResponseEntity.ok(depths);
+    }
+
     /**
      * Passe au track suivant.
      * POST /api/rooms/{roomId}/next
@@ -172,9 +272,14 @@ public class RoomController {
             return ResponseEntity.notFound().build();
         }
 
+        ResponseEntity<String> rejected = rejectIfOverloaded(roomActor);
+        if (rejected != null) {
+            return rejected;
+        }
+
         log.info("Next track requested for room {}", roomId);
 
-        roomActor.tell(Message.of("NEXT", null), null);
+        roomActor.tell(Message.of(RoomActor.NEXT, null).expiringIn(commandDeadlineMs), null);
 
         return ResponseEntity.accepted().body("Next track requested");
     }
@@ -194,9 +299,14 @@ public class RoomController {
             return ResponseEntity.notFound().build();
         }
 
+        ResponseEntity<String> rejected = rejectIfOverloaded(roomActor);
+        if (rejected != null) {
+            return rejected;
+        }
+
         log.info("Play requested for room {}", roomId);
 
-        roomActor.tell(Message.of("PLAY", null), null);
+        roomActor.tell(Message.of(RoomActor.PLAY, null).superseding().expiringIn(commandDeadlineMs), null);
 
         return ResponseEntity.accepted().body("Play requested");
     }
@@ -212,9 +322,14 @@ public class RoomController {
             return ResponseEntity.notFound().build();
         }
 
+        ResponseEntity<String> rejected = rejectIfOverloaded(roomActor);
+        if (rejected != null) {
+            return rejected;
+        }
+
         log.info("Pause requested for room {}", roomId);
 
-        roomActor.tell(Message.of("PAUSE", null), null);
+        roomActor.tell(Message.of(RoomActor.PAUSE, null).expiringIn(commandDeadlineMs), null);
 
         return ResponseEntity.accepted().body("Pause requested");
     }
@@ -234,11 +349,16 @@ public class RoomController {
             return ResponseEntity.notFound().build();
         }
 
+        ResponseEntity<String> rejected = rejectIfOverloaded(roomActor);
+        if (rejected != null) {
+            return rejected;
+        }
+
         // On loggue uniquement les méta-infos, pas le contenu du message (évite de logguer du contenu potentiellement sensible)
         log.info("Chat message requested in room {} (user={})", roomId, req.userId);
 
         roomActor.tell(
-                Message.of("SEND_CHAT", new RoomActor.SendChatMsg(req.userId, req.message)),
+                Message.of(RoomActor.SEND_CHAT, new RoomActor.SendChatMsg(req.userId, req.message)),
                 null
         );
 
@@ -259,7 +379,7 @@ public class RoomController {
             CompletableFuture<PlaylistActor.PlaylistStateMsg> future = new CompletableFuture<>();
 
             // Le future est passé en payload et complété par le PlaylistActor
-            playlistActor.tell(Message.of("GET_PLAYLIST", future), null);
+            playlistActor.tell(Message.of(PlaylistActor.GET_PLAYLIST, future).coalescing(), null);
 
             PlaylistActor.PlaylistStateMsg state = future.get(1, TimeUnit.SECONDS);
             return ResponseEntity.ok(state);
@@ -274,6 +394,53 @@ public class RoomController {
         }
     }
 
+    /**
+     * État complet de la room en un appel : room + playlist (djroom), player (djactor), chat (chat-actor).
+     * GET /api/rooms/{roomId}/snapshot
+     * Snapshot complet : ETag = versions combinées des sources (If-None-Match -> 304).
+     * Snapshot partiel (source en retard) : pas d'ETag, le détail est dans "sources".
+     */
+    @GetMapping("/{roomId}/snapshot")
+    public CompletableFuture<ResponseEntity<RoomSnapshot>> getSnapshot(
+            @PathVariable String roomId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        if (!rooms.containsKey(roomId)) {
+            return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
+        }
+
+        return snapshots.snapshot(roomId).thenApply(snapshot -> {
+            if (snapshot.version() == null) {
+                return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(snapshot);
+            }
+
+            String etag = "\"" + snapshot.version() + "\"";
+            if (etag.equals(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(snapshot);
+        });
+    }
+
+    /**
+     * Contrôle d'admission : 429 si la mailbox de la room est en retard, 503 si tout le service l'est,
+     * avec Retry-After. Retourne null si la requête est admise.
+     */
+    private <T> ResponseEntity<T> rejectIfOverloaded(ActorRef roomActor) {
+        AdmissionControl.Decision decision = admission.admit(roomActor);
+        if (decision == AdmissionControl.Decision.ACCEPT) {
+            return null;
+        }
+
+        log.warn("Request rejected ({}) for {}", decision, roomActor != null ? roomActor.path() : "new room");
+        HttpStatus status = decision == AdmissionControl.Decision.ROOM_OVERLOADED
+                ? HttpStatus.TOO_MANY_REQUESTS
+                : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(admission.retryAfterSeconds()))
+                .build();
+    }
+
     // =========================================================================
     // DTOs
     // =========================================================================
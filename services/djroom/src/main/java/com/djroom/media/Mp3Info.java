@@ -0,0 +1,24 @@
+package com.djroom.media;
+
+/**
+ * Métadonnées extraites d'un fichier MP3.
+ *
+ * @param title       titre ID3 (null si absent)
+ * @param artist      artiste ID3 (null si absent)
+ * @param album       album ID3 (null si absent)
+ * @param durationMs  durée exacte calculée depuis les trames (ou l'en-tête Xing/VBRI)
+ * @param frameCount  nombre de trames audio
+ * @param sampleRate  fréquence d'échantillonnage de la première trame
+ * @param audioStart  position de la première trame audio (après ID3v2)
+ * @param audioEnd    fin des données audio (avant ID3v1)
+ */
+public record Mp3Info(
+        String title,
+        String artist,
+        String album,
+        long durationMs,
+        long frameCount,
+        int sampleRate,
+        long audioStart,
+        long audioEnd
+) {}
@@ -0,0 +1,246 @@
+package com.djroom.media;
+
+import com.framework.media.MpegFrameHeader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lecteur MP3 minimal, sur fichier mappé en mémoire (aucune copie du contenu audio) :
+ * - tags ID3v2 (2.2 / 2.3 / 2.4 : titre, artiste, album) puis repli sur ID3v1
+ * - durée exacte : en-tête Xing/Info ou VBRI si présent, sinon parcours de tous les en-têtes de trame
+ */
+public final class Mp3Reader {
+
+    private Mp3Reader() {}
+
+    public static Mp3Info read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("MP3 file too large: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return read(buffer);
+        }
+    }
+
+    static Mp3Info read(ByteBuffer buffer) {
+        int limit = buffer.limit();
+        Tags tags = new Tags();
+
+        int audioStart = readId3v2(buffer, tags);
+        int audioEnd = limit;
+
+        // ID3v1 : 128 derniers octets "TAG"
+        if (limit - audioStart >= 128 && buffer.get(limit - 128) == 'T'
+                && buffer.get(limit - 127) == 'A' && buffer.get(limit - 126) == 'G') {
+            audioEnd = limit - 128;
+            if (tags.title == null) tags.title = latin1(buffer, limit - 125, 30);
+            if (tags.artist == null) tags.artist = latin1(buffer, limit - 95, 30);
+            if (tags.album == null) tags.album = latin1(buffer, limit - 65, 30);
+        }
+
+        int first = findFirstFrame(buffer, audioStart, audioEnd);
+        if (first < 0) {
+            return new Mp3Info(tags.title, tags.artist, tags.album, 0, 0, 0, audioStart, audioEnd);
+        }
+
+        MpegFrameHeader header = MpegFrameHeader.parse(buffer.getInt(first));
+
+        // En-tête VBR : nombre de trames donné directement
+        long frames = vbrFrameCount(buffer, first, header);
+        if (frames < 0) {
+            frames = countFrames(buffer, first, audioEnd);
+        }
+
+        long durationMs = frames * header.samples() * 1000L / header.sampleRate();
+        return new Mp3Info(tags.title, tags.artist, tags.album, durationMs, frames,
+                header.sampleRate(), first, audioEnd);
+    }
+
+    // ========== ID3v2 ==========
+
+    private static final class Tags {
+        String title;
+        String artist;
+        String album;
+    }
+
+    /**
+     * Lit le tag ID3v2 en tête de fichier.
+     *
+     * @return position des données audio (0 si pas de tag)
+     */
+    private static int readId3v2(ByteBuffer buffer, Tags tags) {
+        int limit = buffer.limit();
+        if (limit < 10 || buffer.get(0) != 'I' || buffer.get(1) != 'D' || buffer.get(2) != '3') {
+            return 0;
+        }
+
+        int major = buffer.get(3);
+        int flags = buffer.get(5) & 0xFF;
+        int tagSize = syncsafe(buffer, 6);
+        int end = (int) Math.min(limit, 10L + tagSize + ((flags & 0x10) != 0 ? 10 : 0));
+
+        int pos = 10;
+        if ((flags & 0x40) != 0 && major >= 3) {
+            // En-tête étendu : taille syncsafe en 2.4, taille + 4 en 2.3 (non signée : calcul en long)
+            if (pos + 4 > end) {
+                return end;
+            }
+            long extSize = major == 4 ? syncsafe(buffer, pos) : (buffer.getInt(pos) & 0xFFFFFFFFL) + 4;
+            if (extSize > end - pos) {
+                return end; // en-tête étendu incohérent : tags ignorés, l'audio reste lisible
+            }
+            pos += (int) extSize;
+        }
+
+        boolean v22 = major == 2;
+        int idLen = v22 ? 3 : 4;
+        int headerLen = v22 ? 6 : 10;
+
+        while (pos + headerLen <= end) {
+            if (buffer.get(pos) == 0) {
+                break; // padding
+            }
+            String id = latin1Raw(buffer, pos, idLen);
+            int frameSize;
+            if (v22) {
+                frameSize = ((buffer.get(pos + 3) & 0xFF) << 16) | ((buffer.get(pos + 4) & 0xFF) << 8) | (buffer.get(pos + 5) & 0xFF);
+            } else if (major == 4) {
+                frameSize = syncsafe(buffer, pos + 4);
+            } else {
+                frameSize = buffer.getInt(pos + 4);
+            }
+
+            int body = pos + headerLen;
+            // frameSize comparé au reste du tag : body + frameSize déborderait pour une taille corrompue
+            if (frameSize <= 0 || frameSize > end - body) {
+                break;
+            }
+
+            switch (id) {
+                case "TIT2", "TT2" -> tags.title = text(buffer, body, frameSize);
+                case "TPE1", "TP1" -> tags.artist = text(buffer, body, frameSize);
+                case "TALB", "TAL" -> tags.album = text(buffer, body, frameSize);
+                default -> { }
+            }
+            pos = body + frameSize;
+        }
+
+        return end;
+    }
+
+    /**
+     * Frame texte ID3 : 1 octet d'encodage puis le texte.
+     */
+    private static String text(ByteBuffer buffer, int pos, int size) {
+        if (size < 2) {
+            return null;
+        }
+        Charset charset = switch (buffer.get(pos)) {
+            case 1 -> StandardCharsets.UTF_16;
+            case 2 -> StandardCharsets.UTF_16BE;
+            case 3 -> StandardCharsets.UTF_8;
+            default -> StandardCharsets.ISO_8859_1;
+        };
+        byte[] bytes = new byte[size - 1];
+        buffer.get(pos + 1, bytes);
+        return clean(new String(bytes, charset));
+    }
+
+    private static String latin1(ByteBuffer buffer, int pos, int len) {
+        return clean(latin1Raw(buffer, pos, len));
+    }
+
+    private static String latin1Raw(ByteBuffer buffer, int pos, int len) {
+        byte[] bytes = new byte[len];
+        buffer.get(pos, bytes);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    private static String clean(String s) {
+        int nul = s.indexOf('\0');
+        String trimmed = (nul >= 0 ? s.substring(0, nul) : s).trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static int syncsafe(ByteBuffer buffer, int pos) {
+        return ((buffer.get(pos) & 0x7F) << 21) | ((buffer.get(pos + 1) & 0x7F) << 14)
+                | ((buffer.get(pos + 2) & 0x7F) << 7) | (buffer.get(pos + 3) & 0x7F);
+    }
+
+    // ========== Trames MPEG ==========
+
+    /**
+     * Première trame valide : on exige que la trame suivante soit aussi valide (évite les faux "sync").
+     */
+    private static int findFirstFrame(ByteBuffer buffer, int from, int end) {
+        for (int pos = from; pos + 4 <= end; pos++) {
+            if ((buffer.get(pos) & 0xFF) != 0xFF) {
+                continue;
+            }
+            MpegFrameHeader header = MpegFrameHeader.parse(buffer.getInt(pos));
+            if (header == null) {
+                continue;
+            }
+            int next = pos + header.length();
+            if (next + 4 > end || MpegFrameHeader.parse(buffer.getInt(next)) != null) {
+                return pos;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Nombre de trames lu dans un en-tête Xing/Info ou VBRI, ou -1 si absent.
+     * La trame d'en-tête elle-même ne contient pas d'audio et n'est pas comptée.
+     */
+    private static long vbrFrameCount(ByteBuffer buffer, int frame, MpegFrameHeader header) {
+        int sideInfo = header.mpeg1() ? (header.mono() ? 17 : 32) : (header.mono() ? 9 : 17);
+        int xing = frame + 4 + sideInfo;
+        if (xing + 12 <= buffer.limit()) {
+            int tag = buffer.getInt(xing);
+            if (tag == 0x58696E67 /* Xing */ || tag == 0x496E666F /* Info */) {
+                int flags = buffer.getInt(xing + 4);
+                if ((flags & 0x1) != 0) {
+                    return buffer.getInt(xing + 8) & 0xFFFFFFFFL;
+                }
+            }
+        }
+
+        int vbri = frame + 4 + 32;
+        if (vbri + 18 <= buffer.limit() && buffer.getInt(vbri) == 0x56425249 /* VBRI */) {
+            return buffer.getInt(vbri + 14) & 0xFFFFFFFFL;
+        }
+        return -1;
+    }
+
+    /**
+     * Parcours des en-têtes de trame (saut de trame en trame, resynchronisation si octets parasites).
+     */
+    private static long countFrames(ByteBuffer buffer, int from, int end) {
+        long frames = 0;
+        int pos = from;
+        while (pos + 4 <= end) {
+            MpegFrameHeader header = MpegFrameHeader.parse(buffer.getInt(pos));
+            if (header == null || header.length() <= 0) {
+                pos++;
+                continue;
+            }
+            if (pos + header.length() > end) {
+                break; // trame tronquée en fin de fichier
+            }
+            frames++;
+            pos += header.length();
+        }
+        return frames;
+    }
+}
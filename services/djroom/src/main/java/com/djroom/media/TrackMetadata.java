@@ -0,0 +1,11 @@
+package com.djroom.media;
+
+/**
+ * Métadonnées de référence d'un track, calculées côté serveur.
+ *
+ * @param contentHash      SHA-256 du fichier (hex), clé de cache indépendante de l'URL
+ * @param audioFingerprint SHA-256 des seules trames audio (hex), tags exclus :
+ *                         identique pour un même morceau re-tagué ou renommé
+ */
+public record TrackMetadata(String title, String artist, String album, long durationMs,
+                            String contentHash, String audioFingerprint) {}
@@ -0,0 +1,253 @@
+package com.djroom.media;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Métadonnées des tracks de la bibliothèque locale (titre ID3, durée exacte).
+ * - l'URL d'un track est rapprochée d'un fichier de la bibliothèque par son dernier segment
+ * - cache à deux niveaux : URL -> (taille, date, hash) puis hash -> métadonnées,
+ *   persisté en JSON pour ne jamais relire un fichier déjà analysé (même sous une autre URL)
+ * - empreinte audio (trames seules, tags exclus) calculée lors de la même lecture : sert à dédoublonner les playlists
+ * - lots (beginBatch / endBatch) : pendant un scan, le cache n'est persisté qu'une fois en fin de lot
+ *   (réécrire tout le fichier à chaque analyse rendrait un démarrage à froid quadratique)
+ * Singleton car les RoomActor sont instanciés par le framework (pas d'injection Spring).
+ */
+public final class TrackMetadataService {
+
+    private static final Logger log = LoggerFactory.getLogger(TrackMetadataService.class);
+
+    private static final TrackMetadataService INSTANCE = new TrackMetadataService();
+
+    public static TrackMetadataService get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Entrée du cache par URL : valide tant que le fichier n'a pas changé (taille + date).
+     */
+    record UrlEntry(long size, long lastModified, String contentHash) {}
+
+    /**
+     * Format du fichier de cache.
+     */
+    record CacheFile(Map<String, UrlEntry> urls, Map<String, TrackMetadata> tracks) {}
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final ConcurrentMap<String, UrlEntry> byUrl = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, TrackMetadata> byHash = new ConcurrentHashMap<>();
+
+    // Analyses demandées par les acteurs (lookupAsync) : un seul thread, les demandes sont servies dans l'ordre
+    private final ExecutorService analyzer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "track-metadata");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private volatile Path libraryDir = Path.of("song").toAbsolutePath().normalize();
+
+    // Fichier de cache persistant (null = cache en mémoire uniquement)
+    private volatile Path cacheFile;
+
+    // Lots en cours et modifications non persistées (accès sous le verrou du service)
+    private int batchDepth;
+    private boolean dirty;
+
+    private TrackMetadataService() {}
+
+    /**
+     * Configure la bibliothèque et recharge le cache persistant. Appelé au démarrage par MediaConfig.
+     */
+    public synchronized void configure(Path libraryDir, Path cacheFile) {
+        this.libraryDir = libraryDir.toAbsolutePath().normalize();
+        this.cacheFile = cacheFile;
+
+        byUrl.clear();
+        byHash.clear();
+        if (cacheFile != null && Files.isRegularFile(cacheFile)) {
+            try {
+                CacheFile loaded = mapper.readValue(cacheFile.toFile(), CacheFile.class);
+                if (loaded.urls() != null) byUrl.putAll(loaded.urls());
+                if (loaded.tracks() != null) byHash.putAll(loaded.tracks());
+                log.info("Track metadata cache loaded: {} urls, {} tracks", byUrl.size(), byHash.size());
+            } catch (IOException e) {
+                log.warn("Ignoring unreadable track metadata cache {}: {}", cacheFile, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Ouvre un lot : les analyses suivantes ne persistent plus le cache jusqu'au endBatch() correspondant.
+     */
+    public synchronized void beginBatch() {
+        batchDepth++;
+    }
+
+    /**
+     * Ferme un lot : le cache est persisté une seule fois si des analyses ont eu lieu.
+     */
+    public synchronized void endBatch() {
+        if (batchDepth > 0 && --batchDepth == 0 && dirty) {
+            save();
+        }
+    }
+
+    /**
+     * Métadonnées du track désigné par l'URL.
+     * Coût d'un hit : un stat du fichier. Un miss lit le fichier une seule fois (mmap).
+     *
+     * @return null si l'URL ne correspond à aucun fichier lisible de la bibliothèque
+     */
+    public TrackMetadata lookup(String url) {
+        Path file = localFile(url);
+        if (file == null || !Files.isRegularFile(file)) {
+            return null;
+        }
+
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            long size = attrs.size();
+            long lastModified = attrs.lastModifiedTime().toMillis();
+
+            UrlEntry entry = byUrl.get(url);
+            if (entry != null && entry.size() == size && entry.lastModified() == lastModified) {
+                TrackMetadata cached = byHash.get(entry.contentHash());
+                // Entrée d'un ancien cache sans empreinte : ré-analysée une fois
+                if (cached != null && cached.audioFingerprint() != null) {
+                    return cached;
+                }
+            }
+
+            return analyze(url, file, size, lastModified);
+
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to read track metadata for {}: {}", url, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * lookup() hors du thread appelant : un acteur ne bloque pas sur la lecture d'un fichier inconnu.
+     * Le future ne termine jamais en erreur (null si l'URL n'est pas résolue).
+     */
+    public CompletableFuture<TrackMetadata> lookupAsync(String url) {
+        return CompletableFuture.supplyAsync(() -> lookup(url), analyzer);
+    }
+
+    private synchronized TrackMetadata analyze(String url, Path file, long size, long lastModified) throws IOException {
+        TrackMetadata metadata;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            String hash = sha256(buffer);
+
+            // Même contenu déjà analysé (autre URL, fichier renommé / touché) : pas de nouvelle analyse
+            metadata = byHash.get(hash);
+            if (metadata == null || metadata.audioFingerprint() == null) {
+                Mp3Info info = Mp3Reader.read(buffer);
+                String fingerprint = sha256(buffer.slice((int) info.audioStart(), (int) (info.audioEnd() - info.audioStart())));
+                metadata = new TrackMetadata(info.title(), info.artist(), info.album(), info.durationMs(), hash, fingerprint);
+                byHash.put(hash, metadata);
+                log.info("Track analyzed: {} ({} ms, {} frames)", file.getFileName(), info.durationMs(), info.frameCount());
+            }
+        }
+
+        byUrl.put(url, new UrlEntry(size, lastModified, metadata.contentHash()));
+        dirty = true;
+        if (batchDepth == 0) {
+            save();
+        }
+        return metadata;
+    }
+
+    /**
+     * Fichier local correspondant à l'URL : dernier segment décodé, résolu dans la bibliothèque.
+     */
+    Path localFile(String url) {
+        if (url == null || url.isBlank()) {
+            return null;
+        }
+
+        String path = url;
+        int cut = indexOfAny(path, '?', '#');
+        if (cut >= 0) {
+            path = path.substring(0, cut);
+        }
+        String name = path.substring(path.lastIndexOf('/') + 1);
+        if (name.isEmpty()) {
+            return null;
+        }
+
+        try {
+            // '+' est littéral dans un chemin d'URL
+            name = URLDecoder.decode(name.replace("+", "%2B"), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+
+        Path root = libraryDir;
+        Path file = root.resolve(name).normalize();
+        return file.startsWith(root) && !file.equals(root) ? file : null;
+    }
+
+    /**
+     * Écriture atomique du cache (fichier temporaire puis renommage). Appelé sous le verrou du service.
+     */
+    private void save() {
+        dirty = false;
+        Path target = cacheFile;
+        if (target == null) {
+            return;
+        }
+        try {
+            Path dir = target.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, "track-metadata", ".tmp");
+            mapper.writeValue(tmp.toFile(), new CacheFile(Map.copyOf(byUrl), Map.copyOf(byHash)));
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to persist track metadata cache {}: {}", target, e.getMessage());
+        }
+    }
+
+    private static String sha256(ByteBuffer buffer) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(buffer.duplicate());
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int indexOfAny(String s, char a, char b) {
+        int ia = s.indexOf(a);
+        int ib = s.indexOf(b);
+        if (ia < 0) return ib;
+        if (ib < 0) return ia;
+        return Math.min(ia, ib);
+    }
+}
@@ -18,8 +18,16 @@ public class PlaylistTrack implements Serializable {
     private final Instant addedAt;
     private final String addedBy;
 
+    // Empreinte audio du fichier (null si le track n'est pas dans la bibliothèque locale)
+    private final String fingerprint;
+
     public PlaylistTrack(long id, String url, String title, long durationMs,
                          int score, Instant addedAt, String addedBy) {
+        this(id, url, title, durationMs, score, addedAt, addedBy, null);
+    }
+
+    public PlaylistTrack(long id, String url, String title, long durationMs,
+                         int score, Instant addedAt, String addedBy, String fingerprint) {
         this.id = id;
         this.url = Objects.requireNonNull(url, "URL cannot be null");
         this.title = Objects.requireNonNull(title, "Title cannot be null");
@@ -27,6 +35,7 @@ public class PlaylistTrack implements Serializable {
         this.score = Math.max(0, score);
         this.addedAt = Objects.requireNonNull(addedAt, "AddedAt cannot be null");
         this.addedBy = Objects.requireNonNull(addedBy, "AddedBy cannot be null");
+        this.fingerprint = fingerprint;
     }
 
     // Getters
@@ -37,6 +46,7 @@ public class PlaylistTrack implements Serializable {
     public int getScore() { return score; }
     public Instant getAddedAt() { return addedAt; }
     public String getAddedBy() { return addedBy; }
+    public String getFingerprint() { return fingerprint; }
 
 
     public void addScore(int delta) {
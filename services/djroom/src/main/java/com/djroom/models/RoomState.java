@@ -14,13 +14,22 @@ public class RoomState implements Serializable {
     private final RoomStatus status;
     private final int playlistSize;
 
+    // Version de l'état (change à chaque arrivée / départ de membre)
+    private final String version;
+
     public RoomState(String roomId, List<String> members, String hostUserId,
                      RoomStatus status, int playlistSize) {
+        this(roomId, members, hostUserId, status, playlistSize, null);
+    }
+
+    public RoomState(String roomId, List<String> members, String hostUserId,
+                     RoomStatus status, int playlistSize, String version) {
         this.roomId = roomId;
         this.members = members;
         this.hostUserId = hostUserId;
         this.status = status;
         this.playlistSize = playlistSize;
+        this.version = version;
     }
 
     // Getters
@@ -29,6 +38,7 @@ public class RoomState implements Serializable {
     public String getHostUserId() { return hostUserId; }
     public RoomStatus getStatus() { return status; }
     public int getPlaylistSize() { return playlistSize; }
+    public String getVersion() { return version; }
 
     public enum RoomStatus {
         ACTIVE, PAUSED, CLOSED
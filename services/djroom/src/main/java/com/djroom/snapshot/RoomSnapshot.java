@@ -0,0 +1,27 @@
+package com.djroom.snapshot;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Vue complète d'une room, assemblée depuis RoomActor, PlaylistActor, DJActor (djactor) et ChatActor (chat-actor).
+ *
+ * @param version versions combinées des quatre sources (null si le snapshot est partiel)
+ * @param player  état du DJActor ; positionMs est daté par positionAt (à extrapoler si PLAYING)
+ * @param sources état de chaque source (room, playlist, player, chat)
+ */
+public record RoomSnapshot(
+        String roomId,
+        String version,
+        RoomView room,
+        Object playlist,
+        Object player,
+        Object chat,
+        Map<String, SourceStatus> sources
+) {
+
+    /**
+     * Partie "room", avec la taille de playlist prise dans la réponse du PlaylistActor.
+     */
+    public record RoomView(String roomId, List<String> members, String hostUserId, String status, int playlistSize) {}
+}
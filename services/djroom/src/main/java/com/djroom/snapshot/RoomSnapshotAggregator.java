@@ -0,0 +1,223 @@
+package com.djroom.snapshot;
+
+import com.djroom.actors.PlaylistActor;
+import com.djroom.models.RoomState;
+import com.framework.actors.ActorSystem;
+import com.framework.actors.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Snapshot d'une room en un seul appel (scatter-gather) :
+ * - les quatre sources (RoomActor, PlaylistActor, DJActor distant, ChatActor distant) sont interrogées en parallèle
+ * - chaque source a son propre délai ; une source en retard donne sa dernière valeur connue (STALE) ou rien
+ * - un snapshot complet est mis en cache par room sous la combinaison des versions des sources :
+ *   tant qu'aucune ne change, le même snapshot (et le même ETag) est resservi sans nouvelle fusion
+ * Ce cache ne réduit pas les requêtes : les quatre sources sont interrogées à chaque appel (leur version
+ * n'est connue qu'en réponse). Il sert l'ETag (304 sans corps côté client) et les valeurs STALE.
+ * Seules les rooms ouvertes (openRoom -> forgetRoom) ont une entrée ; les autres sont assemblées sans cache.
+ */
+public class RoomSnapshotAggregator {
+
+    private static final Logger log = LoggerFactory.getLogger(RoomSnapshotAggregator.class);
+
+    /**
+     * Envoi d'une requête à un acteur (local ou distant) avec attente de la réponse.
+     */
+    @FunctionalInterface
+    public interface Asker {
+        CompletableFuture<Message> ask(String path, Message message, long timeoutMs);
+    }
+
+    private record Part(Object value, String version, SourceStatus status) {}
+
+    /**
+     * Dernières réponses reçues par source, et dernier snapshot complet, pour une room.
+     */
+    private static final class RoomCache {
+        final Map<String, Part> lastGood = new ConcurrentHashMap<>();
+        volatile RoomSnapshot merged;
+    }
+
+    private final Asker asker;
+    private final SnapshotSettings settings;
+    private final ConcurrentMap<String, RoomCache> cache = new ConcurrentHashMap<>();
+
+    public RoomSnapshotAggregator(ActorSystem system, SnapshotSettings settings) {
+        this((path, message, timeoutMs) -> system.ask(system.actorSelection(path), message, timeoutMs), settings);
+    }
+
+    RoomSnapshotAggregator(Asker asker, SnapshotSettings settings) {
+        this.asker = asker;
+        this.settings = settings;
+    }
+
+    /**
+     * Assemble le snapshot de la room ; se termine au plus tard après le plus long des délais par source.
+     */
+    public CompletableFuture<RoomSnapshot> snapshot(String roomId) {
+        // Pas de création ici : une requête concurrente de l'arrêt de la room ne recrée pas d'entrée
+        RoomCache cached = cache.get(roomId);
+        RoomCache rc = cached != null ? cached : new RoomCache();
+
+        CompletableFuture<Part> room = fetch(rc, "room", "djroom/" + roomId,
+                "GET_STATE", "ROOM_STATE", settings.roomTimeoutMs());
+        CompletableFuture<Part> playlist = fetch(rc, "playlist", "djroom/playlist-" + roomId,
+                "GET_PLAYLIST", "PLAYLIST_STATE", settings.playlistTimeoutMs());
+        CompletableFuture<Part> player = fetch(rc, "player", "djactor/dj-" + roomId,
+                "GET_STATE", "PLAYER_STATE", settings.playerTimeoutMs());
+        CompletableFuture<Part> chat = fetch(rc, "chat", "chat-actor/chat-" + roomId,
+                "GET_CHAT_STATE", "CHAT_STATE", settings.chatTimeoutMs());
+
+        return CompletableFuture.allOf(room, playlist, player, chat)
+                .thenApply(v -> merge(roomId, rc, room.join(), playlist.join(), player.join(), chat.join()));
+    }
+
+    /**
+     * Ouvre le cache d'une room créée (à appeler avant ses premiers snapshots).
+     */
+    public void openRoom(String roomId) {
+        cache.putIfAbsent(roomId, new RoomCache());
+    }
+
+    /**
+     * Oublie le cache d'une room arrêtée définitivement (dernières réponses et snapshot fusionné).
+     */
+    public void forgetRoom(String roomId) {
+        cache.remove(roomId);
+    }
+
+    /**
+     * Nombre de rooms en cache.
+     */
+    int cachedRooms() {
+        return cache.size();
+    }
+
+    private CompletableFuture<Part> fetch(RoomCache rc, String source, String path,
+                                          String requestType, String replyType, long timeoutMs) {
+        CompletableFuture<Message> reply;
+        try {
+            // Snapshots concurrents de la même room : une seule lecture par acteur (coalescée dans sa mailbox)
+            reply = asker.ask(path, Message.of(requestType, null).coalescing(), timeoutMs);
+        } catch (RuntimeException e) {
+            reply = CompletableFuture.failedFuture(e);
+        }
+
+        return reply.handle((message, error) -> {
+            if (error == null && replyType.equals(message.type()) && message.payload() != null) {
+                Part part = new Part(message.payload(), versionOf(message.payload()), SourceStatus.OK);
+                rc.lastGood.put(source, part);
+                return part;
+            }
+
+            if (unwrap(error) instanceof TimeoutException) {
+                Part last = rc.lastGood.get(source);
+                log.debug("Snapshot source {} timed out for {} ({} ms)", source, path, timeoutMs);
+                return last != null
+                        ? new Part(last.value(), last.version(), SourceStatus.STALE)
+                        : new Part(null, null, SourceStatus.TIMEOUT);
+            }
+
+            log.debug("Snapshot source {} unavailable for {}: {}", source, path,
+                    error != null ? unwrap(error).getMessage() : message.type());
+            return new Part(null, null, SourceStatus.UNAVAILABLE);
+        });
+    }
+
+    private RoomSnapshot merge(String roomId, RoomCache rc, Part room, Part playlist, Part player, Part chat) {
+        Map<String, SourceStatus> sources = new LinkedHashMap<>();
+        sources.put("room", room.status());
+        sources.put("playlist", playlist.status());
+        sources.put("player", player.status());
+        sources.put("chat", chat.status());
+
+        String version = null;
+        if (isFresh(room) && isFresh(playlist) && isFresh(player) && isFresh(chat)) {
+            version = digest(room.version() + "|" + playlist.version() + "|" + player.version() + "|" + chat.version());
+
+            RoomSnapshot cached = rc.merged;
+            if (cached != null && version.equals(cached.version())) {
+                return cached;
+            }
+        }
+
+        RoomSnapshot snapshot = new RoomSnapshot(
+                roomId,
+                version,
+                roomView(room.value(), playlist.value()),
+                playlist.value(),
+                player.value(),
+                chat.value(),
+                sources
+        );
+
+        if (version != null) {
+            rc.merged = snapshot;
+        }
+        return snapshot;
+    }
+
+    private static boolean isFresh(Part part) {
+        return part.status() == SourceStatus.OK && part.version() != null;
+    }
+
+    private static RoomSnapshot.RoomView roomView(Object room, Object playlist) {
+        if (!(room instanceof RoomState state)) {
+            return null;
+        }
+        int playlistSize = playlist instanceof PlaylistActor.PlaylistStateMsg p ? p.tracks().size() : 0;
+        return new RoomSnapshot.RoomView(
+                state.getRoomId(),
+                state.getMembers(),
+                state.getHostUserId(),
+                state.getStatus().name(),
+                playlistSize
+        );
+    }
+
+    /**
+     * Version annoncée par une source : champ typé en local, clé "version" pour une réponse JSON distante.
+     */
+    private static String versionOf(Object payload) {
+        if (payload instanceof RoomState state) {
+            return state.getVersion();
+        }
+        if (payload instanceof PlaylistActor.PlaylistStateMsg playlist) {
+            return playlist.version();
+        }
+        if (payload instanceof Map<?, ?> map && map.get("version") != null) {
+            return String.valueOf(map.get("version"));
+        }
+        return null;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException) && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    private static String digest(String versions) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(versions.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.djroom.snapshot;
+
+/**
+ * Délais d'attente par source du snapshot de room (ms).
+ */
+public record SnapshotSettings(long roomTimeoutMs, long playlistTimeoutMs, long playerTimeoutMs, long chatTimeoutMs) {}
@@ -0,0 +1,15 @@
+package com.djroom.snapshot;
+
+/**
+ * État d'une source dans un snapshot agrégé.
+ */
+public enum SourceStatus {
+    // Réponse reçue dans le délai
+    OK,
+    // Pas de réponse dans le délai : dernière valeur connue réutilisée
+    STALE,
+    // Pas de réponse dans le délai, et aucune valeur connue
+    TIMEOUT,
+    // Acteur introuvable ou réponse inattendue
+    UNAVAILABLE
+}
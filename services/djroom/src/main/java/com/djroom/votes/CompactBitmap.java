@@ -0,0 +1,408 @@
+package com.djroom.votes;
+
+import java.util.Arrays;
+
+/**
+ * Ensemble d'entiers positifs compressé, sur le modèle des bitmaps Roaring :
+ * - les 16 bits de poids fort sélectionnent un conteneur, les 16 bits de poids faible y sont rangés
+ * - conteneur tableau (valeurs triées) tant qu'il est peu rempli, bitmap de 8 Ko au-delà de 4096 valeurs
+ * - conteneur de plages (début, longueur) quand les valeurs sont contiguës (ids attribués à la suite)
+ * Le choix tableau/bitmap est automatique ; le passage en plages se fait via runOptimize().
+ * Non thread-safe : l'appelant synchronise.
+ */
+final class CompactBitmap {
+
+    // Au-delà, un tableau de char coûte plus qu'une bitmap de 65536 bits
+    static final int ARRAY_MAX = 4096;
+
+    private char[] keys = new char[0];
+    private Container[] containers = new Container[0];
+    private int size;
+
+    boolean add(int value) {
+        char high = (char) (value >>> 16);
+        int i = Arrays.binarySearch(keys, 0, size, high);
+        if (i < 0) {
+            i = -i - 1;
+            insertContainer(i, high, new ArrayContainer());
+        }
+
+        Container c = containers[i];
+        int before = c.cardinality();
+        containers[i] = c.add((char) value);
+        return containers[i].cardinality() > before;
+    }
+
+    boolean remove(int value) {
+        int i = Arrays.binarySearch(keys, 0, size, (char) (value >>> 16));
+        if (i < 0) {
+            return false;
+        }
+
+        Container c = containers[i];
+        int before = c.cardinality();
+        Container after = c.remove((char) value);
+        if (after.cardinality() == 0) {
+            removeContainer(i);
+        } else {
+            containers[i] = after;
+        }
+        return after.cardinality() < before;
+    }
+
+    boolean contains(int value) {
+        int i = Arrays.binarySearch(keys, 0, size, (char) (value >>> 16));
+        return i >= 0 && containers[i].contains((char) value);
+    }
+
+    int cardinality() {
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            total += containers[i].cardinality();
+        }
+        return total;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Choisit pour chaque conteneur la représentation la plus compacte (plages comprises).
+     */
+    void runOptimize() {
+        for (int i = 0; i < size; i++) {
+            containers[i] = containers[i].optimize();
+        }
+    }
+
+    /**
+     * Taille approximative des données (diagnostic).
+     */
+    long sizeInBytes() {
+        long bytes = 2L * size;
+        for (int i = 0; i < size; i++) {
+            bytes += containers[i].sizeInBytes();
+        }
+        return bytes;
+    }
+
+    private void insertContainer(int i, char high, Container c) {
+        if (size == keys.length) {
+            int capacity = Math.max(4, size * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+        }
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        System.arraycopy(containers, i, containers, i + 1, size - i);
+        keys[i] = high;
+        containers[i] = c;
+        size++;
+    }
+
+    private void removeContainer(int i) {
+        System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+        System.arraycopy(containers, i + 1, containers, i, size - i - 1);
+        size--;
+        containers[size] = null;
+    }
+
+    /**
+     * Conteneur des 16 bits de poids faible. add/remove retournent le conteneur à utiliser ensuite
+     * (lui-même, ou une autre représentation après conversion).
+     */
+    private sealed interface Container permits ArrayContainer, BitmapContainer, RunContainer {
+        Container add(char v);
+
+        Container remove(char v);
+
+        boolean contains(char v);
+
+        int cardinality();
+
+        Container optimize();
+
+        int sizeInBytes();
+    }
+
+    private static final class ArrayContainer implements Container {
+        private char[] values = new char[4];
+        private int card;
+
+        @Override
+        public Container add(char v) {
+            int i = Arrays.binarySearch(values, 0, card, v);
+            if (i >= 0) {
+                return this;
+            }
+            if (card >= ARRAY_MAX) {
+                return toBitmap().add(v);
+            }
+
+            i = -i - 1;
+            if (card == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, card * 2));
+            }
+            System.arraycopy(values, i, values, i + 1, card - i);
+            values[i] = v;
+            card++;
+            return this;
+        }
+
+        @Override
+        public Container remove(char v) {
+            int i = Arrays.binarySearch(values, 0, card, v);
+            if (i >= 0) {
+                System.arraycopy(values, i + 1, values, i, card - i - 1);
+                card--;
+            }
+            return this;
+        }
+
+        @Override
+        public boolean contains(char v) {
+            return Arrays.binarySearch(values, 0, card, v) >= 0;
+        }
+
+        @Override
+        public int cardinality() {
+            return card;
+        }
+
+        @Override
+        public Container optimize() {
+            int runs = 0;
+            for (int i = 0; i < card; i++) {
+                if (i == 0 || values[i] != values[i - 1] + 1) {
+                    runs++;
+                }
+            }
+            if (RunContainer.bytesFor(runs) >= sizeInBytes()) {
+                return this;
+            }
+
+            RunContainer run = new RunContainer();
+            for (int i = 0; i < card; i++) {
+                run.add(values[i]);
+            }
+            return run;
+        }
+
+        @Override
+        public int sizeInBytes() {
+            return 2 * card;
+        }
+
+        private BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < card; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    private static final class BitmapContainer implements Container {
+        private final long[] words = new long[1024];
+        private int card;
+
+        @Override
+        public Container add(char v) {
+            long bit = 1L << v;
+            int w = v >>> 6;
+            if ((words[w] & bit) == 0) {
+                words[w] |= bit;
+                card++;
+            }
+            return this;
+        }
+
+        @Override
+        public Container remove(char v) {
+            long bit = 1L << v;
+            int w = v >>> 6;
+            if ((words[w] & bit) != 0) {
+                words[w] &= ~bit;
+                card--;
+            }
+            return card <= ARRAY_MAX ? toArray() : this;
+        }
+
+        @Override
+        public boolean contains(char v) {
+            return (words[v >>> 6] & (1L << v)) != 0;
+        }
+
+        @Override
+        public int cardinality() {
+            return card;
+        }
+
+        @Override
+        public Container optimize() {
+            // Un début de plage = bit à 1 dont le bit précédent (éventuellement dans le mot précédent) est à 0
+            int runs = 0;
+            long previous = 0;
+            for (long word : words) {
+                runs += Long.bitCount(word & ~((word << 1) | (previous >>> 63)));
+                previous = word;
+            }
+            if (RunContainer.bytesFor(runs) >= sizeInBytes()) {
+                return this;
+            }
+
+            RunContainer run = new RunContainer();
+            forEach(run::add);
+            return run;
+        }
+
+        @Override
+        public int sizeInBytes() {
+            return 8 * words.length;
+        }
+
+        private ArrayContainer toArray() {
+            ArrayContainer array = new ArrayContainer();
+            forEach(array::add);
+            return array;
+        }
+
+        private void forEach(CharSink sink) {
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    sink.accept((char) ((w << 6) + Long.numberOfTrailingZeros(word)));
+                    word &= word - 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Plages triées et disjointes : début et longueur - 1 (une plage couvre au plus 65536 valeurs).
+     */
+    private static final class RunContainer implements Container {
+        private char[] starts = new char[2];
+        private char[] lengths = new char[2];
+        private int runs;
+        private int card;
+
+        static int bytesFor(int runs) {
+            return 4 * runs + 2;
+        }
+
+        @Override
+        public Container add(char v) {
+            int i = floorRun(v);
+            if (i >= 0 && v <= end(i)) {
+                return this;
+            }
+
+            boolean extendsPrevious = i >= 0 && end(i) + 1 == v;
+            boolean extendsNext = i + 1 < runs && starts[i + 1] == v + 1;
+
+            if (extendsPrevious && extendsNext) {
+                lengths[i] = (char) (end(i + 1) - starts[i]);
+                removeRun(i + 1);
+            } else if (extendsPrevious) {
+                lengths[i]++;
+            } else if (extendsNext) {
+                starts[i + 1] = v;
+                lengths[i + 1]++;
+            } else {
+                insertRun(i + 1, v, 0);
+            }
+            card++;
+            return this;
+        }
+
+        @Override
+        public Container remove(char v) {
+            int i = floorRun(v);
+            if (i < 0 || v > end(i)) {
+                return this;
+            }
+
+            int start = starts[i];
+            int end = end(i);
+            if (start == end) {
+                removeRun(i);
+            } else if (v == start) {
+                starts[i]++;
+                lengths[i]--;
+            } else if (v == end) {
+                lengths[i]--;
+            } else {
+                // Coupe la plage en deux autour de v
+                lengths[i] = (char) (v - 1 - start);
+                insertRun(i + 1, (char) (v + 1), end - v - 1);
+            }
+            card--;
+            return this;
+        }
+
+        @Override
+        public boolean contains(char v) {
+            int i = floorRun(v);
+            return i >= 0 && v <= end(i);
+        }
+
+        @Override
+        public int cardinality() {
+            return card;
+        }
+
+        @Override
+        public Container optimize() {
+            if (sizeInBytes() <= Math.min(2 * card, 8192)) {
+                return this;
+            }
+
+            Container other = card <= ARRAY_MAX ? new ArrayContainer() : new BitmapContainer();
+            for (int r = 0; r < runs; r++) {
+                for (int v = starts[r]; v <= end(r); v++) {
+                    other = other.add((char) v);
+                }
+            }
+            return other;
+        }
+
+        @Override
+        public int sizeInBytes() {
+            return bytesFor(runs);
+        }
+
+        private int end(int i) {
+            return starts[i] + lengths[i];
+        }
+
+        // Indice de la dernière plage commençant à v ou avant (-1 si aucune)
+        private int floorRun(char v) {
+            int i = Arrays.binarySearch(starts, 0, runs, v);
+            return i >= 0 ? i : -i - 2;
+        }
+
+        private void insertRun(int i, char start, int length) {
+            if (runs == starts.length) {
+                starts = Arrays.copyOf(starts, runs * 2);
+                lengths = Arrays.copyOf(lengths, runs * 2);
+            }
+            System.arraycopy(starts, i, starts, i + 1, runs - i);
+            System.arraycopy(lengths, i, lengths, i + 1, runs - i);
+            starts[i] = start;
+            lengths[i] = (char) length;
+            runs++;
+        }
+
+        private void removeRun(int i) {
+            System.arraycopy(starts, i + 1, starts, i, runs - i - 1);
+            System.arraycopy(lengths, i + 1, lengths, i, runs - i - 1);
+            runs--;
+        }
+    }
+
+    @FunctionalInterface
+    private interface CharSink {
+        void accept(char v);
+    }
+}
@@ -0,0 +1,114 @@
+package com.djroom.votes;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accumulateur de votes hors acteur (chemin rapide des POST /vote) :
+ * - chaque vote s'ajoute à un compteur strié (LongAdder) par room et par trackId, sans passer par la mailbox
+ * - le PlaylistActor récupère tous les deltas en attente sur un seul FOLD_VOTES, puis retrie une fois
+ * - au plus un FOLD_VOTES en attente par room : la charge de la mailbox ne dépend plus du nombre de votes
+ */
+public class VoteAccumulator {
+
+    private static final VoteAccumulator INSTANCE = new VoteAccumulator();
+
+    public static VoteAccumulator get() {
+        return INSTANCE;
+    }
+
+    // Nombre de votes en attente au-delà duquel on déclenche un fold sans attendre l'intervalle
+    public static final int DEFAULT_FOLD_BATCH = 64;
+
+    /**
+     * Deltas en attente pour une room.
+     */
+    private static final class RoomVotes {
+        final ConcurrentMap<Long, LongAdder> deltas = new ConcurrentHashMap<>();
+        final LongAdder pending = new LongAdder();
+        final AtomicBoolean foldRequested = new AtomicBoolean();
+    }
+
+    private final ConcurrentMap<String, RoomVotes> rooms = new ConcurrentHashMap<>();
+    private volatile int foldBatch = DEFAULT_FOLD_BATCH;
+
+    VoteAccumulator() {}
+
+    public void configure(int foldBatch) {
+        this.foldBatch = Math.max(1, foldBatch);
+    }
+
+    /**
+     * Ajoute un vote en attente.
+     * Retourne true si l'appelant doit envoyer FOLD_VOTES maintenant (seuil atteint, aucun fold déjà demandé).
+     */
+    public boolean add(String roomId, long trackId, int delta) {
+        RoomVotes votes = rooms.computeIfAbsent(roomId, k -> new RoomVotes());
+        votes.deltas.computeIfAbsent(trackId, k -> new LongAdder()).add(delta);
+        votes.pending.increment();
+
+        return votes.pending.sum() >= foldBatch && votes.foldRequested.compareAndSet(false, true);
+    }
+
+    /**
+     * Rooms ayant des votes en attente et pas encore de fold demandé (tick périodique).
+     * Chaque room retournée est marquée : l'appelant doit lui envoyer FOLD_VOTES.
+     */
+    public List<String> claimPendingRooms() {
+        return rooms.entrySet().stream()
+                .filter(e -> e.getValue().pending.sum() > 0)
+                .filter(e -> e.getValue().foldRequested.compareAndSet(false, true))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * Récupère et remet à zéro les deltas en attente d'une room (appelé par le PlaylistActor sur FOLD_VOTES).
+     * Un vote arrivé pendant la récupération n'est pas perdu : il reste en attente pour le fold suivant.
+     */
+    public Map<Long, Integer> drain(String roomId) {
+        RoomVotes votes = rooms.get(roomId);
+        if (votes == null) {
+            return Map.of();
+        }
+
+        // Libéré avant la lecture : un vote concurrent pourra redemander un fold
+        votes.foldRequested.set(false);
+
+        Map<Long, Integer> drained = new HashMap<>();
+        long count = votes.pending.sum();
+        votes.pending.add(-count);
+
+        votes.deltas.forEach((trackId, adder) -> {
+            long sum = adder.sum();
+            if (sum != 0) {
+                // On retranche ce qui a été lu plutôt que reset() : les ajouts concurrents sont conservés
+                adder.add(-sum);
+                drained.put(trackId, (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, sum)));
+            }
+        });
+        return drained;
+    }
+
+    /**
+     * Oublie les deltas en attente d'un track (retiré de la file ou devenu le track courant).
+     */
+    public void discard(String roomId, long trackId) {
+        RoomVotes votes = rooms.get(roomId);
+        if (votes != null) {
+            votes.deltas.remove(trackId);
+        }
+    }
+
+    /**
+     * Oublie une room fermée (arrêt définitif de son RoomActor, ou playlist recréée vide).
+     */
+    public void forgetRoom(String roomId) {
+        rooms.remove(roomId);
+    }
+}
@@ -0,0 +1,164 @@
+package com.djroom.votes;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registre des votes par room : un seul vote (+1 ou -1) par membre et par track.
+ * - les userId sont encodés en entiers (dictionnaire par room, attribués à la suite)
+ * - chaque track garde deux bitmaps compressées (votes pour / votes contre) indexées par ces entiers
+ * Détection de doublon en O(1), et "qu'ai-je voté ?" sans stocker d'ensemble de chaînes par track.
+ * Seuls les membres présents votent : le RoomActor les enregistre (join/leave) au fil des JOIN_ROOM/LEAVE_ROOM.
+ */
+public class VoteLedger {
+
+    private static final VoteLedger INSTANCE = new VoteLedger();
+
+    public static VoteLedger get() {
+        return INSTANCE;
+    }
+
+    // Recompression (plages) d'une bitmap toutes les N modifications
+    private static final int OPTIMIZE_EVERY = 1024;
+
+    private final ConcurrentMap<String, RoomLedger> rooms = new ConcurrentHashMap<>();
+
+    VoteLedger() {}
+
+    /**
+     * Un membre rejoint la room : il peut voter.
+     */
+    public void join(String roomId, String userId) {
+        rooms.computeIfAbsent(roomId, k -> new RoomLedger()).join(userId);
+    }
+
+    /**
+     * Un membre quitte la room : ses votes passés restent, les suivants sont refusés.
+     */
+    public void leave(String roomId, String userId) {
+        RoomLedger ledger = rooms.get(roomId);
+        if (ledger != null) {
+            ledger.leave(userId);
+        }
+    }
+
+    /**
+     * Enregistre le vote d'un membre et retourne le delta à appliquer au score :
+     * +1/-1 pour un premier vote, +2/-2 si le membre change d'avis, 0 si le vote est un doublon.
+     * IllegalStateException si l'utilisateur n'est pas (ou plus) membre de la room.
+     */
+    public int vote(String roomId, String userId, long trackId, int delta) {
+        if (delta == 0) {
+            throw new IllegalArgumentException("Vote delta must be +1 or -1");
+        }
+        RoomLedger ledger = rooms.get(roomId);
+        if (ledger == null) {
+            throw new IllegalStateException("User " + userId + " is not a member of room " + roomId);
+        }
+        return ledger.vote(roomId, userId, trackId, delta > 0);
+    }
+
+    /**
+     * Votes d'un membre dans la room : trackId -> +1 ou -1 (tracks en file uniquement).
+     */
+    public Map<Long, Integer> votesOf(String roomId, String userId) {
+        RoomLedger ledger = rooms.get(roomId);
+        return ledger == null ? Map.of() : ledger.votesOf(userId);
+    }
+
+    /**
+     * Oublie les votes d'un track (retiré de la file ou devenu le track courant).
+     */
+    public void forgetTrack(String roomId, long trackId) {
+        RoomLedger ledger = rooms.get(roomId);
+        if (ledger != null) {
+            ledger.forget(trackId);
+        }
+    }
+
+    /**
+     * Oublie une room fermée (arrêt définitif de son RoomActor, ou playlist recréée vide).
+     */
+    public void forgetRoom(String roomId) {
+        rooms.remove(roomId);
+    }
+
+    private static final class TrackVotes {
+        final CompactBitmap up = new CompactBitmap();
+        final CompactBitmap down = new CompactBitmap();
+        int mutations;
+
+        void touched() {
+            if (++mutations % OPTIMIZE_EVERY == 0) {
+                up.runOptimize();
+                down.runOptimize();
+            }
+        }
+    }
+
+    /**
+     * Registre d'une room ; les appels concurrents des contrôleurs sont sérialisés par room.
+     */
+    private static final class RoomLedger {
+        // Dictionnaire userId -> entier : conservé au départ du membre (ses votes restent indexés)
+        private final Map<String, Integer> members = new HashMap<>();
+        private final Set<String> present = new HashSet<>();
+        private final Map<Long, TrackVotes> tracks = new LinkedHashMap<>();
+
+        synchronized void join(String userId) {
+            present.add(userId);
+        }
+
+        synchronized void leave(String userId) {
+            present.remove(userId);
+        }
+
+        synchronized int vote(String roomId, String userId, long trackId, boolean up) {
+            if (!present.contains(userId)) {
+                throw new IllegalStateException("User " + userId + " is not a member of room " + roomId);
+            }
+            int member = members.computeIfAbsent(userId, k -> members.size());
+            TrackVotes votes = tracks.computeIfAbsent(trackId, k -> new TrackVotes());
+
+            CompactBitmap same = up ? votes.up : votes.down;
+            CompactBitmap opposite = up ? votes.down : votes.up;
+
+            if (same.contains(member)) {
+                return 0;
+            }
+
+            same.add(member);
+            boolean switched = opposite.remove(member);
+            votes.touched();
+
+            int delta = switched ? 2 : 1;
+            return up ? delta : -delta;
+        }
+
+        synchronized Map<Long, Integer> votesOf(String userId) {
+            Integer member = members.get(userId);
+            if (member == null) {
+                return Map.of();
+            }
+
+            Map<Long, Integer> result = new LinkedHashMap<>();
+            tracks.forEach((trackId, votes) -> {
+                if (votes.up.contains(member)) {
+                    result.put(trackId, 1);
+                } else if (votes.down.contains(member)) {
+                    result.put(trackId, -1);
+                }
+            });
+            return result;
+        }
+
+        synchronized void forget(long trackId) {
+            tracks.remove(trackId);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.djroom.actors;
 
 import com.djroom.models.PlaylistTrack;
+import com.djroom.votes.VoteAccumulator;
+import com.djroom.votes.VoteLedger;
 import com.framework.actors.Message;
 import com.testsupport.ActorTestKit.*;
 import org.junit.jupiter.api.*;
@@ -31,6 +33,16 @@ class PlaylistActorTest {
         ctx.registerSelection("djactor/dj-room-123", djActorProbe);
 
         actor.preStart(ctx);
+
+        // Membres de la room (votes et ajouts en doublon passent par le registre)
+        VoteLedger.get().forgetRoom("room-123");
+        VoteLedger.get().join("room-123", "u1");
+        VoteLedger.get().join("room-123", "u2");
+    }
+
+    @AfterEach
+    void tearDown() {
+        VoteLedger.get().forgetRoom("room-123");
     }
 
     @Test
@@ -67,7 +79,7 @@ class PlaylistActorTest {
         actor.onReceive(Message.of("ADD_TRACK", new PlaylistActor.AddTrackMsg("url1", "t1", 1000, "u1")), ctx).join();
 
         senderProbe.clear();
-        actor.onReceive(Message.of("VOTE_TRACK", new PlaylistActor.VoteTrackMsg(1, +1)), ctx).join();
+        actor.onReceive(Message.of("VOTE_TRACK", new PlaylistActor.VoteTrackMsg("u1", 1, +1)), ctx).join();
 
         var last = senderProbe.last();
         assertNotNull(last);
@@ -87,7 +99,7 @@ class PlaylistActorTest {
         actor.onReceive(Message.of("ADD_TRACK", new PlaylistActor.AddTrackMsg("url2", "t2", 1000, "u2")), ctx).join();
 
         // vote track 2 to make it top
-        actor.onReceive(Message.of("VOTE_TRACK", new PlaylistActor.VoteTrackMsg(2, +10)), ctx).join();
+        actor.onReceive(Message.of("VOTE_TRACK", new PlaylistActor.VoteTrackMsg("u1", 2, +10)), ctx).join();
 
         senderProbe.clear();
         djActorProbe.clear();
@@ -131,4 +143,93 @@ class PlaylistActorTest {
         assertEquals("t1", tracks.get(0).getTitle());
         assertEquals("t2", tracks.get(1).getTitle());
     }
+
+    @Test
+    void addTrack_withQueuedFingerprint_shouldMergeIntoVote() {
+        ctx.setSender(senderProbe);
+        actor.onReceive(Message.of("ADD_TRACK", new PlaylistActor.AddTrackMsg("url0", "t0", 1000, "u1")), ctx).join();
+        actor.onReceive(Message.of("ADD_TRACK", new PlaylistActor.AddTrackMsg("url1", "t1", 1000, "u1", "fp-1")), ctx).join();
+
+        // Même contenu audio sous une autre URL / un autre titre
+        actor.onReceive(Message.of("ADD_TRACK", new PlaylistActor.AddTrackMsg("url1-copy", "t1 (copy)", 1000, "u2", "fp-1")), ctx).join();
+
+        var last = senderProbe.last();
+        assertEquals("TRACK_MERGED", last.message().type());
+        PlaylistActor.TrackMergedMsg merged = (PlaylistActor.TrackMergedMsg) last.message().payload();
+        assertEquals("t1", merged.track().getTitle());
+        assertEquals(1, merged.track().getScore());
+        assertEquals("u2", merged.addedBy());
+
+        // Ré-ajout par le même membre (encore une autre URL) : déjà compté, le score ne bouge pas
+        actor.onReceive(Message.of("ADD_TRACK", new PlaylistActor.AddTrackMsg("url1-again", "t1", 1000, "u2", "fp-1")), ctx).join();
+        assertEquals("TRACK_MERGED", senderProbe.last().message().type());
+        assertEquals(1, ((PlaylistActor.TrackMergedMsg) senderProbe.last().message().payload()).track().getScore());
+
+        // Non-membre : fusion sans vote
+        actor.onReceive(Message.of("ADD_TRACK", new PlaylistActor.AddTrackMsg("url1-other", "t1", 1000, "u9", "fp-1")), ctx).join();
+        assertEquals(1, ((PlaylistActor.TrackMergedMsg) senderProbe.last().message().payload()).track().getScore());
+
+        // Une fois sorti de la file, le même contenu peut être ré-ajouté
+        actor.onReceive(Message.of("GET_NEXT_TRACK", null), ctx).join();
+        actor.onReceive(Message.of("ADD_TRACK", new PlaylistActor.AddTrackMsg("url1", "t1", 1000, "u1", "fp-1")), ctx).join();
+        assertEquals("TRACK_ADDED", senderProbe.last().message().type());
+    }
+
+    @Test
+    void trackEnded_shouldLoadNextTrack_onlyForCurrentTrack() {
+        ctx.setSender(senderProbe);
+        actor.onReceive(Message.of("ADD_TRACK", new PlaylistActor.AddTrackMsg("url1", "t1", 1000, "u1")), ctx).join();
+        actor.onReceive(Message.of("ADD_TRACK", new PlaylistActor.AddTrackMsg("url2", "t2", 1000, "u1")), ctx).join();
+        actor.onReceive(Message.of("ADD_TRACK", new PlaylistActor.AddTrackMsg("url3", "t3", 1000, "u1")), ctx).join();
+
+        // Fin annoncée d'un track qui n'est pas le courant : ignorée
+        djActorProbe.clear();
+        actor.onReceive(Message.of("TRACK_ENDED", new PlaylistActor.TrackEndedMsg(99)), ctx).join();
+        assertTrue(djActorProbe.received().isEmpty());
+
+        actor.onReceive(Message.of("TRACK_ENDED", new PlaylistActor.TrackEndedMsg(1)), ctx).join();
+
+        var load = (PlaylistActor.LoadTrackMsg) djActorProbe.last().message().payload();
+        assertEquals("t2", load.title());
+    }
+
+    @Test
+    void foldVotes_shouldApplyPendingDeltas_andReorderOnce() {
+        VoteAccumulator.get().drain("room-123");
+        ctx.setSender(senderProbe);
+        actor.onReceive(Message.of("ADD_TRACK", new PlaylistActor.AddTrackMsg("url1", "t1", 1000, "u1")), ctx).join();
+        actor.onReceive(Message.of("ADD_TRACK", new PlaylistActor.AddTrackMsg("url2", "t2", 1000, "u1")), ctx).join();
+        actor.onReceive(Message.of("ADD_TRACK", new PlaylistActor.AddTrackMsg("url3", "t3", 1000, "u1")), ctx).join();
+
+        for (int i = 0; i < 5; i++) {
+            VoteAccumulator.get().add("room-123", 3, 1);
+        }
+        VoteAccumulator.get().add("room-123", 2, 1);
+        VoteAccumulator.get().add("room-123", 42, 1);
+
+        actor.onReceive(Message.of("FOLD_VOTES", null), ctx).join();
+
+        CompletableFuture<PlaylistActor.PlaylistStateMsg> future = new CompletableFuture<>();
+        actor.onReceive(Message.of("GET_PLAYLIST", future), ctx).join();
+        List<PlaylistTrack> tracks = future.join().tracks();
+
+        assertEquals(List.of(3L, 2L), tracks.stream().map(PlaylistTrack::getId).toList());
+        assertEquals(5, tracks.get(0).getScore());
+        assertEquals(1, tracks.get(1).getScore());
+    }
+
+    @Test
+    void supervisedRestart_shouldKeepVoteLedger() throws Exception {
+        VoteLedger.get().forgetRoom("room-123");
+        VoteLedger.get().join("room-123", "u1");
+        assertEquals(1, VoteLedger.get().vote("room-123", "u1", 1, +1));
+
+        // Redémarrage supervisé : postStop puis preStart sur la même instance
+        actor.postStop(ctx);
+        actor.preStart(ctx);
+
+        // Le membre a déjà voté : un second vote identique reste sans effet
+        assertEquals(0, VoteLedger.get().vote("room-123", "u1", 1, +1));
+        VoteLedger.get().forgetRoom("room-123");
+    }
 }
@@ -0,0 +1,92 @@
+package com.djroom.actors;
+
+import com.djroom.votes.VoteAccumulator;
+import com.djroom.votes.VoteLedger;
+import com.framework.actors.Message;
+import com.testsupport.ActorTestKit.*;
+import org.junit.jupiter.api.*;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoomActorTest {
+
+    private RoomActor actor;
+    private FakeActorContext ctx;
+    private ProbeActorRef self;
+    private ProbeActorRef playlistProbe;
+
+    @BeforeEach
+    void setup() throws Exception {
+        actor = new RoomActor("room-1");
+
+        self = new ProbeActorRef("djroom/room-1");
+        playlistProbe = new ProbeActorRef("djroom/playlist-room-1");
+        ctx = new FakeActorContext(self);
+        ctx.registerChild("playlist-room-1", playlistProbe);
+        ctx.registerSelection("djactor/dj-room-1", new ProbeActorRef("djactor/dj-room-1"));
+        ctx.registerSelection("chat-actor/chat-room-1", new ProbeActorRef("chat-actor/chat-room-1"));
+
+        actor.preStart(ctx);
+        actor.onReceive(Message.of("JOIN_ROOM", new RoomActor.JoinRoomMsg("u1")), ctx).join();
+    }
+
+    @AfterEach
+    void tearDown() {
+        VoteLedger.get().forgetRoom("room-1");
+        VoteAccumulator.get().forgetRoom("room-1");
+    }
+
+    @Test
+    void addTrack_shouldAnalyzeOffActor_thenForwardResultToPlaylist() throws Exception {
+        var add = new RoomActor.AddTrackMsg("u1", "http://example.com/unknown.mp3", "client title", 1234);
+        actor.onReceive(Message.of("ADD_TRACK", add), ctx).join();
+
+        // Le handler rend la main sans attendre l'analyse : rien n'est encore parti vers la playlist
+        assertTrue(playlistProbe.received().isEmpty());
+
+        // Le résultat revient à l'acteur sous forme de message
+        long deadline = System.currentTimeMillis() + 2000;
+        while (self.received().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        Message analyzed = self.last().message();
+        assertEquals("TRACK_ANALYZED", analyzed.type());
+
+        actor.onReceive(analyzed, ctx).join();
+        Message forwarded = playlistProbe.last().message();
+        assertEquals("ADD_TRACK", forwarded.type());
+        var msg = (PlaylistActor.AddTrackMsg) forwarded.payload();
+        // Fichier hors bibliothèque : valeurs du client conservées
+        assertEquals("client title", msg.title());
+        assertEquals(1234, msg.durationMs());
+    }
+
+    @Test
+    void addTrack_shouldBeRejected_forNonMember() {
+        ProbeActorRef sender = new ProbeActorRef("test/sender");
+        ctx.setSender(sender);
+
+        actor.onReceive(Message.of("ADD_TRACK", new RoomActor.AddTrackMsg("u2", "url", "t", 1000)), ctx).join();
+
+        assertEquals("ERROR", sender.last().message().type());
+        assertTrue(self.received().isEmpty());
+    }
+
+    @Test
+    void supervisedRestart_shouldResetVotes_forTheNewPlaylist() throws Exception {
+        // Vote rapide (contrôleur) sur le track 1 de la première playlist, pas encore replié
+        assertEquals(1, VoteLedger.get().vote("room-1", "u1", 1, +1));
+        VoteAccumulator.get().add("room-1", 1, 1);
+
+        // Redémarrage supervisé : enfants arrêtés, postStop puis preStart sur la même instance
+        actor.postStop(ctx);
+        actor.preStart(ctx);
+
+        // Nouvelle playlist, ids repartant de 1 : le membre peut voter, aucun delta périmé ne sera replié
+        assertEquals(Map.of(), VoteAccumulator.get().drain("room-1"));
+        assertEquals(1, VoteLedger.get().vote("room-1", "u1", 1, +1));
+        assertThrows(IllegalStateException.class, () -> VoteLedger.get().vote("room-1", "u2", 1, +1));
+    }
+}
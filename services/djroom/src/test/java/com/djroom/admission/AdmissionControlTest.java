@@ -0,0 +1,50 @@
+package com.djroom.admission;
+
+import com.framework.actors.ActorRef;
+import com.framework.actors.Message;
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlTest {
+
+    /**
+     * RoomActor simulé : profondeur et âge de mailbox fixés par le test.
+     */
+    static final class LoadedRef implements ActorRef {
+        int depth;
+        long ageMs;
+
+        @Override public String path() { return "djroom/room-1"; }
+        @Override public boolean isLocal() { return true; }
+        @Override public void tell(Message message, ActorRef sender) {}
+        @Override public int mailboxDepth() { return depth; }
+        @Override public long oldestMessageAgeMs() { return ageMs; }
+    }
+
+    @Test
+    void admit_shouldRejectOverloadedRoom_byDepthOrAge() {
+        AdmissionControl admission = new AdmissionControl(() -> 0, new AdmissionSettings(100, 1000, 0, 1));
+        LoadedRef room = new LoadedRef();
+
+        assertEquals(AdmissionControl.Decision.ACCEPT, admission.admit(room));
+
+        room.depth = 101;
+        assertEquals(AdmissionControl.Decision.ROOM_OVERLOADED, admission.admit(room));
+
+        room.depth = 10;
+        room.ageMs = 1500;
+        assertEquals(AdmissionControl.Decision.ROOM_OVERLOADED, admission.admit(room));
+    }
+
+    @Test
+    void admit_shouldRejectEveryRoom_whenServiceOverloaded() {
+        AtomicInteger total = new AtomicInteger(50_000);
+        AdmissionControl admission = new AdmissionControl(total::get, new AdmissionSettings(100, 1000, 20_000, 1));
+
+        assertEquals(AdmissionControl.Decision.SERVICE_OVERLOADED, admission.admit(new LoadedRef()));
+        assertEquals(AdmissionControl.Decision.SERVICE_OVERLOADED, admission.admit(null));
+    }
+}
@@ -0,0 +1,81 @@
+package com.djroom.catalog;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latence d'une requête d'autocomplétion sur un catalogue de 20 000 morceaux (objectif : p99 sous la milliseconde).
+ * Mode SampleTime : JMH rapporte la distribution (p50, p99, p99.9) et pas seulement la moyenne.
+ * - prefix : un seul mot, servi par le top-K du trie
+ * - twoWords : intersection des postings puis préfixe du dernier mot
+ * - miss : préfixe absent
+ *
+ * Lancement (hors build, les benchmarks ne sont pas exécutés par surefire) :
+ *   mvn -pl services/djroom test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *       -Dexec.args="-cp %classpath org.openjdk.jmh.Main CatalogIndexBenchmark"
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CatalogIndexBenchmark {
+
+    private static final String[] WORDS = {
+            "love", "night", "blue", "dance", "fire", "heart", "summer", "rain", "city", "dream",
+            "light", "road", "river", "gold", "moon", "star", "wild", "soul", "midnight", "paradise"
+    };
+
+    @Param({"20000"})
+    int tracks;
+
+    private CatalogIndex index;
+    private String[] prefixes;
+    private String[] twoWords;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        List<CatalogEntry> entries = new ArrayList<>(tracks);
+        for (int i = 0; i < tracks; i++) {
+            String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+            String artist = "artist" + random.nextInt(tracks / 10);
+            entries.add(new CatalogEntry("t" + i + ".mp3", "http://localhost/t" + i + ".mp3", title, artist, 180_000));
+        }
+        index = CatalogIndex.build(entries);
+
+        prefixes = new String[WORDS.length];
+        twoWords = new String[WORDS.length];
+        for (int i = 0; i < WORDS.length; i++) {
+            prefixes[i] = WORDS[i].substring(0, 2);
+            twoWords[i] = WORDS[i] + " " + WORDS[(i + 7) % WORDS.length].substring(0, 3);
+        }
+    }
+
+    private int nextIndex() {
+        int i = next;
+        next = (i + 1) % WORDS.length;
+        return i;
+    }
+
+    @Benchmark
+    public List<CatalogEntry> prefix() {
+        return index.search(prefixes[nextIndex()], 10);
+    }
+
+    @Benchmark
+    public List<CatalogEntry> twoWords() {
+        return index.search(twoWords[nextIndex()], 10);
+    }
+
+    @Benchmark
+    public List<CatalogEntry> miss() {
+        return index.search("zzq", 10);
+    }
+}
@@ -0,0 +1,65 @@
+package com.djroom.catalog;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogIndexTest {
+
+    private static CatalogEntry entry(String fileName, String title, String artist) {
+        return new CatalogEntry(fileName, "http://localhost/" + fileName, title, artist, 180_000);
+    }
+
+    private static List<String> files(List<CatalogEntry> entries) {
+        return entries.stream().map(CatalogEntry::fileName).toList();
+    }
+
+    @Test
+    void search_shouldMatchLastWordAsPrefix_andFoldAccents() {
+        CatalogIndex index = CatalogIndex.build(List.of(
+                entry("a.mp3", "Jamais Vu", "Céline"),
+                entry("b.mp3", "Jazz Café", "Trio"),
+                entry("c.mp3", "Rock", "Band")
+        ));
+
+        assertEquals(List.of("a.mp3", "b.mp3"), files(index.search("ja", 10)));
+        assertEquals(List.of("b.mp3"), files(index.search("CAFE", 10)));
+        assertEquals(List.of("a.mp3"), files(index.search("celine jam", 10)));
+        assertTrue(index.search("celine rock", 10).isEmpty());
+    }
+
+    @Test
+    void putAndRemove_shouldBeVisibleToSearch() {
+        CatalogIndex index = CatalogIndex.build(List.of(entry("a.mp3", "Blue Monday", "New Order")));
+
+        index.put(entry("b.mp3", "Blue Hotel", "Chris Isaak"));
+        assertEquals(List.of("a.mp3", "b.mp3"), files(index.search("blue", 10)));
+
+        index.remove("a.mp3");
+        assertEquals(List.of("b.mp3"), files(index.search("blue", 10)));
+
+        // Ré-indexation d'un fichier modifié : l'ancien titre ne répond plus
+        index.put(entry("b.mp3", "Wicked Game", "Chris Isaak"));
+        assertTrue(index.search("blue", 10).isEmpty());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void search_shouldFindMatchesBeyondTopK() {
+        List<CatalogEntry> entries = new ArrayList<>();
+        for (int i = 0; i < CatalogIndex.TOP_K * 3; i++) {
+            entries.add(entry("t" + i + ".mp3", "Track " + i, "Artist"));
+        }
+        CatalogIndex index = CatalogIndex.build(entries);
+
+        for (int i = 0; i < CatalogIndex.TOP_K * 2; i++) {
+            index.remove("t" + i + ".mp3");
+        }
+
+        assertEquals(CatalogIndex.TOP_K, index.search("tra", 100).size());
+        assertEquals(5, index.search("track", 5).size());
+    }
+}
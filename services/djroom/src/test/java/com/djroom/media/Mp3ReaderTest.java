@@ -0,0 +1,132 @@
+package com.djroom.media;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Mp3ReaderTest {
+
+    // MPEG1 Layer III, 128 kbps, 44.1 kHz, stéréo, sans padding : 417 octets / 1152 échantillons
+    private static final int FRAME_HEADER = 0xFFFB9000;
+    private static final int FRAME_LENGTH = 417;
+
+    @TempDir
+    Path dir;
+
+    private static byte[] id3v2(String title) {
+        byte[] text = title.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer frame = ByteBuffer.allocate(10 + 1 + text.length);
+        frame.put("TIT2".getBytes(StandardCharsets.ISO_8859_1));
+        frame.putInt(1 + text.length);
+        frame.putShort((short) 0);
+        frame.put((byte) 3); // UTF-8
+        frame.put(text);
+
+        int size = frame.capacity();
+        ByteBuffer tag = ByteBuffer.allocate(10 + size);
+        tag.put(new byte[]{'I', 'D', '3', 3, 0, 0});
+        tag.put((byte) ((size >> 21) & 0x7F)).put((byte) ((size >> 14) & 0x7F))
+                .put((byte) ((size >> 7) & 0x7F)).put((byte) (size & 0x7F));
+        tag.put(frame.array());
+        return tag.array();
+    }
+
+    private static byte[] frames(int count) {
+        ByteBuffer out = ByteBuffer.allocate(count * FRAME_LENGTH);
+        for (int i = 0; i < count; i++) {
+            out.putInt(i * FRAME_LENGTH, FRAME_HEADER);
+        }
+        return out.array();
+    }
+
+    private static byte[] xingFrame(int frameCount) {
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_LENGTH);
+        frame.putInt(FRAME_HEADER);
+        frame.position(4 + 32);
+        frame.put("Xing".getBytes(StandardCharsets.ISO_8859_1));
+        frame.putInt(0x1);
+        frame.putInt(frameCount);
+        return frame.array();
+    }
+
+    private Path write(String name, byte[]... parts) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] p : parts) {
+            out.write(p);
+        }
+        return Files.write(dir.resolve(name), out.toByteArray());
+    }
+
+    @Test
+    void read_shouldParseId3Title_andCountFrames() throws Exception {
+        Path file = write("a.mp3", id3v2("Jamal é"), frames(383));
+
+        Mp3Info info = Mp3Reader.read(file);
+
+        assertEquals("Jamal é", info.title());
+        assertEquals(383, info.frameCount());
+        assertEquals(44100, info.sampleRate());
+        // 383 * 1152 / 44100 s
+        assertEquals(383L * 1152 * 1000 / 44100, info.durationMs());
+    }
+
+    @Test
+    void read_shouldTrustXingHeader_whenPresent() throws Exception {
+        // Seulement 10 trames écrites, mais l'en-tête Xing annonce 10000 trames
+        Path file = write("vbr.mp3", xingFrame(10_000), frames(10));
+
+        Mp3Info info = Mp3Reader.read(file);
+
+        assertEquals(10_000, info.frameCount());
+        assertEquals(10_000L * 1152 * 1000 / 44100, info.durationMs());
+    }
+
+    @Test
+    void read_shouldIgnoreCorruptTagSizes_withoutFailing() throws Exception {
+        // ID3v2.3 avec en-tête étendu annonçant 4 Go
+        ByteBuffer extended = ByteBuffer.allocate(30);
+        extended.put(new byte[]{'I', 'D', '3', 3, 0, 0x40, 0, 0, 0, 20});
+        extended.putInt(0xFFFFFFF0);
+
+        // ID3v2.3 dont la frame TIT2 annonce ~2 Go (body + frameSize déborde un int)
+        ByteBuffer hugeFrame = ByteBuffer.allocate(30);
+        hugeFrame.put(new byte[]{'I', 'D', '3', 3, 0, 0, 0, 0, 0, 20});
+        hugeFrame.put("TIT2".getBytes(StandardCharsets.ISO_8859_1));
+        hugeFrame.putInt(0x7FFFFFF0);
+
+        for (ByteBuffer tag : new ByteBuffer[]{extended, hugeFrame}) {
+            Mp3Info info = Mp3Reader.read(write("corrupt.mp3", tag.array(), frames(50)));
+            assertNull(info.title());
+            assertEquals(50, info.frameCount());
+        }
+    }
+
+    @Test
+    void metadataService_shouldResolveUrl_andReuseCacheAfterRestart() throws Exception {
+        write("02 Jamal.mp3", id3v2("Jamal"), frames(100));
+        Path cache = dir.resolve("cache/meta.json");
+
+        TrackMetadataService service = TrackMetadataService.get();
+        service.configure(dir, cache);
+
+        TrackMetadata meta = service.lookup("http://localhost:8081/api/media/02%20Jamal.mp3");
+        assertNotNull(meta);
+        assertEquals("Jamal", meta.title());
+        assertEquals(100L * 1152 * 1000 / 44100, meta.durationMs());
+        assertTrue(Files.exists(cache));
+
+        assertNull(service.lookup("http://localhost:8081/api/media/..%2F..%2Fetc%2Fpasswd"));
+        assertNull(service.lookup("http://example.com/unknown.mp3"));
+
+        // Rechargement depuis le fichier de cache
+        service.configure(dir, cache);
+        assertEquals(meta, service.lookup("http://localhost:8081/api/media/02%20Jamal.mp3"));
+    }
+}
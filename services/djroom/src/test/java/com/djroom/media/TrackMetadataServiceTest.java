@@ -0,0 +1,63 @@
+package com.djroom.media;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrackMetadataServiceTest {
+
+    // MPEG1 Layer III, 128 kbps, 44.1 kHz : 417 octets par trame
+    private static final int FRAME_HEADER = 0xFFFB9000;
+    private static final int FRAME_LENGTH = 417;
+
+    @TempDir
+    Path dir;
+
+    private final TrackMetadataService service = TrackMetadataService.get();
+
+    @AfterEach
+    void tearDown() {
+        service.configure(Path.of("song"), null);
+    }
+
+    private void writeTrack(String name, int frames) throws Exception {
+        ByteBuffer out = ByteBuffer.allocate(frames * FRAME_LENGTH);
+        for (int i = 0; i < frames; i++) {
+            out.putInt(i * FRAME_LENGTH, FRAME_HEADER);
+        }
+        Files.write(dir.resolve(name), out.array());
+    }
+
+    @Test
+    void batch_shouldPersistCacheOnce_atTheEnd() throws Exception {
+        Path cache = dir.resolve("cache/track-metadata.json");
+        service.configure(dir, cache);
+        for (int i = 1; i <= 3; i++) {
+            writeTrack("t" + i + ".mp3", 10 * i);
+        }
+
+        service.beginBatch();
+        for (int i = 1; i <= 3; i++) {
+            assertNotNull(service.lookup("http://localhost/t" + i + ".mp3"));
+        }
+        // Aucune écriture pendant le lot
+        assertFalse(Files.exists(cache));
+        service.endBatch();
+
+        JsonNode saved = new ObjectMapper().readTree(cache.toFile());
+        assertEquals(3, saved.get("urls").size());
+        assertEquals(3, saved.get("tracks").size());
+
+        // Hors lot, une analyse persiste immédiatement
+        writeTrack("t4.mp3", 40);
+        assertNotNull(service.lookup("http://localhost/t4.mp3"));
+        assertEquals(4, new ObjectMapper().readTree(cache.toFile()).get("urls").size());
+    }
+}
@@ -0,0 +1,93 @@
+package com.djroom.snapshot;
+
+import com.djroom.actors.PlaylistActor;
+import com.djroom.models.RoomState;
+import com.framework.actors.Message;
+import org.junit.jupiter.api.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoomSnapshotAggregatorTest {
+
+    private static final String ROOM = "room-123";
+
+    // Réponses simulées par path ; absent = pas de réponse dans le délai
+    private final Map<String, Message> replies = new HashMap<>();
+
+    private final RoomSnapshotAggregator aggregator = new RoomSnapshotAggregator(
+            (path, message, timeoutMs) -> replies.containsKey(path)
+                    ? CompletableFuture.completedFuture(replies.get(path))
+                    : CompletableFuture.failedFuture(new TimeoutException()),
+            new SnapshotSettings(10, 10, 10, 10)
+    );
+
+    @BeforeEach
+    void setup() {
+        aggregator.openRoom(ROOM);
+        replies.put("djroom/" + ROOM, Message.of("ROOM_STATE",
+                new RoomState(ROOM, List.of("u1"), "u1", RoomState.RoomStatus.ACTIVE, 0, "r1")));
+        replies.put("djroom/playlist-" + ROOM, Message.of("PLAYLIST_STATE",
+                new PlaylistActor.PlaylistStateMsg(List.of(), "p1")));
+        replies.put("djactor/dj-" + ROOM, Message.of("PLAYER_STATE", Map.of("status", "PLAYING", "version", "d1")));
+        replies.put("chat-actor/chat-" + ROOM, Message.of("CHAT_STATE", Map.of("nextSeq", 4, "version", "c1")));
+    }
+
+    @Test
+    void snapshot_shouldBeCachedUntilOneSourceVersionChanges() {
+        RoomSnapshot first = aggregator.snapshot(ROOM).join();
+        assertNotNull(first.version());
+        assertEquals("u1", first.room().hostUserId());
+        assertTrue(first.sources().values().stream().allMatch(s -> s == SourceStatus.OK));
+
+        // Versions inchangées : même snapshot
+        assertSame(first, aggregator.snapshot(ROOM).join());
+
+        replies.put("chat-actor/chat-" + ROOM, Message.of("CHAT_STATE", Map.of("nextSeq", 5, "version", "c2")));
+        RoomSnapshot second = aggregator.snapshot(ROOM).join();
+        assertNotEquals(first.version(), second.version());
+    }
+
+    @Test
+    void snapshot_shouldReturnPartialResult_whenSourceTimesOut() {
+        aggregator.snapshot(ROOM).join();
+
+        replies.remove("djactor/dj-" + ROOM);
+        replies.remove("chat-actor/chat-" + ROOM);
+        replies.put("djroom/" + ROOM, Message.of("ERROR", "boom"));
+
+        // Aucune valeur connue pour une autre room : TIMEOUT
+        replies.put("djroom/other", replies.get("djroom/" + ROOM));
+        RoomSnapshot other = aggregator.snapshot("other").join();
+        assertEquals(SourceStatus.TIMEOUT, other.sources().get("player"));
+        assertNull(other.player());
+
+        RoomSnapshot partial = aggregator.snapshot(ROOM).join();
+        assertNull(partial.version());
+        assertEquals(SourceStatus.UNAVAILABLE, partial.sources().get("room"));
+        assertEquals(SourceStatus.OK, partial.sources().get("playlist"));
+        assertEquals(SourceStatus.STALE, partial.sources().get("player"));
+        assertEquals("PLAYING", ((Map<?, ?>) partial.player()).get("status"));
+    }
+
+    @Test
+    void forgetRoom_shouldDropCachedSnapshot_andLateRequestsShouldNotRecreateIt() {
+        RoomSnapshot first = aggregator.snapshot(ROOM).join();
+        assertEquals(1, aggregator.cachedRooms());
+
+        aggregator.forgetRoom(ROOM);
+        assertEquals(0, aggregator.cachedRooms());
+
+        // Plus de valeur connue : une source en retard n'a plus de STALE à resservir
+        replies.remove("djactor/dj-" + ROOM);
+        RoomSnapshot after = aggregator.snapshot(ROOM).join();
+        assertNotSame(first, after);
+        assertEquals(SourceStatus.TIMEOUT, after.sources().get("player"));
+        assertEquals(0, aggregator.cachedRooms());
+    }
+}
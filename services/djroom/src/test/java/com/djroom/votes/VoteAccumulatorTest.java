@@ -0,0 +1,66 @@
+package com.djroom.votes;
+
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VoteAccumulatorTest {
+
+    @Test
+    void add_shouldRequestFoldOnce_whenBatchReached() {
+        VoteAccumulator votes = new VoteAccumulator();
+        votes.configure(3);
+
+        assertFalse(votes.add("room-1", 1, 1));
+        assertFalse(votes.add("room-1", 1, 1));
+        assertTrue(votes.add("room-1", 2, -1));
+        // Fold déjà demandé : pas de second FOLD_VOTES
+        assertFalse(votes.add("room-1", 2, 1));
+        assertEquals(List.of(), votes.claimPendingRooms());
+
+        assertEquals(Map.of(1L, 2), votes.drain("room-1"));
+        assertEquals(Map.of(), votes.drain("room-1"));
+        assertEquals(List.of(), votes.claimPendingRooms());
+    }
+
+    @Test
+    void concurrentVotes_shouldAllBeFolded() throws Exception {
+        VoteAccumulator votes = new VoteAccumulator();
+        votes.configure(Integer.MAX_VALUE);
+
+        int threads = 8;
+        int perThread = 10_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger folded = new AtomicInteger();
+
+        for (int t = 0; t < threads; t++) {
+            long trackId = t % 2;
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    votes.add("room-1", trackId, 1);
+                }
+                return null;
+            });
+        }
+
+        start.countDown();
+        // Folds concurrents avec les votes
+        while (!pool.awaitTermination(1, TimeUnit.MILLISECONDS)) {
+            pool.shutdown();
+            votes.drain("room-1").values().forEach(folded::addAndGet);
+        }
+        votes.drain("room-1").values().forEach(folded::addAndGet);
+
+        assertEquals(threads * perThread, folded.get());
+    }
+}
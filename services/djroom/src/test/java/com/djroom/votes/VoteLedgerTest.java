@@ -0,0 +1,86 @@
+package com.djroom.votes;
+
+import org.junit.jupiter.api.*;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VoteLedgerTest {
+
+    @Test
+    void vote_shouldRejectDuplicate_andCountChangeOfMindTwice() {
+        VoteLedger ledger = new VoteLedger();
+        ledger.join("room-1", "alice");
+        ledger.join("room-1", "bob");
+
+        assertEquals(1, ledger.vote("room-1", "alice", 7, 1));
+        assertEquals(0, ledger.vote("room-1", "alice", 7, 1));
+        assertEquals(-2, ledger.vote("room-1", "alice", 7, -1));
+        assertEquals(0, ledger.vote("room-1", "alice", 7, -1));
+        assertEquals(1, ledger.vote("room-1", "bob", 7, 1));
+        assertEquals(1, ledger.vote("room-1", "alice", 8, 1));
+
+        assertEquals(Map.of(7L, -1, 8L, 1), ledger.votesOf("room-1", "alice"));
+        assertEquals(Map.of(), ledger.votesOf("room-1", "carol"));
+        assertEquals(Map.of(), ledger.votesOf("room-2", "alice"));
+
+        ledger.forgetTrack("room-1", 7);
+        assertEquals(Map.of(8L, 1), ledger.votesOf("room-1", "alice"));
+        assertEquals(1, ledger.vote("room-1", "alice", 7, 1));
+    }
+
+    @Test
+    void vote_shouldRejectUsersNotInRoom() {
+        VoteLedger ledger = new VoteLedger();
+        ledger.join("room-1", "alice");
+
+        assertThrows(IllegalStateException.class, () -> ledger.vote("room-1", "mallory", 7, 1));
+        assertThrows(IllegalStateException.class, () -> ledger.vote("room-2", "alice", 7, 1));
+        assertEquals(1, ledger.vote("room-1", "alice", 7, 1));
+
+        // Après départ : les votes passés restent, les nouveaux sont refusés
+        ledger.leave("room-1", "alice");
+        assertThrows(IllegalStateException.class, () -> ledger.vote("room-1", "alice", 8, 1));
+        assertEquals(Map.of(7L, 1), ledger.votesOf("room-1", "alice"));
+
+        ledger.join("room-1", "alice");
+        assertEquals(0, ledger.vote("room-1", "alice", 7, 1));
+    }
+
+    @Test
+    void bitmap_shouldMatchBitSet_acrossContainerConversions() {
+        CompactBitmap bitmap = new CompactBitmap();
+        BitSet expected = new BitSet();
+        Random random = new Random(42);
+
+        // Plage contiguë (membres attribués à la suite) puis valeurs dispersées sur plusieurs conteneurs
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(bitmap.add(i));
+            expected.set(i);
+        }
+        bitmap.runOptimize();
+        assertTrue(bitmap.sizeInBytes() < 100);
+
+        for (int i = 0; i < 50_000; i++) {
+            int v = random.nextInt(200_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.get(v), bitmap.remove(v));
+                expected.clear(v);
+            } else {
+                assertEquals(!expected.get(v), bitmap.add(v));
+                expected.set(v);
+            }
+            if (i % 10_000 == 0) {
+                bitmap.runOptimize();
+            }
+        }
+
+        assertEquals(expected.cardinality(), bitmap.cardinality());
+        for (int v = 0; v < 200_000; v++) {
+            assertEquals(expected.get(v), bitmap.contains(v), "value " + v);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.framework.actors.*;
 
 import java.util.*;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
 
 public final class ActorTestKit {
 
@@ -52,8 +53,13 @@ public final class ActorTestKit {
         private final ActorRef self;
         private ActorRef sender;
 
-        // Pour actorSelection()
+        // Pour actorSelection() et actorOf()
         private final Map<String, ActorRef> selections = new HashMap<>();
+        private final Map<String, ActorRef> children = new HashMap<>();
+
+        // Timers demandés (non exécutés : le test envoie lui-même les messages) et acteurs arrêtés
+        private final List<Message> timers = new ArrayList<>();
+        private final List<ActorRef> stopped = new ArrayList<>();
 
         public FakeActorContext(ActorRef self) {
             this.self = self;
@@ -67,6 +73,10 @@ public final class ActorTestKit {
             selections.put(path, ref);
         }
 
+        public void registerChild(String name, ActorRef ref) {
+            children.put(name, ref);
+        }
+
         @Override
         public void tell(ActorRef to, Message message) {
             to.tell(message, self);
@@ -77,7 +87,9 @@ public final class ActorTestKit {
 
         @Override
         public ActorRef actorOf(Class<? extends Actor> actorClass, String name) {
-            throw new UnsupportedOperationException("actorOf not needed in unit tests");
+            ActorRef ref = children.get(name);
+            if (ref == null) throw new UnsupportedOperationException("No child registered for: " + name);
+            return ref;
         }
 
         @Override
@@ -88,7 +100,26 @@ public final class ActorTestKit {
         }
 
         @Override
-        public void stop(ActorRef ref) { /* no-op */ }
+        public void stop(ActorRef ref) { stopped.add(ref); }
+
+        public List<ActorRef> stopped() { return stopped; }
+
+        @Override public void watch(ActorRef ref) { /* no-op */ }
+        @Override public void unwatch(ActorRef ref) { /* no-op */ }
+
+        @Override
+        public ScheduledFuture<?> scheduleOnce(long delayMs, Message message) {
+            timers.add(message);
+            return null;
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleAtFixedRate(long initialDelayMs, long periodMs, Message message) {
+            timers.add(message);
+            return null;
+        }
+
+        public List<Message> timers() { return timers; }
 
         @Override
         public ActorSystem system() { return null; }